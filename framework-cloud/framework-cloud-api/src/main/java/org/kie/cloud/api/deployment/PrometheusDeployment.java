@@ -16,6 +16,13 @@
 package org.kie.cloud.api.deployment;
 
 import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalDouble;
+
+import org.kie.cloud.api.deployment.prometheus.MetricSample;
+import org.kie.cloud.api.deployment.prometheus.MetricSeries;
 
 /**
  * Prometheus deployment representation in cloud.
@@ -28,4 +35,45 @@ public interface PrometheusDeployment extends Deployment {
      * @return Prometheus URL
      */
     URL getUrl();
+
+    /**
+     * Evaluate PromQL expression at the given time.
+     *
+     * @param promQl PromQL expression, see {@link org.kie.cloud.api.deployment.prometheus.PromQl} for helpers.
+     * @param time Evaluation time.
+     * @return Samples of the resulting instant vector, single sample without labels for scalar result.
+     */
+    List<MetricSample> query(String promQl, Instant time);
+
+    /**
+     * Evaluate PromQL expression at the current time.
+     *
+     * @param promQl PromQL expression.
+     * @return Samples of the resulting instant vector, single sample without labels for scalar result.
+     */
+    default List<MetricSample> query(String promQl) {
+        return query(promQl, Instant.now());
+    }
+
+    /**
+     * Evaluate PromQL expression expected to return at most one sample, for example an aggregation without grouping labels.
+     *
+     * @param promQl PromQL expression.
+     * @return Value of the first sample, empty if the result is empty.
+     */
+    default OptionalDouble queryValue(String promQl) {
+        List<MetricSample> samples = query(promQl);
+        return samples.isEmpty() ? OptionalDouble.empty() : OptionalDouble.of(samples.get(0).getValue());
+    }
+
+    /**
+     * Evaluate PromQL expression over a time range.
+     *
+     * @param promQl PromQL expression.
+     * @param start Start of the range.
+     * @param end End of the range.
+     * @param step Resolution of the result.
+     * @return Series of the resulting range vector.
+     */
+    List<MetricSeries> queryRange(String promQl, Instant start, Instant end, Duration step);
 }
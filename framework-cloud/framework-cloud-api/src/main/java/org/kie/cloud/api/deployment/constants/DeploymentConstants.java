@@ -57,6 +57,11 @@ public class DeploymentConstants implements Constants {
     public static final String TRUSTED_KEYSTORE_PWD = "trusted.keystore.pwd";
     public static final String CERTIFICATE_DIR = "certificate.dir";
 
+    /**
+     * Maximal number of idle scenarios kept deployed for reuse by tests with the same scenario fingerprint, 0 disables scenario reuse.
+     */
+    public static final String SCENARIO_POOL_SIZE = "scenario.pool.size";
+
     public static String getAppUser() {
         return System.getProperty(APP_USER);
     }
@@ -152,6 +157,10 @@ public class DeploymentConstants implements Constants {
         return System.getProperty(CERTIFICATE_DIR);
     }
 
+    public static int getScenarioPoolSize() {
+        return Integer.getInteger(SCENARIO_POOL_SIZE, 0);
+    }
+
     @Override
     public void initConfigProperties() {
         // Nothing to init here.
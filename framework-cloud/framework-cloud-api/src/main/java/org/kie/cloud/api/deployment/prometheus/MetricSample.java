@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.api.deployment.prometheus;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Single sample of an instant query result.
+ */
+public class MetricSample {
+
+    private final Map<String, String> labels;
+    private final long timestampMillis;
+    private final double value;
+
+    public MetricSample(Map<String, String> labels, long timestampMillis, double value) {
+        this.labels = Collections.unmodifiableMap(labels);
+        this.timestampMillis = timestampMillis;
+        this.value = value;
+    }
+
+    /**
+     * @return Labels of the sample, empty for scalar results.
+     */
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    public String getLabel(String name) {
+        return labels.get(name);
+    }
+
+    public Instant getTimestamp() {
+        return Instant.ofEpochMilli(timestampMillis);
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return labels + " " + value + " @" + getTimestamp();
+    }
+}
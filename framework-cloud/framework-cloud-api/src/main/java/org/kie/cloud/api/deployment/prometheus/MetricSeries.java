@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.api.deployment.prometheus;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Time series of a range query result. Timestamps and values are kept in primitive arrays, so even long series with small
+ * step are cheap to keep in memory.
+ */
+public class MetricSeries {
+
+    private final Map<String, String> labels;
+    private final long[] timestampsMillis;
+    private final double[] values;
+
+    /**
+     * @param labels Labels of the series.
+     * @param timestampsMillis Timestamps of samples in milliseconds, ordered ascending.
+     * @param values Values of samples, must have the same length as timestamps.
+     */
+    public MetricSeries(Map<String, String> labels, long[] timestampsMillis, double[] values) {
+        if (timestampsMillis.length != values.length) {
+            throw new IllegalArgumentException("Number of timestamps " + timestampsMillis.length + " differs from number of values " + values.length);
+        }
+        this.labels = Collections.unmodifiableMap(labels);
+        this.timestampsMillis = timestampsMillis;
+        this.values = values;
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    public String getLabel(String name) {
+        return labels.get(name);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public Instant getTimestamp(int index) {
+        return Instant.ofEpochMilli(timestampsMillis[index]);
+    }
+
+    public double getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * @return Copy of all values of the series.
+     */
+    public double[] getValues() {
+        return values.clone();
+    }
+
+    /**
+     * @return Maximal value of the series ignoring NaN values, NaN if there is no such value.
+     */
+    public double getMax() {
+        return Arrays.stream(values).filter(value -> !Double.isNaN(value)).max().orElse(Double.NaN);
+    }
+
+    /**
+     * @return Mean value of the series ignoring NaN values, NaN if there is no such value.
+     */
+    public double getMean() {
+        return Arrays.stream(values).filter(value -> !Double.isNaN(value)).average().orElse(Double.NaN);
+    }
+
+    @Override
+    public String toString() {
+        return labels + " " + values.length + " samples";
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.api.deployment.prometheus;
+
+import java.time.Duration;
+
+/**
+ * Helpers composing commonly used PromQL expressions.
+ */
+public class PromQl {
+
+    private PromQl() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param counter Counter metric selector, for example "kie_server_process_instance_started_total".
+     * @param window Range of the rate.
+     * @return Per second rate of the counter, for example "rate(kie_server_process_instance_started_total[1m])".
+     */
+    public static String rate(String counter, Duration window) {
+        return "rate(" + counter + "[" + toPromQlDuration(window) + "])";
+    }
+
+    /**
+     * @param expression Expression to aggregate.
+     * @param labels Labels to keep, none to sum all series together.
+     * @return Sum of the expression by the labels.
+     */
+    public static String sumBy(String expression, String... labels) {
+        return "sum by (" + String.join(", ", labels) + ") (" + expression + ")";
+    }
+
+    /**
+     * @param quantile Quantile to compute, between 0 and 1.
+     * @param histogram Histogram metric name without the "_bucket" suffix.
+     * @param window Range of the bucket rates.
+     * @param labels Labels to keep in addition to the bucket boundary, none to compute the quantile across all series.
+     * @return Quantile of the histogram observations during the window.
+     */
+    public static String histogramQuantile(double quantile, String histogram, Duration window, String... labels) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1, was " + quantile);
+        }
+        String[] bucketLabels = new String[labels.length + 1];
+        bucketLabels[0] = "le";
+        System.arraycopy(labels, 0, bucketLabels, 1, labels.length);
+        return "histogram_quantile(" + quantile + ", " + sumBy(rate(histogram + "_bucket", window), bucketLabels) + ")";
+    }
+
+    static String toPromQlDuration(Duration duration) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Duration must be positive, was " + duration);
+        }
+        long millis = duration.toMillis();
+        return millis % 1000 == 0 ? millis / 1000 + "s" : millis + "ms";
+    }
+}
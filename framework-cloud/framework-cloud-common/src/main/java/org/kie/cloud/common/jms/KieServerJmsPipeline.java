@@ -0,0 +1,375 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.common.jms;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjLongConsumer;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.kie.server.api.commands.CommandScript;
+import org.kie.server.api.jms.JMSConstants;
+import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallerFactory;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.model.ServiceResponsesList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends KIE server commands over JMS without waiting for the response of the previous command, so many requests can be in flight
+ * at once. Requests are correlated with responses asynchronously by a single consumer of the response queue, which receives only
+ * responses to requests sent by this pipeline.
+ * <p>
+ * Latency of every request is reported to listeners split into three phases:
+ * <ul>
+ * <li>{@link #SEND_LATENCY} - marshalling of the command and sending it to the broker.</li>
+ * <li>{@link #BROKER_LATENCY} - time from sending the request until its response is delivered, covers both queues and processing
+ * in the KIE server.</li>
+ * <li>{@link #RESPONSE_LATENCY} - unmarshalling of the response.</li>
+ * </ul>
+ * Requests are sent using a connection of the given connection factory kept open for the whole life of the pipeline, a session is
+ * created for every request. Use {@link PooledConnectionFactory} to reuse sessions among requests.
+ */
+public class KieServerJmsPipeline implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(KieServerJmsPipeline.class);
+
+    public static final String SEND_LATENCY = "jms.send";
+    public static final String BROKER_LATENCY = "jms.broker";
+    public static final String RESPONSE_LATENCY = "jms.response";
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 100;
+    private static final Duration DEFAULT_RESPONSE_TIMEOUT = Duration.ofMinutes(5);
+
+    private final ConnectionFactory connectionFactory;
+    private final Queue requestQueue;
+    private final Queue responseQueue;
+    private final String userName;
+    private final String password;
+    private final String correlationPrefix = UUID.randomUUID().toString();
+    private final AtomicLong requestCounter = new AtomicLong();
+    private final Map<String, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+    private final List<ObjLongConsumer<String>> latencyListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledThreadPoolExecutor timeoutScheduler = new ScheduledThreadPoolExecutor(1, new PipelineThreadFactory());
+
+    private MarshallingFormat marshallingFormat = MarshallingFormat.JSON;
+    private Set<Class<?>> extraClasses = new HashSet<>();
+    private Duration responseTimeout = DEFAULT_RESPONSE_TIMEOUT;
+    private Semaphore inFlightPermits = new Semaphore(DEFAULT_MAX_IN_FLIGHT);
+
+    private Marshaller marshaller;
+    private Connection requestConnection;
+    private Connection responseConnection;
+    private volatile boolean closed = false;
+
+    /**
+     * @param connectionFactory Connection factory used to send requests and to receive responses.
+     * @param requestQueue KIE server request queue.
+     * @param responseQueue KIE server response queue.
+     * @param userName User name used to connect to the broker and to authenticate in KIE server.
+     * @param password Password of the user.
+     */
+    public KieServerJmsPipeline(ConnectionFactory connectionFactory, Queue requestQueue, Queue responseQueue, String userName, String password) {
+        this.connectionFactory = connectionFactory;
+        this.requestQueue = requestQueue;
+        this.responseQueue = responseQueue;
+        this.userName = userName;
+        this.password = password;
+        timeoutScheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * @param marshallingFormat Format of sent commands and received responses.
+     * @param extraClasses Custom classes used in commands or responses.
+     * @return This pipeline.
+     */
+    public synchronized KieServerJmsPipeline withMarshalling(MarshallingFormat marshallingFormat, Set<Class<?>> extraClasses) {
+        checkNotStarted();
+        this.marshallingFormat = marshallingFormat;
+        this.extraClasses = new HashSet<>(extraClasses);
+        return this;
+    }
+
+    /**
+     * @param maxInFlight Maximal number of requests waiting for response, sending of further requests blocks until some response arrives.
+     * @return This pipeline.
+     */
+    public synchronized KieServerJmsPipeline withMaxInFlight(int maxInFlight) {
+        checkNotStarted();
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Maximal number of requests in flight must be at least 1, was " + maxInFlight);
+        }
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        return this;
+    }
+
+    /**
+     * @param responseTimeout Time to wait for response, request is completed with {@link TimeoutException} afterwards.
+     * @return This pipeline.
+     */
+    public synchronized KieServerJmsPipeline withResponseTimeout(Duration responseTimeout) {
+        checkNotStarted();
+        this.responseTimeout = responseTimeout;
+        return this;
+    }
+
+    /**
+     * @param listener Listener notified about latency of every phase of a request in nanoseconds, see phases defined in this class.
+     * @return This pipeline.
+     */
+    public KieServerJmsPipeline addLatencyListener(ObjLongConsumer<String> listener) {
+        latencyListeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Send the command script to KIE server, blocks only if the maximal number of requests in flight is reached.
+     *
+     * @param commandScript Commands to execute.
+     * @param containerId Id of the container the commands target, null for commands of KIE server itself.
+     * @param targetCapability KIE server capability handling the commands, for example "BPM", null for commands of KIE server itself.
+     * @return Future completed with the response of KIE server, or exceptionally if the request cannot be sent or the response
+     * doesn't arrive in time.
+     */
+    public CompletableFuture<ServiceResponsesList> send(CommandScript commandScript, String containerId, String targetCapability) {
+        Marshaller currentMarshaller = start();
+        acquirePermit();
+
+        String correlationId = correlationPrefix + "-" + requestCounter.incrementAndGet();
+        PendingRequest request = new PendingRequest();
+        request.future.whenComplete((response, error) -> inFlightPermits.release());
+        pendingRequests.put(correlationId, request);
+        // Pipeline closed meanwhile may have already failed pending requests, this one has to be failed here to release its permit
+        if (closed) {
+            if (pendingRequests.remove(correlationId, request)) {
+                request.future.completeExceptionally(new IllegalStateException("JMS pipeline was closed."));
+            }
+            return request.future;
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            String content = currentMarshaller.marshall(commandScript);
+            Session session = requestConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            try {
+                MessageProducer producer = session.createProducer(requestQueue);
+                TextMessage message = session.createTextMessage(content);
+                message.setJMSCorrelationID(correlationId);
+                message.setIntProperty(JMSConstants.SERIALIZATION_FORMAT_PROPERTY_NAME, marshallingFormat.getId());
+                message.setIntProperty(JMSConstants.INTERACTION_PATTERN_PROPERTY_NAME, JMSConstants.REQUEST_REPLY_PATTERN);
+                message.setStringProperty(JMSConstants.USER_PROPERTY_NAME, userName);
+                message.setStringProperty(JMSConstants.PASSWRD_PROPERTY_NAME, password);
+                if (targetCapability != null) {
+                    message.setStringProperty(JMSConstants.TARGET_CAPABILITY_PROPERTY_NAME, targetCapability);
+                }
+                if (containerId != null) {
+                    message.setStringProperty(JMSConstants.CONTAINER_ID_PROPERTY_NAME, containerId);
+                }
+                // Register the timestamp before sending, response may arrive before send() returns
+                request.sentNanos = System.nanoTime();
+                producer.send(message);
+            } finally {
+                session.close();
+            }
+        } catch (JMSException | RuntimeException e) {
+            pendingRequests.remove(correlationId);
+            request.future.completeExceptionally(new RuntimeException("Unable to send JMS request " + correlationId, e));
+            return request.future;
+        } finally {
+            notifyListeners(SEND_LATENCY, System.nanoTime() - startNanos);
+        }
+
+        scheduleTimeout(correlationId, request);
+        return request.future;
+    }
+
+    /**
+     * @return Number of requests waiting for response.
+     */
+    public int getRequestsInFlight() {
+        return pendingRequests.size();
+    }
+
+    /**
+     * Stop receiving responses, requests still in flight are completed exceptionally.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        timeoutScheduler.shutdownNow();
+        closeConnection(requestConnection, "request");
+        closeConnection(responseConnection, "response");
+        pendingRequests.values().forEach(request -> request.future.completeExceptionally(new IllegalStateException("JMS pipeline was closed.")));
+        pendingRequests.clear();
+        if (marshaller != null) {
+            marshaller.dispose();
+        }
+    }
+
+    private static void closeConnection(Connection connection, String purpose) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (JMSException e) {
+                logger.warn("Error while closing JMS {} connection.", purpose, e);
+            }
+        }
+    }
+
+    /**
+     * Open the request connection and start consuming responses on first request, the response consumer uses own connection as it
+     * is active for the whole life of the pipeline.
+     */
+    private synchronized Marshaller start() {
+        if (closed) {
+            throw new IllegalStateException("JMS pipeline is closed.");
+        }
+        if (marshaller != null) {
+            return marshaller;
+        }
+
+        Marshaller newMarshaller = MarshallerFactory.getMarshaller(extraClasses, marshallingFormat, getClass().getClassLoader());
+        try {
+            requestConnection = connectionFactory.createConnection(userName, password);
+            responseConnection = connectionFactory.createConnection(userName, password);
+            Session session = responseConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageConsumer consumer = session.createConsumer(responseQueue, "JMSCorrelationID LIKE '" + correlationPrefix + "-%'");
+            consumer.setMessageListener(message -> onResponse(newMarshaller, message));
+            responseConnection.start();
+        } catch (JMSException e) {
+            for (Connection connection : new Connection[] {requestConnection, responseConnection}) {
+                if (connection != null) {
+                    try {
+                        connection.close();
+                    } catch (JMSException closeException) {
+                        e.addSuppressed(closeException);
+                    }
+                }
+            }
+            requestConnection = null;
+            responseConnection = null;
+            throw new RuntimeException("Unable to start consuming KIE server responses.", e);
+        }
+        marshaller = newMarshaller;
+        return marshaller;
+    }
+
+    private void onResponse(Marshaller responseMarshaller, Message message) {
+        long receivedNanos = System.nanoTime();
+        try {
+            PendingRequest request = pendingRequests.remove(message.getJMSCorrelationID());
+            if (request == null) {
+                logger.debug("Ignoring response {} of request which already timed out.", message.getJMSCorrelationID());
+                return;
+            }
+            if (request.timeout != null) {
+                request.timeout.cancel(false);
+            }
+            notifyListeners(BROKER_LATENCY, receivedNanos - request.sentNanos);
+
+            try {
+                String content = ((TextMessage) message).getText();
+                request.future.complete(responseMarshaller.unmarshall(content, ServiceResponsesList.class));
+            } catch (Exception e) {
+                request.future.completeExceptionally(new RuntimeException("Unable to read KIE server response " + message.getJMSCorrelationID(), e));
+            } finally {
+                notifyListeners(RESPONSE_LATENCY, System.nanoTime() - receivedNanos);
+            }
+        } catch (JMSException e) {
+            logger.warn("Unable to read correlation id of KIE server response.", e);
+        }
+    }
+
+    private synchronized void scheduleTimeout(String correlationId, PendingRequest request) {
+        if (closed || request.future.isDone()) {
+            return;
+        }
+        request.timeout = timeoutScheduler.schedule(() -> {
+            if (pendingRequests.remove(correlationId, request)) {
+                request.future.completeExceptionally(new TimeoutException("No response to JMS request " + correlationId + " within " + responseTimeout));
+            }
+        }, responseTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void acquirePermit() {
+        try {
+            inFlightPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Waiting for free slot in JMS pipeline was interrupted", e);
+        }
+    }
+
+    private void notifyListeners(String phase, long latencyNanos) {
+        for (ObjLongConsumer<String> listener : latencyListeners) {
+            listener.accept(phase, latencyNanos);
+        }
+    }
+
+    private synchronized void checkNotStarted() {
+        if (marshaller != null) {
+            throw new IllegalStateException("JMS pipeline already started, configure it before sending first request.");
+        }
+    }
+
+    private static class PendingRequest {
+
+        private final CompletableFuture<ServiceResponsesList> future = new CompletableFuture<>();
+        private volatile long sentNanos;
+        private volatile ScheduledFuture<?> timeout;
+    }
+
+    private static class PipelineThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "kie-jms-pipeline-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
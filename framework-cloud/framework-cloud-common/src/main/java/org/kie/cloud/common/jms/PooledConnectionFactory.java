@@ -0,0 +1,380 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.common.jms;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.IllegalStateException;
+import javax.jms.JMSException;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connection factory sharing a few started physical connections and their sessions among all connections it creates.
+ * <p>
+ * KIE JMS client creates a new connection, session and producer for every request and closes them once the response is received,
+ * which costs several round trips to the broker per request. Connections returned by this factory are lightweight handles of a
+ * shared physical connection, starting, stopping and closing the handle doesn't affect other handles of the physical connection.
+ * Physical connection is closed once its last handle is closed, so a client reusing it across requests should keep a handle open.
+ * Non transacted auto acknowledged sessions are pooled, producers and consumers created by such session are closed when the session
+ * is returned to the pool. Sessions in other modes are created on the shared connection and closed together with their handle. All
+ * createSession variants are handled this way.
+ * <p>
+ * Physical connections are opened lazily per credentials, a new one is opened only if all existing ones are in use. Connection which
+ * reported an error to its exception listener isn't handed out anymore and is closed once its last handle is closed.
+ */
+public class PooledConnectionFactory implements ConnectionFactory, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledConnectionFactory.class);
+
+    private final ConnectionFactory targetConnectionFactory;
+    private final int maxConnections;
+    private final Map<List<String>, CredentialsPool> pools = new ConcurrentHashMap<>();
+
+    private volatile boolean closed = false;
+
+    /**
+     * @param targetConnectionFactory Connection factory opening physical connections.
+     * @param maxConnections Maximal number of physical connections opened for the same credentials.
+     */
+    public PooledConnectionFactory(ConnectionFactory targetConnectionFactory, int maxConnections) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("Maximal number of connections must be at least 1, was " + maxConnections);
+        }
+        this.targetConnectionFactory = targetConnectionFactory;
+        this.maxConnections = maxConnections;
+    }
+
+    @Override
+    public Connection createConnection() throws JMSException {
+        return createConnection(null, null);
+    }
+
+    @Override
+    public Connection createConnection(String userName, String password) throws JMSException {
+        if (closed) {
+            throw new IllegalStateException("Connection factory is closed.");
+        }
+        CredentialsPool pool = pools.computeIfAbsent(Arrays.asList(userName, password), key -> new CredentialsPool(userName, password));
+        PhysicalConnection physicalConnection = pool.acquire();
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                                                   new ConnectionHandle(physicalConnection));
+    }
+
+    /**
+     * @return Number of currently open physical connections.
+     */
+    public int getPhysicalConnections() {
+        return pools.values().stream().mapToInt(CredentialsPool::size).sum();
+    }
+
+    /**
+     * @return Number of sessions waiting in the pool for reuse.
+     */
+    public int getIdleSessions() {
+        return pools.values().stream().mapToInt(CredentialsPool::getIdleSessions).sum();
+    }
+
+    /**
+     * Close all physical connections. Connections handed out before are closed too.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        pools.values().forEach(CredentialsPool::close);
+        pools.clear();
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void closeQuietly(Object jmsObject) {
+        try {
+            if (jmsObject instanceof MessageProducer) {
+                ((MessageProducer) jmsObject).close();
+            } else if (jmsObject instanceof MessageConsumer) {
+                ((MessageConsumer) jmsObject).close();
+            } else if (jmsObject instanceof Session) {
+                ((Session) jmsObject).close();
+            } else if (jmsObject instanceof Connection) {
+                ((Connection) jmsObject).close();
+            }
+        } catch (JMSException e) {
+            logger.debug("Error while closing {}.", jmsObject, e);
+        }
+    }
+
+    private class CredentialsPool {
+
+        private final String userName;
+        private final String password;
+        private final List<PhysicalConnection> connections = new ArrayList<>();
+
+        private CredentialsPool(String userName, String password) {
+            this.userName = userName;
+            this.password = password;
+        }
+
+        private synchronized PhysicalConnection acquire() throws JMSException {
+            // Broken connection still in use is closed by its last handle
+            connections.removeIf(connection -> {
+                if (connection.broken && connection.handles.get() == 0) {
+                    connection.close();
+                }
+                return connection.broken;
+            });
+
+            PhysicalConnection leastUsed = connections.stream()
+                                                      .min(Comparator.comparingInt(connection -> connection.handles.get()))
+                                                      .orElse(null);
+            if (leastUsed == null || (leastUsed.handles.get() > 0 && connections.size() < maxConnections)) {
+                leastUsed = new PhysicalConnection(this, open());
+                connections.add(leastUsed);
+            }
+            leastUsed.handles.incrementAndGet();
+            return leastUsed;
+        }
+
+        private synchronized void release(PhysicalConnection connection) {
+            if (connection.handles.decrementAndGet() == 0) {
+                connections.remove(connection);
+                connection.close();
+            }
+        }
+
+        private Connection open() throws JMSException {
+            Connection connection = password == null ? targetConnectionFactory.createConnection()
+                                                     : targetConnectionFactory.createConnection(userName, password);
+            try {
+                connection.start();
+            } catch (JMSException e) {
+                closeQuietly(connection);
+                throw e;
+            }
+            return connection;
+        }
+
+        private synchronized int size() {
+            return connections.size();
+        }
+
+        private synchronized int getIdleSessions() {
+            return connections.stream().mapToInt(connection -> connection.idleSessions.size()).sum();
+        }
+
+        private synchronized void close() {
+            connections.forEach(PhysicalConnection::close);
+            connections.clear();
+        }
+    }
+
+    private class PhysicalConnection {
+
+        private final CredentialsPool pool;
+        private final Connection connection;
+        private final Deque<Session> idleSessions = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger handles = new AtomicInteger();
+
+        private volatile boolean broken = false;
+        private volatile boolean connectionClosed = false;
+
+        private PhysicalConnection(CredentialsPool pool, Connection connection) throws JMSException {
+            this.pool = pool;
+            this.connection = connection;
+            connection.setExceptionListener(e -> {
+                logger.warn("Pooled JMS connection failed, it will be replaced.", e);
+                broken = true;
+            });
+        }
+
+        private Session borrowSession() throws JMSException {
+            Session session = idleSessions.pollFirst();
+            return session != null ? session : connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        }
+
+        private void returnSession(Session session) {
+            if (broken || closed || connectionClosed) {
+                closeQuietly(session);
+            } else {
+                idleSessions.offerFirst(session);
+            }
+        }
+
+        private void close() {
+            connectionClosed = true;
+            idleSessions.clear();
+            closeQuietly(connection);
+        }
+    }
+
+    private class ConnectionHandle implements InvocationHandler {
+
+        private final PhysicalConnection physicalConnection;
+        private final List<SessionHandle> sessions = new ArrayList<>();
+
+        private boolean handleClosed = false;
+
+        private ConnectionHandle(PhysicalConnection physicalConnection) {
+            this.physicalConnection = physicalConnection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    close();
+                    return null;
+                case "start":
+                case "stop":
+                case "setClientID":
+                case "setExceptionListener":
+                    // Shared physical connection is always started and its identity and exception listener are owned by the pool
+                    checkOpen();
+                    return null;
+                case "createSession":
+                    checkOpen();
+                    return createSession(args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled handle of " + physicalConnection.connection;
+                default:
+                    checkOpen();
+                    return invokeTarget(physicalConnection.connection, method, args);
+            }
+        }
+
+        /**
+         * Arguments of createSession() variants are none, session mode, or transacted flag and acknowledge mode.
+         */
+        private Session createSession(Object[] args) throws JMSException {
+            if (args == null || args.length == 0) {
+                return createSession(false, Session.AUTO_ACKNOWLEDGE);
+            }
+            if (args.length == 1) {
+                int sessionMode = (Integer) args[0];
+                return createSession(sessionMode == Session.SESSION_TRANSACTED, sessionMode);
+            }
+            return createSession((Boolean) args[0], (Integer) args[1]);
+        }
+
+        private synchronized Session createSession(boolean transacted, int acknowledgeMode) throws JMSException {
+            boolean pooled = !transacted && acknowledgeMode == Session.AUTO_ACKNOWLEDGE;
+            Session session = pooled ? physicalConnection.borrowSession() : physicalConnection.connection.createSession(transacted, acknowledgeMode);
+            SessionHandle sessionHandle = new SessionHandle(physicalConnection, session, pooled);
+            sessions.add(sessionHandle);
+            return (Session) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Session.class}, sessionHandle);
+        }
+
+        private synchronized void checkOpen() throws JMSException {
+            if (handleClosed || closed) {
+                throw new IllegalStateException("Connection is closed.");
+            }
+        }
+
+        private synchronized void close() {
+            if (handleClosed) {
+                return;
+            }
+            handleClosed = true;
+            sessions.forEach(SessionHandle::release);
+            sessions.clear();
+            physicalConnection.pool.release(physicalConnection);
+        }
+    }
+
+    private static class SessionHandle implements InvocationHandler {
+
+        private final PhysicalConnection physicalConnection;
+        private final Session session;
+        private final boolean pooled;
+        private final List<Object> children = new ArrayList<>();
+
+        private boolean released = false;
+
+        private SessionHandle(PhysicalConnection physicalConnection, Session session, boolean pooled) {
+            this.physicalConnection = physicalConnection;
+            this.session = session;
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    release();
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled handle of " + session;
+                default:
+                    synchronized (this) {
+                        if (released) {
+                            throw new IllegalStateException("Session is closed.");
+                        }
+                        Object result = invokeTarget(session, method, args);
+                        if (result instanceof MessageProducer || result instanceof MessageConsumer) {
+                            children.add(result);
+                        }
+                        return result;
+                    }
+            }
+        }
+
+        private synchronized void release() {
+            if (released) {
+                return;
+            }
+            released = true;
+            children.forEach(PooledConnectionFactory::closeQuietly);
+            children.clear();
+            if (pooled) {
+                physicalConnection.returnSession(session);
+            } else {
+                closeQuietly(session);
+            }
+        }
+    }
+}
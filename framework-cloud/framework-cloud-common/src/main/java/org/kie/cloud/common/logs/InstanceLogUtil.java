@@ -15,10 +15,14 @@
 
 package org.kie.cloud.common.logs;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.util.Collection;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
-import org.apache.commons.io.FileUtils;
 import org.kie.cloud.api.deployment.Instance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,31 +35,99 @@ public class InstanceLogUtil {
     private static final String DEFAULT_LOG_OUTPUT_DIRECTORY = "instances";
     private static final String LOG_SUFFIX = ".log";
 
+    /**
+     * Format of stored logs, either "plain" for plain text files or "gzip" for gzip compressed size rotated segments with index file.
+     */
+    private static final String INSTANCES_LOGS_FORMAT = "instance.logs.format";
+    private static final String LOG_FORMAT_PLAIN = "plain";
+    private static final String LOG_FORMAT_GZIP = "gzip";
+
+    /**
+     * Maximal compressed size of one log segment in MB, used for "gzip" log format.
+     */
+    private static final String INSTANCES_LOGS_SEGMENT_SIZE = "instance.logs.segment.size";
+    private static final long DEFAULT_LOG_SEGMENT_SIZE_IN_MB = 64;
+
     public static void writeInstanceLogs(Instance instance, String customLogFolderName) {
         writeInstanceLogs(instance.getName(), customLogFolderName, instance.getLogs());
     }
 
     public static void writeInstanceLogs(String name, String customLogFolderName, String logs) {
-        File logFile = getOutputFile(name, customLogFolderName);
-        try {
-            FileUtils.write(logFile, logs, "UTF-8");
+        try (Writer writer = createInstanceLogWriter(name, customLogFolderName)) {
+            writer.write(logs);
         } catch (Exception e) {
             logger.error("Error writting instance logs", e);
         }
     }
 
-    public static void appendInstanceLogLines(String instanceName, String customLogFolderName, Collection<String> lines) {
+    /**
+     * Open writer appending to the instance log. The writer is meant to be kept open while the instance logs are streamed.
+     *
+     * @param instanceName Name of the instance.
+     * @param customLogFolderName Folder to store the log in.
+     * @return Writer appending to the instance log, caller is responsible for closing it.
+     * @throws IOException If the log cannot be opened.
+     */
+    public static Writer openInstanceLogWriter(String instanceName, String customLogFolderName) throws IOException {
+        return openInstanceLogWriter(instanceName, null, customLogFolderName);
+    }
+
+    /**
+     * Open writer appending to the log of instance container. The writer is meant to be kept open while the container logs are streamed.
+     * Writer of "gzip" log format implements {@link LogTimestampRecorder}, so timestamps of written lines can be indexed.
+     *
+     * @param instanceName Name of the instance.
+     * @param containerName Name of the container, null for log not belonging to any container.
+     * @param customLogFolderName Folder to store the log in.
+     * @return Writer appending to the container log, caller is responsible for closing it.
+     * @throws IOException If the log cannot be opened.
+     */
+    public static Writer openInstanceLogWriter(String instanceName, String containerName, String customLogFolderName) throws IOException {
+        if (isGzipLogFormat()) {
+            return new RotatingGzipLogWriter(getOutputDirectory(customLogFolderName), instanceName, containerName, getLogSegmentSizeInBytes());
+        }
+        File logFile = getOutputFile(RotatingGzipLogWriter.getLogName(instanceName, containerName), customLogFolderName);
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(logFile, true), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Create writer replacing existing instance log.
+     *
+     * @param instanceName Name of the instance.
+     * @param customLogFolderName Folder to store the log in.
+     * @return Writer of the instance log, caller is responsible for closing it.
+     * @throws IOException If the log cannot be created.
+     */
+    public static Writer createInstanceLogWriter(String instanceName, String customLogFolderName) throws IOException {
+        if (isGzipLogFormat()) {
+            RotatingGzipLogWriter.deleteLog(getOutputDirectory(customLogFolderName), instanceName);
+            return openInstanceLogWriter(instanceName, customLogFolderName);
+        }
         File logFile = getOutputFile(instanceName, customLogFolderName);
-        try {
-            FileUtils.writeLines(logFile, "UTF-8", lines, true);
-        } catch (Exception e) {
-            logger.error("Error writting instance logs", e);
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(logFile, false), StandardCharsets.UTF_8));
+    }
+
+    private static boolean isGzipLogFormat() {
+        String logFormat = System.getProperty(INSTANCES_LOGS_FORMAT, LOG_FORMAT_PLAIN);
+        if (LOG_FORMAT_GZIP.equalsIgnoreCase(logFormat)) {
+            return true;
+        } else if (!LOG_FORMAT_PLAIN.equalsIgnoreCase(logFormat)) {
+            throw new IllegalArgumentException("Unsupported instance log format '" + logFormat + "', supported formats are " + LOG_FORMAT_PLAIN + " and " + LOG_FORMAT_GZIP);
         }
+        return false;
     }
 
-    private static File getOutputFile(String instanceName, String customLogFolderName) {
+    private static long getLogSegmentSizeInBytes() {
+        return Long.getLong(INSTANCES_LOGS_SEGMENT_SIZE, DEFAULT_LOG_SEGMENT_SIZE_IN_MB) * 1024 * 1024;
+    }
+
+    private static File getOutputDirectory(String customLogFolderName) {
         File outputDirectory = new File(System.getProperty(INSTANCES_LOGS_OUTPUT_DIRECTORY, DEFAULT_LOG_OUTPUT_DIRECTORY), customLogFolderName);
         outputDirectory.mkdirs();
-        return new File(outputDirectory, instanceName + LOG_SUFFIX);
+        return outputDirectory;
+    }
+
+    private static File getOutputFile(String instanceName, String customLogFolderName) {
+        return new File(getOutputDirectory(customLogFolderName), instanceName + LOG_SUFFIX);
     }
 }
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.common.logs;
+
+import java.time.Instant;
+
+/**
+ * Log writer keeping track of timestamps of written log lines.
+ */
+public interface LogTimestampRecorder {
+
+    /**
+     * Record timestamp of the log line which is going to be written.
+     *
+     * @param timestamp Timestamp of the log line.
+     */
+    void recordTimestamp(Instant timestamp);
+}
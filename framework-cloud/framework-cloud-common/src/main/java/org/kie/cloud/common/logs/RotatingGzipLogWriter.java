@@ -0,0 +1,301 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.common.logs;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.output.CountingOutputStream;
+
+/**
+ * Writes log into gzip compressed segments named {@code <log name>-<segment number>.log.gz}.
+ * New segment is started once the compressed size of the current segment exceeds the segment size, segments are only switched at line end.
+ * Every written gzip member of a segment is recorded in {@code <log name>.index} file together with pod and container name,
+ * timestamps of its first and last log line, its byte offset and length within the segment file and offset and length
+ * of its uncompressed content within the whole log. The member can be decompressed on its own starting at its byte offset.
+ * Opening the writer for an existing log appends to its last segment until the segment size is exceeded, the appended content
+ * is stored as another gzip member of the segment.
+ */
+class RotatingGzipLogWriter extends Writer implements LogTimestampRecorder {
+
+    static final String SEGMENT_SUFFIX = ".log.gz";
+    static final String INDEX_SUFFIX = ".index";
+
+    private static final String INDEX_HEADER = "POD\tCONTAINER\tSEGMENT\tFIRST LOG\tLAST LOG\tSEGMENT OFFSET\tSEGMENT LENGTH\tLOG OFFSET\tLOG LENGTH";
+    private static final int INDEX_COLUMNS = 9;
+    // Used in index for missing container name and for members without timestamped log lines
+    private static final String NO_VALUE = "-";
+
+    private final File outputDirectory;
+    private final String podName;
+    private final String containerName;
+    private final String logName;
+    private final long segmentSizeInBytes;
+
+    private int nextSegmentNumber;
+    private long nextMemberLogOffset;
+
+    private boolean indexDamaged;
+    // Index lines without the header, kept only to rewrite damaged index
+    private final List<String> indexLines = new ArrayList<>();
+    private File resumableSegmentFile;
+
+    private File segmentFile;
+    private CountingOutputStream segmentCompressedOutput;
+    private GZIPOutputStream segmentOutput;
+    private long memberSegmentOffset;
+    private long memberLength;
+    private Instant memberFirstLog;
+    private Instant memberLastLog;
+
+    /**
+     * @param outputDirectory Directory to store the log in.
+     * @param podName Name of the pod which the log belongs to.
+     * @param containerName Name of the container which the log belongs to, null for log not belonging to any container.
+     * @param segmentSizeInBytes Compressed size of one segment.
+     */
+    RotatingGzipLogWriter(File outputDirectory, String podName, String containerName, long segmentSizeInBytes) throws IOException {
+        this.outputDirectory = outputDirectory;
+        this.podName = podName;
+        this.containerName = containerName;
+        this.logName = getLogName(podName, containerName);
+        this.segmentSizeInBytes = segmentSizeInBytes;
+        readIndex();
+    }
+
+    static String getLogName(String podName, String containerName) {
+        return containerName == null ? podName : podName + "-" + containerName;
+    }
+
+    /**
+     * Delete all segments and index of the log.
+     */
+    static void deleteLog(File outputDirectory, String logName) throws IOException {
+        Pattern segmentPattern = getSegmentPattern(logName);
+        for (File file : listFiles(outputDirectory)) {
+            if (segmentPattern.matcher(file.getName()).matches()) {
+                Files.delete(file.toPath());
+            }
+        }
+        Files.deleteIfExists(getIndexFile(outputDirectory, logName).toPath());
+    }
+
+    @Override
+    public synchronized void recordTimestamp(Instant timestamp) {
+        if (memberFirstLog == null) {
+            memberFirstLog = timestamp;
+        }
+        memberLastLog = timestamp;
+    }
+
+    @Override
+    public synchronized void write(char[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return;
+        }
+        if (segmentOutput == null) {
+            openSegment();
+        }
+        byte[] bytes = new String(buffer, offset, length).getBytes(StandardCharsets.UTF_8);
+        segmentOutput.write(bytes);
+        memberLength += bytes.length;
+        boolean lineEnded = buffer[offset + length - 1] == '\n';
+        if (lineEnded && memberSegmentOffset + segmentCompressedOutput.getByteCount() >= segmentSizeInBytes) {
+            closeSegment();
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (segmentOutput != null) {
+            segmentOutput.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeSegment();
+    }
+
+    private void openSegment() throws IOException {
+        boolean segmentResumed = resumableSegmentFile != null;
+        if (segmentResumed) {
+            segmentFile = resumableSegmentFile;
+            memberSegmentOffset = segmentFile.length();
+            resumableSegmentFile = null;
+        } else {
+            segmentFile = getSegmentFile(nextSegmentNumber);
+            memberSegmentOffset = 0;
+            nextSegmentNumber++;
+        }
+        memberLength = 0;
+        segmentCompressedOutput = new CountingOutputStream(new FileOutputStream(segmentFile, segmentResumed));
+        // Sync flush makes flushed content readable even before the segment is closed
+        segmentOutput = new GZIPOutputStream(segmentCompressedOutput, true);
+    }
+
+    private void closeSegment() throws IOException {
+        if (segmentOutput == null) {
+            return;
+        }
+        segmentOutput.close();
+        String indexLine = String.join("\t", podName, Optional.ofNullable(containerName).orElse(NO_VALUE), segmentFile.getName(),
+                                       toIndexValue(memberFirstLog), toIndexValue(memberLastLog),
+                                       String.valueOf(memberSegmentOffset), String.valueOf(segmentCompressedOutput.getByteCount()),
+                                       String.valueOf(nextMemberLogOffset), String.valueOf(memberLength));
+        indexLines.add(indexLine);
+        if (indexDamaged) {
+            rewriteIndex();
+            indexDamaged = false;
+        } else {
+            appendToIndex(indexLine);
+        }
+
+        nextMemberLogOffset += memberLength;
+        memberFirstLog = null;
+        memberLastLog = null;
+        segmentOutput = null;
+        segmentCompressedOutput = null;
+        segmentFile = null;
+    }
+
+    private void readIndex() throws IOException {
+        File indexFile = getIndexFile(outputDirectory, logName);
+        IndexEntry lastEntry = null;
+        if (indexFile.exists()) {
+            // Index of a killed run may be empty or end with incomplete line, such index is rewritten with the next segment
+            List<String> lines = Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8);
+            indexDamaged = lines.isEmpty() || !INDEX_HEADER.equals(lines.get(0));
+            Pattern segmentPattern = getSegmentPattern(logName);
+            for (String indexLine : lines) {
+                if (INDEX_HEADER.equals(indexLine)) {
+                    continue;
+                }
+                Optional<IndexEntry> entry = IndexEntry.parse(indexLine, segmentPattern);
+                if (entry.isPresent()) {
+                    indexLines.add(indexLine);
+                    lastEntry = entry.get();
+                } else {
+                    indexDamaged = true;
+                }
+            }
+        }
+        if (lastEntry != null) {
+            nextMemberLogOffset = lastEntry.logOffset + lastEntry.logLength;
+            nextSegmentNumber = lastEntry.segmentNumber + 1;
+        }
+
+        // Continue after the last existing segment, even if it wasn't indexed
+        boolean unindexedSegmentFound = false;
+        while (getSegmentFile(nextSegmentNumber).exists()) {
+            nextSegmentNumber++;
+            unindexedSegmentFound = true;
+        }
+
+        if (lastEntry != null && !unindexedSegmentFound) {
+            File lastSegmentFile = getSegmentFile(lastEntry.segmentNumber);
+            // Segment is resumed only if it ends with the last indexed member, content appended by a killed run isn't indexed
+            if (lastSegmentFile.length() == lastEntry.segmentOffset + lastEntry.segmentLength && lastSegmentFile.length() < segmentSizeInBytes) {
+                resumableSegmentFile = lastSegmentFile;
+            }
+        }
+    }
+
+    private void rewriteIndex() throws IOException {
+        File indexFile = getIndexFile(outputDirectory, logName);
+        File temporaryIndexFile = new File(outputDirectory, indexFile.getName() + ".tmp");
+        List<String> lines = new ArrayList<>();
+        lines.add(INDEX_HEADER);
+        lines.addAll(indexLines);
+        Files.write(temporaryIndexFile.toPath(), lines, StandardCharsets.UTF_8);
+        Files.move(temporaryIndexFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void appendToIndex(String indexLine) throws IOException {
+        File indexFile = getIndexFile(outputDirectory, logName);
+        List<String> lines = indexFile.exists() ? Arrays.asList(indexLine) : Arrays.asList(INDEX_HEADER, indexLine);
+        Files.write(indexFile.toPath(), lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private File getSegmentFile(int segmentNumber) {
+        return new File(outputDirectory, logName + "-" + segmentNumber + SEGMENT_SUFFIX);
+    }
+
+    private static String toIndexValue(Instant timestamp) {
+        return timestamp == null ? NO_VALUE : timestamp.toString();
+    }
+
+    private static File getIndexFile(File outputDirectory, String logName) {
+        return new File(outputDirectory, logName + INDEX_SUFFIX);
+    }
+
+    private static Pattern getSegmentPattern(String logName) {
+        return Pattern.compile(Pattern.quote(logName) + "-(\\d+)" + Pattern.quote(SEGMENT_SUFFIX));
+    }
+
+    private static List<File> listFiles(File directory) {
+        return Optional.ofNullable(directory.listFiles()).map(Arrays::asList).orElse(Collections.emptyList());
+    }
+
+    private static class IndexEntry {
+
+        private final int segmentNumber;
+        private final long segmentOffset;
+        private final long segmentLength;
+        private final long logOffset;
+        private final long logLength;
+
+        private IndexEntry(int segmentNumber, long segmentOffset, long segmentLength, long logOffset, long logLength) {
+            this.segmentNumber = segmentNumber;
+            this.segmentOffset = segmentOffset;
+            this.segmentLength = segmentLength;
+            this.logOffset = logOffset;
+            this.logLength = logLength;
+        }
+
+        private static Optional<IndexEntry> parse(String indexLine, Pattern segmentPattern) {
+            String[] columns = indexLine.split("\t");
+            if (columns.length != INDEX_COLUMNS) {
+                return Optional.empty();
+            }
+            Matcher matcher = segmentPattern.matcher(columns[2]);
+            if (!matcher.matches()) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(new IndexEntry(Integer.parseInt(matcher.group(1)), Long.parseLong(columns[5]), Long.parseLong(columns[6]),
+                                                  Long.parseLong(columns[7]), Long.parseLong(columns[8])));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.common.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.kie.server.api.model.KieServiceResponse.ResponseType;
+import org.kie.server.api.model.ServiceResponse;
+import org.kie.server.client.KieServicesClient;
+import org.kie.server.client.QueryServicesClient;
+import org.kie.server.client.UserTaskServicesClient;
+
+/**
+ * Instruments KIE clients to record metrics of every call into a Micrometer registry.
+ * <p>
+ * Instrumented client is a proxy of the client interface delegating to the original client. Following meters are recorded with tags
+ * client (client interface), operation (client method), container (container id or "none") and target (deployment serving the calls):
+ * <ul>
+ * <li>{@link #CALLS} - timer of all calls, tagged also by outcome: SUCCESS, FAILURE for calls returning failed service response
+ * and ERROR for calls throwing an exception.</li>
+ * <li>{@link #ERRORS} - counter of failed calls, tagged also by error: exception class or FAILURE.</li>
+ * <li>{@link #IN_FLIGHT} - gauge of currently running calls.</li>
+ * </ul>
+ * Services clients returned by instrumented {@link KieServicesClient} are instrumented too. By default meters are recorded into the
+ * global registry, which ignores them until some registry is added into it, for example by a test collecting the metrics.
+ * <p>
+ * Percentile histogram of {@link #CALLS} isn't published, as it adds tens of time series for every combination of tags. Registry
+ * which needs it can enable it using a meter filter, for example {@code percentilesHistogram(true)} in
+ * {@link io.micrometer.core.instrument.config.MeterFilter#configure}.
+ */
+public class KieClientMetrics {
+
+    public static final String CALLS = "kie.client.calls";
+    public static final String ERRORS = "kie.client.errors";
+    public static final String IN_FLIGHT = "kie.client.in.flight";
+
+    private static final String NONE = "none";
+    private static final String SUCCESS = "SUCCESS";
+    private static final String FAILURE = "FAILURE";
+    private static final String ERROR = "ERROR";
+
+    private static final Set<String> NOT_MEASURED_METHODS = new HashSet<>(Arrays.asList("close", "getServicesClient", "getResponseHandler",
+            "setResponseHandler", "getClassLoader", "setClassLoader", "getConversationId", "completeConversation"));
+
+    // Registry closed and dropped by its owner can be garbage collected together with its counters
+    private static final Map<MeterRegistry, Map<Tags, AtomicInteger>> IN_FLIGHT_COUNTERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private KieClientMetrics() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param client KIE server client.
+     * @param target Name of the deployment the client calls.
+     * @return Client recording metrics into the global registry, including services clients it returns.
+     */
+    public static KieServicesClient instrument(KieServicesClient client, String target) {
+        return instrument(client, KieServicesClient.class, target, Metrics.globalRegistry);
+    }
+
+    /**
+     * @param client KIE client, for example {@link org.kie.server.client.ProcessServicesClient}.
+     * @param clientInterface Interface of the client to instrument.
+     * @param target Name of the deployment the client calls.
+     * @return Client recording metrics into the global registry.
+     */
+    public static <T> T instrument(T client, Class<T> clientInterface, String target) {
+        return instrument(client, clientInterface, target, Metrics.globalRegistry);
+    }
+
+    /**
+     * @param client KIE client.
+     * @param clientInterface Interface of the client to instrument.
+     * @param target Name of the deployment the client calls.
+     * @param registry Registry to record metrics into.
+     * @return Client recording metrics into the registry. Already instrumented client is returned as is.
+     */
+    public static <T> T instrument(T client, Class<T> clientInterface, String target, MeterRegistry registry) {
+        if (client == null || (Proxy.isProxyClass(client.getClass()) && Proxy.getInvocationHandler(client) instanceof InstrumentedClient)) {
+            return client;
+        }
+        return clientInterface.cast(Proxy.newProxyInstance(clientInterface.getClassLoader(), new Class<?>[] {clientInterface},
+                                                           new InstrumentedClient(client, clientInterface, target, registry)));
+    }
+
+    /**
+     * @param url URL of a deployment route.
+     * @return Target tag of the deployment, the first label of the route host which contains name of the route and namespace.
+     */
+    public static String getTarget(URL url) {
+        String host = url.getHost();
+        int firstDot = host.indexOf('.');
+        return firstDot > 0 ? host.substring(0, firstDot) : host;
+    }
+
+    /**
+     * Most client methods take container id as the first argument, user task and query clients also provide methods searching across
+     * all containers whose first string argument is user or query name.
+     */
+    private static String getContainerId(Class<?> clientInterface, Method method, Object[] args) {
+        if (args == null || args.length == 0 || !(args[0] instanceof String)) {
+            return NONE;
+        }
+        if (clientInterface == UserTaskServicesClient.class && method.getName().startsWith("find")) {
+            return NONE;
+        }
+        if (clientInterface == QueryServicesClient.class && !method.getName().contains("ContainerId")) {
+            return NONE;
+        }
+        return (String) args[0];
+    }
+
+    private static AtomicInteger getInFlightCounter(MeterRegistry registry, Tags tags) {
+        return IN_FLIGHT_COUNTERS.computeIfAbsent(registry, key -> new ConcurrentHashMap<>())
+                                 .computeIfAbsent(tags, key -> {
+                                     AtomicInteger counter = new AtomicInteger();
+                                     Gauge.builder(IN_FLIGHT, counter, AtomicInteger::get)
+                                          .description("KIE client calls in progress")
+                                          .tags(key)
+                                          .strongReference(true)
+                                          .register(registry);
+                                     return counter;
+                                 });
+    }
+
+    private static class InstrumentedClient implements InvocationHandler {
+
+        private final Object client;
+        private final Class<?> clientInterface;
+        private final String target;
+        private final MeterRegistry registry;
+
+        private InstrumentedClient(Object client, Class<?> clientInterface, String target, MeterRegistry registry) {
+            this.client = client;
+            this.clientInterface = clientInterface;
+            this.target = target;
+            this.registry = registry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return "Instrumented " + client;
+                }
+            }
+            if (clientInterface == KieServicesClient.class && method.getName().equals("getServicesClient")) {
+                return instrumentServicesClient((Class<?>) args[0]);
+            }
+            if (NOT_MEASURED_METHODS.contains(method.getName())) {
+                return invokeClient(method, args);
+            }
+
+            Tags tags = Tags.of("client", clientInterface.getSimpleName(),
+                                "operation", method.getName(),
+                                "container", getContainerId(clientInterface, method, args),
+                                "target", target);
+            AtomicInteger inFlight = getInFlightCounter(registry, tags);
+            String outcome = SUCCESS;
+            inFlight.incrementAndGet();
+            long startNanos = System.nanoTime();
+            try {
+                Object result = invokeClient(method, args);
+                if (result instanceof ServiceResponse && ((ServiceResponse<?>) result).getType() == ResponseType.FAILURE) {
+                    outcome = FAILURE;
+                    countError(tags, FAILURE);
+                }
+                return result;
+            } catch (Throwable e) {
+                outcome = ERROR;
+                countError(tags, e.getClass().getSimpleName());
+                throw e;
+            } finally {
+                long latencyNanos = System.nanoTime() - startNanos;
+                inFlight.decrementAndGet();
+                Timer.builder(CALLS)
+                     .description("KIE client calls")
+                     .tags(tags)
+                     .tag("outcome", outcome)
+                     .register(registry)
+                     .record(latencyNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object instrumentServicesClient(Class servicesClientInterface) {
+            Object servicesClient = ((KieServicesClient) client).getServicesClient(servicesClientInterface);
+            return instrument(servicesClient, servicesClientInterface, target, registry);
+        }
+
+        private void countError(Tags tags, String error) {
+            Counter.builder(ERRORS)
+                   .description("Failed KIE client calls")
+                   .tags(tags)
+                   .tag("error", error)
+                   .register(registry)
+                   .increment();
+        }
+
+        private Object invokeClient(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(client, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
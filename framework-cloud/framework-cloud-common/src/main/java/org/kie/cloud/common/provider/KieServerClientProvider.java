@@ -17,20 +17,24 @@ package org.kie.cloud.common.provider;
 
 import java.net.URL;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
-import javax.jms.Connection;
-import javax.jms.Queue;
-import javax.jms.Session;
-
 import org.apache.activemq.ActiveMQSslConnectionFactory;
+import org.apache.activemq.command.ActiveMQQueue;
 import org.kie.cloud.api.deployment.KieServerDeployment;
 import org.kie.cloud.api.deployment.SmartRouterDeployment;
 import org.kie.cloud.api.deployment.constants.DeploymentConstants;
+import org.kie.cloud.common.jms.KieServerJmsPipeline;
+import org.kie.cloud.common.jms.PooledConnectionFactory;
+import org.kie.cloud.common.metrics.KieClientMetrics;
 import org.kie.server.api.KieServerConstants;
 import org.kie.server.api.marshalling.MarshallingFormat;
 import org.kie.server.api.model.KieContainerResource;
@@ -49,6 +53,12 @@ public class KieServerClientProvider {
 
     private static final long KIE_SERVER_TIMEOUT = 300_000L;
     private static final String DEFAULT_KIE_SERVER_PATH = "/services/rest/server";
+    private static final String KIE_SERVER_REQUEST_QUEUE = "queue/KIE.SERVER.REQUEST";
+    private static final String KIE_SERVER_RESPONSE_QUEUE = "queue/KIE.SERVER.RESPONSE";
+    private static final int MAX_JMS_CONNECTIONS = 4;
+
+    // Keyed by broker URL, credentials and trust store, as all of them are part of the physical connection
+    private static final Map<List<String>, PooledConnectionFactory> POOLED_JMS_CONNECTION_FACTORIES = new HashMap<>();
 
     public static KieServicesClient getKieServerClient(KieServerDeployment kieServerDeployment) {
         return getKieServerClient(kieServerDeployment, KIE_SERVER_TIMEOUT);
@@ -76,7 +86,18 @@ public class KieServerClientProvider {
                 kieServerDeployment.getPassword(), clientTimeout);
         configuration.addExtraClasses(extraClasses);
         KieServicesClient kieServerClient = KieServicesFactory.newKieServicesClient(configuration);
-        return kieServerClient;
+        return KieClientMetrics.instrument(kieServerClient, KieClientMetrics.getTarget(kieServerDeployment.getUrl()));
+    }
+
+    /**
+     * @param kieServerDeployment Kie server deployment.
+     * @return Client shared with other callers, see {@link KieServerClientRegistry}. The client must not be reconfigured.
+     */
+    public static KieServicesClient getCachedKieServerClient(KieServerDeployment kieServerDeployment) {
+        KieServicesClient kieServerClient = KieServerClientRegistry.getInstance().getClient(kieServerDeployment, DEFAULT_KIE_SERVER_PATH,
+                                                                                            KIE_SERVER_TIMEOUT, MarshallingFormat.JAXB,
+                                                                                            Collections.emptySet());
+        return KieClientMetrics.instrument(kieServerClient, KieClientMetrics.getTarget(kieServerDeployment.getUrl()));
     }
 
     public static KieServicesClient getKieServerJmsClient(URL amqHost) {
@@ -100,40 +121,78 @@ public class KieServerClientProvider {
     }
 
     public static KieServicesClient getKieServerJmsClient(URL amqHost, Set<Class<?>> extraClasses, long clientTimeout) throws Exception {
-        ActiveMQSslConnectionFactory connectionFactory = getJmsConnectionFactory(amqHost);
-        Queue sendQueue = null, receiveQueue = null;
-        Connection c = null;
-        try {
-            c = connectionFactory.createConnection();
-            c.start();
-            Session s = c.createSession(false, Session.AUTO_ACKNOWLEDGE);
-            sendQueue = s.createQueue("queue/KIE.SERVER.REQUEST");
-            receiveQueue = s.createQueue("queue/KIE.SERVER.RESPONSE");
-        } finally {
-            if (c != null) {
-                c.close();
-            }
-        }
-        KieServicesConfiguration kieServicesConfiguration = KieServicesFactory.newJMSConfiguration(connectionFactory, sendQueue, receiveQueue,
+        KieServicesConfiguration kieServicesConfiguration = KieServicesFactory.newJMSConfiguration(getPooledJmsConnectionFactory(amqHost),
+                new ActiveMQQueue(KIE_SERVER_REQUEST_QUEUE), new ActiveMQQueue(KIE_SERVER_RESPONSE_QUEUE),
                 DeploymentConstants.getAmqUsername(), DeploymentConstants.getAmqPassword());
         kieServicesConfiguration.setTimeout(clientTimeout);
         kieServicesConfiguration.addExtraClasses(extraClasses);
         kieServicesConfiguration.setMarshallingFormat(MarshallingFormat.JSON);
 
-        return KieServicesFactory.newKieServicesClient(kieServicesConfiguration);
+        return KieClientMetrics.instrument(KieServicesFactory.newKieServicesClient(kieServicesConfiguration), KieClientMetrics.getTarget(amqHost));
+    }
+
+    /**
+     * @param amqHost AMQ broker host.
+     * @param extraClasses Custom classes used in commands or responses.
+     * @return Pipeline sending KIE server commands without waiting for previous responses, it has to be closed once not needed.
+     */
+    public static KieServerJmsPipeline getKieServerJmsPipeline(URL amqHost, Set<Class<?>> extraClasses) {
+        return new KieServerJmsPipeline(getPooledJmsConnectionFactory(amqHost), new ActiveMQQueue(KIE_SERVER_REQUEST_QUEUE),
+                new ActiveMQQueue(KIE_SERVER_RESPONSE_QUEUE), DeploymentConstants.getAmqUsername(), DeploymentConstants.getAmqPassword())
+                .withMarshalling(MarshallingFormat.JSON, extraClasses)
+                .withResponseTimeout(Duration.ofMillis(KIE_SERVER_TIMEOUT));
+    }
+
+    /**
+     * @param amqHost AMQ broker host.
+     * @return Connection factory sharing physical connections and sessions among all JMS clients of the broker.
+     */
+    public static synchronized PooledConnectionFactory getPooledJmsConnectionFactory(URL amqHost) {
+        List<String> connectionParameters = Arrays.asList(getJmsBrokerUrl(amqHost), DeploymentConstants.getAmqUsername(),
+                DeploymentConstants.getAmqPassword(), getJmsTrustStore());
+        return POOLED_JMS_CONNECTION_FACTORIES.computeIfAbsent(connectionParameters, key -> {
+            try {
+                return new PooledConnectionFactory(getJmsConnectionFactory(amqHost), MAX_JMS_CONNECTIONS);
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to create JMS connection factory for " + amqHost.getHost(), e);
+            }
+        });
+    }
+
+    /**
+     * Close the pooled connection factory of the broker including all its connections, used once the broker is undeployed.
+     *
+     * @param amqHost AMQ broker host.
+     */
+    public static synchronized void closePooledJmsConnectionFactory(URL amqHost) {
+        String brokerUrl = getJmsBrokerUrl(amqHost);
+        POOLED_JMS_CONNECTION_FACTORIES.entrySet().removeIf(entry -> {
+            if (entry.getKey().get(0).equals(brokerUrl)) {
+                entry.getValue().close();
+                return true;
+            }
+            return false;
+        });
     }
 
     public static ActiveMQSslConnectionFactory getJmsConnectionFactory(URL amqHost) throws Exception {
-        ActiveMQSslConnectionFactory connectionFactory = new ActiveMQSslConnectionFactory(
-                "failover://(ssl://"+amqHost.getHost()+":443)?initialReconnectDelay=2000&maxReconnectAttempts=5");
+        ActiveMQSslConnectionFactory connectionFactory = new ActiveMQSslConnectionFactory(getJmsBrokerUrl(amqHost));
         connectionFactory.setUserName(DeploymentConstants.getAmqUsername());
         connectionFactory.setPassword(DeploymentConstants.getAmqPassword());
-        connectionFactory.setTrustStore(Paths.get(DeploymentConstants.getCertificateDir()+"/client.ts").toAbsolutePath().normalize().toString());
+        connectionFactory.setTrustStore(getJmsTrustStore());
         connectionFactory.setTrustStorePassword("changeit");
 
         return connectionFactory;
     }
 
+    private static String getJmsBrokerUrl(URL amqHost) {
+        return "failover://(ssl://"+amqHost.getHost()+":443)?initialReconnectDelay=2000&maxReconnectAttempts=5";
+    }
+
+    private static String getJmsTrustStore() {
+        return Paths.get(DeploymentConstants.getCertificateDir()+"/client.ts").toAbsolutePath().normalize().toString();
+    }
+
     public static KieServicesClient getSmartRouterClient(SmartRouterDeployment smartRouterDeployment, String userName, String password) {
         return getSmartRouterClient(smartRouterDeployment, userName, password, KIE_SERVER_TIMEOUT);
     }
@@ -149,46 +208,46 @@ public class KieServerClientProvider {
                 KieServerConstants.CAPABILITY_DMN);
         configuration.setCapabilities(capabilities);
         KieServicesClient kieServerClient = KieServicesFactory.newKieServicesClient(configuration);
-        return kieServerClient;
+        return KieClientMetrics.instrument(kieServerClient, KieClientMetrics.getTarget(smartRouterDeployment.getUrl()));
     }
 
     public static ProcessServicesClient getProcessClient(KieServerDeployment kieServerDeployment) {
-        return getKieServerClient(kieServerDeployment).getServicesClient(ProcessServicesClient.class);
+        return getCachedKieServerClient(kieServerDeployment).getServicesClient(ProcessServicesClient.class);
     }
     public static ProcessServicesClient getProcessJmsClient(KieServicesClient kieServerJmsClient) {
         return kieServerJmsClient.getServicesClient(ProcessServicesClient.class);
     }
 
     public static UserTaskServicesClient getTaskClient(KieServerDeployment kieServerDeployment) {
-        return getKieServerClient(kieServerDeployment).getServicesClient(UserTaskServicesClient.class);
+        return getCachedKieServerClient(kieServerDeployment).getServicesClient(UserTaskServicesClient.class);
     }
     public static UserTaskServicesClient getTaskJmsClient(KieServicesClient kieServerJmsClient) {
         return kieServerJmsClient.getServicesClient(UserTaskServicesClient.class);
     }
 
     public static QueryServicesClient getQueryClient(KieServerDeployment kieServerDeployment) {
-        return getKieServerClient(kieServerDeployment).getServicesClient(QueryServicesClient.class);
+        return getCachedKieServerClient(kieServerDeployment).getServicesClient(QueryServicesClient.class);
     }
     public static QueryServicesClient getQueryJmsClient(KieServicesClient kieServerJmsClient) {
         return kieServerJmsClient.getServicesClient(QueryServicesClient.class);
     }
 
     public static RuleServicesClient getRuleClient(KieServerDeployment kieServerDeployment) {
-        return getKieServerClient(kieServerDeployment).getServicesClient(RuleServicesClient.class);
+        return getCachedKieServerClient(kieServerDeployment).getServicesClient(RuleServicesClient.class);
     }
     public static RuleServicesClient getRuleJmsClient(KieServicesClient kieServerJmsClient) {
         return kieServerJmsClient.getServicesClient(RuleServicesClient.class);
     }
 
     public static SolverServicesClient getSolverClient(KieServerDeployment kieServerDeployment) {
-        return getKieServerClient(kieServerDeployment).getServicesClient(SolverServicesClient.class);
+        return getCachedKieServerClient(kieServerDeployment).getServicesClient(SolverServicesClient.class);
     }
     public static SolverServicesClient getSolverJmsClient(KieServicesClient kieServerJmsClient) {
         return kieServerJmsClient.getServicesClient(SolverServicesClient.class);
     }
 
     public static void waitForContainerStart(KieServerDeployment kieServerDeployment, String containerId) {
-        KieServicesClient kieServerClient = getKieServerClient(kieServerDeployment);
+        KieServicesClient kieServerClient = getCachedKieServerClient(kieServerDeployment);
 
         Instant timeoutTime = Instant.now().plusSeconds(30);
         while (Instant.now().isBefore(timeoutTime)) {
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.common.provider;
+
+import java.net.URL;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.kie.cloud.api.deployment.KieServerDeployment;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.client.KieServicesClient;
+import org.kie.server.client.KieServicesConfiguration;
+import org.kie.server.client.KieServicesFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of configured Kie server REST clients. Creating a client is expensive - it initializes marshallers and fetches server
+ * info - so one client is reused for every combination of URL, credentials, timeout, marshalling format and extra classes.
+ * Clients share HTTP connections through JDK keep-alive cache, as the Kie server client is based on HTTP URL connections.
+ * <p>
+ * Clients of a deployment are evicted once the route URL or credentials of the deployment change and when the deployment is
+ * undeployed. Client is created outside of the registry lock, concurrent callers asking for the same client wait for its
+ * creation while other clients stay available.
+ * <p>
+ * Cached clients are shared, so they must not be reconfigured by callers. Use {@link KieServerClientProvider#getKieServerClient}
+ * to get a dedicated client.
+ */
+public class KieServerClientRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(KieServerClientRegistry.class);
+
+    private static final KieServerClientRegistry INSTANCE = new KieServerClientRegistry(KieServicesFactory::newKieServicesClient);
+
+    private final Function<KieServicesConfiguration, KieServicesClient> clientFactory;
+    private final Map<ClientKey, CompletableFuture<KieServicesClient>> clients = new ConcurrentHashMap<>();
+    private final Map<KieServerDeployment, ClientKey> lastDeploymentKeys = new WeakHashMap<>();
+
+    KieServerClientRegistry(Function<KieServicesConfiguration, KieServicesClient> clientFactory) {
+        this.clientFactory = clientFactory;
+    }
+
+    public static KieServerClientRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param kieServerDeployment Kie server deployment.
+     * @param kieServerPath Path of Kie server REST API.
+     * @param clientTimeout Client timeout in milliseconds.
+     * @param marshallingFormat Marshalling format.
+     * @param extraClasses Extra classes to be handled by marshaller.
+     * @return Shared client for the deployment.
+     */
+    public KieServicesClient getClient(KieServerDeployment kieServerDeployment, String kieServerPath, long clientTimeout,
+                                       MarshallingFormat marshallingFormat, Set<Class<?>> extraClasses) {
+        ClientKey key = new ClientKey(kieServerDeployment.getUrl(), kieServerPath, kieServerDeployment.getUsername(),
+                                      kieServerDeployment.getPassword(), clientTimeout, marshallingFormat, extraClasses);
+        evictIfRouteChanged(kieServerDeployment, key);
+
+        CompletableFuture<KieServicesClient> newClient = new CompletableFuture<>();
+        CompletableFuture<KieServicesClient> client = clients.putIfAbsent(key, newClient);
+        if (client == null) {
+            try {
+                newClient.complete(createClient(key));
+            } catch (RuntimeException e) {
+                // Failed creation isn't cached, next caller tries again
+                clients.remove(key, newClient);
+                newClient.completeExceptionally(e);
+                throw e;
+            }
+            return newClient.join();
+        }
+        try {
+            return client.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Error while creating Kie server client for " + key.deploymentUrl + key.kieServerPath, e.getCause());
+        }
+    }
+
+    /**
+     * Close and remove all clients of the deployment, used once the deployment is undeployed.
+     *
+     * @param kieServerDeployment Kie server deployment.
+     */
+    public void evict(KieServerDeployment kieServerDeployment) {
+        ClientKey lastKey;
+        synchronized (lastDeploymentKeys) {
+            lastKey = lastDeploymentKeys.remove(kieServerDeployment);
+        }
+        if (lastKey != null) {
+            evict(lastKey.deploymentUrl);
+        }
+    }
+
+    /**
+     * Close and remove all clients of the deployment URL.
+     *
+     * @param deploymentUrl Route URL of the deployment.
+     */
+    public void evict(URL deploymentUrl) {
+        evict(deploymentUrl.toString());
+    }
+
+    int size() {
+        return clients.size();
+    }
+
+    private void evictIfRouteChanged(KieServerDeployment kieServerDeployment, ClientKey key) {
+        ClientKey lastKey;
+        synchronized (lastDeploymentKeys) {
+            lastKey = lastDeploymentKeys.put(kieServerDeployment, key);
+        }
+        if (lastKey != null && !lastKey.hasSameRoute(key)) {
+            logger.info("Route of Kie server deployment changed from {} to {}, evicting cached clients.", lastKey.deploymentUrl, key.deploymentUrl);
+            clients.keySet().stream()
+                            .filter(lastKey::hasSameRoute)
+                            .collect(Collectors.toList())
+                            .forEach(this::remove);
+        }
+    }
+
+    private void evict(String deploymentUrl) {
+        clients.keySet().stream()
+                        .filter(key -> key.deploymentUrl.equals(deploymentUrl))
+                        .collect(Collectors.toList())
+                        .forEach(this::remove);
+    }
+
+    private KieServicesClient createClient(ClientKey key) {
+        logger.debug("Creating Kie server client for {}.", key.deploymentUrl + key.kieServerPath);
+        KieServicesConfiguration configuration = KieServicesFactory.newRestConfiguration(key.deploymentUrl + key.kieServerPath, key.username,
+                                                                                         key.password, key.clientTimeout);
+        configuration.setMarshallingFormat(key.marshallingFormat);
+        configuration.addExtraClasses(key.extraClasses);
+        return clientFactory.apply(configuration);
+    }
+
+    /**
+     * Client still being created is closed once created.
+     */
+    private void remove(ClientKey key) {
+        CompletableFuture<KieServicesClient> client = clients.remove(key);
+        if (client != null) {
+            client.thenAccept(createdClient -> close(key, createdClient));
+        }
+    }
+
+    private static void close(ClientKey key, KieServicesClient client) {
+        try {
+            client.close();
+        } catch (Exception e) {
+            logger.warn("Error while closing Kie server client for " + key.deploymentUrl, e);
+        }
+    }
+
+    private static class ClientKey {
+
+        private final String deploymentUrl;
+        private final String kieServerPath;
+        private final String username;
+        private final String password;
+        private final long clientTimeout;
+        private final MarshallingFormat marshallingFormat;
+        private final Set<Class<?>> extraClasses;
+        private final Set<String> extraClassNames;
+
+        private ClientKey(URL deploymentUrl, String kieServerPath, String username, String password, long clientTimeout,
+                          MarshallingFormat marshallingFormat, Set<Class<?>> extraClasses) {
+            this.deploymentUrl = deploymentUrl.toString();
+            this.kieServerPath = kieServerPath;
+            this.username = username;
+            this.password = password;
+            this.clientTimeout = clientTimeout;
+            this.marshallingFormat = marshallingFormat;
+            this.extraClasses = extraClasses;
+            this.extraClassNames = extraClasses.stream().map(Class::getName).collect(Collectors.toCollection(TreeSet::new));
+        }
+
+        private boolean hasSameRoute(ClientKey other) {
+            return deploymentUrl.equals(other.deploymentUrl) && Objects.equals(username, other.username) && Objects.equals(password, other.password);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ClientKey that = (ClientKey) o;
+            return hasSameRoute(that) && kieServerPath.equals(that.kieServerPath) && clientTimeout == that.clientTimeout &&
+                   marshallingFormat == that.marshallingFormat && extraClassNames.equals(that.extraClassNames);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(deploymentUrl, kieServerPath, username, password, clientTimeout, marshallingFormat, extraClassNames);
+        }
+    }
+}
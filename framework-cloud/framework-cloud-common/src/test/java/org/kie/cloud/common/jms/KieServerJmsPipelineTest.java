@@ -0,0 +1,179 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.common.jms;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.server.api.commands.CommandScript;
+import org.kie.server.api.commands.GetServerInfoCommand;
+import org.kie.server.api.jms.JMSConstants;
+import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallerFactory;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.model.KieServiceResponse.ResponseType;
+import org.kie.server.api.model.ServiceResponse;
+import org.kie.server.api.model.ServiceResponsesList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class KieServerJmsPipelineTest {
+
+    private static final String BROKER_NAME = "kie-server-jms-pipeline-test";
+    private static final Queue REQUEST_QUEUE = new ActiveMQQueue("test.request");
+    private static final Queue RESPONSE_QUEUE = new ActiveMQQueue("test.response");
+    private static final CommandScript COMMAND = new CommandScript(Collections.singletonList(new GetServerInfoCommand()));
+
+    private BrokerService broker;
+    private PooledConnectionFactory connectionFactory;
+    private Connection kieServerConnection;
+    private KieServerJmsPipeline pipeline;
+
+    @Before
+    public void startBroker() throws Exception {
+        broker = new BrokerService();
+        broker.setBrokerName(BROKER_NAME);
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.start();
+        connectionFactory = new PooledConnectionFactory(new ActiveMQConnectionFactory("vm://" + BROKER_NAME + "?create=false"), 2);
+        pipeline = new KieServerJmsPipeline(connectionFactory, REQUEST_QUEUE, RESPONSE_QUEUE, "user", "password");
+    }
+
+    @After
+    public void stopBroker() throws Exception {
+        pipeline.close();
+        if (kieServerConnection != null) {
+            kieServerConnection.close();
+        }
+        connectionFactory.close();
+        broker.stop();
+        broker.waitUntilStopped();
+    }
+
+    @Test
+    public void responsesAreCorrelatedWithRequests() throws Exception {
+        startKieServer();
+        List<String> phases = Collections.synchronizedList(new ArrayList<>());
+        pipeline.addLatencyListener((phase, latency) -> phases.add(phase));
+
+        List<CompletableFuture<ServiceResponsesList>> responses = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            responses.add(pipeline.send(COMMAND, "container-" + i, null));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            ServiceResponse<?> response = responses.get(i).get(10, TimeUnit.SECONDS).getResponses().get(0);
+            assertThat(response.getType()).isEqualTo(ResponseType.SUCCESS);
+            assertThat(response.getMsg()).isEqualTo("container-" + i);
+        }
+        assertThat(pipeline.getRequestsInFlight()).isZero();
+        assertThat(phases).containsOnly(KieServerJmsPipeline.SEND_LATENCY, KieServerJmsPipeline.BROKER_LATENCY, KieServerJmsPipeline.RESPONSE_LATENCY)
+                          .hasSize(30);
+    }
+
+    @Test
+    public void sendingSessionsAreReused() throws Exception {
+        startKieServer();
+
+        for (int i = 0; i < 10; i++) {
+            pipeline.send(COMMAND, null, null).get(10, TimeUnit.SECONDS);
+        }
+
+        // Only the session of the last request waits in the pool, requests and response consumer keep their own connections
+        assertThat(connectionFactory.getIdleSessions()).isEqualTo(1);
+        assertThat(connectionFactory.getPhysicalConnections()).isEqualTo(2);
+
+        pipeline.close();
+        assertThat(connectionFactory.getPhysicalConnections()).isZero();
+    }
+
+    @Test
+    public void timedOutRequestReleasesItsPermit() throws Exception {
+        pipeline.withMaxInFlight(1)
+                .withResponseTimeout(Duration.ofMillis(200));
+
+        CompletableFuture<ServiceResponsesList> first = pipeline.send(COMMAND, null, null);
+        assertThatThrownBy(() -> first.get(10, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                                                                 .hasCauseInstanceOf(TimeoutException.class);
+
+        // Send doesn't block as the permit of the timed out request was released
+        CompletableFuture<ServiceResponsesList> second = CompletableFuture.supplyAsync(() -> pipeline.send(COMMAND, null, null))
+                                                                          .get(5, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> second.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(pipeline.getRequestsInFlight()).isZero();
+    }
+
+    @Test
+    public void requestsInFlightAreFailedOnClose() {
+        CompletableFuture<ServiceResponsesList> response = pipeline.send(COMMAND, null, null);
+
+        pipeline.close();
+
+        assertThatThrownBy(response::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> pipeline.send(COMMAND, null, null)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void pipelineCannotBeConfiguredOnceStarted() {
+        pipeline.send(COMMAND, null, null);
+
+        assertThatThrownBy(() -> pipeline.withResponseTimeout(Duration.ofSeconds(1))).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> pipeline.withMaxInFlight(1)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> pipeline.withMarshalling(MarshallingFormat.XSTREAM, Collections.emptySet())).isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * Replies to every request with a successful response carrying the container id of the request as a message.
+     */
+    private void startKieServer() throws JMSException {
+        Marshaller marshaller = MarshallerFactory.getMarshaller(MarshallingFormat.JSON, getClass().getClassLoader());
+        kieServerConnection = new ActiveMQConnectionFactory("vm://" + BROKER_NAME + "?create=false").createConnection();
+        Session session = kieServerConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        MessageProducer producer = session.createProducer(RESPONSE_QUEUE);
+        session.createConsumer(REQUEST_QUEUE).setMessageListener(request -> {
+            try {
+                ServiceResponse<Void> response = new ServiceResponse<>(ResponseType.SUCCESS, request.getStringProperty(JMSConstants.CONTAINER_ID_PROPERTY_NAME));
+                TextMessage message = session.createTextMessage(marshaller.marshall(new ServiceResponsesList(Collections.singletonList(response))));
+                message.setJMSCorrelationID(request.getJMSCorrelationID());
+                producer.send(message);
+            } catch (JMSException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        kieServerConnection.start();
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.common.jms;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PooledConnectionFactoryTest {
+
+    private static final String BROKER_NAME = "pooled-connection-factory-test";
+    private static final Queue QUEUE = new ActiveMQQueue("test.queue");
+
+    private BrokerService broker;
+    private PooledConnectionFactory connectionFactory;
+
+    @Before
+    public void startBroker() throws Exception {
+        broker = new BrokerService();
+        broker.setBrokerName(BROKER_NAME);
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.start();
+        connectionFactory = new PooledConnectionFactory(new ActiveMQConnectionFactory("vm://" + BROKER_NAME + "?create=false"), 2);
+    }
+
+    @After
+    public void stopBroker() throws Exception {
+        connectionFactory.close();
+        broker.stop();
+        broker.waitUntilStopped();
+    }
+
+    @Test
+    public void sessionIsReusedAfterItIsClosed() throws JMSException {
+        Connection connection = connectionFactory.createConnection();
+        Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        assertThat(connectionFactory.getIdleSessions()).isZero();
+
+        session.close();
+        assertThat(connectionFactory.getIdleSessions()).isEqualTo(1);
+
+        connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        assertThat(connectionFactory.getIdleSessions()).isZero();
+        assertThat(connectionFactory.getPhysicalConnections()).isEqualTo(1);
+        connection.close();
+    }
+
+    @Test
+    public void allCreateSessionVariantsArePooled() throws Throwable {
+        Connection connection = connectionFactory.createConnection();
+        // JMS 1.1 API lacks createSession() and createSession(int), invoke the handle the same way as JMS 2.0 proxy does
+        InvocationHandler handle = Proxy.getInvocationHandler(connection);
+        Method createSession = Connection.class.getMethod("createSession", boolean.class, int.class);
+
+        ((Session) handle.invoke(connection, createSession, null)).close();
+        ((Session) handle.invoke(connection, createSession, new Object[] {Session.AUTO_ACKNOWLEDGE})).close();
+        assertThat(connectionFactory.getIdleSessions()).isEqualTo(1);
+
+        Session transacted = (Session) handle.invoke(connection, createSession, new Object[] {Session.SESSION_TRANSACTED});
+        assertThat(transacted.getTransacted()).isTrue();
+        transacted.close();
+        assertThat(connectionFactory.getIdleSessions()).isEqualTo(1);
+        connection.close();
+    }
+
+    @Test
+    public void transactedSessionIsNotPooled() throws JMSException {
+        Connection connection = connectionFactory.createConnection();
+        connection.createSession(true, Session.SESSION_TRANSACTED);
+
+        connection.close();
+
+        assertThat(connectionFactory.getIdleSessions()).isZero();
+    }
+
+    @Test
+    public void consumersAndProducersAreClosedWhenSessionIsReturned() throws JMSException {
+        Connection connection = connectionFactory.createConnection();
+        Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        MessageConsumer consumer = session.createConsumer(QUEUE);
+        MessageProducer producer = session.createProducer(QUEUE);
+
+        session.close();
+
+        assertThatThrownBy(consumer::receiveNoWait).isInstanceOf(javax.jms.IllegalStateException.class);
+        assertThatThrownBy(producer::getDestination).isInstanceOf(javax.jms.IllegalStateException.class);
+        assertThatThrownBy(() -> session.createConsumer(QUEUE)).isInstanceOf(javax.jms.IllegalStateException.class);
+        assertThat(connectionFactory.getIdleSessions()).isEqualTo(1);
+
+        // Message is not taken by the closed consumer of the pooled session
+        Session reusedSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        reusedSession.createProducer(QUEUE).send(reusedSession.createTextMessage("message"));
+        TextMessage received = (TextMessage) reusedSession.createConsumer(QUEUE).receive(5000);
+        assertThat(received.getText()).isEqualTo("message");
+        connection.close();
+    }
+
+    @Test
+    public void physicalConnectionIsOpenedOnlyWhenAllAreInUse() throws JMSException {
+        Connection first = connectionFactory.createConnection();
+        Connection second = connectionFactory.createConnection();
+        Connection third = connectionFactory.createConnection();
+        assertThat(connectionFactory.getPhysicalConnections()).isEqualTo(2);
+
+        first.close();
+        second.close();
+        third.close();
+    }
+
+    @Test
+    public void physicalConnectionIsClosedWithItsLastHandle() throws JMSException {
+        Connection first = connectionFactory.createConnection();
+        Connection second = connectionFactory.createConnection();
+        // Maximum of physical connections reached, third handle shares a connection with the first one
+        Connection third = connectionFactory.createConnection();
+        first.createSession(false, Session.AUTO_ACKNOWLEDGE).close();
+
+        first.close();
+        assertThat(connectionFactory.getPhysicalConnections()).isEqualTo(2);
+        assertThat(connectionFactory.getIdleSessions()).isEqualTo(1);
+
+        third.close();
+        assertThat(connectionFactory.getPhysicalConnections()).isEqualTo(1);
+        assertThat(connectionFactory.getIdleSessions()).isZero();
+
+        second.close();
+        assertThat(connectionFactory.getPhysicalConnections()).isZero();
+    }
+
+    @Test
+    public void physicalConnectionsAreNotSharedAmongCredentials() throws JMSException {
+        Connection anonymous = connectionFactory.createConnection();
+        Connection authenticated = connectionFactory.createConnection("user", "password");
+
+        assertThat(connectionFactory.getPhysicalConnections()).isEqualTo(2);
+
+        anonymous.close();
+        authenticated.close();
+    }
+
+    @Test
+    public void closingHandleDoesNotCloseSharedConnection() throws JMSException {
+        Connection first = connectionFactory.createConnection();
+        Connection second = connectionFactory.createConnection();
+        // Maximum of physical connections reached, third handle shares a connection
+        Connection third = connectionFactory.createConnection();
+
+        first.close();
+        third.close();
+
+        assertThatThrownBy(() -> first.createSession(false, Session.AUTO_ACKNOWLEDGE)).isInstanceOf(javax.jms.IllegalStateException.class);
+        Session session = second.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        session.createProducer(QUEUE).send(session.createTextMessage("message"));
+        second.close();
+    }
+
+    @Test
+    public void closedFactoryRejectsConnections() throws JMSException {
+        Connection connection = connectionFactory.createConnection();
+
+        connectionFactory.close();
+
+        assertThat(connectionFactory.getPhysicalConnections()).isZero();
+        assertThatThrownBy(connectionFactory::createConnection).isInstanceOf(javax.jms.IllegalStateException.class);
+        assertThatThrownBy(() -> connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).isInstanceOf(javax.jms.IllegalStateException.class);
+    }
+}
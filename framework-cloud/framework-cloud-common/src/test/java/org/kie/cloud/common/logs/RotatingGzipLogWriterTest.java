@@ -0,0 +1,253 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.common.logs;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RotatingGzipLogWriterTest {
+
+    private static final String POD_NAME = "pod";
+    private static final String CONTAINER_NAME = "container";
+    private static final String LOG_NAME = POD_NAME + "-" + CONTAINER_NAME;
+    private static final long LARGE_SEGMENT_SIZE = 1024 * 1024;
+    // Every ended line exceeds the segment size
+    private static final long TINY_SEGMENT_SIZE = 1;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void segmentIsRotatedAtLineEndOnceSizeIsExceeded() throws IOException {
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, CONTAINER_NAME, TINY_SEGMENT_SIZE)) {
+            writer.write("first ");
+            writer.write("line\n");
+            writer.write("second line\n");
+        }
+
+        assertThat(readSegment(0)).isEqualTo("first line\n");
+        assertThat(readSegment(1)).isEqualTo("second line\n");
+        assertThat(segmentFile(2)).doesNotExist();
+        List<String> index = readIndex();
+        assertThat(index).hasSize(3);
+        assertIndexLine(index.get(1), LOG_NAME + "-0" + RotatingGzipLogWriter.SEGMENT_SUFFIX, 0, 11);
+        assertIndexLine(index.get(2), LOG_NAME + "-1" + RotatingGzipLogWriter.SEGMENT_SUFFIX, 11, 12);
+    }
+
+    @Test
+    public void reopenedWriterAppendsToLastSegment() throws IOException {
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, CONTAINER_NAME, LARGE_SEGMENT_SIZE)) {
+            writer.write("first line\n");
+        }
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, CONTAINER_NAME, LARGE_SEGMENT_SIZE)) {
+            writer.write("second line\n");
+        }
+
+        assertThat(readSegment(0)).isEqualTo("first line\nsecond line\n");
+        assertThat(segmentFile(1)).doesNotExist();
+        List<String> index = readIndex();
+        assertThat(index).hasSize(3);
+        assertIndexLine(index.get(1), LOG_NAME + "-0" + RotatingGzipLogWriter.SEGMENT_SUFFIX, 0, 11);
+        assertIndexLine(index.get(2), LOG_NAME + "-0" + RotatingGzipLogWriter.SEGMENT_SUFFIX, 11, 12);
+        // Appended member starts where the first one ends
+        assertThat(index.get(2).split("\t")[5]).isEqualTo(index.get(1).split("\t")[6]);
+    }
+
+    @Test
+    public void indexContainsPodContainerAndLogTimestamps() throws IOException {
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, CONTAINER_NAME, LARGE_SEGMENT_SIZE)) {
+            writer.recordTimestamp(Instant.parse("2021-03-04T10:15:30Z"));
+            writer.write("first line\n");
+            writer.write("line without timestamp\n");
+            writer.recordTimestamp(Instant.parse("2021-03-04T10:15:31Z"));
+            writer.write("second line\n");
+        }
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, null, LARGE_SEGMENT_SIZE)) {
+            writer.write("line without timestamp\n");
+        }
+
+        List<String> index = readIndex();
+        assertThat(index.get(0)).isEqualTo("POD\tCONTAINER\tSEGMENT\tFIRST LOG\tLAST LOG\tSEGMENT OFFSET\tSEGMENT LENGTH\tLOG OFFSET\tLOG LENGTH");
+        assertThat(index.get(1).split("\t")).startsWith(POD_NAME, CONTAINER_NAME, LOG_NAME + "-0" + RotatingGzipLogWriter.SEGMENT_SUFFIX,
+                                                           "2021-03-04T10:15:30Z", "2021-03-04T10:15:31Z");
+        assertThat(new File(folder.getRoot(), POD_NAME + RotatingGzipLogWriter.INDEX_SUFFIX))
+                .hasContent("POD\tCONTAINER\tSEGMENT\tFIRST LOG\tLAST LOG\tSEGMENT OFFSET\tSEGMENT LENGTH\tLOG OFFSET\tLOG LENGTH\n"
+                            + "pod\t-\tpod-0.log.gz\t-\t-\t0\t" + new File(folder.getRoot(), "pod-0.log.gz").length() + "\t0\t23");
+    }
+
+    @Test
+    public void memberIsReadableFromItsSegmentOffset() throws IOException {
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, CONTAINER_NAME, LARGE_SEGMENT_SIZE)) {
+            writer.write("first line\n");
+        }
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, CONTAINER_NAME, LARGE_SEGMENT_SIZE)) {
+            writer.write("second line\n");
+        }
+
+        String[] secondMember = readIndex().get(2).split("\t");
+        try (InputStream segment = new FileInputStream(segmentFile(0))) {
+            IOUtils.skipFully(segment, Long.parseLong(secondMember[5]));
+            byte[] member = IOUtils.toByteArray(segment, Long.parseLong(secondMember[6]));
+            try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(member))) {
+                assertThat(IOUtils.toString(input, StandardCharsets.UTF_8)).isEqualTo("second line\n");
+            }
+        }
+    }
+
+    @Test
+    public void segmentWithUnindexedMemberIsNotResumed() throws IOException {
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, CONTAINER_NAME, LARGE_SEGMENT_SIZE)) {
+            writer.write("first line\n");
+        }
+        // Member appended by a killed run which didn't make it into the index
+        Files.write(segmentFile(0).toPath(), new byte[]{1}, StandardOpenOption.APPEND);
+
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, CONTAINER_NAME, LARGE_SEGMENT_SIZE)) {
+            writer.write("second line\n");
+        }
+
+        assertThat(readSegment(1)).isEqualTo("second line\n");
+        List<String> index = readIndex();
+        assertThat(index).hasSize(3);
+        assertIndexLine(index.get(2), LOG_NAME + "-1" + RotatingGzipLogWriter.SEGMENT_SUFFIX, 11, 12);
+    }
+
+    @Test
+    public void reopenedWriterStartsNewSegmentAfterFullSegment() throws IOException {
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, CONTAINER_NAME, TINY_SEGMENT_SIZE)) {
+            writer.write("first line\n");
+        }
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, CONTAINER_NAME, TINY_SEGMENT_SIZE)) {
+            writer.write("second line\n");
+        }
+
+        assertThat(readSegment(0)).isEqualTo("first line\n");
+        assertThat(readSegment(1)).isEqualTo("second line\n");
+        List<String> index = readIndex();
+        assertThat(index).hasSize(3);
+        assertIndexLine(index.get(2), LOG_NAME + "-1" + RotatingGzipLogWriter.SEGMENT_SUFFIX, 11, 12);
+    }
+
+    @Test
+    public void unindexedSegmentIsNotOverwritten() throws IOException {
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, CONTAINER_NAME, LARGE_SEGMENT_SIZE)) {
+            writer.write("first line\n");
+        }
+        // Segment of a killed run which didn't make it into the index
+        Files.write(segmentFile(1).toPath(), new byte[0]);
+
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, CONTAINER_NAME, LARGE_SEGMENT_SIZE)) {
+            writer.write("second line\n");
+        }
+
+        assertThat(readSegment(0)).isEqualTo("first line\n");
+        assertThat(segmentFile(1)).hasContent("");
+        assertThat(readSegment(2)).isEqualTo("second line\n");
+        List<String> index = readIndex();
+        assertThat(index).hasSize(3);
+        assertIndexLine(index.get(2), LOG_NAME + "-2" + RotatingGzipLogWriter.SEGMENT_SUFFIX, 11, 12);
+    }
+
+    @Test
+    public void emptyIndexIsRewritten() throws IOException {
+        Files.write(indexFile().toPath(), new byte[0]);
+
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, CONTAINER_NAME, LARGE_SEGMENT_SIZE)) {
+            writer.write("first line\n");
+        }
+
+        List<String> index = readIndex();
+        assertThat(index).hasSize(2);
+        assertIndexLine(index.get(1), LOG_NAME + "-0" + RotatingGzipLogWriter.SEGMENT_SUFFIX, 0, 11);
+    }
+
+    @Test
+    public void incompleteIndexLineIsDropped() throws IOException {
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, CONTAINER_NAME, TINY_SEGMENT_SIZE)) {
+            writer.write("first line\n");
+        }
+        Files.write(indexFile().toPath(), Arrays.asList(POD_NAME + "\t" + CONTAINER_NAME + "\t" + LOG_NAME + "-1"), StandardCharsets.UTF_8,
+                    StandardOpenOption.APPEND);
+
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, CONTAINER_NAME, TINY_SEGMENT_SIZE)) {
+            writer.write("second line\n");
+        }
+
+        List<String> index = readIndex();
+        assertThat(index).hasSize(3);
+        assertIndexLine(index.get(1), LOG_NAME + "-0" + RotatingGzipLogWriter.SEGMENT_SUFFIX, 0, 11);
+        assertIndexLine(index.get(2), LOG_NAME + "-1" + RotatingGzipLogWriter.SEGMENT_SUFFIX, 11, 12);
+    }
+
+    @Test
+    public void deleteLogRemovesSegmentsAndIndex() throws IOException {
+        try (RotatingGzipLogWriter writer = new RotatingGzipLogWriter(folder.getRoot(), POD_NAME, CONTAINER_NAME, TINY_SEGMENT_SIZE)) {
+            writer.write("first line\n");
+            writer.write("second line\n");
+        }
+        File otherLog = folder.newFile("other-container" + RotatingGzipLogWriter.SEGMENT_SUFFIX);
+
+        RotatingGzipLogWriter.deleteLog(folder.getRoot(), LOG_NAME);
+
+        assertThat(folder.getRoot().listFiles()).containsOnly(otherLog);
+    }
+
+    private void assertIndexLine(String indexLine, String segmentName, long offset, long length) {
+        String[] columns = indexLine.split("\t");
+        assertThat(columns).hasSize(9);
+        assertThat(columns[0]).isEqualTo(POD_NAME);
+        assertThat(columns[1]).isEqualTo(CONTAINER_NAME);
+        assertThat(columns[2]).isEqualTo(segmentName);
+        assertThat(columns[7]).isEqualTo(String.valueOf(offset));
+        assertThat(columns[8]).isEqualTo(String.valueOf(length));
+    }
+
+    private String readSegment(int segmentNumber) throws IOException {
+        // Reads all gzip members of the segment
+        try (InputStream input = new GZIPInputStream(new FileInputStream(segmentFile(segmentNumber)))) {
+            return IOUtils.toString(input, StandardCharsets.UTF_8);
+        }
+    }
+
+    private List<String> readIndex() throws IOException {
+        return Files.readAllLines(indexFile().toPath(), StandardCharsets.UTF_8);
+    }
+
+    private File segmentFile(int segmentNumber) {
+        return new File(folder.getRoot(), LOG_NAME + "-" + segmentNumber + RotatingGzipLogWriter.SEGMENT_SUFFIX);
+    }
+
+    private File indexFile() {
+        return new File(folder.getRoot(), LOG_NAME + RotatingGzipLogWriter.INDEX_SUFFIX);
+    }
+}
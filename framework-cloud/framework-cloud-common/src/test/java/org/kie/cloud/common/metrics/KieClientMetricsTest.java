@@ -0,0 +1,185 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.common.metrics;
+
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.server.api.model.KieContainerResource;
+import org.kie.server.api.model.KieServerInfo;
+import org.kie.server.api.model.KieServiceResponse.ResponseType;
+import org.kie.server.api.model.ServiceResponse;
+import org.kie.server.client.KieServicesClient;
+import org.kie.server.client.ProcessServicesClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class KieClientMetricsTest {
+
+    private static final String TARGET = "kie-server-test";
+    private static final String CONTAINER_ID = "container";
+    private static final String PROCESS_ID = "process";
+
+    private MeterRegistry registry;
+    private KieServicesClient client;
+    private ProcessServicesClient processClient;
+
+    @Before
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        client = mock(KieServicesClient.class);
+        processClient = mock(ProcessServicesClient.class);
+        when(client.getServicesClient(ProcessServicesClient.class)).thenReturn(processClient);
+    }
+
+    @After
+    public void closeRegistry() {
+        registry.close();
+    }
+
+    @Test
+    public void successfulCallIsTimed() {
+        when(client.getContainerInfo(CONTAINER_ID)).thenReturn(new ServiceResponse<>(ResponseType.SUCCESS, "OK"));
+
+        instrument().getContainerInfo(CONTAINER_ID);
+
+        Timer timer = registry.get(KieClientMetrics.CALLS)
+                              .tag("client", "KieServicesClient")
+                              .tag("operation", "getContainerInfo")
+                              .tag("container", CONTAINER_ID)
+                              .tag("target", TARGET)
+                              .tag("outcome", "SUCCESS")
+                              .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(registry.find(KieClientMetrics.ERRORS).counters()).isEmpty();
+    }
+
+    @Test
+    public void callWithoutContainerIsTaggedWithNone() {
+        when(client.getServerInfo()).thenReturn(new ServiceResponse<KieServerInfo>(ResponseType.SUCCESS, "OK"));
+
+        instrument().getServerInfo();
+
+        assertThat(registry.get(KieClientMetrics.CALLS).tag("operation", "getServerInfo").tag("container", "none").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void failedServiceResponseIsCountedAsFailure() {
+        when(client.getContainerInfo(CONTAINER_ID)).thenReturn(new ServiceResponse<KieContainerResource>(ResponseType.FAILURE, "Not found"));
+
+        ServiceResponse<KieContainerResource> response = instrument().getContainerInfo(CONTAINER_ID);
+
+        assertThat(response.getType()).isEqualTo(ResponseType.FAILURE);
+        assertThat(registry.get(KieClientMetrics.CALLS).tag("outcome", "FAILURE").timer().count()).isEqualTo(1);
+        Counter errors = registry.get(KieClientMetrics.ERRORS)
+                                 .tag("operation", "getContainerInfo")
+                                 .tag("container", CONTAINER_ID)
+                                 .tag("error", "FAILURE")
+                                 .counter();
+        assertThat(errors.count()).isEqualTo(1);
+    }
+
+    @Test
+    public void thrownExceptionIsCountedAsError() {
+        when(client.getContainerInfo(CONTAINER_ID)).thenThrow(new IllegalStateException("Connection refused"));
+
+        assertThatThrownBy(() -> instrument().getContainerInfo(CONTAINER_ID)).isInstanceOf(IllegalStateException.class)
+                                                                               .hasMessage("Connection refused");
+
+        assertThat(registry.get(KieClientMetrics.CALLS).tag("outcome", "ERROR").timer().count()).isEqualTo(1);
+        assertThat(registry.get(KieClientMetrics.ERRORS).tag("error", "IllegalStateException").counter().count()).isEqualTo(1);
+        assertThat(registry.find(KieClientMetrics.ERRORS).tag("error", "FAILURE").counter()).isNull();
+    }
+
+    @Test
+    public void inFlightGaugeCountsRunningCalls() {
+        AtomicReference<Double> inFlightDuringCall = new AtomicReference<>();
+        when(processClient.startProcess(CONTAINER_ID, PROCESS_ID)).thenAnswer(invocation -> {
+            inFlightDuringCall.set(inFlightGauge().value());
+            return 1L;
+        });
+
+        instrument().getServicesClient(ProcessServicesClient.class).startProcess(CONTAINER_ID, PROCESS_ID);
+
+        assertThat(inFlightDuringCall.get()).isEqualTo(1.0);
+        assertThat(inFlightGauge().value()).isEqualTo(0.0);
+    }
+
+    @Test
+    public void servicesClientIsInstrumented() {
+        when(processClient.startProcess(CONTAINER_ID, PROCESS_ID)).thenReturn(1L);
+
+        ProcessServicesClient instrumentedProcessClient = instrument().getServicesClient(ProcessServicesClient.class);
+        Long processInstanceId = instrumentedProcessClient.startProcess(CONTAINER_ID, PROCESS_ID);
+
+        assertThat(processInstanceId).isEqualTo(1L);
+        assertThat(instrumentedProcessClient).isNotSameAs(processClient);
+        assertThat(registry.get(KieClientMetrics.CALLS)
+                           .tag("client", "ProcessServicesClient")
+                           .tag("operation", "startProcess")
+                           .tag("container", CONTAINER_ID)
+                           .tag("target", TARGET)
+                           .timer().count()).isEqualTo(1);
+        // Getting the services client itself isn't measured
+        assertThat(registry.find(KieClientMetrics.CALLS).tag("operation", "getServicesClient").timer()).isNull();
+    }
+
+    @Test
+    public void instrumentedClientIsNotInstrumentedAgain() {
+        KieServicesClient instrumentedClient = instrument();
+
+        assertThat(KieClientMetrics.instrument(instrumentedClient, KieServicesClient.class, TARGET, registry)).isSameAs(instrumentedClient);
+    }
+
+    @Test
+    public void percentileHistogramIsNotPublishedByDefault() {
+        when(client.getContainerInfo(CONTAINER_ID)).thenReturn(new ServiceResponse<>(ResponseType.SUCCESS, "OK"));
+
+        instrument().getContainerInfo(CONTAINER_ID);
+
+        assertThat(registry.get(KieClientMetrics.CALLS).timer().takeSnapshot().histogramCounts()).isEmpty();
+    }
+
+    @Test
+    public void targetIsFirstLabelOfRouteHost() throws Exception {
+        assertThat(KieClientMetrics.getTarget(new URL("http://kie-server-test.apps.example.com/services"))).isEqualTo(TARGET);
+        assertThat(KieClientMetrics.getTarget(new URL("http://localhost:8080"))).isEqualTo("localhost");
+    }
+
+    private KieServicesClient instrument() {
+        return KieClientMetrics.instrument(client, KieServicesClient.class, TARGET, registry);
+    }
+
+    private Gauge inFlightGauge() {
+        return registry.get(KieClientMetrics.IN_FLIGHT)
+                       .tag("client", "ProcessServicesClient")
+                       .tag("operation", "startProcess")
+                       .tag("container", CONTAINER_ID)
+                       .tag("target", TARGET)
+                       .gauge();
+    }
+}
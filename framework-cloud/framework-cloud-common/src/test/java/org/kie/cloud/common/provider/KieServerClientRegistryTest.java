@@ -0,0 +1,184 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.common.provider;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.kie.cloud.api.deployment.KieServerDeployment;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.client.KieServicesClient;
+import org.kie.server.client.KieServicesConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class KieServerClientRegistryTest {
+
+    private static final String KIE_SERVER_PATH = "/services/rest/server";
+
+    private AtomicInteger createdClients = new AtomicInteger();
+
+    private KieServerClientRegistry registry = new KieServerClientRegistry(configuration -> {
+        createdClients.incrementAndGet();
+        return mock(KieServicesClient.class);
+    });
+
+    @Test
+    public void clientIsSharedForSameConfiguration() throws Exception {
+        KieServerDeployment deployment = deployment("http://kie-server-one", "user");
+
+        KieServicesClient client = getClient(deployment, 1000);
+
+        assertThat(getClient(deployment, 1000)).isSameAs(client);
+        assertThat(getClient(deployment, 2000)).isNotSameAs(client);
+        assertThat(createdClients).hasValue(2);
+        assertThat(registry.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void clientsAreEvictedOnRouteChange() throws Exception {
+        KieServerDeployment deployment = deployment("http://kie-server-one", "user");
+        KieServicesClient client = getClient(deployment, 1000);
+
+        when(deployment.getUsername()).thenReturn("other-user");
+        KieServicesClient newClient = getClient(deployment, 1000);
+
+        assertThat(newClient).isNotSameAs(client);
+        verify(client).close();
+        assertThat(registry.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void clientsOfUndeployedDeploymentAreEvicted() throws Exception {
+        KieServerDeployment deployment = deployment("http://kie-server-one", "user");
+        KieServerDeployment otherDeployment = deployment("http://kie-server-two", "user");
+        KieServicesClient client = getClient(deployment, 1000);
+        KieServicesClient otherClient = getClient(otherDeployment, 1000);
+
+        registry.evict(deployment);
+
+        verify(client).close();
+        verify(otherClient, never()).close();
+        assertThat(registry.size()).isEqualTo(1);
+        assertThat(getClient(otherDeployment, 1000)).isSameAs(otherClient);
+    }
+
+    @Test
+    public void clientsOfUrlAreEvicted() throws Exception {
+        KieServerDeployment deployment = deployment("http://kie-server-one", "user");
+        KieServicesClient client = getClient(deployment, 1000);
+
+        registry.evict(new URL("http://kie-server-one"));
+
+        verify(client).close();
+        assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    public void slowCreationDoesNotBlockOtherClients() throws Exception {
+        CountDownLatch creationAllowed = new CountDownLatch(1);
+        KieServerClientRegistry registry = new KieServerClientRegistry(configuration -> {
+            if (configuration.getServerUrl().startsWith("http://slow")) {
+                await(creationAllowed);
+            }
+            createdClients.incrementAndGet();
+            return mock(KieServicesClient.class);
+        });
+        KieServerDeployment slowDeployment = deployment("http://slow", "user");
+
+        CompletableFuture<KieServicesClient> slowClient = CompletableFuture.supplyAsync(() -> getClient(registry, slowDeployment));
+        CompletableFuture<KieServicesClient> sameSlowClient = CompletableFuture.supplyAsync(() -> getClient(registry, slowDeployment));
+        KieServicesClient fastClient = getClient(registry, deployment("http://fast", "user"));
+
+        assertThat(fastClient).isNotNull();
+        assertThat(slowClient).isNotDone();
+        creationAllowed.countDown();
+        assertThat(slowClient.get(10, TimeUnit.SECONDS)).isSameAs(sameSlowClient.get(10, TimeUnit.SECONDS));
+        assertThat(createdClients).hasValue(2);
+    }
+
+    @Test
+    public void failedCreationIsNotCached() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        KieServerClientRegistry registry = new KieServerClientRegistry(configuration -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("Kie server unavailable");
+            }
+            return mock(KieServicesClient.class);
+        });
+        KieServerDeployment deployment = deployment("http://kie-server-one", "user");
+
+        assertThatThrownBy(() -> getClient(registry, deployment)).isInstanceOf(IllegalStateException.class)
+                                                                  .hasMessage("Kie server unavailable");
+        assertThat(registry.size()).isZero();
+
+        assertThat(getClient(registry, deployment)).isNotNull();
+        assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    public void clientIsCreatedFromKey() throws Exception {
+        KieServicesConfiguration[] configuration = new KieServicesConfiguration[1];
+        KieServerClientRegistry registry = new KieServerClientRegistry(createdConfiguration -> {
+            configuration[0] = createdConfiguration;
+            return mock(KieServicesClient.class);
+        });
+
+        registry.getClient(deployment("http://kie-server-one", "user"), KIE_SERVER_PATH, 1000, MarshallingFormat.JSON,
+                           Collections.singleton(String.class));
+
+        assertThat(configuration[0].getServerUrl()).isEqualTo("http://kie-server-one" + KIE_SERVER_PATH);
+        assertThat(configuration[0].getUserName()).isEqualTo("user");
+        assertThat(configuration[0].getTimeout()).isEqualTo(1000);
+        assertThat(configuration[0].getMarshallingFormat()).isEqualTo(MarshallingFormat.JSON);
+        assertThat(configuration[0].getExtraClasses()).contains(String.class);
+    }
+
+    private KieServicesClient getClient(KieServerDeployment deployment, long timeout) {
+        return registry.getClient(deployment, KIE_SERVER_PATH, timeout, MarshallingFormat.JSON, Collections.emptySet());
+    }
+
+    private static KieServicesClient getClient(KieServerClientRegistry registry, KieServerDeployment deployment) {
+        return registry.getClient(deployment, KIE_SERVER_PATH, 1000, MarshallingFormat.JSON, Collections.emptySet());
+    }
+
+    private static KieServerDeployment deployment(String url, String username) throws Exception {
+        KieServerDeployment deployment = mock(KieServerDeployment.class);
+        when(deployment.getUrl()).thenReturn(new URL(url));
+        when(deployment.getUsername()).thenReturn(username);
+        when(deployment.getPassword()).thenReturn("password");
+        return deployment;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
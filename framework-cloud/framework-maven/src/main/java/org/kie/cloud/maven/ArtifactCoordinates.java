@@ -0,0 +1,159 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.maven;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+/**
+ * Maven coordinates of the main artifact of a project.
+ */
+class ArtifactCoordinates {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactCoordinates.class);
+
+    private static final String SNAPSHOT_SUFFIX = "-SNAPSHOT";
+
+    private final String groupId;
+    private final String artifactId;
+    private final String version;
+
+    ArtifactCoordinates(String groupId, String artifactId, String version) {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+    }
+
+    /**
+     * Read coordinates of a project producing a single jar artifact.
+     *
+     * @param pomFile Project pom.xml.
+     * @return Coordinates of the project, empty if the project is an aggregator, the coordinates use properties or the pom cannot be parsed.
+     */
+    static Optional<ArtifactCoordinates> fromPom(Path pomFile) {
+        if (!Files.isRegularFile(pomFile)) {
+            return Optional.empty();
+        }
+        try (InputStream in = Files.newInputStream(pomFile)) {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            Document pom = factory.newDocumentBuilder().parse(in);
+            Element project = pom.getDocumentElement();
+
+            String packaging = getChildText(project, "packaging").orElse("jar");
+            if ("pom".equals(packaging) || getChild(project, "modules").isPresent()) {
+                return Optional.empty();
+            }
+            Optional<Element> parent = getChild(project, "parent");
+            String groupId = getChildText(project, "groupId").orElseGet(() -> parent.flatMap(p -> getChildText(p, "groupId")).orElse(null));
+            String artifactId = getChildText(project, "artifactId").orElse(null);
+            String version = getChildText(project, "version").orElseGet(() -> parent.flatMap(p -> getChildText(p, "version")).orElse(null));
+            if (!isLiteral(groupId) || !isLiteral(artifactId) || !isLiteral(version)) {
+                return Optional.empty();
+            }
+            return Optional.of(new ArtifactCoordinates(groupId, artifactId, version));
+        } catch (SAXException e) {
+            logger.warn("Cannot parse Maven project {}, its coordinates are unknown.", pomFile, e);
+            return Optional.empty();
+        } catch (IOException | ParserConfigurationException e) {
+            throw new RuntimeException("Error while reading Maven project " + pomFile, e);
+        }
+    }
+
+    String getGroupId() {
+        return groupId;
+    }
+
+    String getArtifactId() {
+        return artifactId;
+    }
+
+    String getVersion() {
+        return version;
+    }
+
+    boolean isSnapshot() {
+        return version.endsWith(SNAPSHOT_SUFFIX);
+    }
+
+    /**
+     * @return Path of the artifact version folder relative to repository root.
+     */
+    String getRepositoryPath() {
+        return groupId.replace('.', '/') + "/" + artifactId + "/" + version;
+    }
+
+    /**
+     * @return Default file name of the jar built by Maven.
+     */
+    String getJarFileName() {
+        return artifactId + "-" + version + ".jar";
+    }
+
+    @Override
+    public String toString() {
+        return groupId + ":" + artifactId + ":" + version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ArtifactCoordinates that = (ArtifactCoordinates) o;
+        return groupId.equals(that.groupId) && artifactId.equals(that.artifactId) && version.equals(that.version);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(groupId, artifactId, version);
+    }
+
+    private static boolean isLiteral(String value) {
+        return value != null && !value.isEmpty() && !value.contains("${");
+    }
+
+    private static Optional<Element> getChild(Element element, String name) {
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element && name.equals(child.getNodeName())) {
+                return Optional.of((Element) child);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<String> getChildText(Element element, String name) {
+        return getChild(element, name).map(child -> child.getTextContent().trim());
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.maven;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of built kjars keyed by content of the project sources and Maven settings. Once a project is built, its jar and pom
+ * are stored in the cache, so the project doesn't have to be compiled again until its sources or settings change.
+ * <p>
+ * Cache entries are written to a temporary folder and moved to their final location at once, so the cache can be shared by
+ * concurrently running test JVMs.
+ * <p>
+ * Cache is disabled unless enabled by the {@value #CACHE_ENABLED_KEY} property.
+ */
+class KjarBuildCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(KjarBuildCache.class);
+
+    /**
+     * Set to "true" to reuse kjars built before, kjars are always built from sources by default.
+     */
+    static final String CACHE_ENABLED_KEY = "kjars.build.cache";
+    /**
+     * Folder with cached kjars, defaults to "kjars-build-cache" folder in temporary directory.
+     */
+    static final String CACHE_DIR_KEY = "kjars.build.cache.dir";
+
+    private static final String DEFAULT_CACHE_DIR_NAME = "kjars-build-cache";
+    private static final String TARGET_FOLDER = "target";
+    private static final String JAR_FILE = "artifact.jar";
+    private static final String POM_FILE = "artifact.pom";
+    private static final String SHA1_FILE = "artifact.jar.sha1";
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final KjarBuildCache INSTANCE = new KjarBuildCache(getCacheDir());
+
+    private final Path cacheDir;
+    private final Map<String, Object> keyLocks = new ConcurrentHashMap<>();
+
+    KjarBuildCache(Path cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * @return Shared cache, empty if the cache is disabled.
+     */
+    static Optional<KjarBuildCache> getInstance() {
+        return Boolean.parseBoolean(System.getProperty(CACHE_ENABLED_KEY, "false")) ? Optional.of(INSTANCE) : Optional.empty();
+    }
+
+    /**
+     * Compute cache key of a project. Build output in the target folder is ignored.
+     *
+     * @param basedir Project folder.
+     * @param settingsXml Maven settings used for the build, if any.
+     * @return Hex encoded SHA-256 hash of all project files and the settings.
+     */
+    static String computeKey(Path basedir, Optional<Path> settingsXml) {
+        MessageDigest digest = newDigest("SHA-256");
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(basedir)) {
+            files = walk.filter(Files::isRegularFile)
+                        .filter(file -> !basedir.relativize(file).startsWith(TARGET_FOLDER))
+                        .sorted()
+                        .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while reading project sources in " + basedir, e);
+        }
+        for (Path file : files) {
+            // Path separators are normalized so the key doesn't depend on the platform
+            digest.update(basedir.relativize(file).toString().replace('\\', '/').getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            update(digest, file);
+            digest.update((byte) 0);
+        }
+        settingsXml.ifPresent(settings -> update(digest, settings));
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @param key Cache key.
+     * @return Lock guarding build of the key within this JVM.
+     */
+    Object getLock(String key) {
+        return keyLocks.computeIfAbsent(key, k -> new Object());
+    }
+
+    /**
+     * @param key Cache key.
+     * @return Cached kjar, empty if the key isn't cached.
+     */
+    Optional<CachedKjar> get(String key) {
+        Path entry = cacheDir.resolve(key);
+        Path jar = entry.resolve(JAR_FILE);
+        Path pom = entry.resolve(POM_FILE);
+        Path sha1 = entry.resolve(SHA1_FILE);
+        if (!Files.isRegularFile(jar) || !Files.isRegularFile(pom) || !Files.isRegularFile(sha1)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new CachedKjar(entry, jar, pom, new String(Files.readAllBytes(sha1), StandardCharsets.US_ASCII).trim()));
+        } catch (IOException e) {
+            logger.warn("Cannot read cached kjar {}, it will be built again.", entry, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Store the jar built from the project. Failure to store the jar is only logged, as it doesn't affect the build.
+     *
+     * @param key Cache key.
+     * @param basedir Built project folder.
+     * @param coordinates Coordinates of the project.
+     */
+    void store(String key, Path basedir, ArtifactCoordinates coordinates) {
+        Path builtJar = basedir.resolve(TARGET_FOLDER).resolve(coordinates.getJarFileName());
+        if (!Files.isRegularFile(builtJar)) {
+            logger.warn("Built jar {} not found, project {} won't be cached.", builtJar, coordinates);
+            return;
+        }
+        Path entry = cacheDir.resolve(key);
+        Path tempEntry = null;
+        try {
+            Files.createDirectories(cacheDir);
+            tempEntry = Files.createTempDirectory(cacheDir, key + ".tmp");
+            Files.copy(builtJar, tempEntry.resolve(JAR_FILE));
+            Files.copy(basedir.resolve("pom.xml"), tempEntry.resolve(POM_FILE));
+            Files.write(tempEntry.resolve(SHA1_FILE), sha1(builtJar).getBytes(StandardCharsets.US_ASCII));
+            Files.move(tempEntry, entry, StandardCopyOption.ATOMIC_MOVE);
+            tempEntry = null;
+            logger.debug("Kjar {} cached as {}", coordinates, entry);
+        } catch (IOException e) {
+            if (Files.isDirectory(entry)) {
+                // Move fails if the same kjar was cached concurrently by another JVM
+                logger.debug("Kjar {} was already cached by another build.", coordinates);
+            } else {
+                logger.warn("Cannot cache kjar {} in {}", coordinates, cacheDir, e);
+            }
+        } finally {
+            if (tempEntry != null) {
+                deleteQuietly(tempEntry);
+            }
+        }
+    }
+
+    /**
+     * @param file File to hash.
+     * @return Hex encoded SHA-1 checksum of the file, as used by Maven repositories.
+     */
+    static String sha1(Path file) {
+        MessageDigest digest = newDigest("SHA-1");
+        update(digest, file);
+        return toHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, Path file) {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while reading " + file, e);
+        }
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " is not supported", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static void deleteQuietly(Path folder) {
+        try (Stream<Path> walk = Files.walk(folder)) {
+            walk.sorted((first, second) -> second.compareTo(first)).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            logger.debug("Cannot delete {}", folder, e);
+        }
+    }
+
+    private static Path getCacheDir() {
+        String cacheDir = System.getProperty(CACHE_DIR_KEY);
+        if (cacheDir != null) {
+            return Paths.get(cacheDir);
+        }
+        return Paths.get(System.getProperty("java.io.tmpdir"), DEFAULT_CACHE_DIR_NAME);
+    }
+
+    /**
+     * Kjar stored in the cache.
+     */
+    static class CachedKjar {
+
+        private final Path folder;
+        private final Path jar;
+        private final Path pom;
+        private final String sha1;
+
+        private CachedKjar(Path folder, Path jar, Path pom, String sha1) {
+            this.folder = folder;
+            this.jar = jar;
+            this.pom = pom;
+            this.sha1 = sha1;
+        }
+
+        Path getFolder() {
+            return folder;
+        }
+
+        Path getJar() {
+            return jar;
+        }
+
+        Path getPom() {
+            return pom;
+        }
+
+        String getSha1() {
+            return sha1;
+        }
+    }
+}
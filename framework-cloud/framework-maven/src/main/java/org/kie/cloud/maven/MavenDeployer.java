@@ -15,6 +15,7 @@
 
 package org.kie.cloud.maven;
 
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
@@ -23,6 +24,7 @@ import java.util.Optional;
 import org.apache.maven.it.VerificationException;
 import org.kie.cloud.api.constants.ConfigurationInitializer;
 import org.kie.cloud.api.deployment.MavenRepositoryDeployment;
+import org.kie.cloud.maven.KjarBuildCache.CachedKjar;
 import org.kie.cloud.maven.util.MavenUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +34,7 @@ public class MavenDeployer {
     private static final Logger logger = LoggerFactory.getLogger(MavenDeployer.class);
 
     private static final String SETTINGS_XML_PATH_KEY = "kjars.build.settings.xml";
+    private static final String DISTRIBUTION_REPOSITORY_ID = "remote-testing-repo";
 
     // Keep those for Backward Compatibility with system properties
     public static final String MAVEN_REPO_URL_KEY = "maven.repo.url";
@@ -64,13 +67,37 @@ public class MavenDeployer {
 
     /**
      * Build Maven project from specified directory using maven command from parameter.
+     * Projects producing a single jar are cached, see {@link KjarBuildCache}. If the project sources didn't change since it was
+     * cached, the cached jar is installed or deployed directly without building the project again.
      *
      * @param basedir Directory to build a project from.
      * @param buildCommand Build command, for example "install" or "deploy".
      */
     private static void buildMavenProject(String basedir, String buildCommand, MavenRepositoryDeployment repositoryDeployment) {
+        Path projectPath = Paths.get(basedir);
+        Optional<KjarBuildCache> cache = KjarBuildCache.getInstance();
+        Optional<ArtifactCoordinates> coordinates = ArtifactCoordinates.fromPom(projectPath.resolve("pom.xml"));
+        if (!cache.isPresent() || !coordinates.isPresent()) {
+            executeBuild(projectPath, buildCommand, repositoryDeployment);
+            return;
+        }
+
+        String key = KjarBuildCache.computeKey(projectPath, getSettingsXmlPath().map(Paths::get));
+        synchronized (cache.get().getLock(key)) {
+            Optional<CachedKjar> cachedKjar = cache.get().get(key);
+            if (cachedKjar.isPresent()) {
+                logger.info("Using cached build of {} from {}", coordinates.get(), cachedKjar.get().getFolder());
+                uploadCachedKjar(cachedKjar.get(), coordinates.get(), buildCommand, repositoryDeployment);
+            } else {
+                executeBuild(projectPath, buildCommand, repositoryDeployment);
+                cache.get().store(key, projectPath, coordinates.get());
+            }
+        }
+    }
+
+    private static void executeBuild(Path projectPath, String buildCommand, MavenRepositoryDeployment repositoryDeployment) {
         try {
-            MavenUtil mavenUtil = MavenUtil.forProject(Paths.get(basedir)).forkJvm();
+            MavenUtil mavenUtil = MavenUtil.forProject(projectPath).forkJvm();
             addSettingsXmlPathIfExists(mavenUtil);
 
             if (repositoryDeployment != null) {
@@ -81,7 +108,46 @@ public class MavenDeployer {
 
             logger.debug("Maven project successfully built and deployed!");
         } catch (VerificationException e) {
-            throw new RuntimeException("Error while building Maven project from basedir " + basedir, e);
+            throw new RuntimeException("Error while building Maven project from basedir " + projectPath, e);
+        }
+    }
+
+    /**
+     * Install or deploy cached kjar using install-file or deploy-file goal, which doesn't need the project sources. Deployment is
+     * skipped if the repository already contains the same jar.
+     */
+    private static void uploadCachedKjar(CachedKjar cachedKjar, ArtifactCoordinates coordinates, String buildCommand, MavenRepositoryDeployment repositoryDeployment) {
+        boolean deploy = "deploy".equals(buildCommand) && repositoryDeployment != null;
+        if (deploy) {
+            Optional<String> remoteSha1 = RemoteArtifactChecksum.getSha1(repositoryDeployment.getSnapshotsRepositoryUrl(), coordinates,
+                                                                         repositoryDeployment.getUsername(), repositoryDeployment.getPassword());
+            if (remoteSha1.filter(cachedKjar.getSha1()::equalsIgnoreCase).isPresent()) {
+                logger.info("Kjar {} is already deployed in {}, skipping deployment.", coordinates, repositoryDeployment.getSnapshotsRepositoryUrl());
+                return;
+            }
+        }
+
+        try {
+            // Cache folder contains no pom.xml, so Maven runs without project and clean has to be disabled
+            MavenUtil mavenUtil = MavenUtil.forProject(cachedKjar.getFolder()).forkJvm().disableAutoclean();
+            addSettingsXmlPathIfExists(mavenUtil);
+            mavenUtil.setSystemProperty("file", cachedKjar.getJar().toAbsolutePath().toString());
+            mavenUtil.setSystemProperty("pomFile", cachedKjar.getPom().toAbsolutePath().toString());
+            // Kjar packaging is defined by kie-maven-plugin extension which isn't loaded without project, the artifact is a jar
+            mavenUtil.setSystemProperty("packaging", "jar");
+
+            if (deploy) {
+                mavenUtil.setSystemProperty("url", repositoryDeployment.getSnapshotsRepositoryUrl().toString());
+                mavenUtil.setSystemProperty("repositoryId", DISTRIBUTION_REPOSITORY_ID);
+                addRepositoryCredentials(mavenUtil, repositoryDeployment);
+                mavenUtil.executeGoals("deploy:deploy-file");
+            } else {
+                mavenUtil.executeGoals("install:install-file");
+            }
+
+            logger.debug("Cached kjar {} successfully uploaded!", coordinates);
+        } catch (VerificationException e) {
+            throw new RuntimeException("Error while uploading cached kjar " + coordinates + " from " + cachedKjar.getFolder(), e);
         }
     }
 
@@ -106,8 +172,11 @@ public class MavenDeployer {
      * @param mavenUtil
      */
     private static void addDistributionRepository(MavenUtil mavenUtil, MavenRepositoryDeployment repositoryDeployment) {
-        mavenUtil.setSystemProperty("altDeploymentRepository", String.format("remote-testing-repo::default::%s", repositoryDeployment.getSnapshotsRepositoryUrl()));
+        mavenUtil.setSystemProperty("altDeploymentRepository", String.format("%s::default::%s", DISTRIBUTION_REPOSITORY_ID, repositoryDeployment.getSnapshotsRepositoryUrl()));
+        addRepositoryCredentials(mavenUtil, repositoryDeployment);
+    }
 
+    private static void addRepositoryCredentials(MavenUtil mavenUtil, MavenRepositoryDeployment repositoryDeployment) {
         List<String> cliOptions = new ArrayList<>();
         cliOptions.add(constructMavenEnvCliOption(MAVEN_REPO_USERNAME_KEY, repositoryDeployment.getUsername()));
         cliOptions.add(constructMavenEnvCliOption(MAVEN_REPO_PASSWORD_KEY, repositoryDeployment.getPassword()));
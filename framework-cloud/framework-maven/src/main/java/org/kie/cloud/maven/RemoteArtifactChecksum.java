@@ -0,0 +1,143 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.maven;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * Retrieves checksum of an artifact deployed in a remote Maven repository. For snapshots the checksum of the latest deployed
+ * snapshot is retrieved.
+ */
+class RemoteArtifactChecksum {
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteArtifactChecksum.class);
+
+    private static final int TIMEOUT_IN_MS = 10_000;
+    private static final int MAX_RESPONSE_SIZE = 64 * 1024;
+
+    private RemoteArtifactChecksum() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param repositoryUrl URL of the repository.
+     * @param coordinates Coordinates of the artifact.
+     * @param username Repository user name, null for anonymous access.
+     * @param password Repository password.
+     * @return SHA-1 checksum of the deployed jar, empty if the artifact isn't deployed or the checksum cannot be retrieved.
+     */
+    static Optional<String> getSha1(URL repositoryUrl, ArtifactCoordinates coordinates, String username, String password) {
+        String versionUrl = stripTrailingSlash(repositoryUrl.toExternalForm()) + "/" + coordinates.getRepositoryPath() + "/";
+        try {
+            String fileVersion = coordinates.getVersion();
+            if (coordinates.isSnapshot()) {
+                Optional<byte[]> metadata = get(versionUrl + "maven-metadata.xml", username, password);
+                if (!metadata.isPresent()) {
+                    return Optional.empty();
+                }
+                Optional<String> snapshotVersion = getLatestSnapshotJarVersion(metadata.get());
+                if (!snapshotVersion.isPresent()) {
+                    return Optional.empty();
+                }
+                fileVersion = snapshotVersion.get();
+            }
+            String jarUrl = versionUrl + coordinates.getArtifactId() + "-" + fileVersion + ".jar.sha1";
+            // Checksum file may contain the file name after the checksum
+            return get(jarUrl, username, password).map(sha1 -> new String(sha1, StandardCharsets.US_ASCII).trim().split("\\s+")[0]);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Cannot retrieve checksum of {} from {}", coordinates, repositoryUrl, e);
+            return Optional.empty();
+        }
+    }
+
+    static Optional<String> getLatestSnapshotJarVersion(byte[] metadata) throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            Document document = factory.newDocumentBuilder().parse(new ByteArrayInputStream(metadata));
+            NodeList snapshotVersions = document.getElementsByTagName("snapshotVersion");
+            for (int i = 0; i < snapshotVersions.getLength(); i++) {
+                Element snapshotVersion = (Element) snapshotVersions.item(i);
+                if ("jar".equals(getText(snapshotVersion, "extension")) && getText(snapshotVersion, "classifier") == null) {
+                    return Optional.ofNullable(getText(snapshotVersion, "value"));
+                }
+            }
+            return Optional.empty();
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Cannot parse Maven metadata", e);
+        }
+    }
+
+    private static String getText(Element element, String tagName) {
+        NodeList children = element.getElementsByTagName(tagName);
+        return children.getLength() == 0 ? null : children.item(0).getTextContent().trim();
+    }
+
+    private static Optional<byte[]> get(String url, String username, String password) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            connection.setConnectTimeout(TIMEOUT_IN_MS);
+            connection.setReadTimeout(TIMEOUT_IN_MS);
+            if (username != null) {
+                String credentials = username + ":" + (password == null ? "" : password);
+                connection.setRequestProperty("Authorization", "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+            }
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                return Optional.empty();
+            }
+            try (InputStream in = connection.getInputStream()) {
+                return Optional.of(readLimited(in));
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static byte[] readLimited(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+            out.write(buffer, 0, read);
+            if (out.size() > MAX_RESPONSE_SIZE) {
+                throw new IOException("Response exceeds " + MAX_RESPONSE_SIZE + " bytes");
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
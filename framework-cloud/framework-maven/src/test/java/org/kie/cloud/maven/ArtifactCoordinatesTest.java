@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.maven;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArtifactCoordinatesTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void coordinatesAreReadFromPom() throws IOException {
+        Path pom = writePom("<groupId>org.kie.cloud</groupId>",
+                            "<artifactId>kjar</artifactId>",
+                            "<version>1.0.0-SNAPSHOT</version>");
+
+        Optional<ArtifactCoordinates> coordinates = ArtifactCoordinates.fromPom(pom);
+
+        assertThat(coordinates).contains(new ArtifactCoordinates("org.kie.cloud", "kjar", "1.0.0-SNAPSHOT"));
+        assertThat(coordinates.get().isSnapshot()).isTrue();
+        assertThat(coordinates.get().getRepositoryPath()).isEqualTo("org/kie/cloud/kjar/1.0.0-SNAPSHOT");
+        assertThat(coordinates.get().getJarFileName()).isEqualTo("kjar-1.0.0-SNAPSHOT.jar");
+    }
+
+    @Test
+    public void groupIdAndVersionAreInheritedFromParent() throws IOException {
+        Path pom = writePom("<parent>",
+                            "  <groupId>org.kie.cloud</groupId>",
+                            "  <artifactId>parent</artifactId>",
+                            "  <version>2.0.0</version>",
+                            "</parent>",
+                            "<artifactId>kjar</artifactId>");
+
+        assertThat(ArtifactCoordinates.fromPom(pom)).contains(new ArtifactCoordinates("org.kie.cloud", "kjar", "2.0.0"));
+    }
+
+    @Test
+    public void ownGroupIdAndVersionOverrideParent() throws IOException {
+        Path pom = writePom("<parent>",
+                            "  <groupId>org.kie.cloud</groupId>",
+                            "  <artifactId>parent</artifactId>",
+                            "  <version>2.0.0</version>",
+                            "</parent>",
+                            "<groupId>org.kie.cloud.kjars</groupId>",
+                            "<artifactId>kjar</artifactId>",
+                            "<version>3.0.0</version>");
+
+        assertThat(ArtifactCoordinates.fromPom(pom)).contains(new ArtifactCoordinates("org.kie.cloud.kjars", "kjar", "3.0.0"));
+    }
+
+    @Test
+    public void aggregatorIsNotRead() throws IOException {
+        Path pom = writePom("<groupId>org.kie.cloud</groupId>",
+                            "<artifactId>aggregator</artifactId>",
+                            "<version>1.0.0</version>",
+                            "<packaging>pom</packaging>");
+
+        assertThat(ArtifactCoordinates.fromPom(pom)).isEmpty();
+    }
+
+    @Test
+    public void projectWithModulesIsNotRead() throws IOException {
+        Path pom = writePom("<groupId>org.kie.cloud</groupId>",
+                            "<artifactId>aggregator</artifactId>",
+                            "<version>1.0.0</version>",
+                            "<modules>",
+                            "  <module>kjar</module>",
+                            "</modules>");
+
+        assertThat(ArtifactCoordinates.fromPom(pom)).isEmpty();
+    }
+
+    @Test
+    public void coordinatesUsingPropertiesAreNotRead() throws IOException {
+        Path pom = writePom("<groupId>org.kie.cloud</groupId>",
+                            "<artifactId>kjar</artifactId>",
+                            "<version>${revision}</version>");
+
+        assertThat(ArtifactCoordinates.fromPom(pom)).isEmpty();
+    }
+
+    @Test
+    public void unparsablePomIsNotRead() throws IOException {
+        Path pom = temporaryFolder.getRoot().toPath().resolve("pom.xml");
+        Files.write(pom, "<project><artifactId>kjar</artifactId>".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(ArtifactCoordinates.fromPom(pom)).isEmpty();
+    }
+
+    @Test
+    public void missingPomIsNotRead() {
+        assertThat(ArtifactCoordinates.fromPom(temporaryFolder.getRoot().toPath().resolve("pom.xml"))).isEmpty();
+    }
+
+    private Path writePom(String... projectElements) throws IOException {
+        StringBuilder pom = new StringBuilder("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        pom.append("<modelVersion>4.0.0</modelVersion>\n");
+        for (String element : projectElements) {
+            pom.append(element).append('\n');
+        }
+        pom.append("</project>\n");
+        Path pomFile = temporaryFolder.getRoot().toPath().resolve("pom.xml");
+        return Files.write(pomFile, pom.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.maven;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KjarBuildCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void buildOutputIsIgnored() throws IOException {
+        Path project = createProject("project");
+        String key = KjarBuildCache.computeKey(project, Optional.empty());
+
+        write(project, "target/classes/Rules.class", "compiled");
+        write(project, "target/project-1.0.0.jar", "jar");
+
+        assertThat(KjarBuildCache.computeKey(project, Optional.empty())).isEqualTo(key);
+    }
+
+    @Test
+    public void keyChangesWhenSourceChanges() throws IOException {
+        Path project = createProject("project");
+        String key = KjarBuildCache.computeKey(project, Optional.empty());
+
+        write(project, "src/main/resources/rules.drl", "rule \"changed\" end");
+
+        assertThat(KjarBuildCache.computeKey(project, Optional.empty())).isNotEqualTo(key);
+    }
+
+    @Test
+    public void keyChangesWhenSourceIsRenamed() throws IOException {
+        Path project = createProject("project");
+        String key = KjarBuildCache.computeKey(project, Optional.empty());
+
+        Files.move(project.resolve("src/main/resources/rules.drl"), project.resolve("src/main/resources/renamed.drl"));
+
+        assertThat(KjarBuildCache.computeKey(project, Optional.empty())).isNotEqualTo(key);
+    }
+
+    @Test
+    public void keyChangesWhenSettingsChange() throws IOException {
+        Path project = createProject("project");
+        Path settings = write(temporaryFolder.getRoot().toPath(), "settings.xml", "<settings/>");
+        String key = KjarBuildCache.computeKey(project, Optional.of(settings));
+
+        write(temporaryFolder.getRoot().toPath(), "settings.xml", "<settings><offline>true</offline></settings>");
+
+        assertThat(KjarBuildCache.computeKey(project, Optional.of(settings))).isNotEqualTo(key);
+        assertThat(KjarBuildCache.computeKey(project, Optional.empty())).isNotEqualTo(key);
+    }
+
+    @Test
+    public void keyDoesNotDependOnOrderOfFileCreation() throws IOException {
+        Path first = temporaryFolder.newFolder("first").toPath();
+        write(first, "pom.xml", "<project/>");
+        write(first, "src/main/resources/a.drl", "a");
+        write(first, "src/main/resources/b.drl", "b");
+        write(first, "src/main/resources/META-INF/kmodule.xml", "<kmodule/>");
+
+        // Same content created in reverse order, so directory listing may return the files in different order
+        Path second = temporaryFolder.newFolder("second").toPath();
+        write(second, "src/main/resources/META-INF/kmodule.xml", "<kmodule/>");
+        write(second, "src/main/resources/b.drl", "b");
+        write(second, "src/main/resources/a.drl", "a");
+        write(second, "pom.xml", "<project/>");
+
+        assertThat(KjarBuildCache.computeKey(first, Optional.empty())).isEqualTo(KjarBuildCache.computeKey(second, Optional.empty()));
+    }
+
+    @Test
+    public void storedKjarIsReturnedFromCache() throws IOException {
+        Path project = createProject("project");
+        write(project, "target/project-1.0.0.jar", "jar");
+        KjarBuildCache cache = new KjarBuildCache(temporaryFolder.newFolder("cache").toPath());
+        String key = KjarBuildCache.computeKey(project, Optional.empty());
+
+        assertThat(cache.get(key)).isEmpty();
+        cache.store(key, project, new ArtifactCoordinates("org.kie.cloud", "project", "1.0.0"));
+
+        Optional<KjarBuildCache.CachedKjar> cachedKjar = cache.get(key);
+        assertThat(cachedKjar).isPresent();
+        assertThat(cachedKjar.get().getJar()).hasContent("jar");
+        assertThat(cachedKjar.get().getPom()).hasContent("<project/>");
+        assertThat(cachedKjar.get().getSha1()).isEqualTo(KjarBuildCache.sha1(project.resolve("target/project-1.0.0.jar")));
+    }
+
+    @Test
+    public void cacheIsDisabledByDefault() {
+        String enabled = System.clearProperty(KjarBuildCache.CACHE_ENABLED_KEY);
+        try {
+            assertThat(KjarBuildCache.getInstance()).isEmpty();
+
+            System.setProperty(KjarBuildCache.CACHE_ENABLED_KEY, "true");
+            assertThat(KjarBuildCache.getInstance()).isPresent();
+        } finally {
+            if (enabled == null) {
+                System.clearProperty(KjarBuildCache.CACHE_ENABLED_KEY);
+            } else {
+                System.setProperty(KjarBuildCache.CACHE_ENABLED_KEY, enabled);
+            }
+        }
+    }
+
+    private Path createProject(String name) throws IOException {
+        Path project = temporaryFolder.newFolder(name).toPath();
+        write(project, "pom.xml", "<project/>");
+        write(project, "src/main/resources/rules.drl", "rule \"original\" end");
+        return project;
+    }
+
+    private static Path write(Path folder, String relativePath, String content) throws IOException {
+        Path file = folder.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
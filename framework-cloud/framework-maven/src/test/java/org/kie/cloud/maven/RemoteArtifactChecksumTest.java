@@ -0,0 +1,84 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.maven;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RemoteArtifactChecksumTest {
+
+    @Test
+    public void latestSnapshotJarVersionIsRead() throws IOException {
+        String metadata = "<metadata>\n" +
+                          "  <groupId>org.kie.cloud</groupId>\n" +
+                          "  <artifactId>kjar</artifactId>\n" +
+                          "  <version>1.0.0-SNAPSHOT</version>\n" +
+                          "  <versioning>\n" +
+                          "    <snapshot>\n" +
+                          "      <timestamp>20210304.101530</timestamp>\n" +
+                          "      <buildNumber>3</buildNumber>\n" +
+                          "    </snapshot>\n" +
+                          "    <snapshotVersions>\n" +
+                          "      <snapshotVersion>\n" +
+                          "        <classifier>sources</classifier>\n" +
+                          "        <extension>jar</extension>\n" +
+                          "        <value>1.0.0-20210304.101530-2</value>\n" +
+                          "      </snapshotVersion>\n" +
+                          "      <snapshotVersion>\n" +
+                          "        <extension>pom</extension>\n" +
+                          "        <value>1.0.0-20210304.101530-3</value>\n" +
+                          "      </snapshotVersion>\n" +
+                          "      <snapshotVersion>\n" +
+                          "        <extension>jar</extension>\n" +
+                          "        <value>1.0.0-20210304.101530-3</value>\n" +
+                          "      </snapshotVersion>\n" +
+                          "    </snapshotVersions>\n" +
+                          "  </versioning>\n" +
+                          "</metadata>";
+
+        assertThat(RemoteArtifactChecksum.getLatestSnapshotJarVersion(bytes(metadata))).contains("1.0.0-20210304.101530-3");
+    }
+
+    @Test
+    public void metadataWithoutJarIsEmpty() throws IOException {
+        String metadata = "<metadata>\n" +
+                          "  <versioning>\n" +
+                          "    <snapshotVersions>\n" +
+                          "      <snapshotVersion>\n" +
+                          "        <extension>pom</extension>\n" +
+                          "        <value>1.0.0-20210304.101530-3</value>\n" +
+                          "      </snapshotVersion>\n" +
+                          "    </snapshotVersions>\n" +
+                          "  </versioning>\n" +
+                          "</metadata>";
+
+        assertThat(RemoteArtifactChecksum.getLatestSnapshotJarVersion(bytes(metadata))).isEmpty();
+    }
+
+    @Test
+    public void invalidMetadataIsReported() {
+        assertThatThrownBy(() -> RemoteArtifactChecksum.getLatestSnapshotJarVersion(bytes("<metadata>"))).isInstanceOf(IOException.class);
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -119,23 +119,13 @@ public class ClusteredWorkbenchRuntimeSmartRouterTwoKieServersTwoDatabasesScenar
             throw new RuntimeException("Timeout while deploying application.", e);
         }
 
-        logger.info("Waiting for Workbench deployment to become ready.");
-        workbenchRuntimeDeployment.waitForScale();
-
-        logger.info("Waiting for Smart router deployment to become ready.");
-        smartRouterDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server one deployment to become ready.");
-        kieServerOneDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server two deployment to become ready.");
-        kieServerTwoDeployment.waitForScale();
-
-        logger.info("Waiting for Database one deployment to become ready.");
-        databaseOneDeployment.waitForScale();
-
-        logger.info("Waiting for Database two deployment to become ready.");
-        databaseTwoDeployment.waitForScale();
+        newDeploymentWaitStage().waitFor("Workbench", workbenchRuntimeDeployment)
+                                .waitFor("Smart router", smartRouterDeployment)
+                                .waitFor("Database one", databaseOneDeployment)
+                                .waitFor("Database two", databaseTwoDeployment)
+                                .waitFor("Kie server one", kieServerOneDeployment, databaseOneDeployment, smartRouterDeployment)
+                                .waitFor("Kie server two", kieServerTwoDeployment, databaseTwoDeployment, smartRouterDeployment)
+                                .await();
 
         logNodeNameOfAllInstances();
     }
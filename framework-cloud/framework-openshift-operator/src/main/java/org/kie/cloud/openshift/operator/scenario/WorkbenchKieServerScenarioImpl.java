@@ -37,6 +37,7 @@ import org.kie.cloud.api.git.GitProvider;
 import org.kie.cloud.api.scenario.WorkbenchKieServerScenario;
 import org.kie.cloud.openshift.constants.OpenShiftConstants;
 import org.kie.cloud.openshift.deployment.KieServerDeploymentImpl;
+import org.kie.cloud.openshift.deployment.PrometheusDeploymentImpl;
 import org.kie.cloud.openshift.deployment.WorkbenchDeploymentImpl;
 import org.kie.cloud.openshift.operator.deployment.KieServerOperatorDeployment;
 import org.kie.cloud.openshift.operator.deployment.WorkbenchOperatorDeployment;
@@ -52,7 +53,7 @@ public class WorkbenchKieServerScenarioImpl extends OpenShiftOperatorScenario<Wo
     private WorkbenchDeploymentImpl workbenchDeployment;
     private KieServerDeploymentImpl kieServerDeployment;
     private final ScenarioRequest request;
-    private PrometheusDeployment prometheusDeployment;
+    private PrometheusDeploymentImpl prometheusDeployment;
     private GitProvider gitProvider;
 
     private static final Logger logger = LoggerFactory.getLogger(WorkbenchKieServerScenarioImpl.class);
@@ -107,6 +108,9 @@ public class WorkbenchKieServerScenarioImpl extends OpenShiftOperatorScenario<Wo
 
     @Override
     public void undeploy() {
+        if (prometheusDeployment != null) {
+            prometheusDeployment.close();
+        }
         PrometheusDeployer.undeployOperator(project);
         super.undeploy();
     }
@@ -62,14 +62,10 @@ public class ClusteredWorkbenchRuntimeClusteredKieServerDatabaseScenarioImpl ext
         kieServerDeployment = createKieServerDeployment(project);
         databaseDeployment = createDatabaseDeployment(project);
 
-        logger.info("Waiting for Database deployment to become ready.");
-        databaseDeployment.waitForScale();
-
-        logger.info("Waiting for Workbench deployment to become ready.");
-        workbenchRuntimeDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server deployment to become ready.");
-        kieServerDeployment.waitForScale();
+        newDeploymentWaitStage().waitFor("Database", databaseDeployment)
+                                .waitFor("Workbench", workbenchRuntimeDeployment)
+                                .waitFor("Kie server", kieServerDeployment, databaseDeployment)
+                                .await();
 
         logNodeNameOfAllInstances();
     }
@@ -105,23 +105,13 @@ public class ClusteredWorkbenchRuntimeSmartRouterTwoKieServersTwoDatabasesScenar
         databaseOneDeployment = createDatabaseDeployment(project, "1");
         databaseTwoDeployment = createDatabaseDeployment(project, "2");
 
-        logger.info("Waiting for Database one deployment to become ready.");
-        databaseOneDeployment.waitForScale();
-
-        logger.info("Waiting for Database two deployment to become ready.");
-        databaseTwoDeployment.waitForScale();
-
-        logger.info("Waiting for Workbench deployment to become ready.");
-        workbenchRuntimeDeployment.waitForScale();
-
-        logger.info("Waiting for Smart router deployment to become ready.");
-        smartRouterDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server one deployment to become ready.");
-        kieServerOneDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server two deployment to become ready.");
-        kieServerTwoDeployment.waitForScale();
+        newDeploymentWaitStage().waitFor("Database one", databaseOneDeployment)
+                                .waitFor("Database two", databaseTwoDeployment)
+                                .waitFor("Workbench", workbenchRuntimeDeployment)
+                                .waitFor("Smart router", smartRouterDeployment)
+                                .waitFor("Kie server one", kieServerOneDeployment, databaseOneDeployment, smartRouterDeployment)
+                                .waitFor("Kie server two", kieServerTwoDeployment, databaseTwoDeployment, smartRouterDeployment)
+                                .await();
 
         logNodeNameOfAllInstances();
     }
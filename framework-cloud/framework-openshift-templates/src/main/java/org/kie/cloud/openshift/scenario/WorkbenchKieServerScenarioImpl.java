@@ -34,6 +34,7 @@ import org.kie.cloud.api.git.GitProvider;
 import org.kie.cloud.api.scenario.WorkbenchKieServerScenario;
 import org.kie.cloud.openshift.constants.OpenShiftTemplateConstants;
 import org.kie.cloud.openshift.deployment.KieServerDeploymentImpl;
+import org.kie.cloud.openshift.deployment.PrometheusDeploymentImpl;
 import org.kie.cloud.openshift.deployment.WorkbenchDeploymentImpl;
 import org.kie.cloud.openshift.template.OpenShiftTemplate;
 import org.kie.cloud.openshift.util.Git;
@@ -46,7 +47,7 @@ public class WorkbenchKieServerScenarioImpl extends KieCommonScenario<WorkbenchK
     private WorkbenchDeploymentImpl workbenchDeployment;
     private KieServerDeploymentImpl kieServerDeployment;
     private final ScenarioRequest request;
-    private PrometheusDeployment prometheusDeployment;
+    private PrometheusDeploymentImpl prometheusDeployment;
     private GitProvider gitProvider;
 
     private static final Logger logger = LoggerFactory.getLogger(WorkbenchKieServerScenarioImpl.class);
@@ -95,6 +96,14 @@ public class WorkbenchKieServerScenarioImpl extends KieCommonScenario<WorkbenchK
         return workbenchDeployment;
     }
 
+    @Override
+    public void undeploy() {
+        if (prometheusDeployment != null) {
+            prometheusDeployment.close();
+        }
+        super.undeploy();
+    }
+
     @Override
     public KieServerDeployment getKieServerDeployment() {
         return kieServerDeployment;
@@ -120,17 +120,11 @@ public class WorkbenchRuntimeSmartRouterImmutableKieServerWithPostgreSqlScenario
         kieServerDeployment = createKieServerDeployment(project);
         databaseDeployment = new DatabaseDeploymentImpl(project);
 
-        logger.info("Waiting for Database deployment to become ready.");
-        databaseDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server deployment to become ready.");
-        kieServerDeployment.waitForScale();
-
-        logger.info("Waiting for Smart router deployment to become ready.");
-        smartRouterDeployment.waitForScale();
-
-        logger.info("Waiting for Workbench runtime deployment to become ready.");
-        workbenchRuntimeDeployment.waitForScale();
+        newDeploymentWaitStage().waitFor("Database", databaseDeployment)
+                                .waitFor("Kie server", kieServerDeployment, databaseDeployment)
+                                .waitFor("Smart router", smartRouterDeployment)
+                                .waitFor("Workbench runtime", workbenchRuntimeDeployment)
+                                .await();
 
         logNodeNameOfAllInstances();
     }
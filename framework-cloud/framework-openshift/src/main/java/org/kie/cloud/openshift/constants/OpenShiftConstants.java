@@ -16,6 +16,7 @@
 package org.kie.cloud.openshift.constants;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.Optional;
 
 import cz.xtf.core.config.OpenShiftConfig;
@@ -180,6 +181,58 @@ public class OpenShiftConstants implements Constants {
      */
     public static final String KIE_JDBC_DRIVER_SCRIPTS = "kie.jdbc.driver.scripts";
 
+    /**
+     * Maximal number of deployments awaited concurrently when scenario waits for its deployments to become ready.
+     */
+    public static final String DEPLOYMENT_WAIT_PARALLELISM = "deployment.wait.parallelism";
+    private static final int DEFAULT_DEPLOYMENT_WAIT_PARALLELISM = 4;
+
+    /**
+     * Time in minutes after which logged in oc client session is logged in again.
+     */
+    public static final String OC_SESSION_TIMEOUT = "oc.session.timeout";
+    private static final int DEFAULT_OC_SESSION_TIMEOUT = 60;
+
+    /**
+     * Number of projects prepared ahead of time for scenario deployments, 0 disables the namespace pool.
+     */
+    public static final String NAMESPACE_POOL_SIZE = "namespace.pool.size";
+
+    /**
+     * Maximal time in seconds for finishing namespace pool tasks once the pool is closed on JVM shutdown.
+     */
+    public static final String NAMESPACE_POOL_CLOSE_TIMEOUT = "namespace.pool.close.timeout";
+    private static final int DEFAULT_NAMESPACE_POOL_CLOSE_TIMEOUT = 60;
+
+    /**
+     * Number of finished scenarios torn down concurrently in background, 0 tears scenarios down synchronously.
+     */
+    public static final String TEARDOWN_PARALLELISM = "teardown.parallelism";
+
+    /**
+     * Maximal number of attempts of OpenShift API call failing with transient error.
+     */
+    public static final String OPENSHIFT_RETRY_MAX_ATTEMPTS = "openshift.retry.max.attempts";
+    private static final int DEFAULT_OPENSHIFT_RETRY_MAX_ATTEMPTS = 10;
+
+    /**
+     * Maximal time in seconds a single OpenShift API call may spend waiting between retries.
+     */
+    public static final String OPENSHIFT_RETRY_BUDGET = "openshift.retry.budget";
+    private static final int DEFAULT_OPENSHIFT_RETRY_BUDGET = 60;
+
+    /**
+     * Number of consecutive transient failures of OpenShift API calls which pause all calls to the same API server for a while.
+     */
+    public static final String OPENSHIFT_CIRCUIT_BREAKER_THRESHOLD = "openshift.circuit.breaker.threshold";
+    private static final int DEFAULT_OPENSHIFT_CIRCUIT_BREAKER_THRESHOLD = 20;
+
+    /**
+     * Interval in seconds between samples of pod CPU and memory usage taken from the metrics API.
+     */
+    public static final String POD_METRICS_SAMPLE_INTERVAL = "pod.metrics.sample.interval";
+    private static final int DEFAULT_POD_METRICS_SAMPLE_INTERVAL = 15;
+
     public static String getOpenShiftUrl() {
         return System.getProperty(OPENSHIFT_URL);
     }
@@ -283,6 +336,42 @@ public class OpenShiftConstants implements Constants {
         return kieJdbcDriverScriptsFolder;
     }
 
+    public static int getDeploymentWaitParallelism() {
+        return Integer.getInteger(DEPLOYMENT_WAIT_PARALLELISM, DEFAULT_DEPLOYMENT_WAIT_PARALLELISM);
+    }
+
+    public static Duration getOcSessionTimeout() {
+        return Duration.ofMinutes(Integer.getInteger(OC_SESSION_TIMEOUT, DEFAULT_OC_SESSION_TIMEOUT));
+    }
+
+    public static int getNamespacePoolSize() {
+        return Integer.getInteger(NAMESPACE_POOL_SIZE, 0);
+    }
+
+    public static Duration getNamespacePoolCloseTimeout() {
+        return Duration.ofSeconds(Integer.getInteger(NAMESPACE_POOL_CLOSE_TIMEOUT, DEFAULT_NAMESPACE_POOL_CLOSE_TIMEOUT));
+    }
+
+    public static int getTeardownParallelism() {
+        return Integer.getInteger(TEARDOWN_PARALLELISM, 0);
+    }
+
+    public static int getOpenShiftRetryMaxAttempts() {
+        return Integer.getInteger(OPENSHIFT_RETRY_MAX_ATTEMPTS, DEFAULT_OPENSHIFT_RETRY_MAX_ATTEMPTS);
+    }
+
+    public static Duration getOpenShiftRetryBudget() {
+        return Duration.ofSeconds(Integer.getInteger(OPENSHIFT_RETRY_BUDGET, DEFAULT_OPENSHIFT_RETRY_BUDGET));
+    }
+
+    public static int getOpenShiftCircuitBreakerThreshold() {
+        return Integer.getInteger(OPENSHIFT_CIRCUIT_BREAKER_THRESHOLD, DEFAULT_OPENSHIFT_CIRCUIT_BREAKER_THRESHOLD);
+    }
+
+    public static Duration getPodMetricsSampleInterval() {
+        return Duration.ofSeconds(Integer.getInteger(POD_METRICS_SAMPLE_INTERVAL, DEFAULT_POD_METRICS_SAMPLE_INTERVAL));
+    }
+
     /**
      * @return Name of the secret containing keystore file for HTTPS communication.
      */
@@ -16,13 +16,34 @@
 
 package org.kie.cloud.openshift.constants.images.imagestream;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import cz.xtf.core.openshift.OpenShift;
 import cz.xtf.core.waiting.SimpleWaiter;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.api.model.ObjectReference;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.WatcherException;
 import io.fabric8.openshift.api.model.ImageStream;
 import io.fabric8.openshift.api.model.ImageStreamBuilder;
 import io.fabric8.openshift.api.model.TagReference;
@@ -40,6 +61,9 @@ public class ImageStreamProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(ImageStreamProvider.class);
 
+    private static final int MAX_PARALLEL_CHANGES = 10;
+    private static final long TAG_CHANGE_TIMEOUT_IN_SECONDS = 30;
+
     /**
      * Creates image streams in project which will be used by OpenShift template.
      * In case image stream URL is passed as system property then it is used, otherwise image streams are generated from image tag system properties.
@@ -71,64 +95,160 @@ public class ImageStreamProvider {
 
     private static void replaceImagesFromImageStreamTags(Project project) {
         logger.info("Replacing image streams tags.");
-        Stream.of(Image.values())
-              .filter(image -> image.getTag().isPresent())
-              .forEach(image -> createImageStreamForImage(project, image));
+        provisionImageStreams(project, Stream.of(Image.values())
+                                             .filter(image -> image.getTag().isPresent())
+                                             .collect(Collectors.toList()));
     }
 
     private static void createImagesFromImageStreamTags(Project project) {
         ProjectProfile projectProfile = ProjectProfile.fromSystemProperty();
         logger.info("Creating image streams for {} project.", projectProfile);
         if (projectProfile == ProjectProfile.DROOLS) {
-            createImageStreamForImage(project, Image.WORKBENCH);
-            createImageStreamForImage(project, Image.KIE_SERVER);
-            createImageStreamForImage(project, Image.CONTROLLER);
-            createImageStreamForImage(project, Image.WORKBENCH_INDEXING);
+            provisionImageStreams(project, Arrays.asList(Image.WORKBENCH, Image.KIE_SERVER, Image.CONTROLLER, Image.WORKBENCH_INDEXING));
         } else if (projectProfile == ProjectProfile.JBPM) {
-            createImageStreamForImage(project, Image.AMQ);
-            createImageStreamForImage(project, Image.CONSOLE);
-            createImageStreamForImage(project, Image.CONTROLLER);
-            createImageStreamForImage(project, Image.KIE_SERVER);
-            createImageStreamForImage(project, Image.MYSQL);
-            createImageStreamForImage(project, Image.POSTGRESQL);
-            createImageStreamForImage(project, Image.SMARTROUTER);
-            createImageStreamForImage(project, Image.WORKBENCH);
-            createImageStreamForImage(project, Image.WORKBENCH_INDEXING);
+            provisionImageStreams(project, Arrays.asList(Image.AMQ, Image.CONSOLE, Image.CONTROLLER, Image.KIE_SERVER, Image.MYSQL, Image.POSTGRESQL,
+                                                         Image.SMARTROUTER, Image.WORKBENCH, Image.WORKBENCH_INDEXING));
         }
     }
 
-    private static void createImageStreamForImage(Project project, Image image) {
-        if (!image.getTag().isPresent()) {
-            throw new RuntimeException("System property for image tag '" + image.getSystemPropertyForImageTag() + "' is not defined.");
+    private static void provisionImageStreams(Project project, List<Image> images) {
+        for (Image image : images) {
+            if (!image.getTag().isPresent()) {
+                throw new RuntimeException("System property for image tag '" + image.getSystemPropertyForImageTag() + "' is not defined.");
+            }
         }
 
-        logger.info("Creating image stream for {} image from DockerImage {}", image.toString(), image.getTag().get());
+        provisionImageStreams(project.getOpenShiftAdmin(), images.stream()
+                                                                 .map(ImageStreamProvider::createNewImageStream)
+                                                                 .collect(Collectors.toList()));
+    }
 
-        ImageStream existingImageStream = project.getOpenShiftAdmin().getImageStream(getImageStreamNaming(image.getImageName()));
+    /**
+     * Create or update image streams all at once. Existing image streams are compared with desired tags first, so image streams
+     * already pointing to the image tag are left untouched. All missing image streams are created and all outdated ones are
+     * patched concurrently, then changed tags are awaited using a single watch.
+     *
+     * @param openShiftAdmin Admin client of the project.
+     * @param imageStreams Desired image streams, the first tag of every image stream defines the image tag.
+     */
+    static void provisionImageStreams(OpenShift openShiftAdmin, List<ImageStream> imageStreams) {
+        Map<String, ImageStream> existingImageStreams = openShiftAdmin.getImageStreams()
+                                                                      .stream()
+                                                                      .collect(Collectors.toMap(imageStream -> imageStream.getMetadata().getName(), Function.identity()));
 
-        if (existingImageStream != null) {
-            logger.debug("Found already existing image stream for {}. Replacing it with custom tag.", getImageStreamNaming(image.getImageName()));
-            project.runOcCommandAsAdmin("tag", "--source=docker", "--insecure=true", image.getTag().get(), existingImageStream.getMetadata().getName()+":"+existingImageStream.getSpec().getTags().get(0).getName());
+        Map<String, String> pendingTagChanges = new ConcurrentHashMap<>();
+        List<Runnable> changes = new ArrayList<>();
+        for (ImageStream imageStream : imageStreams) {
+            String imageStreamName = imageStream.getMetadata().getName();
+            String imageTag = imageStream.getSpec().getTags().get(0).getFrom().getName();
+            ImageStream existingImageStream = existingImageStreams.get(imageStreamName);
 
-            new SimpleWaiter(() -> isImageStreamTagChange(project, image))
-                            .timeout(TimeUnit.SECONDS, 30)
-                            .reason("Old ImageStream not replaced yet, waiting for new ImageStream tag.")
-                            .waitFor();
-        } else {
-            logger.debug("ImageStream for {} do not exists. Creating new image stream.", image.getImageName());
-            project.getOpenShiftAdmin().createImageStream(createNewImageStream(image));
+            if (existingImageStream == null) {
+                logger.info("Creating image stream {} from DockerImage {}", imageStreamName, imageTag);
+                changes.add(() -> openShiftAdmin.createImageStream(imageStream));
+            } else if (pointsToTag(existingImageStream, imageTag)) {
+                logger.debug("Image stream {} already points to {}.", imageStreamName, imageTag);
+            } else {
+                logger.info("Replacing tag of existing image stream {} with DockerImage {}", imageStreamName, imageTag);
+                pendingTagChanges.put(imageStreamName, imageTag);
+                changes.add(() -> replaceImageStreamTag(openShiftAdmin, imageStreamName, imageTag));
+            }
         }
+
+        runConcurrently(changes);
+        waitForImageStreamTagChanges(openShiftAdmin, pendingTagChanges);
     }
 
-    private static boolean isImageStreamTagChange(Project project, Image image) {
-        return project.getOpenShiftAdmin()
-                      .getImageStream(getImageStreamNaming(image.getImageName()))
-                      .getSpec()
-                      .getTags()
-                      .stream()
-                      .map(TagReference::getFrom)
-                      .map(ObjectReference::getName)
-                      .anyMatch(image.getTag().get()::equals);
+    /**
+     * Same change as done by "oc tag --source=docker --insecure=true", applied to the first tag of the image stream.
+     */
+    private static void replaceImageStreamTag(OpenShift openShiftAdmin, String imageStreamName, String imageTag) {
+        openShiftAdmin.imageStreams()
+                      .withName(imageStreamName)
+                      .edit(imageStream -> new ImageStreamBuilder(imageStream).editSpec()
+                                                                                .editFirstTag()
+                                                                                    .editOrNewFrom()
+                                                                                        .withKind("DockerImage")
+                                                                                        .withName(imageTag)
+                                                                                    .endFrom()
+                                                                                    .editOrNewImportPolicy()
+                                                                                        .withInsecure(Boolean.TRUE)
+                                                                                    .endImportPolicy()
+                                                                                .endTag()
+                                                                              .endSpec()
+                                                                              .build());
+    }
+
+    private static void runConcurrently(List<Runnable> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(changes.size(), MAX_PARALLEL_CHANGES), new ImageStreamThreadFactory());
+        try {
+            CompletableFuture<?>[] futures = changes.stream()
+                                                    .map(change -> CompletableFuture.runAsync(change, executorService))
+                                                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Error while provisioning image streams.", e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static void waitForImageStreamTagChanges(OpenShift openShiftAdmin, Map<String, String> pendingTagChanges) {
+        if (pendingTagChanges.isEmpty()) {
+            return;
+        }
+
+        CompletableFuture<Void> tagsChanged = new CompletableFuture<>();
+        Consumer<ImageStream> tagChangeChecker = imageStream -> {
+            String imageStreamName = imageStream.getMetadata().getName();
+            String imageTag = pendingTagChanges.get(imageStreamName);
+            if (imageTag != null && pointsToTag(imageStream, imageTag)) {
+                pendingTagChanges.remove(imageStreamName);
+                if (pendingTagChanges.isEmpty()) {
+                    tagsChanged.complete(null);
+                }
+            }
+        };
+
+        try (Watch watch = openShiftAdmin.imageStreams().watch(new Watcher<ImageStream>() {
+
+            @Override
+            public void eventReceived(Action action, ImageStream imageStream) {
+                if (action == Action.ADDED || action == Action.MODIFIED) {
+                    tagChangeChecker.accept(imageStream);
+                }
+            }
+
+            @Override
+            public void onClose(WatcherException cause) {
+                tagsChanged.completeExceptionally(new RuntimeException("Image stream watch was closed.", cause));
+            }
+        })) {
+            // Tags could be changed before the watch was started
+            openShiftAdmin.getImageStreams().forEach(tagChangeChecker);
+
+            tagsChanged.get(TAG_CHANGE_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for image stream tags.", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error while waiting for image stream tags.", e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Old ImageStream tags of " + pendingTagChanges.keySet() + " not replaced in " + TAG_CHANGE_TIMEOUT_IN_SECONDS + " seconds.");
+        }
+    }
+
+    private static boolean pointsToTag(ImageStream imageStream, String imageTag) {
+        return imageStream.getSpec()
+                          .getTags()
+                          .stream()
+                          .map(TagReference::getFrom)
+                          .filter(Objects::nonNull)
+                          .map(ObjectReference::getName)
+                          .anyMatch(imageTag::equals);
     }
 
     private static ImageStream createNewImageStream(Image image) {
@@ -179,4 +299,16 @@ public class ImageStreamProvider {
                   .map(ObjectMeta::getName)
                   .anyMatch(name::equals);
     }
+
+    private static class ImageStreamThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "image-stream-provider-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -45,7 +45,7 @@ public class AmqDeploymentImpl extends OpenShiftDeployment implements AmqDeploym
     @Override
     public String getDeploymentConfigName() {
         if (deploymentConfigName == null) {
-            deploymentConfigName = getDeploymentConfigName(getOpenShift(), AMQ_DEPLOYMENT_CONFIG_REGEXP);
+            deploymentConfigName = getDeploymentConfigName(AMQ_DEPLOYMENT_CONFIG_REGEXP);
         }
         return deploymentConfigName;
     }
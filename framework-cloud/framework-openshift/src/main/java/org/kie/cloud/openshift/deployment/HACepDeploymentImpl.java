@@ -70,7 +70,7 @@ public class HACepDeploymentImpl extends OpenShiftDeployment implements HACepDep
 
     @Override
     public List<Instance> getInstances() {
-        List<Instance> instances = getOpenShift().getPods().stream()
+        List<Instance> instances = getResourceCache().pods().getPods().stream()
                 .filter(pod -> pod.getMetadata().getLabels().containsKey(POD_LABEL_KEY))
                 .filter(pod -> pod.getMetadata().getLabels().get(POD_LABEL_KEY).equals(POD_LABEL_VALUE))
                 .map(pod -> new OpenShiftInstance(getOpenShift(), getNamespace(), pod.getMetadata().getName()))
@@ -99,8 +99,7 @@ public class KieServerDeploymentImpl extends OpenShiftDeployment implements KieS
     @Override public void waitForScale() {
         super.waitForScale();
         if (!getInstances().isEmpty()) {
-            getInsecureUrl().ifPresent(RouterUtil::waitForRouter);
-            getSecureUrl().ifPresent(RouterUtil::waitForRouter);
+            RouterUtil.waitForRouters(getInsecureUrl(), getSecureUrl());
         }
     }
 
@@ -166,9 +165,9 @@ public class KieServerDeploymentImpl extends OpenShiftDeployment implements KieS
     private void waitForRolloutFinish(String rolloutInProgressConfigMapName) {
         if (getOpenShift().getConfigMap(rolloutInProgressConfigMapName) != null) {
             Supplier<ConfigMap> getConfigMap = () -> getOpenShift().getConfigMap(rolloutInProgressConfigMapName);
-            new SimpleWaiter(() -> OpenShiftCaller.repeatableCall(getConfigMap) == null).timeout(TimeUnit.MINUTES, 5)
-                                                                                        .reason("Temporary rollout config map found, waiting for rollout to finish.")
-                                                                                        .waitFor();
+            new SimpleWaiter(() -> OpenShiftCaller.repeatableCall(getOpenShift(), "getRolloutConfigMap", getConfigMap) == null).timeout(TimeUnit.MINUTES, 5)
+                                                                                                                               .reason("Temporary rollout config map found, waiting for rollout to finish.")
+                                                                                                                               .waitFor();
         }
     }
 
@@ -177,12 +176,13 @@ public class KieServerDeploymentImpl extends OpenShiftDeployment implements KieS
      */
     private Optional<ConfigMap> getKieServerConfigMap() {
         // Expecting the config map to be owned by deployment config with same name as its service. Needs to be adjusted in case this changes!!!!
-        return getOpenShift().getConfigMaps().stream().filter(cm -> !cm.getMetadata().getOwnerReferences().isEmpty())
+        return getResourceCache().configMaps().list().stream().filter(cm -> !cm.getMetadata().getOwnerReferences().isEmpty())
                                                       .filter(cm -> cm.getMetadata().getOwnerReferences().get(0).getName().equals(getServiceName()))
                                                       .findAny();
     }
 
     private void createKieServerConfigMap(ConfigMap cm) {
         getOpenShift().configMaps().createOrReplace(cm);
+        getResourceCache().configMaps().invalidate();
     }
 }
@@ -25,6 +25,10 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -34,8 +38,10 @@ import java.util.stream.Collectors;
 import cz.xtf.core.openshift.OpenShift;
 import cz.xtf.core.waiting.SimpleWaiter;
 import cz.xtf.core.waiting.WaiterException;
+import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.Quantity;
 import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.openshift.api.model.DeploymentConfig;
 import io.fabric8.openshift.api.model.DeploymentConfigBuilder;
 import io.fabric8.openshift.api.model.ImageStreamTag;
@@ -50,7 +56,9 @@ import org.kie.cloud.api.deployment.constants.DeploymentConstants;
 import org.kie.cloud.api.protocol.Protocol;
 import org.kie.cloud.openshift.constants.OpenShiftConstants;
 import org.kie.cloud.openshift.resource.OpenShiftResourceConstants;
+import org.kie.cloud.openshift.resource.PodReadinessTracker;
 import org.kie.cloud.openshift.resource.Project;
+import org.kie.cloud.openshift.resource.ProjectResourceCache;
 import org.kie.cloud.openshift.util.OpenShiftCaller;
 import org.kie.cloud.openshift.util.OpenshiftInstanceUtil;
 import org.slf4j.Logger;
@@ -79,6 +87,13 @@ public abstract class OpenShiftDeployment implements Deployment {
         this.openShift = openShift;
     }
 
+    /**
+     * @return Cached view of resources in the project of this deployment.
+     */
+    protected ProjectResourceCache getResourceCache() {
+        return project.getResourceCache();
+    }
+
     @Override
     public String getNamespace() {
         return project.getName();
@@ -95,14 +110,14 @@ public abstract class OpenShiftDeployment implements Deployment {
         return getServiceName();
     }
 
-    protected String getDeploymentConfigName(OpenShift openShift, Pattern regexp) {
+    protected String getDeploymentConfigName(Pattern regexp) {
         // Try to find deployment config name from all available deployment configs
-        List<DeploymentConfig> foundDeploymentConfigs = openShift.getDeploymentConfigs()
-                                                                 .stream()
-                                                                 .filter(deploymentConfig -> regexp.matcher(deploymentConfig.getMetadata().getName()).matches())
-                                                                 .collect(Collectors.toList());
+        List<DeploymentConfig> deploymentConfigs = getResourceCache().deploymentConfigs().list();
+        List<DeploymentConfig> foundDeploymentConfigs = deploymentConfigs.stream()
+                                                                         .filter(deploymentConfig -> regexp.matcher(deploymentConfig.getMetadata().getName()).matches())
+                                                                         .collect(Collectors.toList());
         if (foundDeploymentConfigs.isEmpty()) {
-            String deploymentConfigNames = openShift.getDeploymentConfigs().stream().map(s -> s.getMetadata().getName()).collect(Collectors.joining(", "));
+            String deploymentConfigNames = deploymentConfigs.stream().map(s -> s.getMetadata().getName()).collect(Collectors.joining(", "));
             throw new RuntimeException("Deployment config defined by regexp " + regexp.toString() + " not found. Available deployment configs: " + deploymentConfigNames);
         } else if (foundDeploymentConfigs.size() > 1) {
             String deploymentConfigNames = foundDeploymentConfigs.stream().map(s -> s.getMetadata().getName()).collect(Collectors.joining(", "));
@@ -114,13 +129,14 @@ public abstract class OpenShiftDeployment implements Deployment {
     @Override
     public void scale(int instances) {
         openShift.deploymentConfigs().inNamespace(getNamespace()).withName(getDeploymentConfigName()).scale(instances, true);
+        getResourceCache().deploymentConfigs().invalidate();
     }
 
     @Override
     public boolean isReady() {
         try {
-            Service service = openShift.getService(getServiceName());
-            DeploymentConfig deploymentConfig = openShift.getDeploymentConfig(getDeploymentConfigName());
+            Service service = getResourceCache().services().get(getServiceName());
+            DeploymentConfig deploymentConfig = getResourceCache().deploymentConfigs().get(getDeploymentConfigName());
             return service != null && deploymentConfig != null;
         } catch (Exception e) {
             return false;
@@ -132,14 +148,11 @@ public abstract class OpenShiftDeployment implements Deployment {
         if (isReady() && getReplicas() > 0) {
             String deploymentConfigName = getDeploymentConfigName();
 
-            return OpenShiftCaller.repeatableCall(() -> openShift.getPods()
-                                                                 .stream()
-                                                                 .filter(pod -> {
-                                                                     String podsDeploymentConfigName = pod.getMetadata().getLabels().get(OpenShiftResourceConstants.DEPLOYMENT_CONFIG_LABEL);
-                                                                     return deploymentConfigName.equals(podsDeploymentConfigName);
-                                                                 })
-                                                                 .map(pod -> OpenshiftInstanceUtil.createInstance(openShift, getNamespace(), pod))
-                                                                 .collect(toList()));
+            return getResourceCache().pods()
+                                     .getPods(deploymentConfigName)
+                                     .stream()
+                                     .map(pod -> OpenshiftInstanceUtil.createInstance(openShift, getNamespace(), pod))
+                                     .collect(toList());
         }
 
         return Collections.emptyList();
@@ -160,9 +173,9 @@ public abstract class OpenShiftDeployment implements Deployment {
         try {
             Supplier<Boolean> checkNewVersionTag = () -> deploymentConfig().getSpec().getTemplate().getSpec().getContainers().stream().anyMatch(c -> checkImageVersion(c.getImage(), versionTag));
 
-            new SimpleWaiter(() -> OpenShiftCaller.repeatableCall(checkNewVersionTag)).timeout(OpenShiftResourceConstants.DEPLOYMENT_NEW_VERSION_TIMEOUT)
-                                                                                      .reason("The deployment " + getDeploymentConfigName() + " was not restarted using the version tag " + versionTag)
-                                                                                      .waitFor();
+            new SimpleWaiter(() -> OpenShiftCaller.repeatableCall(openShift, "waitForVersionTag", checkNewVersionTag)).timeout(OpenShiftResourceConstants.DEPLOYMENT_NEW_VERSION_TIMEOUT)
+                                                                                                                      .reason("The deployment " + getDeploymentConfigName() + " was not restarted using the version tag " + versionTag)
+                                                                                                                      .waitFor();
 
         } catch (WaiterException | AssertionError e) {
             throw new DeploymentTimeoutException("Timeout while waiting for pods of " + getDeploymentConfigName() + " to be ready.", e);
@@ -175,37 +188,96 @@ public abstract class OpenShiftDeployment implements Deployment {
     }
 
     protected void waitUntilAllPodsAreReadyAndRunning(int expectedPods) {
-        waitUntilAllPodsAreReady(expectedPods);
-        waitUntilAllPodsAreRunning(expectedPods);
+        Instant startOfWaitLoop = Instant.now();
+        try {
+            waitForPods(PodReadinessTracker.exactlyNPodsReadyAndRunning(expectedPods));
+            logger.info("Waiter done after {}  seconds.", Duration.between(startOfWaitLoop, Instant.now()).getSeconds());
+        } catch (TimeoutException e) {
+            logger.warn("Waiter throw exception after {} seconds.", Duration.between(startOfWaitLoop, Instant.now()).getSeconds());
+            throw new DeploymentTimeoutException("Timeout while waiting for pods of " + getDeploymentConfigName() + " to be ready.", e);
+        } catch (KubernetesClientException e) {
+            logger.warn("Pods of {} cannot be watched, falling back to polling.", getDeploymentConfigName(), e);
+            pollUntilAllPodsAreReady(expectedPods);
+            pollUntilAllPodsAreRunning(expectedPods);
+        }
     }
 
     protected void waitUntilAllPodsAreReady(int expectedPods) {
         Instant startOfWaitLoop = Instant.now();
         try {
-            OpenShiftCaller.repeatableCall(() -> openShift.waiters()
-                                                          .areExactlyNPodsReady(expectedPods, OpenShiftResourceConstants.DEPLOYMENT_CONFIG_LABEL, getDeploymentConfigName())
-                                                          .timeout(OpenShiftResourceConstants.PODS_START_TO_READY_TIMEOUT)
-                                                          .reason("Waiting for " + expectedPods + " pods of deployment config " + getDeploymentConfigName() + " to become ready.")
-                                                          .waitFor());
+            waitForPods(PodReadinessTracker.exactlyNPodsReady(expectedPods));
             logger.info("Waiter done after {}  seconds.", Duration.between(startOfWaitLoop, Instant.now()).getSeconds());
-        } catch (WaiterException | AssertionError e) {
+        } catch (TimeoutException e) {
             logger.warn("Waiter throw exception after {} seconds.", Duration.between(startOfWaitLoop, Instant.now()).getSeconds());
             throw new DeploymentTimeoutException("Timeout while waiting for pods of " + getDeploymentConfigName() + " to be ready.", e);
+        } catch (KubernetesClientException e) {
+            logger.warn("Pods of {} cannot be watched, falling back to polling.", getDeploymentConfigName(), e);
+            pollUntilAllPodsAreReady(expectedPods);
         }
     }
 
     protected void waitUntilAllPodsAreRunning(int expectedPods) {
         try {
-            OpenShiftCaller.repeatableCall(() -> openShift.waiters()
-                                                          .areExactlyNPodsRunning(expectedPods, OpenShiftResourceConstants.DEPLOYMENT_CONFIG_LABEL, getDeploymentConfigName())
-                                                          .timeout(OpenShiftResourceConstants.PODS_START_TO_READY_TIMEOUT)
-                                                          .reason("Waiting for " + expectedPods + " pods of deployment config " + getDeploymentConfigName() + " to become runnning.")
-                                                          .waitFor());
+            waitForPods(PodReadinessTracker.exactlyNPodsRunning(expectedPods));
+        } catch (TimeoutException e) {
+            throw new DeploymentTimeoutException("Timeout while waiting for pods of " + getDeploymentConfigName() + " to start.", e);
+        } catch (KubernetesClientException e) {
+            logger.warn("Pods of {} cannot be watched, falling back to polling.", getDeploymentConfigName(), e);
+            pollUntilAllPodsAreRunning(expectedPods);
+        }
+    }
+
+    private void waitForPods(Predicate<List<Pod>> condition) throws TimeoutException {
+        CompletableFuture<Void> podsWait = project.getPodReadinessTracker().awaitPods(getDeploymentConfigName(), condition);
+        try {
+            podsWait.get(OpenShiftResourceConstants.PODS_START_TO_READY_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for pods of " + getDeploymentConfigName() + ".", e);
+        } catch (ExecutionException e) {
+            // Rethrow API errors as they are, so callers can fall back to polling
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Error while waiting for pods of " + getDeploymentConfigName() + ".", e.getCause());
+        } finally {
+            podsWait.cancel(false);
+        }
+    }
+
+    private void pollUntilAllPodsAreReady(int expectedPods) {
+        Instant startOfWaitLoop = Instant.now();
+        try {
+            new SimpleWaiter(() -> PodReadinessTracker.exactlyNPodsReady(expectedPods).test(getLabeledPods()))
+                    .timeout(OpenShiftResourceConstants.PODS_START_TO_READY_TIMEOUT)
+                    .reason("Waiting for " + expectedPods + " pods of deployment config " + getDeploymentConfigName() + " to become ready.")
+                    .waitFor();
+            logger.info("Waiter done after {}  seconds.", Duration.between(startOfWaitLoop, Instant.now()).getSeconds());
+        } catch (WaiterException | AssertionError e) {
+            logger.warn("Waiter throw exception after {} seconds.", Duration.between(startOfWaitLoop, Instant.now()).getSeconds());
+            throw new DeploymentTimeoutException("Timeout while waiting for pods of " + getDeploymentConfigName() + " to be ready.", e);
+        }
+    }
+
+    private void pollUntilAllPodsAreRunning(int expectedPods) {
+        try {
+            new SimpleWaiter(() -> PodReadinessTracker.exactlyNPodsRunning(expectedPods).test(getLabeledPods()))
+                    .timeout(OpenShiftResourceConstants.PODS_START_TO_READY_TIMEOUT)
+                    .reason("Waiting for " + expectedPods + " pods of deployment config " + getDeploymentConfigName() + " to become runnning.")
+                    .waitFor();
         } catch (WaiterException | AssertionError e) {
             throw new DeploymentTimeoutException("Timeout while waiting for pods of " + getDeploymentConfigName() + " to start.", e);
         }
     }
 
+    /**
+     * Every poll of the waiters is retried on its own, so a transient error doesn't restart the whole wait.
+     */
+    private List<Pod> getLabeledPods() {
+        return OpenShiftCaller.repeatableCall(openShift, "getLabeledPods", () -> openShift.getLabeledPods(OpenShiftResourceConstants.DEPLOYMENT_CONFIG_LABEL,
+                                                                                                          getDeploymentConfigName()));
+    }
+
     @Override
     public void setRouterTimeout(Duration timeoutValue) {
         RouteList list = getRoutes();
@@ -215,6 +287,7 @@ public abstract class OpenShiftDeployment implements Deployment {
                      .withName(r.getMetadata().getName())
                      .edit(route->new RouteBuilder(route).editMetadata().addToAnnotations(OpenShiftConstants.HAPROXY_ROUTER_TIMEOUT, timeoutValue.getSeconds() + "s").endMetadata().build());
         }
+        getResourceCache().routes().invalidate();
     }
 
     @Override
@@ -226,6 +299,7 @@ public abstract class OpenShiftDeployment implements Deployment {
                      .withName(r.getMetadata().getName())
                      .edit(route -> new RouteBuilder(route).editMetadata().removeFromAnnotations(OpenShiftConstants.HAPROXY_ROUTER_TIMEOUT).endMetadata().build());
         }
+        getResourceCache().routes().invalidate();
     }
 
     @Override
@@ -237,6 +311,7 @@ public abstract class OpenShiftDeployment implements Deployment {
                      .withName(r.getMetadata().getName())
                      .edit(route->new RouteBuilder(route).editMetadata().addToAnnotations(OpenShiftConstants.HAPROXY_ROUTER_BALANCE, balance).endMetadata().build());
         }
+        getResourceCache().routes().invalidate();
     }
 
     @Override
@@ -257,6 +332,7 @@ public abstract class OpenShiftDeployment implements Deployment {
                  .endTemplate()
                  .endSpec()
                  .build());
+        getResourceCache().deploymentConfigs().invalidate();
     }
 
     protected Optional<URL> getHttpRouteUrl(String serviceName) {
@@ -279,11 +355,11 @@ public abstract class OpenShiftDeployment implements Deployment {
     }
 
     private DeploymentConfig deploymentConfig() {
-        return openShift.getDeploymentConfig(getDeploymentConfigName());
+        return getResourceCache().deploymentConfigs().get(getDeploymentConfigName());
     }
 
     private Optional<String> getRoute(Protocol protocol, String serviceName) {
-        Service service = openShift.getService(serviceName);
+        Service service = getResourceCache().services().get(serviceName);
         Predicate<Route> httpsPredicate = n -> n.getSpec().getTls() != null;
         Predicate<Route> httpPredicate = n -> n.getSpec().getTls() == null;
 
@@ -293,7 +369,7 @@ public abstract class OpenShiftDeployment implements Deployment {
             String defaultRoutingSubdomain = DeploymentConstants.getDefaultDomainSuffix();
             routeHost = getServiceName() + "-" + getNamespace() + defaultRoutingSubdomain;
         } else {
-            List<Route> routes = openShift.getRoutes();
+            List<Route> routes = getResourceCache().routes().list();
             Optional<Route> route = routes.stream()
                                           .filter(protocol == Protocol.https ? httpsPredicate : httpPredicate)
                                           .filter(n -> n.getSpec().getTo().getName().equals(serviceName))
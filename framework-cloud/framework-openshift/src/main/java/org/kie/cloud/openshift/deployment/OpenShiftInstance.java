@@ -128,6 +128,15 @@ public class OpenShiftInstance implements Instance {
         }
     }
 
+    /**
+     * @return Names of all containers of the pod, empty if the pod doesn't exist.
+     */
+    public List<String> getContainerNames() {
+        return getContainers().stream()
+                              .map(Container::getName)
+                              .collect(Collectors.toList());
+    }
+
     private List<Container> getContainers() {
         return Optional.ofNullable(openshift.getPod(name))
                        .map(Pod::getSpec)
@@ -135,6 +144,34 @@ public class OpenShiftInstance implements Instance {
                        .orElse(new ArrayList<>());
     }
 
+    /**
+     * Return logs from a specific container of the pod, starting at given time.
+     * Every log line is prefixed by its RFC3339 timestamp.
+     *
+     * @param containerName
+     * @param sinceTime RFC3339 timestamp of the first log line to return.
+     * @return
+     */
+    public String getLogsSince(String containerName, String sinceTime) {
+        return openshift.pods().withName(name).inContainer(containerName).usingTimestamps().sinceTime(sinceTime).getLog();
+    }
+
+    /**
+     * Return whole log of a specific container of the pod.
+     * Every log line is prefixed by its RFC3339 timestamp.
+     *
+     * @param containerName
+     * @return
+     */
+    public String getLogsWithTimestamps(String containerName) {
+        return openshift.pods().withName(name).inContainer(containerName).usingTimestamps().getLog();
+    }
+
+    /**
+     * Return a map (containerName/log lines) of all containers log streams from the pod.
+     * Every log line is prefixed by its RFC3339 timestamp, allowing to resume the logs later using {@link #getLogsSince(String, String)}.
+     * @return
+     */
     public Map<String, Observable<String>> observeAllContainersLogs() {
         return getContainers().stream()
                               .map(Container::getName)
@@ -143,10 +180,23 @@ public class OpenShiftInstance implements Instance {
 
     public Observable<String> observeContainerLogs(String containerName) {
         if (Objects.nonNull(containerName)) {
-            LogWatch watcher = openshift.pods().withName(name).inContainer(containerName).watchLog();
+            LogWatch watcher = openshift.pods().withName(name).inContainer(containerName).usingTimestamps().watchLog();
             return StringObservable.byLine(StringObservable.from(new InputStreamReader(watcher.getOutput())));
         } else {
             return openshift.observePodLog(openshift.getPod(name));
         }
     }
+
+    /**
+     * Return log stream of a specific container of the pod, starting at given time.
+     * Every log line is prefixed by its RFC3339 timestamp.
+     *
+     * @param containerName
+     * @param sinceTime RFC3339 timestamp of the first log line to return.
+     * @return
+     */
+    public Observable<String> observeContainerLogsSince(String containerName, String sinceTime) {
+        LogWatch watcher = openshift.pods().withName(name).inContainer(containerName).usingTimestamps().sinceTime(sinceTime).watchLog();
+        return StringObservable.byLine(StringObservable.from(new InputStreamReader(watcher.getOutput())));
+    }
 }
@@ -16,14 +16,21 @@
 package org.kie.cloud.openshift.deployment;
 
 import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 
 import org.kie.cloud.api.deployment.PrometheusDeployment;
+import org.kie.cloud.api.deployment.prometheus.MetricSample;
+import org.kie.cloud.api.deployment.prometheus.MetricSeries;
+import org.kie.cloud.openshift.prometheus.PrometheusQueryClient;
 import org.kie.cloud.openshift.resource.Project;
 
 public class PrometheusDeploymentImpl extends OpenShiftDeployment implements PrometheusDeployment {
 
     private String serviceName;
     private URL url;
+    private PrometheusQueryClient queryClient;
 
     public PrometheusDeploymentImpl(Project project) {
         super(project);
@@ -45,6 +52,33 @@ public class PrometheusDeploymentImpl extends OpenShiftDeployment implements Pro
         return url;
     }
 
+    @Override
+    public List<MetricSample> query(String promQl, Instant time) {
+        return getQueryClient().query(promQl, time);
+    }
+
+    @Override
+    public List<MetricSeries> queryRange(String promQl, Instant start, Instant end, Duration step) {
+        return getQueryClient().queryRange(promQl, start, end, step);
+    }
+
+    private synchronized PrometheusQueryClient getQueryClient() {
+        if (queryClient == null) {
+            queryClient = new PrometheusQueryClient(getUrl());
+        }
+        return queryClient;
+    }
+
+    /**
+     * Close pooled connections of the query client. New client is created if Prometheus is queried again.
+     */
+    public synchronized void close() {
+        if (queryClient != null) {
+            queryClient.close();
+            queryClient = null;
+        }
+    }
+
     @Override
     public void waitForScale() {
         throw new UnsupportedOperationException("Not supported as Prometheus deployment is currently a stateful set.");
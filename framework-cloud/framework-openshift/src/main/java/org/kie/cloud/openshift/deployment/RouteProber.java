@@ -0,0 +1,232 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.openshift.deployment;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.kie.cloud.common.metrics.KieClientMetrics;
+import org.kie.cloud.common.util.HttpsUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Waits until the router exposes routes, that is until the route stops responding with service unavailable code.
+ * <p>
+ * Routes are probed using a shared keep-alive HTTP client, so consecutive probes reuse connections instead of opening new
+ * ones. Delay between probes grows exponentially with random jitter up to a cap, routes passed together are probed
+ * concurrently. Time until the route got exposed is recorded per route and published as {@link #TIME_TO_EXPOSURE} timer into
+ * the global Micrometer registry, tagged by route (target, see {@link KieClientMetrics#getTarget(URL)}) and outcome: EXPOSED, or
+ * TIMEOUT for routes which weren't exposed within timeout.
+ */
+public class RouteProber {
+
+    public static final String TIME_TO_EXPOSURE = "openshift.route.time.to.exposure";
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteProber.class);
+
+    private static final int ROUTER_SERVICE_UNAVAILABLE_CODE = 503;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(5);
+    private static final Duration DEFAULT_INITIAL_DELAY = Duration.ofMillis(250);
+    private static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(5);
+    private static final int REQUEST_TIMEOUT_IN_MS = 10_000;
+    private static final int MAX_CONNECTIONS = 50;
+    private static final String EXPOSED = "EXPOSED";
+    private static final String TIMEOUT = "TIMEOUT";
+
+    private static final RouteProber INSTANCE = new RouteProber(DEFAULT_TIMEOUT, DEFAULT_INITIAL_DELAY, DEFAULT_MAX_DELAY);
+
+    private final Duration timeout;
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    private final LongSupplier nanoClock;
+    private final LongConsumer sleeper;
+    private final MeterRegistry registry;
+    private final CloseableHttpClient httpClient;
+    private final ExecutorService executor = Executors.newCachedThreadPool(new RouteProberThreadFactory());
+    private final Map<String, Duration> timesToExposure = new ConcurrentHashMap<>();
+
+    RouteProber(Duration timeout, Duration initialDelay, Duration maxDelay) {
+        this(timeout, initialDelay, maxDelay, System::nanoTime, RouteProber::sleep, Metrics.globalRegistry);
+    }
+
+    /**
+     * @param nanoClock Source of time used for timeout and time to exposure, in nanoseconds.
+     * @param sleeper Sleeps for delay between probes, in milliseconds.
+     * @param registry Registry to publish time to exposure into.
+     */
+    RouteProber(Duration timeout, Duration initialDelay, Duration maxDelay, LongSupplier nanoClock, LongConsumer sleeper, MeterRegistry registry) {
+        this.timeout = timeout;
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.nanoClock = nanoClock;
+        this.sleeper = sleeper;
+        this.registry = registry;
+        RequestConfig requestConfig = RequestConfig.custom()
+                                                   .setConnectTimeout(REQUEST_TIMEOUT_IN_MS)
+                                                   .setConnectionRequestTimeout(REQUEST_TIMEOUT_IN_MS)
+                                                   .setSocketTimeout(REQUEST_TIMEOUT_IN_MS)
+                                                   .build();
+        this.httpClient = HttpClients.custom()
+                                     .setSSLSocketFactory(HttpsUtils.getSSLConnectionSocketFactory())
+                                     .setDefaultRequestConfig(requestConfig)
+                                     .setMaxConnTotal(MAX_CONNECTIONS)
+                                     .setMaxConnPerRoute(MAX_CONNECTIONS)
+                                     .disableAutomaticRetries()
+                                     .build();
+    }
+
+    /**
+     * @return Shared route prober.
+     */
+    public static RouteProber getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Wait until all routes are exposed. Routes are probed concurrently.
+     *
+     * @param urls URLs of the routes.
+     */
+    public void waitForRoutes(Collection<URL> urls) {
+        List<CompletableFuture<Optional<Duration>>> probes = urls.stream()
+                                                                 .map(url -> CompletableFuture.supplyAsync(() -> waitForRoute(url), executor))
+                                                                 .collect(Collectors.toList());
+        try {
+            CompletableFuture.allOf(probes.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Error waiting for router", e.getCause());
+        }
+    }
+
+    /**
+     * Wait until the route is exposed.
+     *
+     * @param url URL of the route.
+     * @return Time until the route got exposed, empty if the route wasn't exposed within timeout.
+     */
+    public Optional<Duration> waitForRoute(URL url) {
+        String urlString = url.toString();
+        logger.info("Waiting for router to expose url: {}", urlString);
+
+        long startNanos = nanoClock.getAsLong();
+        long timeoutNanos = timeout.toNanos();
+        long delayMillis = initialDelay.toMillis();
+        while (nanoClock.getAsLong() - startNanos < timeoutNanos) {
+            if (isExposed(urlString)) {
+                Duration timeToExposure = Duration.ofNanos(nanoClock.getAsLong() - startNanos);
+                timesToExposure.put(urlString, timeToExposure);
+                recordTimeToExposure(url, EXPOSED, timeToExposure);
+                logger.info("Router exposed url {} after {} ms.", urlString, timeToExposure.toMillis());
+                return Optional.of(timeToExposure);
+            }
+
+            sleeper.accept(withJitter(delayMillis));
+            delayMillis = Math.min(delayMillis * 2, maxDelay.toMillis());
+        }
+
+        logger.warn("Timeout while waiting for router to expose url: {}. The URL is unreachable.", urlString);
+        recordTimeToExposure(url, TIMEOUT, Duration.ofNanos(nanoClock.getAsLong() - startNanos));
+        return Optional.empty();
+    }
+
+    /**
+     * @return Time until the route got exposed for every route exposed so far, keyed by route URL.
+     */
+    public Map<String, Duration> getTimesToExposure() {
+        return Collections.unmodifiableMap(timesToExposure);
+    }
+
+    private void recordTimeToExposure(URL url, String outcome, Duration timeToExposure) {
+        Timer.builder(TIME_TO_EXPOSURE)
+             .description("Time until the router exposed a route")
+             .tags("target", KieClientMetrics.getTarget(url), "outcome", outcome)
+             .register(registry)
+             .record(timeToExposure);
+    }
+
+    private boolean isExposed(String url) {
+        try (CloseableHttpResponse response = httpClient.execute(new HttpGet(url))) {
+            // Consume the response so the connection can be reused by the next probe
+            EntityUtils.consume(response.getEntity());
+            return response.getStatusLine().getStatusCode() != ROUTER_SERVICE_UNAVAILABLE_CODE;
+        } catch (IOException e) {
+            // Connection refused, SSL handshake failures and similar errors mean the route isn't exposed yet
+            logger.debug("Route {} isn't reachable yet: {}", url, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return Delay between half and full of the given delay, so probes of routes exposed at the same time get spread.
+     */
+    private static long withJitter(long delayMillis) {
+        long half = delayMillis / 2;
+        return half + ThreadLocalRandom.current().nextLong(delayMillis - half + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for route to become available.", e);
+        }
+    }
+
+    private static class RouteProberThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "route-prober-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
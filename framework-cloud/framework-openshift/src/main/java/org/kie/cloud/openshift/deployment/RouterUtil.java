@@ -16,51 +16,27 @@
 package org.kie.cloud.openshift.deployment;
 
 import java.net.URL;
-import java.time.Duration;
-import java.time.Instant;
-
-import cz.xtf.core.http.Https;
-import cz.xtf.core.http.HttpsException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 public class RouterUtil {
 
-    private static final int ROUTER_SERVICE_UNAVAILABLE_CODE = 503;
-    private static final long ROUTER_WAIT_ITERATION_TIME = 250;
-    private static final Duration ROUTER_WAIT_TIME = Duration.ofMinutes(5);
-
-    private static final Logger logger = LoggerFactory.getLogger(RouterUtil.class);
-
     public static void waitForRouter(URL url) {
-        Instant endTime = Instant.now().plus(ROUTER_WAIT_TIME);
-
-        String urlString = url.toString();
-        logger.info("Waiting for router to expose url: {}", urlString);
-
-        while (Instant.now().isBefore(endTime)) {
-            try {
-                if (Https.getCode(urlString) != ROUTER_SERVICE_UNAVAILABLE_CODE) {
-                    return;
-                }
+        RouteProber.getInstance().waitForRoute(url);
+    }
 
-                Thread.sleep(ROUTER_WAIT_ITERATION_TIME);
-            } catch (HttpsException e) {
-                logger.debug("SSLHandshakeException: " + e.getMessage());
-                logger.debug("Wait for a while and try to execute request again.");
-                try {
-                    Thread.sleep(Duration.ofSeconds(1).toMillis());
-                } catch (InterruptedException e1) {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException("Interrupted while waiting for route to become available.", e1);
-                }
-                continue;
-            } catch (Exception e) {
-                logger.error("Error waiting for router", e);
-                throw new RuntimeException("Error waiting for router", e);
-            }
+    /**
+     * Wait until all present routes are exposed. Routes are probed concurrently.
+     *
+     * @param urls URLs of the routes, empty ones are skipped.
+     */
+    @SafeVarargs
+    public static void waitForRouters(Optional<URL>... urls) {
+        List<URL> presentUrls = new ArrayList<>();
+        for (Optional<URL> url : urls) {
+            url.ifPresent(presentUrls::add);
         }
-
-        logger.warn("Timeout while waiting for router to expose url: {}. The URL is unreachable.", urlString);
+        RouteProber.getInstance().waitForRoutes(presentUrls);
     }
 }
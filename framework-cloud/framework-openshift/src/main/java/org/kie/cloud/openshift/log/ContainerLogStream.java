@@ -0,0 +1,211 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.log;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.kie.cloud.common.logs.InstanceLogUtil;
+import org.kie.cloud.common.logs.LogTimestampRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Log stream of a single container.
+ * Log lines are offered to a bounded queue without blocking the reader of the container log, lines which don't fit into the queue are dropped and counted.
+ * Queued lines are written using one writer kept open for the whole life of the stream.
+ * Timestamp of the last received line is remembered so the log can be resumed from that point, timestamps of written lines
+ * are passed to writers recording them.
+ * Lines received with that timestamp are remembered as well, so lines sharing the timestamp are not lost when the log is replayed.
+ */
+class ContainerLogStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContainerLogStream.class);
+
+    private final String instanceName;
+    private final String containerName;
+    private final String logFolderName;
+    private final BlockingQueue<LogLine> queuedLines;
+
+    private final AtomicLong droppedLines = new AtomicLong();
+    private volatile String lastTimestampValue;
+
+    // Guarded by this
+    private Instant lastTimestamp;
+    private final Map<String, Integer> linesAtLastTimestamp = new HashMap<>();
+    private final Map<String, Integer> linesToSkip = new HashMap<>();
+
+    private Writer writer;
+
+    ContainerLogStream(String instanceName, String containerName, String logFolderName, int capacity) {
+        this.instanceName = instanceName;
+        this.containerName = containerName;
+        this.logFolderName = logFolderName;
+        this.queuedLines = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Offer log line to the stream. Line prefixed by timestamp older than the last received line is ignored,
+     * so the same log can be streamed again without duplicating lines.
+     *
+     * @param line Log line, optionally prefixed by RFC3339 timestamp.
+     * @see #startReplay()
+     */
+    void offer(String line) {
+        int separatorIndex = line.indexOf(' ');
+        Optional<Instant> timestamp = parseTimestamp(line, separatorIndex);
+        String message = line;
+        if (timestamp.isPresent()) {
+            if (!acceptTimestampedLine(timestamp.get(), line)) {
+                return;
+            }
+            lastTimestampValue = line.substring(0, separatorIndex);
+            message = line.substring(separatorIndex + 1);
+        }
+        if (!queuedLines.offer(new LogLine(timestamp.orElse(null), message))) {
+            droppedLines.incrementAndGet();
+        }
+    }
+
+    /**
+     * Mark start of the log being streamed again, either from the beginning or since the last received timestamp.
+     * Lines with the last received timestamp are then skipped as many times as they were already received, other lines
+     * sharing that timestamp are accepted.
+     */
+    synchronized void startReplay() {
+        linesToSkip.clear();
+        linesToSkip.putAll(linesAtLastTimestamp);
+    }
+
+    /**
+     * @return RFC3339 timestamp of the last received line, if the lines were prefixed by timestamps.
+     */
+    Optional<String> getLastTimestamp() {
+        return Optional.ofNullable(lastTimestampValue);
+    }
+
+    long getDroppedLines() {
+        return droppedLines.get();
+    }
+
+    /**
+     * Write all queued lines. Writer is opened with the first written line.
+     */
+    synchronized void writeQueuedLines() {
+        List<LogLine> lines = new ArrayList<>();
+        queuedLines.drainTo(lines);
+        if (lines.isEmpty()) {
+            return;
+        }
+        try {
+            if (writer == null) {
+                writer = InstanceLogUtil.openInstanceLogWriter(instanceName, containerName, logFolderName);
+            }
+            for (LogLine line : lines) {
+                if (line.timestamp != null && writer instanceof LogTimestampRecorder) {
+                    ((LogTimestampRecorder) writer).recordTimestamp(line.timestamp);
+                }
+                writer.write(line.message);
+                writer.write(System.lineSeparator());
+            }
+            writer.flush();
+        } catch (IOException e) {
+            logger.error("Error writting instance logs of " + getLogName(), e);
+        }
+    }
+
+    /**
+     * Write remaining queued lines and close the writer. Stream can still be used afterwards, writer is reopened if more lines are written.
+     */
+    synchronized void close() {
+        writeQueuedLines();
+        if (droppedLines.get() > 0) {
+            logger.warn("{} log lines of {} were dropped as they couldn't be written in time.", droppedLines.get(), getLogName());
+        }
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                logger.warn("Error closing instance log writer of " + getLogName(), e);
+            }
+            writer = null;
+        }
+    }
+
+    private synchronized boolean acceptTimestampedLine(Instant timestamp, String line) {
+        if (lastTimestamp != null) {
+            int comparison = timestamp.compareTo(lastTimestamp);
+            if (comparison < 0) {
+                return false;
+            }
+            if (comparison == 0) {
+                Integer skippedOccurrences = linesToSkip.get(line);
+                if (skippedOccurrences != null) {
+                    if (skippedOccurrences == 1) {
+                        linesToSkip.remove(line);
+                    } else {
+                        linesToSkip.put(line, skippedOccurrences - 1);
+                    }
+                    return false;
+                }
+                linesAtLastTimestamp.merge(line, 1, Integer::sum);
+                return true;
+            }
+        }
+        lastTimestamp = timestamp;
+        linesAtLastTimestamp.clear();
+        linesToSkip.clear();
+        linesAtLastTimestamp.put(line, 1);
+        return true;
+    }
+
+    private String getLogName() {
+        return instanceName + "-" + containerName;
+    }
+
+    private static Optional<Instant> parseTimestamp(String line, int separatorIndex) {
+        // Quick check for RFC3339 format, e.g. 2021-03-04T10:15:30.123456789Z
+        if (separatorIndex < 20 || line.charAt(4) != '-' || line.charAt(10) != 'T') {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Instant.parse(line.substring(0, separatorIndex)));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static class LogLine {
+
+        private final Instant timestamp;
+        private final String message;
+
+        private LogLine(Instant timestamp, String message) {
+            this.timestamp = timestamp;
+            this.message = message;
+        }
+    }
+}
@@ -15,9 +15,15 @@
  */
 package org.kie.cloud.openshift.log;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
 import io.fabric8.kubernetes.api.model.Event;
 import org.kie.cloud.common.logs.InstanceLogUtil;
 import org.kie.cloud.openshift.resource.Project;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Copy of https://github.com/xtf-cz/xtf/blob/xtf_0.12/junit5/src/main/java/cz/xtf/junit5/listeners/EventsRecorder.java.
@@ -25,8 +31,39 @@ import org.kie.cloud.openshift.resource.Project;
  */
 public class EventsRecorder {
 
+    private static final Logger logger = LoggerFactory.getLogger(EventsRecorder.class);
+
     public static void recordProjectEvents(Project project, String logFolderName) {
-        StringBuffer writer = new StringBuffer();
+        recordProjectEvents(project.getName(), project.getOpenShiftAdmin().v1().events().list().getItems(), logFolderName);
+    }
+
+    /**
+     * Write events recorded during the whole scenario run, including events already expired by the API server.
+     *
+     * @param recorder Closed recorder of the project events.
+     * @param logFolderName Folder to store the events table in.
+     */
+    public static void recordProjectEvents(ProjectEventRecorder recorder, String logFolderName) {
+        recordProjectEvents(recorder.getNamespace(), recorder.getEvents(), logFolderName);
+    }
+
+    private static void recordProjectEvents(String projectName, List<Event> events, String logFolderName) {
+        // Events are written row by row to avoid building the whole table in memory
+        try (Writer writer = InstanceLogUtil.createInstanceLogWriter(projectName + "-events", logFolderName)) {
+            writeEvents(events, writer);
+        } catch (IOException e) {
+            logger.error("Error writting project events", e);
+        }
+    }
+
+    /**
+     * Write events as a tab separated table.
+     *
+     * @param events Events to be written.
+     * @param writer Writer to write the table to.
+     * @throws IOException If writing fails.
+     */
+    public static void writeEvents(List<Event> events, Writer writer) throws IOException {
         writer.append("LAST SEEN");
         writer.append('\t');
         writer.append("FIRST SEEN");
@@ -48,7 +85,7 @@ public class EventsRecorder {
         writer.append("MESSAGE");
         writer.append('\n');
 
-        for (Event event : project.getOpenShiftAdmin().v1().events().list().getItems()) {
+        for (Event event : events) {
             writer.append(event.getLastTimestamp());
             writer.append('\t');
             writer.append(event.getFirstTimestamp());
@@ -70,7 +107,5 @@ public class EventsRecorder {
             writer.append(event.getMessage());
             writer.append('\n');
         }
-
-        InstanceLogUtil.writeInstanceLogs(project.getName() + "-events", logFolderName, writer.toString());
     }
 }
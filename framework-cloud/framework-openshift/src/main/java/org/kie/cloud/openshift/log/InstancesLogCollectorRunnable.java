@@ -1,28 +1,34 @@
 package org.kie.cloud.openshift.log;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.kie.cloud.api.deployment.Instance;
-import org.kie.cloud.common.logs.InstanceLogUtil;
 import org.kie.cloud.openshift.deployment.OpenShiftInstance;
 import org.kie.cloud.openshift.resource.Project;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import rx.Observable;
 
 public class InstancesLogCollectorRunnable implements Runnable {
 
     private static final Logger logger = LoggerFactory.getLogger(InstancesLogCollectorRunnable.class);
 
-    private static final Integer DEFAULT_OBERVABLE_BUFFER_IN_SECONDS = 5;
+    private static final Integer DEFAULT_WRITE_INTERVAL_IN_MS = 1000;
+    private static final Integer DEFAULT_LOG_STREAM_CAPACITY_IN_LINES = 50_000;
 
     private Project project;
     private String logFolderName;
@@ -30,10 +36,19 @@ public class InstancesLogCollectorRunnable implements Runnable {
     protected ExecutorService executorService = Executors.newCachedThreadPool();
     protected Set<OpenShiftInstance> observedInstances = Collections.synchronizedSet(new HashSet<>());
 
+    // Log streams of observed containers, keyed by instance name and container name
+    private final Map<String, Map<String, ContainerLogStream>> logStreams = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService logWriterService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "instance-log-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     public InstancesLogCollectorRunnable(Project project, String logFolderName) {
         super();
         this.project = project;
         this.logFolderName = logFolderName;
+        logWriterService.scheduleWithFixedDelay(this::writeQueuedLines, DEFAULT_WRITE_INTERVAL_IN_MS, DEFAULT_WRITE_INTERVAL_IN_MS, TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -74,55 +89,92 @@ public class InstancesLogCollectorRunnable implements Runnable {
             // Preserve interrupt status
             Thread.currentThread().interrupt();
         } finally {
+            logWriterService.shutdownNow();
             // Finally, flush logs to be sure we have the last state of running pods
             instances.forEach(this::flushInstanceLogs);
+            logStreams.values().forEach(instanceLogStreams -> instanceLogStreams.values().forEach(ContainerLogStream::close));
         }
     }
 
     private void observeInstanceLog(OpenShiftInstance instance) {
         Future<?> future = executorService.submit(() -> {
             try {
-                instance.observeAllContainersLogs()
-                        .entrySet()
-                        .forEach(entry -> {
-                            entry.getValue().buffer(DEFAULT_OBERVABLE_BUFFER_IN_SECONDS, TimeUnit.SECONDS)
-                                 .subscribe(logLines -> instanceLogLines(instance, entry.getKey(), logLines), error -> {
-                                     throw new RuntimeException(error);
-                                 });
-                        });
+                // Log watches of all containers are opened at once, so no container log is lost while another one is read
+                Map<String, Observable<String>> containerLogs = new LinkedHashMap<>();
+                for (String containerName : instance.getContainerNames()) {
+                    containerLogs.put(containerName, observeContainerLog(instance, containerName));
+                }
+                containerLogs.forEach((containerName, logLines) -> {
+                    ContainerLogStream logStream = getLogStream(instance, containerName);
+                    logStream.startReplay();
+                    logLines.subscribe(logStream::offer, error -> {
+                        throw new RuntimeException(error);
+                    });
+                });
 
             } catch (Exception e) {
                 logger.error("Problem observing logs for instance " + instance.getName(), e);
             } finally {
+                // Release the log file of finished instance, the stream is kept to resume the log if the instance is observed again
+                getInstanceLogStreams(instance).values().forEach(ContainerLogStream::close);
                 removeInstanceObserved(instance);
             }
         });
         setInstanceAsObserved(instance, future);
     }
 
-    private void instanceLogLines(OpenShiftInstance instance, String containerName, Collection<String> logLines) {
-        logger.trace("Write log lines {}", logLines);
-        InstanceLogUtil.appendInstanceLogLines(getName(instance, containerName), logFolderName, logLines);
+    /**
+     * Container observed again, for example after the instance was not reachable for a while, continues from its last received log line.
+     */
+    private Observable<String> observeContainerLog(OpenShiftInstance instance, String containerName) {
+        Optional<String> lastTimestamp = getLogStream(instance, containerName).getLastTimestamp();
+        if (lastTimestamp.isPresent()) {
+            return instance.observeContainerLogsSince(containerName, lastTimestamp.get());
+        }
+        return instance.observeContainerLogs(containerName);
+    }
+
+    private ContainerLogStream getLogStream(OpenShiftInstance instance, String containerName) {
+        return getInstanceLogStreams(instance).computeIfAbsent(containerName,
+                                                               name -> new ContainerLogStream(instance.getName(), name, logFolderName, DEFAULT_LOG_STREAM_CAPACITY_IN_LINES));
+    }
+
+    private Map<String, ContainerLogStream> getInstanceLogStreams(OpenShiftInstance instance) {
+        return logStreams.computeIfAbsent(instance.getName(), name -> new ConcurrentHashMap<>());
+    }
+
+    private void writeQueuedLines() {
+        try {
+            logStreams.values().forEach(instanceLogStreams -> instanceLogStreams.values().forEach(ContainerLogStream::writeQueuedLines));
+        } catch (Exception e) {
+            logger.error("Problem writing instance logs", e);
+        }
     }
 
     private void flushInstanceLogs(OpenShiftInstance instance) {
         logger.trace("Flushing logs from {}", instance.getName());
         if (instance.exists()) {
             logger.trace("Flush logs from {}", instance.getName());
-            instance.getAllContainerLogs()
-                    .entrySet()
-                    .forEach(entry -> {
-                        writeInstanceLogs(instance, entry.getKey(), entry.getValue());
-                    });
-
+            for (String containerName : instance.getContainerNames()) {
+                flushContainerLogs(instance, containerName);
+            }
         } else {
             logger.trace("Ignoring instance {} as not running", instance.getName());
         }
     }
 
-    private void writeInstanceLogs(OpenShiftInstance instance, String containerName, String logs) {
-        logger.trace("Write log lines {}", logs);
-        InstanceLogUtil.writeInstanceLogs(getName(instance, containerName), logFolderName, logs);
+    /**
+     * Only the log tail not received yet is fetched, whole log is fetched for container which didn't stream any line.
+     */
+    private void flushContainerLogs(OpenShiftInstance instance, String containerName) {
+        ContainerLogStream logStream = getLogStream(instance, containerName);
+        Optional<String> lastTimestamp = logStream.getLastTimestamp();
+        String logs = lastTimestamp.isPresent() ? instance.getLogsSince(containerName, lastTimestamp.get()) : instance.getLogsWithTimestamps(containerName);
+        logStream.startReplay();
+        Arrays.stream(logs.split("\\R"))
+              .filter(line -> !line.isEmpty())
+              .forEach(logStream::offer);
+        logStream.close();
     }
 
     private boolean isInstanceObserved(OpenShiftInstance instance) {
@@ -142,8 +194,4 @@ public class InstancesLogCollectorRunnable implements Runnable {
         this.observedInstances.remove(instance);
     }
 
-    private static String getName(OpenShiftInstance instance, String containerName) {
-        return instance.getName() + "-" + containerName;
-    }
-
 }
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.openshift.log;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.kubernetes.api.model.Event;
+import io.fabric8.kubernetes.api.model.ObjectReference;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.WatcherException;
+import org.kie.cloud.common.logs.InstanceLogUtil;
+import org.kie.cloud.openshift.resource.Project;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records project events for the whole life of a scenario. Events are watched from the deployment of the scenario, so events
+ * expired by the API server during long runs are still available when the scenario is undeployed.
+ * <p>
+ * Every new occurrence of an event, that is a new event uid or a higher count of an already recorded event, is appended as a JSON
+ * line to the event stream file right away. The latest version of every event is kept in memory, indexed by the involved object.
+ */
+public class ProjectEventRecorder implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectEventRecorder.class);
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final String EVENT_STREAM_SUFFIX = "-events-stream";
+
+    private static final Map<String, ProjectEventRecorder> RECORDERS = new ConcurrentHashMap<>();
+
+    private final String namespace;
+    private final Supplier<List<Event>> lister;
+    private final Function<Watcher<Event>, Watch> watchStarter;
+    private final Writer writer;
+
+    // Latest version of every event keyed by event uid, grouped by involved object
+    private final Map<String, Map<String, Event>> eventsByObject = new LinkedHashMap<>();
+    private final Map<String, Integer> recordedCounts = new HashMap<>();
+
+    private Watch watch;
+    private volatile RecorderWatcher watcher;
+    private volatile boolean closed = false;
+
+    /**
+     * @param namespace Namespace of the events, used in logs.
+     * @param lister Lists all events in the namespace.
+     * @param watchStarter Starts watch of all events in the namespace using provided watcher.
+     * @param writer Writer of the event stream, closed together with the recorder.
+     */
+    ProjectEventRecorder(String namespace, Supplier<List<Event>> lister, Function<Watcher<Event>, Watch> watchStarter, Writer writer) {
+        this.namespace = namespace;
+        this.lister = lister;
+        this.watchStarter = watchStarter;
+        this.writer = writer;
+    }
+
+    /**
+     * Start recording events of the project. Recorder is registered under the project name until it is closed.
+     *
+     * @param project Project to record events of.
+     * @param logFolderName Folder to store the event stream in.
+     * @return Started recorder.
+     */
+    public static ProjectEventRecorder start(Project project, String logFolderName) {
+        Writer writer;
+        try {
+            writer = InstanceLogUtil.createInstanceLogWriter(project.getName() + EVENT_STREAM_SUFFIX, logFolderName);
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot create event stream file of project " + project.getName(), e);
+        }
+        ProjectEventRecorder recorder = new ProjectEventRecorder(project.getName(),
+                                                                 () -> project.getOpenShiftAdmin().v1().events().list().getItems(),
+                                                                 watcher -> project.getOpenShiftAdmin().v1().events().watch(watcher),
+                                                                 writer);
+        recorder.startWatching();
+        RECORDERS.put(project.getName(), recorder);
+        return recorder;
+    }
+
+    /**
+     * @param namespace Namespace of a deployed scenario.
+     * @return Recorder of the namespace events, empty if no recorder is running for the namespace.
+     */
+    public static Optional<ProjectEventRecorder> getRecorder(String namespace) {
+        return Optional.ofNullable(RECORDERS.get(namespace));
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * @return Latest version of all recorded events ordered by the time they were last seen.
+     */
+    public synchronized List<Event> getEvents() {
+        return eventsByObject.values().stream()
+                             .flatMap(events -> events.values().stream())
+                             .sorted(Comparator.comparing(ProjectEventRecorder::getLastSeen))
+                             .collect(Collectors.toList());
+    }
+
+    /**
+     * @param kind Kind of the involved object, for example "Pod".
+     * @param name Name of the involved object.
+     * @return Latest version of events of the object ordered by the time they were last seen.
+     */
+    public synchronized List<Event> getEvents(String kind, String name) {
+        Map<String, Event> events = eventsByObject.getOrDefault(getObjectKey(kind, name), new LinkedHashMap<>());
+        return events.values().stream()
+                     .sorted(Comparator.comparing(ProjectEventRecorder::getLastSeen))
+                     .collect(Collectors.toList());
+    }
+
+    /**
+     * @param filter Filter of events.
+     * @return Latest version of matching events ordered by the time they were last seen.
+     */
+    public List<Event> findEvents(Predicate<Event> filter) {
+        return getEvents().stream().filter(filter).collect(Collectors.toList());
+    }
+
+    /**
+     * Stop watching. Events are listed once more to record events missed by the watch.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        RECORDERS.remove(namespace, this);
+        stopWatching();
+        try {
+            lister.get().forEach(this::record);
+        } catch (KubernetesClientException e) {
+            logger.warn("Cannot list events of namespace {}, only watched events are recorded.", namespace, e);
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.error("Error closing event stream of namespace {}", namespace, e);
+        }
+    }
+
+    synchronized void startWatching() {
+        if (closed) {
+            return;
+        }
+        try {
+            // Watch is started before listing so no event is missed in between, duplicates are filtered by uid and count
+            watcher = new RecorderWatcher();
+            watch = watchStarter.apply(watcher);
+            lister.get().forEach(this::record);
+        } catch (KubernetesClientException e) {
+            logger.warn("Cannot watch events of namespace {}, events will be listed once the scenario is undeployed.", namespace, e);
+            stopWatching();
+        }
+    }
+
+    private void stopWatching() {
+        watcher = null;
+        if (watch != null) {
+            watch.close();
+            watch = null;
+        }
+    }
+
+    private synchronized void record(Event event) {
+        String uid = event.getMetadata().getUid();
+        int count = event.getCount() == null ? 1 : event.getCount();
+        Integer recordedCount = recordedCounts.get(uid);
+        if (recordedCount != null && recordedCount >= count) {
+            return;
+        }
+        recordedCounts.put(uid, count);
+
+        ObjectReference involvedObject = event.getInvolvedObject();
+        eventsByObject.computeIfAbsent(getObjectKey(involvedObject.getKind(), involvedObject.getName()), key -> new LinkedHashMap<>())
+                      .put(uid, event);
+        append(event);
+    }
+
+    private void append(Event event) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("lastSeen", getLastSeen(event));
+        line.put("firstSeen", event.getFirstTimestamp());
+        line.put("count", event.getCount());
+        line.put("type", event.getType());
+        line.put("reason", event.getReason());
+        line.put("kind", event.getInvolvedObject().getKind());
+        line.put("name", event.getInvolvedObject().getName());
+        line.put("subobject", event.getInvolvedObject().getFieldPath());
+        line.put("source", event.getSource() == null ? null : event.getSource().getComponent());
+        line.put("message", event.getMessage());
+        line.put("uid", event.getMetadata().getUid());
+        try {
+            writer.write(JSON_MAPPER.writeValueAsString(line));
+            writer.write('\n');
+            writer.flush();
+        } catch (JsonProcessingException e) {
+            logger.warn("Cannot serialize event {}", event.getMetadata().getName(), e);
+        } catch (IOException e) {
+            logger.error("Error writing event stream of namespace {}", namespace, e);
+        }
+    }
+
+    private synchronized void watchClosed(RecorderWatcher closedWatcher) {
+        if (closedWatcher == watcher && !closed) {
+            logger.debug("Watch of events in namespace {} was closed, starting new one.", namespace);
+            watch = null;
+            watcher = null;
+            startWatching();
+        }
+    }
+
+    private static String getObjectKey(String kind, String name) {
+        return kind + "/" + name;
+    }
+
+    /**
+     * @return Time the event was last seen, events created by newer API may define only the event time.
+     */
+    private static String getLastSeen(Event event) {
+        if (event.getLastTimestamp() != null) {
+            return event.getLastTimestamp();
+        }
+        if (event.getEventTime() != null && event.getEventTime().getTime() != null) {
+            return event.getEventTime().getTime();
+        }
+        return Objects.toString(event.getFirstTimestamp(), "");
+    }
+
+    private class RecorderWatcher implements Watcher<Event> {
+
+        @Override
+        public void eventReceived(Action action, Event event) {
+            if (this != watcher) {
+                // Event of a watch which was already replaced
+                return;
+            }
+            if (action == Action.ADDED || action == Action.MODIFIED) {
+                record(event);
+            }
+        }
+
+        @Override
+        public void onClose(WatcherException cause) {
+            if (cause != null) {
+                watchClosed(this);
+            }
+        }
+    }
+}
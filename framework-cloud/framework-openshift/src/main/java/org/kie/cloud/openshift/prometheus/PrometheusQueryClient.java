@@ -0,0 +1,155 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.openshift.prometheus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.kie.cloud.api.deployment.prometheus.MetricSample;
+import org.kie.cloud.api.deployment.prometheus.MetricSeries;
+import org.kie.cloud.common.util.HttpsUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Client of Prometheus HTTP query API. Responses are decoded while streamed from the connection, see
+ * {@link PrometheusResponseDecoder}.
+ */
+public class PrometheusQueryClient implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrometheusQueryClient.class);
+
+    private static final String QUERY_PATH = "/api/v1/query";
+    private static final String QUERY_RANGE_PATH = "/api/v1/query_range";
+    private static final int REQUEST_TIMEOUT_IN_MS = 60_000;
+
+    private final URL prometheusUrl;
+    private final CloseableHttpClient httpClient;
+    private final PrometheusResponseDecoder decoder = new PrometheusResponseDecoder();
+
+    /**
+     * @param prometheusUrl Base URL of Prometheus.
+     */
+    public PrometheusQueryClient(URL prometheusUrl) {
+        this.prometheusUrl = prometheusUrl;
+        RequestConfig requestConfig = RequestConfig.custom()
+                                                   .setConnectTimeout(REQUEST_TIMEOUT_IN_MS)
+                                                   .setConnectionRequestTimeout(REQUEST_TIMEOUT_IN_MS)
+                                                   .setSocketTimeout(REQUEST_TIMEOUT_IN_MS)
+                                                   .build();
+        this.httpClient = HttpClients.custom()
+                                     .setSSLSocketFactory(HttpsUtils.getSSLConnectionSocketFactory())
+                                     .setDefaultRequestConfig(requestConfig)
+                                     .build();
+    }
+
+    /**
+     * @param promQl PromQL expression.
+     * @param time Evaluation time.
+     * @return Samples of the resulting instant vector, single sample without labels for scalar result.
+     */
+    public List<MetricSample> query(String promQl, Instant time) {
+        URIBuilder uri = uri(QUERY_PATH).addParameter("query", promQl)
+                                        .addParameter("time", toSeconds(time.toEpochMilli()));
+        return execute(uri, promQl).stream()
+                                   .map(series -> new MetricSample(series.getLabels(), series.getTimestamp(0).toEpochMilli(), series.getValue(0)))
+                                   .collect(Collectors.toList());
+    }
+
+    /**
+     * @param promQl PromQL expression.
+     * @param start Start of the range.
+     * @param end End of the range.
+     * @param step Resolution of the result.
+     * @return Series of the resulting range vector.
+     */
+    public List<MetricSeries> queryRange(String promQl, Instant start, Instant end, Duration step) {
+        URIBuilder uri = uri(QUERY_RANGE_PATH).addParameter("query", promQl)
+                                              .addParameter("start", toSeconds(start.toEpochMilli()))
+                                              .addParameter("end", toSeconds(end.toEpochMilli()))
+                                              .addParameter("step", toSeconds(step.toMillis()));
+        return execute(uri, promQl);
+    }
+
+    @Override
+    public void close() {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            logger.warn("Error while closing Prometheus HTTP client.", e);
+        }
+    }
+
+    private List<MetricSeries> execute(URIBuilder uri, String promQl) {
+        HttpGet request;
+        try {
+            request = new HttpGet(uri.build());
+        } catch (URISyntaxException e) {
+            throw new PrometheusQueryException("Invalid Prometheus query URL for query " + promQl, e);
+        }
+
+        logger.debug("Executing Prometheus query {}", request.getURI());
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                throw new PrometheusQueryException("Prometheus returned status " + response.getStatusLine().getStatusCode() + " without body for query " + promQl);
+            }
+            // Error responses have the same JSON format with error details, decoder reports them
+            try (InputStream content = entity.getContent()) {
+                return decoder.decode(content);
+            }
+        } catch (PrometheusQueryException e) {
+            throw new PrometheusQueryException(e.getMessage() + " Query: " + promQl, e);
+        } catch (IOException e) {
+            throw new PrometheusQueryException("Error while executing Prometheus query " + promQl, e);
+        }
+    }
+
+    private URIBuilder uri(String path) {
+        try {
+            URIBuilder uri = new URIBuilder(prometheusUrl.toURI());
+            return uri.setPath(stripTrailingSlash(uri.getPath()) + path);
+        } catch (URISyntaxException e) {
+            throw new PrometheusQueryException("Invalid Prometheus URL " + prometheusUrl, e);
+        }
+    }
+
+    private static String stripTrailingSlash(String path) {
+        if (path == null) {
+            return "";
+        }
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private static String toSeconds(long millis) {
+        return BigDecimal.valueOf(millis, 3).toPlainString();
+    }
+}
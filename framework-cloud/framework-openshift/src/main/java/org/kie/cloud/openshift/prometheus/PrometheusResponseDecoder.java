@@ -0,0 +1,214 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.openshift.prometheus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.kie.cloud.api.deployment.prometheus.MetricSeries;
+
+/**
+ * Decodes responses of Prometheus query API using streaming JSON parser. Samples are read directly into primitive arrays, so
+ * large range results don't create an object per sample.
+ * <p>
+ * Vector and scalar results are decoded as series with a single sample, matrix results as series with all their samples.
+ */
+class PrometheusResponseDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * @param response Response body.
+     * @return Decoded series.
+     * @throws PrometheusQueryException In case the response reports an error or has unexpected format.
+     */
+    List<MetricSeries> decode(InputStream response) throws IOException {
+        String status = null;
+        String errorType = null;
+        String error = null;
+        List<MetricSeries> result = new ArrayList<>();
+
+        try (JsonParser parser = JSON_FACTORY.createParser(response)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "status":
+                        status = parser.getText();
+                        break;
+                    case "errorType":
+                        errorType = parser.getText();
+                        break;
+                    case "error":
+                        error = parser.getText();
+                        break;
+                    case "data":
+                        readData(parser, result);
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+
+        if (!"success".equals(status)) {
+            throw new PrometheusQueryException("Prometheus query failed with status " + status + ": " + errorType + ": " + error);
+        }
+        return result;
+    }
+
+    private static void readData(JsonParser parser, List<MetricSeries> result) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("result".equals(field)) {
+                readResult(parser, result);
+            } else {
+                // Result type is not needed, the shape of result entries is enough to decode them
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readResult(JsonParser parser, List<MetricSeries> result) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_ARRAY);
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+            // Scalar result [timestamp, "value"]
+            SamplesBuffer samples = new SamplesBuffer(1);
+            samples.add(toMillis(parser), readValue(parser));
+            expect(parser.nextToken(), JsonToken.END_ARRAY);
+            result.add(samples.toSeries(new HashMap<>()));
+            return;
+        }
+        for (; token == JsonToken.START_OBJECT; token = parser.nextToken()) {
+            result.add(readSeries(parser));
+        }
+        expect(token, JsonToken.END_ARRAY);
+    }
+
+    private static MetricSeries readSeries(JsonParser parser) throws IOException {
+        Map<String, String> labels = new HashMap<>();
+        SamplesBuffer samples = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "metric":
+                    expect(parser.currentToken(), JsonToken.START_OBJECT);
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String label = parser.getCurrentName();
+                        labels.put(label, parser.nextTextValue());
+                    }
+                    break;
+                case "value":
+                    samples = new SamplesBuffer(1);
+                    readSample(parser, samples);
+                    break;
+                case "values":
+                    expect(parser.currentToken(), JsonToken.START_ARRAY);
+                    samples = new SamplesBuffer(INITIAL_CAPACITY);
+                    while (parser.nextToken() == JsonToken.START_ARRAY) {
+                        readSample(parser, samples);
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        if (samples == null) {
+            throw new PrometheusQueryException("Result series " + labels + " contains no value.");
+        }
+        return samples.toSeries(labels);
+    }
+
+    private static void readSample(JsonParser parser, SamplesBuffer samples) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_ARRAY);
+        parser.nextToken();
+        long timestamp = toMillis(parser);
+        samples.add(timestamp, readValue(parser));
+        expect(parser.nextToken(), JsonToken.END_ARRAY);
+    }
+
+    private static long toMillis(JsonParser parser) throws IOException {
+        return Math.round(parser.getDoubleValue() * 1000);
+    }
+
+    /**
+     * Prometheus encodes sample values as strings, special values use Go formatting.
+     */
+    private static double readValue(JsonParser parser) throws IOException {
+        String value = parser.nextTextValue();
+        if (value == null) {
+            throw new PrometheusQueryException("Sample value must be a string, was " + parser.currentToken());
+        }
+        switch (value) {
+            case "+Inf":
+                return Double.POSITIVE_INFINITY;
+            case "-Inf":
+                return Double.NEGATIVE_INFINITY;
+            case "NaN":
+                return Double.NaN;
+            default:
+                return Double.parseDouble(value);
+        }
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new PrometheusQueryException("Unexpected Prometheus response format, expected " + expected + " but got " + actual);
+        }
+    }
+
+    private static class SamplesBuffer {
+
+        private long[] timestamps;
+        private double[] values;
+        private int size;
+
+        private SamplesBuffer(int capacity) {
+            timestamps = new long[capacity];
+            values = new double[capacity];
+        }
+
+        private void add(long timestamp, double value) {
+            if (size == values.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            timestamps[size] = timestamp;
+            values[size] = value;
+            size++;
+        }
+
+        private MetricSeries toSeries(Map<String, String> labels) {
+            return new MetricSeries(labels, Arrays.copyOf(timestamps, size), Arrays.copyOf(values, size));
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.resource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.WatcherException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cached view of one resource type in a namespace.
+ * Resources are listed once and then kept up to date by a watch started from resource version of the listing, reads are served from the cache.
+ * The cache is refreshed by listing again once it is invalidated or once the watch is closed by the server.
+ * If the resource type cannot be watched then every read goes directly to the API server.
+ *
+ * @param <T> Resource type.
+ */
+public class CachedResources<T extends HasMetadata> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachedResources.class);
+
+    private final String resourceType;
+    private final String namespace;
+    private final Supplier<? extends KubernetesResourceList<T>> lister;
+    private final Function<String, T> getter;
+    private final BiFunction<String, Watcher<T>, Watch> watchStarter;
+
+    private final Map<String, T> resources = new ConcurrentHashMap<>();
+    private final AtomicLong apiCallsSaved = new AtomicLong();
+
+    private Watch watch;
+    private volatile CacheWatcher watcher;
+    private volatile boolean populated = false;
+    private volatile boolean watchUnavailable = false;
+    private volatile boolean closed = false;
+
+    /**
+     * @param resourceType Resource type name, used in logs.
+     * @param namespace Namespace of the resources, used in logs.
+     * @param lister Lists all resources in the namespace.
+     * @param getter Retrieves resource by its name, returns null if such resource doesn't exist.
+     * @param watchStarter Starts watch of all resources in the namespace from the resource version using provided watcher.
+     */
+    public CachedResources(String resourceType, String namespace, Supplier<? extends KubernetesResourceList<T>> lister, Function<String, T> getter,
+                           BiFunction<String, Watcher<T>, Watch> watchStarter) {
+        this.resourceType = resourceType;
+        this.namespace = namespace;
+        this.lister = lister;
+        this.getter = getter;
+        this.watchStarter = watchStarter;
+    }
+
+    /**
+     * @return All resources in the namespace.
+     */
+    public List<T> list() {
+        boolean alreadyPopulated = populated;
+        if (!ensurePopulated()) {
+            return lister.get().getItems();
+        }
+        if (alreadyPopulated) {
+            apiCallsSaved.incrementAndGet();
+        }
+        return new ArrayList<>(resources.values());
+    }
+
+    /**
+     * Resource missing in the cache is retrieved from API server, as it may have been just created and its watch event not received yet.
+     *
+     * @param name Resource name.
+     * @return Resource with the name or null if such resource doesn't exist.
+     */
+    public T get(String name) {
+        if (ensurePopulated()) {
+            T resource = resources.get(name);
+            if (resource != null) {
+                apiCallsSaved.incrementAndGet();
+                return resource;
+            }
+        }
+        return getter.apply(name);
+    }
+
+    /**
+     * Drop cached resources, next read lists resources from API server again.
+     * Should be called after resources are modified to make sure subsequent reads reflect the modification.
+     */
+    public synchronized void invalidate() {
+        stopWatching();
+        resources.clear();
+        populated = false;
+    }
+
+    /**
+     * @return Number of reads served from the cache instead of API server.
+     */
+    public long getApiCallsSaved() {
+        return apiCallsSaved.get();
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        invalidate();
+    }
+
+    /**
+     * @return True if reads can be served from the cache.
+     */
+    private boolean ensurePopulated() {
+        if (closed || watchUnavailable) {
+            return false;
+        }
+        return populated || populate();
+    }
+
+    private synchronized boolean populate() {
+        if (closed || watchUnavailable) {
+            return false;
+        }
+        if (populated) {
+            return true;
+        }
+        // Resources are listed first and the watch continues from resource version of the listing, so no change is missed
+        // in between and resources deleted meanwhile are not brought back by the listing
+        KubernetesResourceList<T> resourceList = lister.get();
+        resources.clear();
+        resourceList.getItems().forEach(resource -> resources.put(resource.getMetadata().getName(), resource));
+        String resourceVersion = resourceList.getMetadata() == null ? null : resourceList.getMetadata().getResourceVersion();
+        try {
+            watcher = new CacheWatcher();
+            watch = watchStarter.apply(resourceVersion, watcher);
+        } catch (KubernetesClientException e) {
+            logger.warn("Cannot watch {} in namespace {}, they won't be cached.", resourceType, namespace, e);
+            watcher = null;
+            watchUnavailable = true;
+            resources.clear();
+            return false;
+        }
+        populated = true;
+        return true;
+    }
+
+    private void stopWatching() {
+        watcher = null;
+        if (watch != null) {
+            watch.close();
+            watch = null;
+        }
+    }
+
+    private synchronized void watchClosed(CacheWatcher closedWatcher) {
+        if (closedWatcher == watcher) {
+            logger.debug("Watch of {} in namespace {} was closed, cache will be refreshed with next read.", resourceType, namespace);
+            watch = null;
+            watcher = null;
+            resources.clear();
+            populated = false;
+        }
+    }
+
+    private class CacheWatcher implements Watcher<T> {
+
+        @Override
+        public void eventReceived(Action action, T resource) {
+            if (this != watcher) {
+                // Event of a watch which was already replaced
+                return;
+            }
+            if (action == Action.DELETED) {
+                resources.remove(resource.getMetadata().getName());
+            } else if (action != Action.ERROR) {
+                resources.put(resource.getMetadata().getName(), resource);
+            }
+        }
+
+        @Override
+        public void onClose(WatcherException cause) {
+            if (!closed) {
+                watchClosed(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.openshift.resource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+
+import cz.xtf.core.openshift.OpenShiftBinary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of logged in oc binary clients. Every user and namespace combination has its own session with its own kubeconfig,
+ * the login is done just once and the session is reused until it expires or until a command executed in it fails.
+ * <p>
+ * Commands of one session can be executed concurrently, oc reads the kubeconfig only. Logins are serialized per session,
+ * logins of different sessions don't block each other.
+ */
+public class OcSessionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(OcSessionCache.class);
+
+    public enum User {
+        MASTER,
+        ADMIN
+    }
+
+    private final Map<SessionKey, Session> sessions = new ConcurrentHashMap<>();
+    private final BiFunction<User, String, OpenShiftBinary> login;
+    private final long sessionTimeoutNanos;
+    private final LongSupplier nanoTime;
+
+    /**
+     * @param login Function creating oc binary client logged in as the user into the namespace.
+     * @param sessionTimeout Time after which the session is logged in again, should be shorter than lifetime of login token.
+     */
+    public OcSessionCache(BiFunction<User, String, OpenShiftBinary> login, Duration sessionTimeout) {
+        this(login, sessionTimeout, System::nanoTime);
+    }
+
+    OcSessionCache(BiFunction<User, String, OpenShiftBinary> login, Duration sessionTimeout, LongSupplier nanoTime) {
+        this.login = login;
+        this.sessionTimeoutNanos = sessionTimeout.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Execute oc command in session of the user and namespace, log in if there is no valid session yet.
+     *
+     * @param user User executing the command.
+     * @param namespace Namespace the command is executed in.
+     * @param args Command arguments.
+     * @return Output of the command, null if the command failed.
+     */
+    public String execute(User user, String namespace, String... args) {
+        Session session = getSession(user, namespace);
+        String output = session.getBinary().execute(args);
+        if (output == null) {
+            // Failure can be caused by expired login, next command will log in again
+            session.invalidate();
+        }
+        return output;
+    }
+
+    /**
+     * @param user User of the session.
+     * @param namespace Namespace of the session.
+     * @return Oc binary client logged in as the user into the namespace.
+     */
+    public OpenShiftBinary getBinary(User user, String namespace) {
+        return getSession(user, namespace).getBinary();
+    }
+
+    /**
+     * Remove all sessions of the namespace, for example when the namespace is deleted.
+     *
+     * @param namespace Namespace name.
+     */
+    public void invalidate(String namespace) {
+        sessions.keySet().removeIf(key -> key.namespace.equals(namespace));
+    }
+
+    private Session getSession(User user, String namespace) {
+        return sessions.computeIfAbsent(new SessionKey(user, namespace), Session::new);
+    }
+
+    private class Session {
+
+        private final SessionKey key;
+        private OpenShiftBinary binary;
+        private long loginNanos;
+
+        private Session(SessionKey key) {
+            this.key = key;
+        }
+
+        private synchronized OpenShiftBinary getBinary() {
+            if (binary == null || nanoTime.getAsLong() - loginNanos >= sessionTimeoutNanos) {
+                logger.debug("Logging oc client in as {} into namespace {}.", key.user, key.namespace);
+                binary = login.apply(key.user, key.namespace);
+                loginNanos = nanoTime.getAsLong();
+            }
+            return binary;
+        }
+
+        private synchronized void invalidate() {
+            binary = null;
+        }
+    }
+
+    private static class SessionKey {
+
+        private final User user;
+        private final String namespace;
+
+        private SessionKey(User user, String namespace) {
+            this.user = Objects.requireNonNull(user);
+            this.namespace = Objects.requireNonNull(namespace);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            SessionKey that = (SessionKey) o;
+            return user == that.user && namespace.equals(that.namespace);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(user, namespace);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.resource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodCondition;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.PodStatus;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.WatcherException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks pods of a namespace using a watch and keeps them cached by their deployment config label.
+ * Waits registered in the tracker are completed as soon as pods of the deployment config satisfy the wait condition,
+ * so no polling of the API server is needed while waiting for pods.
+ * The tracker is the only pod cache of a project, pod lookups and pod waits are served from the same cached pods.
+ */
+public class PodReadinessTracker implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PodReadinessTracker.class);
+
+    private static final String POD_PHASE_RUNNING = "Running";
+    private static final String POD_CONDITION_READY = "Ready";
+
+    private final String namespace;
+    private final Supplier<PodList> lister;
+    private final BiFunction<String, Watcher<Pod>, Watch> watchStarter;
+
+    private final List<PodsWait> pendingWaits = new CopyOnWriteArrayList<>();
+    private final AtomicLong apiCallsSaved = new AtomicLong();
+
+    private volatile Map<String, Map<String, Pod>> podsByDeploymentConfig = new ConcurrentHashMap<>();
+    private volatile Watch watch;
+    private volatile PodWatcher watcher;
+    private volatile boolean closed = false;
+
+    public PodReadinessTracker(KubernetesClient client, String namespace) {
+        this(namespace,
+             () -> client.pods().inNamespace(namespace).list(),
+             (resourceVersion, watcher) -> client.pods().inNamespace(namespace).watch(resourceVersion, watcher));
+    }
+
+    /**
+     * @param namespace Namespace of the pods, used in logs.
+     * @param lister Lists all pods in the namespace.
+     * @param watchStarter Starts watch of all pods in the namespace from the resource version using provided watcher.
+     */
+    public PodReadinessTracker(String namespace, Supplier<PodList> lister, BiFunction<String, Watcher<Pod>, Watch> watchStarter) {
+        this.namespace = namespace;
+        this.lister = lister;
+        this.watchStarter = watchStarter;
+    }
+
+    /**
+     * Wait until pods of deployment config satisfy the condition.
+     *
+     * @param deploymentConfigName Name of deployment config, pods are matched using deployment config label.
+     * @param condition Condition evaluated on all current pods of the deployment config.
+     * @return Future completed once the condition is satisfied.
+     */
+    public CompletableFuture<Void> awaitPods(String deploymentConfigName, Predicate<List<Pod>> condition) {
+        if (closed) {
+            throw new IllegalStateException("Pod readiness tracker of namespace " + namespace + " is already closed.");
+        }
+        startWatching();
+
+        PodsWait podsWait = new PodsWait(deploymentConfigName, condition);
+        pendingWaits.add(podsWait);
+        podsWait.future.whenComplete((result, error) -> pendingWaits.remove(podsWait));
+        evaluate(podsWait);
+        return podsWait.future;
+    }
+
+    /**
+     * @return All pods of the namespace.
+     */
+    public List<Pod> getPods() {
+        boolean alreadyWatching = watch != null;
+        if (!ensureWatching()) {
+            return lister.get().getItems();
+        }
+        countSavedCall(alreadyWatching);
+        return podsByDeploymentConfig.values().stream().flatMap(pods -> pods.values().stream()).collect(Collectors.toList());
+    }
+
+    /**
+     * @param deploymentConfigName Name of deployment config.
+     * @return Pods of the deployment config.
+     */
+    public List<Pod> getPods(String deploymentConfigName) {
+        boolean alreadyWatching = watch != null;
+        if (!ensureWatching()) {
+            return lister.get().getItems().stream().filter(pod -> deploymentConfigName.equals(getDeploymentConfigName(pod))).collect(Collectors.toList());
+        }
+        countSavedCall(alreadyWatching);
+        return getCachedPods(deploymentConfigName);
+    }
+
+    /**
+     * @return Number of pod lookups served from tracked pods instead of API server.
+     */
+    public long getApiCallsSaved() {
+        return apiCallsSaved.get();
+    }
+
+    /**
+     * @param expectedPods Expected number of pods.
+     * @return Condition satisfied when there is exactly expected number of pods and all of them are ready.
+     */
+    public static Predicate<List<Pod>> exactlyNPodsReady(int expectedPods) {
+        return pods -> pods.size() == expectedPods && pods.stream().allMatch(PodReadinessTracker::isPodReady);
+    }
+
+    /**
+     * @param expectedPods Expected number of pods.
+     * @return Condition satisfied when there is exactly expected number of pods and all of them are running.
+     */
+    public static Predicate<List<Pod>> exactlyNPodsRunning(int expectedPods) {
+        return pods -> pods.size() == expectedPods && pods.stream().allMatch(PodReadinessTracker::isPodRunning);
+    }
+
+    /**
+     * @param expectedPods Expected number of pods.
+     * @return Condition satisfied when there is exactly expected number of pods and all of them are ready and running.
+     */
+    public static Predicate<List<Pod>> exactlyNPodsReadyAndRunning(int expectedPods) {
+        return exactlyNPodsReady(expectedPods).and(exactlyNPodsRunning(expectedPods));
+    }
+
+    public static boolean isPodReady(Pod pod) {
+        return Optional.ofNullable(pod.getStatus())
+                       .map(PodStatus::getConditions)
+                       .orElse(Collections.emptyList())
+                       .stream()
+                       .filter(condition -> POD_CONDITION_READY.equals(condition.getType()))
+                       .map(PodCondition::getStatus)
+                       .anyMatch(Boolean.TRUE.toString()::equalsIgnoreCase);
+    }
+
+    public static boolean isPodRunning(Pod pod) {
+        return pod.getStatus() != null && POD_PHASE_RUNNING.equals(pod.getStatus().getPhase());
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        watcher = null;
+        if (watch != null) {
+            watch.close();
+            watch = null;
+        }
+        pendingWaits.forEach(podsWait -> podsWait.future.cancel(false));
+        podsByDeploymentConfig.clear();
+    }
+
+    /**
+     * @return True if reads can be served from the cache, false once the tracker is closed.
+     */
+    private boolean ensureWatching() {
+        if (closed) {
+            return false;
+        }
+        startWatching();
+        return true;
+    }
+
+    private void countSavedCall(boolean alreadyWatching) {
+        if (alreadyWatching) {
+            apiCallsSaved.incrementAndGet();
+        }
+    }
+
+    private synchronized void startWatching() {
+        if (watch != null || closed) {
+            return;
+        }
+        logger.debug("Start watching pods in namespace {}", namespace);
+        // Pods are listed first and the watch continues from resource version of the listing, so no pod change is missed
+        // in between and pods deleted meanwhile are not brought back by the listing
+        PodList podList = lister.get();
+        Map<String, Map<String, Pod>> listedPods = new ConcurrentHashMap<>();
+        podList.getItems().forEach(pod -> listedPods.computeIfAbsent(getDeploymentConfigName(pod), name -> new ConcurrentHashMap<>())
+                                                    .put(pod.getMetadata().getName(), pod));
+        podsByDeploymentConfig = listedPods;
+
+        PodWatcher podWatcher = new PodWatcher();
+        watcher = podWatcher;
+        try {
+            watch = watchStarter.apply(podList.getMetadata().getResourceVersion(), podWatcher);
+        } catch (RuntimeException e) {
+            watcher = null;
+            throw e;
+        }
+        pendingWaits.forEach(this::evaluate);
+    }
+
+    private synchronized void restartWatching(PodWatcher closedWatcher) {
+        if (closedWatcher != watcher || closed) {
+            return;
+        }
+        watcher = null;
+        watch = null;
+        startWatching();
+    }
+
+    private void podChanged(Watcher.Action action, Pod pod) {
+        Map<String, Pod> pods = getDeploymentConfigPods(pod);
+        if (action == Watcher.Action.DELETED) {
+            pods.remove(pod.getMetadata().getName());
+        } else {
+            pods.put(pod.getMetadata().getName(), pod);
+        }
+
+        String deploymentConfigName = getDeploymentConfigName(pod);
+        pendingWaits.stream()
+                    .filter(podsWait -> podsWait.deploymentConfigName.equals(deploymentConfigName))
+                    .forEach(this::evaluate);
+    }
+
+    private void evaluate(PodsWait podsWait) {
+        if (!podsWait.future.isDone() && podsWait.condition.test(getCachedPods(podsWait.deploymentConfigName))) {
+            podsWait.future.complete(null);
+        }
+    }
+
+    private List<Pod> getCachedPods(String deploymentConfigName) {
+        return new ArrayList<>(podsByDeploymentConfig.getOrDefault(deploymentConfigName, Collections.emptyMap()).values());
+    }
+
+    private Map<String, Pod> getDeploymentConfigPods(Pod pod) {
+        return podsByDeploymentConfig.computeIfAbsent(getDeploymentConfigName(pod), name -> new ConcurrentHashMap<>());
+    }
+
+    private static String getDeploymentConfigName(Pod pod) {
+        Map<String, String> labels = pod.getMetadata().getLabels();
+        return labels == null ? "" : Objects.toString(labels.get(OpenShiftResourceConstants.DEPLOYMENT_CONFIG_LABEL), "");
+    }
+
+    private class PodWatcher implements Watcher<Pod> {
+
+        @Override
+        public void eventReceived(Action action, Pod pod) {
+            if (this != watcher) {
+                // Event of a watch which was already replaced
+                return;
+            }
+            if (action != Action.ERROR) {
+                podChanged(action, pod);
+            }
+        }
+
+        @Override
+        public void onClose(WatcherException cause) {
+            if (!closed && this == watcher) {
+                logger.debug("Pod watch in namespace {} was closed, restarting it.", namespace, cause);
+                try {
+                    restartWatching(this);
+                } catch (Exception e) {
+                    logger.warn("Failed to restart pod watch in namespace " + namespace + ", it will be restarted with next wait.", e);
+                }
+            }
+        }
+    }
+
+    private static class PodsWait {
+
+        private final String deploymentConfigName;
+        private final Predicate<List<Pod>> condition;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PodsWait(String deploymentConfigName, Predicate<List<Pod>> condition) {
+            this.deploymentConfigName = deploymentConfigName;
+            this.condition = condition;
+        }
+    }
+}
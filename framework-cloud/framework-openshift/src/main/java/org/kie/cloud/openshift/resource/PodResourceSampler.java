@@ -0,0 +1,257 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.openshift.resource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import cz.xtf.core.openshift.OpenShift;
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.metrics.v1beta1.ContainerMetrics;
+import io.fabric8.kubernetes.api.model.metrics.v1beta1.PodMetrics;
+import io.fabric8.kubernetes.api.model.metrics.v1beta1.PodMetricsList;
+import org.kie.cloud.api.deployment.Deployment;
+import org.kie.cloud.api.deployment.Instance;
+import org.kie.cloud.openshift.constants.OpenShiftConstants;
+import org.kie.cloud.openshift.deployment.OpenShiftDeployment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically samples CPU and memory usage of all instances of given deployments from the metrics API. Usage of all pods in the
+ * namespace is retrieved by a single request per sample. Metrics API refreshes pod metrics only every few seconds, samples with
+ * unchanged timestamp are not stored again.
+ * <p>
+ * Samples are kept in memory for the whole life of the sampler and can be aggregated for any time range, for example for time windows
+ * of {@code LatencyRecorder} to compute throughput per CPU core.
+ */
+public class PodResourceSampler implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PodResourceSampler.class);
+
+    private static final String CPU = "cpu";
+    private static final String MEMORY = "memory";
+    private static final BigDecimal MILLIS_IN_UNIT = BigDecimal.valueOf(1000);
+
+    private final Supplier<PodMetricsList> metricsSource;
+    private final Function<String, Long> cpuLimitSource;
+    private final Collection<? extends Deployment> deployments;
+    private final Duration interval;
+    private final Map<String, ResourceTimeSeries> seriesByPod = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+    private boolean failureLogged = false;
+
+    /**
+     * @param openShift OpenShift client of the namespace with the deployments.
+     * @param deployments Deployments whose instances are sampled.
+     * @param interval Interval between samples.
+     */
+    public PodResourceSampler(OpenShift openShift, Collection<? extends Deployment> deployments, Duration interval) {
+        this(() -> openShift.top().pods().metrics(openShift.getNamespace()), podName -> getCpuLimitMillicores(openShift.getPod(podName)),
+             deployments, interval);
+    }
+
+    PodResourceSampler(Supplier<PodMetricsList> metricsSource, Function<String, Long> cpuLimitSource, Collection<? extends Deployment> deployments,
+                       Duration interval) {
+        this.metricsSource = metricsSource;
+        this.cpuLimitSource = cpuLimitSource;
+        this.deployments = deployments;
+        this.interval = interval;
+    }
+
+    /**
+     * @param deployments Deployments whose instances are sampled, deployments not running in OpenShift are ignored.
+     * @return Sampler of the deployments using interval defined by {@code pod.metrics.sample.interval} property.
+     */
+    public static PodResourceSampler forDeployments(Collection<? extends Deployment> deployments) {
+        List<OpenShiftDeployment> openShiftDeployments = new ArrayList<>();
+        for (Deployment deployment : deployments) {
+            if (deployment instanceof OpenShiftDeployment) {
+                openShiftDeployments.add((OpenShiftDeployment) deployment);
+            }
+        }
+        if (openShiftDeployments.isEmpty()) {
+            throw new IllegalArgumentException("No OpenShift deployment to sample.");
+        }
+        return new PodResourceSampler(openShiftDeployments.get(0).getOpenShift(), openShiftDeployments,
+                                      OpenShiftConstants.getPodMetricsSampleInterval());
+    }
+
+    /**
+     * Start sampling in background.
+     *
+     * @return This sampler.
+     */
+    public synchronized PodResourceSampler start() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new SamplerThreadFactory());
+            scheduler.scheduleWithFixedDelay(this::sampleSafely, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * Take one sample of all instances of the deployments.
+     */
+    public void sample() {
+        Map<String, Deployment> deploymentsByPod = new HashMap<>();
+        for (Deployment deployment : deployments) {
+            for (Instance instance : deployment.getInstances()) {
+                deploymentsByPod.put(instance.getName(), deployment);
+            }
+        }
+        if (deploymentsByPod.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        for (PodMetrics podMetrics : metricsSource.get().getItems()) {
+            String podName = podMetrics.getMetadata().getName();
+            Deployment deployment = deploymentsByPod.get(podName);
+            if (deployment == null) {
+                continue;
+            }
+
+            long cpuMillicores = 0;
+            long memoryBytes = 0;
+            for (ContainerMetrics container : podMetrics.getContainers()) {
+                cpuMillicores += toMillis(container.getUsage().get(CPU));
+                memoryBytes += toUnits(container.getUsage().get(MEMORY));
+            }
+            ResourceTimeSeries series = seriesByPod.computeIfAbsent(podName,
+                    name -> new ResourceTimeSeries(name, deployment, cpuLimitSource.apply(name)));
+            series.add(parseTimestamp(podMetrics.getTimestamp(), now), (int) cpuMillicores, memoryBytes);
+        }
+    }
+
+    /**
+     * @param deployment Sampled deployment.
+     * @return Usage of the deployment pods during the whole sampling.
+     */
+    public ResourceUsage getUsage(Deployment deployment) {
+        return getUsage(deployment, Instant.EPOCH, Instant.now().plusSeconds(1));
+    }
+
+    /**
+     * @param deployment Sampled deployment.
+     * @param from Start of the time range, inclusive.
+     * @param to End of the time range, exclusive.
+     * @return Usage of the deployment pods computed from samples taken in the time range.
+     */
+    public ResourceUsage getUsage(Deployment deployment, Instant from, Instant to) {
+        ResourceUsage.Accumulator accumulator = new ResourceUsage.Accumulator();
+        seriesByPod.values().stream()
+                            .filter(series -> Objects.equals(series.getDeployment(), deployment))
+                            .forEach(series -> series.accumulate(from, to, accumulator));
+        return accumulator.toUsage();
+    }
+
+    /**
+     * @return Number of stored samples of all pods.
+     */
+    public int getSampleCount() {
+        return seriesByPod.values().stream().mapToInt(ResourceTimeSeries::size).sum();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void sampleSafely() {
+        try {
+            sample();
+        } catch (Exception e) {
+            // Exception would cancel scheduled sampling, metrics API may also be temporarily unavailable
+            if (!failureLogged) {
+                logger.warn("Error while sampling pod resource usage, further failures are not logged.", e);
+                failureLogged = true;
+            }
+        }
+    }
+
+    private static long parseTimestamp(String timestamp, long defaultMillis) {
+        if (timestamp == null) {
+            return defaultMillis;
+        }
+        try {
+            return Instant.parse(timestamp).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return defaultMillis;
+        }
+    }
+
+    private static long toMillis(Quantity quantity) {
+        return quantity == null ? 0 : Quantity.getAmountInBytes(quantity).multiply(MILLIS_IN_UNIT).longValue();
+    }
+
+    private static long toUnits(Quantity quantity) {
+        return quantity == null ? 0 : Quantity.getAmountInBytes(quantity).longValue();
+    }
+
+    /**
+     * @return Sum of CPU limits of pod containers, 0 if any container has no limit.
+     */
+    static long getCpuLimitMillicores(Pod pod) {
+        if (pod == null) {
+            return 0;
+        }
+        long limit = 0;
+        for (Container container : pod.getSpec().getContainers()) {
+            Quantity containerLimit = container.getResources() == null || container.getResources().getLimits() == null ? null
+                    : container.getResources().getLimits().get(CPU);
+            if (containerLimit == null) {
+                return 0;
+            }
+            limit += toMillis(containerLimit);
+        }
+        return limit;
+    }
+
+    private static class SamplerThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "pod-resource-sampler-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -153,4 +153,17 @@ public interface Project extends AutoCloseable {
      * @see Instance
      */
     public List<Instance> getAllInstances();
+
+    /**
+     * Return tracker watching pods of the project, used to wait for pods without polling.
+     *
+     * @return Pod readiness tracker of the project
+     * @see PodReadinessTracker
+     */
+    public PodReadinessTracker getPodReadinessTracker();
+
+    /**
+     * @return Cached view of resources in this project, kept up to date using watches.
+     */
+    public ProjectResourceCache getResourceCache();
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.resource;
+
+import java.util.Arrays;
+import java.util.List;
+
+import cz.xtf.core.openshift.OpenShift;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.api.model.Route;
+
+/**
+ * Cached view of resources in a project which are frequently looked up by deployments, waiters and log collectors.
+ * Every resource type is listed once and kept up to date using a watch.
+ * Pods are served by the {@link PodReadinessTracker} of the project, so pod lookups see the same pods as pod waits.
+ */
+public class ProjectResourceCache implements AutoCloseable {
+
+    private final PodReadinessTracker pods;
+    private final CachedResources<Route> routes;
+    private final CachedResources<Service> services;
+    private final CachedResources<DeploymentConfig> deploymentConfigs;
+    private final CachedResources<ConfigMap> configMaps;
+
+    public ProjectResourceCache(PodReadinessTracker pods, CachedResources<Route> routes, CachedResources<Service> services,
+                                CachedResources<DeploymentConfig> deploymentConfigs, CachedResources<ConfigMap> configMaps) {
+        this.pods = pods;
+        this.routes = routes;
+        this.services = services;
+        this.deploymentConfigs = deploymentConfigs;
+        this.configMaps = configMaps;
+    }
+
+    /**
+     * @param openShift OpenShift client.
+     * @param namespace Namespace of the resources.
+     * @param pods Pod tracker of the namespace, it is not closed together with this cache.
+     */
+    public ProjectResourceCache(OpenShift openShift, String namespace, PodReadinessTracker pods) {
+        this.pods = pods;
+        routes = new CachedResources<>("routes", namespace,
+                                       () -> openShift.routes().inNamespace(namespace).list(),
+                                       name -> openShift.routes().inNamespace(namespace).withName(name).get(),
+                                       (resourceVersion, watcher) -> openShift.routes().inNamespace(namespace).watch(resourceVersion, watcher));
+        services = new CachedResources<>("services", namespace,
+                                         () -> openShift.services().inNamespace(namespace).list(),
+                                         name -> openShift.services().inNamespace(namespace).withName(name).get(),
+                                         (resourceVersion, watcher) -> openShift.services().inNamespace(namespace).watch(resourceVersion, watcher));
+        deploymentConfigs = new CachedResources<>("deployment configs", namespace,
+                                                  () -> openShift.deploymentConfigs().inNamespace(namespace).list(),
+                                                  name -> openShift.deploymentConfigs().inNamespace(namespace).withName(name).get(),
+                                                  (resourceVersion, watcher) -> openShift.deploymentConfigs().inNamespace(namespace).watch(resourceVersion, watcher));
+        configMaps = new CachedResources<>("config maps", namespace,
+                                           () -> openShift.configMaps().inNamespace(namespace).list(),
+                                           name -> openShift.configMaps().inNamespace(namespace).withName(name).get(),
+                                           (resourceVersion, watcher) -> openShift.configMaps().inNamespace(namespace).watch(resourceVersion, watcher));
+    }
+
+    public PodReadinessTracker pods() {
+        return pods;
+    }
+
+    public CachedResources<Route> routes() {
+        return routes;
+    }
+
+    public CachedResources<Service> services() {
+        return services;
+    }
+
+    public CachedResources<DeploymentConfig> deploymentConfigs() {
+        return deploymentConfigs;
+    }
+
+    public CachedResources<ConfigMap> configMaps() {
+        return configMaps;
+    }
+
+    /**
+     * Drop all cached resources, next reads list resources from API server again.
+     */
+    public void invalidateAll() {
+        allResources().forEach(CachedResources::invalidate);
+    }
+
+    /**
+     * @return Number of reads served from the cache instead of API server, summed for all resource types including pods.
+     */
+    public long getApiCallsSaved() {
+        return pods.getApiCallsSaved() + allResources().stream().mapToLong(CachedResources::getApiCallsSaved).sum();
+    }
+
+    @Override
+    public void close() {
+        allResources().forEach(CachedResources::close);
+    }
+
+    private List<CachedResources<?>> allResources() {
+        return Arrays.asList(routes, services, deploymentConfigs, configMaps);
+    }
+}
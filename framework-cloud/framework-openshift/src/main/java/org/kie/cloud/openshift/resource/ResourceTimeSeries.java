@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.openshift.resource;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import org.kie.cloud.api.deployment.Deployment;
+
+/**
+ * Resource usage samples of a single pod stored in growable primitive arrays, ordered by sample timestamp.
+ */
+class ResourceTimeSeries {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final String podName;
+    private final Deployment deployment;
+    private final long cpuLimitMillicores;
+
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private int[] cpuMillicores = new int[INITIAL_CAPACITY];
+    private long[] memoryBytes = new long[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * @param cpuLimitMillicores CPU limit of the pod, 0 if the pod has no limit.
+     */
+    ResourceTimeSeries(String podName, Deployment deployment, long cpuLimitMillicores) {
+        this.podName = podName;
+        this.deployment = deployment;
+        this.cpuLimitMillicores = cpuLimitMillicores;
+    }
+
+    /**
+     * @return True if the sample was added, false if sample with the same or later timestamp is already stored.
+     */
+    synchronized boolean add(long timestampMillis, int cpu, long memory) {
+        if (size > 0 && timestamps[size - 1] >= timestampMillis) {
+            return false;
+        }
+        if (size == timestamps.length) {
+            int newCapacity = size * 2;
+            timestamps = Arrays.copyOf(timestamps, newCapacity);
+            cpuMillicores = Arrays.copyOf(cpuMillicores, newCapacity);
+            memoryBytes = Arrays.copyOf(memoryBytes, newCapacity);
+        }
+        timestamps[size] = timestampMillis;
+        cpuMillicores[size] = cpu;
+        memoryBytes[size] = memory;
+        size++;
+        return true;
+    }
+
+    /**
+     * Add samples taken in the time range into the accumulator.
+     */
+    synchronized void accumulate(Instant from, Instant to, ResourceUsage.Accumulator accumulator) {
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        int first = Arrays.binarySearch(timestamps, 0, size, fromMillis);
+        if (first < 0) {
+            first = -first - 1;
+        }
+
+        accumulator.startPod();
+        for (int i = first; i < size && timestamps[i] < toMillis; i++) {
+            boolean cpuSaturated = cpuLimitMillicores > 0 && cpuMillicores[i] >= cpuLimitMillicores * ResourceUsage.CPU_SATURATION_THRESHOLD;
+            accumulator.addSample(cpuMillicores[i], memoryBytes[i], cpuSaturated);
+        }
+        accumulator.finishPod();
+    }
+
+    String getPodName() {
+        return podName;
+    }
+
+    Deployment getDeployment() {
+        return deployment;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.openshift.resource;
+
+/**
+ * Resource usage of deployment pods in a time range computed from samples of {@link PodResourceSampler}.
+ * <p>
+ * Pods are sampled independently, so deployment wide values are sums of per pod averages.
+ */
+public class ResourceUsage {
+
+    /**
+     * Sample is considered CPU saturated if the pod used at least this ratio of its CPU limit, CPU of such pod is most likely
+     * throttled.
+     */
+    public static final double CPU_SATURATION_THRESHOLD = 0.9;
+
+    private final int pods;
+    private final long samples;
+    private final double meanCpuCores;
+    private final double maxPodCpuCores;
+    private final double meanMemoryBytes;
+    private final long maxPodMemoryBytes;
+    private final long cpuSaturatedSamples;
+
+    private ResourceUsage(Accumulator accumulator) {
+        this.pods = accumulator.pods;
+        this.samples = accumulator.samples;
+        this.meanCpuCores = accumulator.meanCpuMillicores / 1000d;
+        this.maxPodCpuCores = accumulator.maxCpuMillicores / 1000d;
+        this.meanMemoryBytes = accumulator.meanMemoryBytes;
+        this.maxPodMemoryBytes = accumulator.maxMemoryBytes;
+        this.cpuSaturatedSamples = accumulator.cpuSaturatedSamples;
+    }
+
+    /**
+     * @return Number of pods with at least one sample.
+     */
+    public int getPods() {
+        return pods;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    /**
+     * @return Average number of CPU cores used by all pods together.
+     */
+    public double getMeanCpuCores() {
+        return meanCpuCores;
+    }
+
+    /**
+     * @return Maximal number of CPU cores used by a single pod.
+     */
+    public double getMaxPodCpuCores() {
+        return maxPodCpuCores;
+    }
+
+    /**
+     * @return Average memory used by all pods together.
+     */
+    public double getMeanMemoryBytes() {
+        return meanMemoryBytes;
+    }
+
+    /**
+     * @return Maximal memory used by a single pod.
+     */
+    public long getMaxPodMemoryBytes() {
+        return maxPodMemoryBytes;
+    }
+
+    /**
+     * @return Ratio of samples in which the pod was CPU saturated, see {@link #CPU_SATURATION_THRESHOLD}. Pods without CPU limit are
+     * never saturated.
+     */
+    public double getCpuSaturatedRatio() {
+        return samples == 0 ? 0 : (double) cpuSaturatedSamples / samples;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("pods=%d, samples=%d, meanCpu=%.3f cores, maxPodCpu=%.3f cores, meanMemory=%.1f MiB, maxPodMemory=%.1f MiB, cpuSaturated=%.1f%%",
+                             pods, samples, meanCpuCores, maxPodCpuCores, meanMemoryBytes / 1024 / 1024, maxPodMemoryBytes / 1024d / 1024,
+                             getCpuSaturatedRatio() * 100);
+    }
+
+    /**
+     * Aggregates samples pod by pod.
+     */
+    static class Accumulator {
+
+        private int pods;
+        private long samples;
+        private double meanCpuMillicores;
+        private long maxCpuMillicores;
+        private double meanMemoryBytes;
+        private long maxMemoryBytes;
+        private long cpuSaturatedSamples;
+
+        private long podSamples;
+        private long podCpuSum;
+        private double podMemorySum;
+
+        void startPod() {
+            podSamples = 0;
+            podCpuSum = 0;
+            podMemorySum = 0;
+        }
+
+        void addSample(int cpuMillicores, long memoryBytes, boolean cpuSaturated) {
+            podSamples++;
+            podCpuSum += cpuMillicores;
+            podMemorySum += memoryBytes;
+            maxCpuMillicores = Math.max(maxCpuMillicores, cpuMillicores);
+            maxMemoryBytes = Math.max(maxMemoryBytes, memoryBytes);
+            if (cpuSaturated) {
+                cpuSaturatedSamples++;
+            }
+        }
+
+        void finishPod() {
+            if (podSamples > 0) {
+                pods++;
+                samples += podSamples;
+                meanCpuMillicores += (double) podCpuSum / podSamples;
+                meanMemoryBytes += podMemorySum / podSamples;
+            }
+        }
+
+        ResourceUsage toUsage() {
+            return new ResourceUsage(this);
+        }
+    }
+}
@@ -21,13 +21,11 @@ import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Files;
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 import cz.xtf.builder.builders.ImageStreamBuilder;
 import cz.xtf.builder.builders.ImageStreamBuilder.TagReferencePolicyType;
@@ -38,13 +36,23 @@ import cz.xtf.core.openshift.OpenShiftBinary;
 import cz.xtf.core.openshift.OpenShifts;
 import io.fabric8.kubernetes.api.model.KubernetesList;
 import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.openshift.api.model.DeploymentConfig;
 import io.fabric8.openshift.api.model.ImageStream;
 import org.kie.cloud.api.deployment.Instance;
 import org.kie.cloud.openshift.OpenShiftController;
 import org.kie.cloud.openshift.constants.OpenShiftConstants;
+import org.kie.cloud.openshift.resource.OcSessionCache;
+import org.kie.cloud.openshift.resource.OcSessionCache.User;
+import org.kie.cloud.openshift.resource.PodReadinessTracker;
 import org.kie.cloud.openshift.resource.Project;
+import org.kie.cloud.openshift.resource.ProjectResourceCache;
+import org.kie.cloud.openshift.util.OpenShiftCaller;
+import org.kie.cloud.openshift.util.OpenShiftTemplateProcessor;
 import org.kie.cloud.openshift.util.OpenshiftInstanceUtil;
-import org.kie.cloud.openshift.util.ProcessExecutor;
+import org.kie.cloud.openshift.util.retry.RetriableErrors;
+import org.kie.cloud.openshift.util.retry.RetryPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,14 +64,25 @@ public class ProjectImpl implements Project {
 
     public static final String POD_STATUS_PENDING = "Pending";
 
+    private static final Duration DEPLOYMENT_CONFIG_OBSERVED_TIMEOUT = Duration.ofMinutes(1);
+    private static final int MASTER_BINARY_ATTEMPTS = 5;
+
+    private static final OcSessionCache OC_SESSIONS = new OcSessionCache(ProjectImpl::login, OpenShiftConstants.getOcSessionTimeout());
+
     private String projectName;
     private OpenShift openShift;
     private OpenShift openShiftAdmin;
+    private PodReadinessTracker podReadinessTracker;
+    private ProjectResourceCache resourceCache;
 
     public ProjectImpl(String projectName) {
+        this(projectName, OpenShiftController.getOpenShift(projectName), OpenShiftController.getOpenShiftAdmin(projectName));
+    }
+
+    ProjectImpl(String projectName, OpenShift openShift, OpenShift openShiftAdmin) {
         this.projectName = projectName;
-        this.openShift = OpenShiftController.getOpenShift(projectName);
-        this.openShiftAdmin = OpenShiftController.getOpenShiftAdmin(projectName);
+        this.openShift = openShift;
+        this.openShiftAdmin = openShiftAdmin;
     }
 
     @Override
@@ -84,42 +103,48 @@ public class ProjectImpl implements Project {
     @Override
     public void delete() {
         openShift.projects().withName(projectName).delete();
+        OC_SESSIONS.invalidate(projectName);
     }
 
     @Override
     public void processTemplateAndCreateResources(URL templateUrl, Map<String, String> envVariables) {
-        boolean templateIsFile = templateUrl.getProtocol().equals("file");
-
-        // Used to log into OpenShift
-        OpenShiftBinary oc = getOpenShiftBinary(getName());
-
-        List<String> commandParameters = new ArrayList<>();
-        commandParameters.add(getOpenShiftBinaryPath());
-        commandParameters.add("process");
-        commandParameters.add("-f");
-        commandParameters.add(templateIsFile ? templateUrl.getPath() : templateUrl.toExternalForm());
-        commandParameters.add("--local");
-        commandParameters.add("--ignore-unknown-parameters=true");
-        commandParameters.add("-o");
-        commandParameters.add("yaml");
-        for (Entry<String, String> envVariable : envVariables.entrySet()) {
-            commandParameters.add("-p");
-            commandParameters.add(envVariable.getKey() + "=" + envVariable.getValue());
-        }
-        String completeProcessingCommand = commandParameters.stream().collect(Collectors.joining(" "));
+        KubernetesList resourceList = OpenShiftTemplateProcessor.processTemplate(templateUrl, envVariables);
+        openShift.lists().inNamespace(projectName).create(resourceList);
+        logger.info("Created {} resources from template {}.", resourceList.getItems().size(), templateUrl);
 
-        try (ProcessExecutor executor = new ProcessExecutor()) {
-            File processedTemplate = executor.executeProcessCommandToTempFile(completeProcessingCommand);
-            oc.execute("create", "-n", getName(), "-f", processedTemplate.getAbsolutePath());
-        }
-        // TODO: Temporary workaround to wait until scenario is completely initialized as there is a delay between finishing template creation command
-        // and actual creation of resources on OpenShift. This should be removed when deployments won't be scaled in the beginning and will contain availability check.
-        try {
-            TimeUnit.SECONDS.sleep(10L);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Interrupted while waiting for scenario to be initialized.", e);
+        synchronized (this) {
+            if (resourceCache != null) {
+                resourceCache.invalidateAll();
+            }
         }
+        waitForDeploymentConfigsObserved(resourceList);
+    }
+
+    /**
+     * Deployment configs are rolled out by a controller after their creation. Wait until the controller observes created
+     * deployment configs, so following changes (e.g. scaling) don't interfere with the initial rollout.
+     */
+    private void waitForDeploymentConfigsObserved(KubernetesList resourceList) {
+        resourceList.getItems().stream()
+                               .filter(DeploymentConfig.class::isInstance)
+                               .map(resource -> resource.getMetadata().getName())
+                               .forEach(deploymentConfigName -> {
+                                   try {
+                                       openShift.deploymentConfigs()
+                                                .inNamespace(projectName)
+                                                .withName(deploymentConfigName)
+                                                .waitUntilCondition(ProjectImpl::isObservedByController, DEPLOYMENT_CONFIG_OBSERVED_TIMEOUT.getSeconds(), TimeUnit.SECONDS);
+                                   } catch (KubernetesClientException e) {
+                                       logger.warn("Deployment config {} wasn't observed by controller in {}, continuing.", deploymentConfigName, DEPLOYMENT_CONFIG_OBSERVED_TIMEOUT, e);
+                                   }
+                               });
+    }
+
+    private static boolean isObservedByController(DeploymentConfig deploymentConfig) {
+        return deploymentConfig != null &&
+               deploymentConfig.getStatus() != null &&
+               deploymentConfig.getStatus().getObservedGeneration() != null &&
+               deploymentConfig.getStatus().getObservedGeneration() >= deploymentConfig.getMetadata().getGeneration();
     }
 
     @Override
@@ -129,7 +154,8 @@ public class ProjectImpl implements Project {
             builder.addRawData(entry.getKey(), entry.getValue());
         }
 
-        openShift.createSecret(builder.build());
+        Secret secret = builder.build();
+        OpenShiftCaller.repeatableCreate(openShift, "createSecret", () -> openShift.createSecret(secret));
     }
 
     @Override
@@ -144,7 +170,7 @@ public class ProjectImpl implements Project {
 
     @Override
     public void createResourcesFromYaml(String yamlUrl) {
-        final String output = openShiftBinaryClient().execute("create", "-f", yamlUrl);
+        final String output = OC_SESSIONS.execute(User.MASTER, projectName, "create", "-f", yamlUrl);
         logger.info("Yaml resources from file {} were created by oc client. Output = {}", yamlUrl, output);
     }
 
@@ -162,7 +188,7 @@ public class ProjectImpl implements Project {
         try {
             final File tmpYamlFile = File.createTempFile("openshift-resource-",".yaml");
             Files.write(tmpYamlFile.toPath(), yamlString.getBytes("UTF-8"));
-            final String output = openShiftBinaryClient().execute("create", "-f", tmpYamlFile.getAbsolutePath());
+            final String output = OC_SESSIONS.execute(User.MASTER, projectName, "create", "-f", tmpYamlFile.getAbsolutePath());
             logger.info("Yaml resources from string was created by oc client. Output = {}", output);
         } catch (IOException e) {
             throw new RuntimeException("Error creating resource from string", e);
@@ -171,7 +197,7 @@ public class ProjectImpl implements Project {
 
     @Override
     public void createResourcesFromYamlAsAdmin(String yamlUrl) {
-        final String output = openShiftBinaryClientAsAdmin().execute("create", "-f", yamlUrl);
+        final String output = OC_SESSIONS.execute(User.ADMIN, projectName, "create", "-f", yamlUrl);
         logger.info("Yaml resources from file {} were created by oc client. Output = {}", yamlUrl, output);
     }
 
@@ -189,7 +215,7 @@ public class ProjectImpl implements Project {
         try {
             final File tmpYamlFile = File.createTempFile("openshift-resource-",".yaml");
             Files.write(tmpYamlFile.toPath(), yamlString.getBytes("UTF-8"));
-            final String output = openShiftBinaryClientAsAdmin().execute("create", "-f", tmpYamlFile.getAbsolutePath());
+            final String output = OC_SESSIONS.execute(User.ADMIN, projectName, "create", "-f", tmpYamlFile.getAbsolutePath());
             logger.info("Yaml resources from string was created by oc client. Output = {}", output);
         } catch (IOException e) {
             throw new RuntimeException("Error creating resource from string", e);
@@ -197,44 +223,38 @@ public class ProjectImpl implements Project {
     }
 
     private OpenShiftBinary openShiftBinaryClient() {
-        Optional<OpenShiftBinary> oc;
-        synchronized (ProjectImpl.class) {
-            oc = Optional.of(OpenShifts.masterBinary(this.getName()));
-            if (OpenShiftConstants.isOpenShiftTokenSet()) {
-                oc.get().login(OpenShiftConstants.getOpenShiftUrl(), OpenShiftConstants.getOpenShiftToken());
-            }
-            else {
-                oc.get().login(OpenShiftConstants.getOpenShiftUrl(), OpenShiftConstants.getOpenShiftUserName(),
-                           OpenShiftConstants.getOpenShiftPassword());
-            }
-        }
-        return oc.orElseThrow(RuntimeException::new);
+        return OC_SESSIONS.getBinary(User.MASTER, projectName);
     }
 
     private OpenShiftBinary openShiftBinaryClientAsAdmin() {
-        synchronized (ProjectImpl.class) {
-            OpenShiftBinary oc = getMasterBinary();
+        return OC_SESSIONS.getBinary(User.ADMIN, projectName);
+    }
+
+    private static OpenShiftBinary login(User user, String namespace) {
+        OpenShiftBinary oc = getMasterBinary(namespace);
+        if (user == User.ADMIN) {
             if (OpenShiftConstants.isOpenShiftAdminTokenSet()) {
                 oc.login(OpenShiftConstants.getOpenShiftUrl(), OpenShiftConstants.getOpenShiftAdminToken());
             } else {
                 oc.login(OpenShiftConstants.getOpenShiftUrl(), OpenShiftConstants.getOpenShiftAdminUserName(),
-                     OpenShiftConstants.getOpenShiftAdminPassword());
+                         OpenShiftConstants.getOpenShiftAdminPassword());
+            }
+        } else {
+            if (OpenShiftConstants.isOpenShiftTokenSet()) {
+                oc.login(OpenShiftConstants.getOpenShiftUrl(), OpenShiftConstants.getOpenShiftToken());
+            } else {
+                oc.login(OpenShiftConstants.getOpenShiftUrl(), OpenShiftConstants.getOpenShiftUserName(),
+                         OpenShiftConstants.getOpenShiftPassword());
             }
-            return oc;
         }
+        return oc;
     }
 
-    private OpenShiftBinary getMasterBinary() {
-        logger.debug("Try to get master binary few times as OpenShifts sometimes throws Socket exception for Connection reset");
-        for (int attempt = 0; attempt < 5; attempt++) {
-            try {
-                return OpenShifts.masterBinary(this.getName());
-            } catch (HttpsException ex) {
-                logger.warn("Was caught exception from OpenShifts on " + attempt +
-                            " attempt. Trying to get master binaries again.", ex);
-            }
-        }
-        throw new RuntimeException("Failed to get OpenShift binary client as admin");
+    private static OpenShiftBinary getMasterBinary(String namespace) {
+        // OpenShifts sometimes throws Socket exception for Connection reset
+        return new RetryPolicy().withMaxAttempts(MASTER_BINARY_ATTEMPTS)
+                                .retryOn(RetriableErrors.causedBy(HttpsException.class))
+                                .call("getMasterBinary", () -> OpenShifts.masterBinary(namespace));
     }
 
     @Override
@@ -246,7 +266,7 @@ public class ProjectImpl implements Project {
     @Override
     public void createImageStream(String imageStreamName, String imageTag) {
         ImageStream imageStream = new ImageStreamBuilder(imageStreamName).fromExternalImage(imageTag).build();
-        openShift.createImageStream(imageStream);
+        OpenShiftCaller.repeatableCreate(openShift, "createImageStream", () -> openShift.createImageStream(imageStream));
     }
 
     @Override
@@ -255,25 +275,52 @@ public class ProjectImpl implements Project {
         imageStream.getSpec().getTags().forEach(tag -> {
             tag.getReferencePolicy().setType(TagReferencePolicyType.LOCAL.toString());
         });
-        openShift.createImageStream(imageStream);
+        OpenShiftCaller.repeatableCreate(openShift, "createImageStream", () -> openShift.createImageStream(imageStream));
     }
 
     @Override
     public String runOcCommand(String... args) {
-        final String output = openShiftBinaryClient().execute(args);
+        final String output = OC_SESSIONS.execute(User.MASTER, projectName, args);
 
         return output;
     }
 
     @Override
     public String runOcCommandAsAdmin(String... args) {
-        final String output = openShiftBinaryClientAsAdmin().execute(args);
+        final String output = OC_SESSIONS.execute(User.ADMIN, projectName, args);
 
         return output;
     }
 
+    @Override
+    public synchronized PodReadinessTracker getPodReadinessTracker() {
+        if (podReadinessTracker == null) {
+            podReadinessTracker = new PodReadinessTracker(openShift, projectName);
+        }
+        return podReadinessTracker;
+    }
+
+    @Override
+    public synchronized ProjectResourceCache getResourceCache() {
+        if (resourceCache == null) {
+            resourceCache = new ProjectResourceCache(openShift, projectName, getPodReadinessTracker());
+        }
+        return resourceCache;
+    }
+
     @Override
     public void close() {
+        synchronized (this) {
+            if (podReadinessTracker != null) {
+                podReadinessTracker.close();
+                podReadinessTracker = null;
+            }
+            if (resourceCache != null) {
+                logger.info("Resource cache of project {} saved {} API calls.", projectName, resourceCache.getApiCallsSaved());
+                resourceCache.close();
+                resourceCache = null;
+            }
+        }
         try {
             openShift.close();
         } catch (Exception e) {
@@ -281,17 +328,10 @@ public class ProjectImpl implements Project {
         }
     }
 
-    private static synchronized OpenShiftBinary getOpenShiftBinary(String namespace) {
-        return OpenShifts.masterBinary(namespace);
-    }
-
-    private static synchronized String getOpenShiftBinaryPath() {
-        return OpenShifts.getBinaryPath();
-    }
-
     @Override
     public List<Instance> getAllInstances() {
-        return openShift
+        return getResourceCache()
+                .pods()
                 .getPods()
                 .stream()
                 .filter(this::isScheduledPod)
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.scenario;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.kie.cloud.api.deployment.Deployment;
+import org.kie.cloud.api.deployment.DeploymentTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Waits for a group of deployments to become ready.
+ * Every deployment can declare deployments it depends on (for example Kie server depends on its database). Deployment is awaited
+ * once all its dependencies are ready, deployments without mutual dependency are awaited concurrently.
+ * All failures are collected and reported together once every deployment is either ready or failed.
+ */
+public class DeploymentWaitStage {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeploymentWaitStage.class);
+
+    private final int parallelism;
+    private final Map<Deployment, WaitEntry> entries = new LinkedHashMap<>();
+
+    public DeploymentWaitStage(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, was " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Register deployment to be awaited. Dependencies have to be registered before the deployment depending on them.
+     *
+     * @param name Human readable deployment name used in logs and in timeout report.
+     * @param deployment Deployment to wait for.
+     * @param dependsOn Deployments which have to be ready before this deployment is awaited.
+     * @return This wait stage.
+     */
+    public DeploymentWaitStage waitFor(String name, Deployment deployment, Deployment... dependsOn) {
+        if (deployment == null) {
+            throw new IllegalArgumentException("Deployment " + name + " is not defined.");
+        }
+        if (entries.containsKey(deployment)) {
+            throw new IllegalArgumentException("Deployment " + name + " is already registered.");
+        }
+        List<WaitEntry> dependencies = new ArrayList<>();
+        for (Deployment dependency : dependsOn) {
+            if (dependency == null) {
+                // Optional deployment which is not part of the scenario
+                continue;
+            }
+            WaitEntry dependencyEntry = entries.get(dependency);
+            if (dependencyEntry == null) {
+                throw new IllegalArgumentException("Dependency of " + name + " has to be registered before it.");
+            }
+            dependencies.add(dependencyEntry);
+        }
+        entries.put(deployment, new WaitEntry(name, deployment, dependencies));
+        return this;
+    }
+
+    /**
+     * Wait until all registered deployments are ready.
+     *
+     * @throws DeploymentTimeoutException In case any deployment isn't scaled in defined timeout. Contains report of all failed deployments.
+     */
+    public void await() {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Instant startOfWait = Instant.now();
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(parallelism, entries.size()), new WaitThreadFactory());
+        try {
+            Map<WaitEntry, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+            for (WaitEntry entry : entries.values()) {
+                CompletableFuture<?>[] dependencyFutures = entry.dependencies.stream()
+                                                                             .map(futures::get)
+                                                                             .toArray(CompletableFuture[]::new);
+                futures.put(entry, CompletableFuture.allOf(dependencyFutures).thenRunAsync(() -> waitForEntry(entry), executorService));
+            }
+
+            List<String> failures = new ArrayList<>();
+            List<Throwable> causes = new ArrayList<>();
+            for (Entry<WaitEntry, CompletableFuture<Void>> future : futures.entrySet()) {
+                try {
+                    future.getValue().join();
+                } catch (CompletionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    if (!causes.contains(cause)) {
+                        causes.add(cause);
+                        failures.add(future.getKey().name + ": " + cause.getMessage());
+                    } else {
+                        failures.add(future.getKey().name + ": skipped as a dependency failed");
+                    }
+                }
+            }
+
+            logger.info("Waiting for {} deployments done after {} seconds.", entries.size(), Duration.between(startOfWait, Instant.now()).getSeconds());
+            if (!causes.isEmpty()) {
+                throw createFailure(failures, causes);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void waitForEntry(WaitEntry entry) {
+        logger.info("Waiting for {} deployment to become ready.", entry.name);
+        Instant start = Instant.now();
+        entry.deployment.waitForScale();
+        logger.info("{} deployment is ready after {} seconds.", entry.name, Duration.between(start, Instant.now()).getSeconds());
+    }
+
+    private static RuntimeException createFailure(List<String> failures, List<Throwable> causes) {
+        boolean onlyTimeouts = causes.stream().allMatch(DeploymentTimeoutException.class::isInstance);
+        String message = "Deployments failed to become ready:\n  " + String.join("\n  ", failures);
+
+        RuntimeException failure = onlyTimeouts ? new DeploymentTimeoutException(message, causes.get(0)) : new RuntimeException(message, causes.get(0));
+        causes.stream().skip(1).forEach(failure::addSuppressed);
+        return failure;
+    }
+
+    private static class WaitEntry {
+
+        private final String name;
+        private final Deployment deployment;
+        private final List<WaitEntry> dependencies;
+
+        private WaitEntry(String name, Deployment deployment, List<WaitEntry> dependencies) {
+            this.name = name;
+            this.deployment = deployment;
+            this.dependencies = dependencies;
+        }
+    }
+
+    private static class WaitThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "deployment-wait-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
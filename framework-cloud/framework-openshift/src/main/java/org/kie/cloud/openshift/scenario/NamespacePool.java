@@ -0,0 +1,254 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.openshift.scenario;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.kie.cloud.api.deployment.constants.DeploymentConstants;
+import org.kie.cloud.openshift.constants.OpenShiftConstants;
+import org.kie.cloud.openshift.resource.Project;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of projects prepared ahead of time, including secrets and image streams, so scenario deployment doesn't need to wait
+ * for the project setup. Projects are prepared in background, every project is health checked before it is handed out and
+ * broken projects are deleted instead. Released projects are deleted in background as scenarios leave arbitrary resources
+ * in them.
+ * <p>
+ * Pool is enabled by setting {@link OpenShiftConstants#NAMESPACE_POOL_SIZE} to a positive number.
+ */
+public class NamespacePool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(NamespacePool.class);
+
+    private static final String PROJECT_PHASE_ACTIVE = "Active";
+
+    private static NamespacePool instance;
+
+    private final int size;
+    private final BlockingQueue<Project> readyProjects = new LinkedBlockingQueue<>();
+    private final AtomicInteger preparingProjects = new AtomicInteger();
+    private final ExecutorService executor;
+    private final Supplier<Project> projectFactory;
+    private final Predicate<Project> healthCheck;
+    private final Duration closeTimeout;
+
+    private volatile boolean closed = false;
+
+    public NamespacePool(int size) {
+        this(size, NamespacePool::prepareProject, NamespacePool::isHealthy, OpenShiftConstants.getNamespacePoolCloseTimeout());
+    }
+
+    /**
+     * @param size Number of prepared projects.
+     * @param projectFactory Creates project with secrets and image streams. Factory deletes the project if its preparation fails.
+     * @param healthCheck Checks whether prepared project can be handed out.
+     * @param closeTimeout Maximal time for finishing pool tasks on close.
+     */
+    NamespacePool(int size, Supplier<Project> projectFactory, Predicate<Project> healthCheck, Duration closeTimeout) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Namespace pool size must be at least 1, was " + size);
+        }
+        this.size = size;
+        this.projectFactory = projectFactory;
+        this.healthCheck = healthCheck;
+        this.closeTimeout = closeTimeout;
+        this.executor = Executors.newFixedThreadPool(size, new NamespacePoolThreadFactory());
+    }
+
+    /**
+     * @return Shared namespace pool if enabled by {@link OpenShiftConstants#NAMESPACE_POOL_SIZE}. Pool is created and filled on
+     * first call and closed on JVM shutdown.
+     */
+    public static synchronized Optional<NamespacePool> getInstance() {
+        int poolSize = OpenShiftConstants.getNamespacePoolSize();
+        if (instance == null && poolSize > 0) {
+            logger.info("Starting namespace pool of size {}.", poolSize);
+            instance = new NamespacePool(poolSize);
+            instance.replenish();
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "namespace-pool-shutdown"));
+        }
+        return Optional.ofNullable(instance);
+    }
+
+    /**
+     * Hand out a prepared project. If no healthy project is prepared then a new one is created and prepared in the calling thread.
+     *
+     * @return Project with secrets and image streams.
+     */
+    public Project acquire() {
+        if (closed) {
+            throw new IllegalStateException("Namespace pool is already closed.");
+        }
+        try {
+            Project project;
+            while ((project = readyProjects.poll()) != null) {
+                if (healthCheck.test(project)) {
+                    logger.info("Using prepared project {} from namespace pool.", project.getName());
+                    return project;
+                }
+                logger.warn("Prepared project {} isn't healthy, deleting it.", project.getName());
+                deleteInBackground(project);
+            }
+
+            logger.info("No prepared project available in namespace pool, creating a new one.");
+            return projectFactory.get();
+        } finally {
+            replenish();
+        }
+    }
+
+    /**
+     * Return the project to the pool once the scenario is finished. The project is deleted in background.
+     *
+     * @param project Project acquired from this pool.
+     */
+    public void release(Project project) {
+        if (closed) {
+            deleteProject(project);
+        } else {
+            deleteInBackground(project);
+        }
+    }
+
+    /**
+     * Stop preparing projects and delete all prepared projects which weren't handed out. Waits for running pool tasks at most
+     * for the close timeout, projects prepared by tasks finishing later are deleted by those tasks.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(closeTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Namespace pool tasks didn't finish in {}.", closeTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Project project;
+        while ((project = readyProjects.poll()) != null) {
+            deleteProject(project);
+        }
+    }
+
+    private void replenish() {
+        while (!closed) {
+            // Slot is reserved atomically, so concurrent callers don't prepare more projects than the pool size
+            int preparing = preparingProjects.get();
+            if (readyProjects.size() + preparing >= size) {
+                return;
+            }
+            if (!preparingProjects.compareAndSet(preparing, preparing + 1)) {
+                continue;
+            }
+            try {
+                executor.execute(this::prepareReadyProject);
+            } catch (RejectedExecutionException e) {
+                // Pool was closed concurrently
+                preparingProjects.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void prepareReadyProject() {
+        try {
+            Project project = projectFactory.get();
+            readyProjects.add(project);
+            if (closed && readyProjects.remove(project)) {
+                // Pool was closed while the project was prepared, nobody would hand it out
+                deleteProject(project);
+            }
+        } catch (Exception e) {
+            logger.warn("Error while preparing project for namespace pool.", e);
+        } finally {
+            preparingProjects.decrementAndGet();
+        }
+    }
+
+    private static Project prepareProject() {
+        Project project = ProjectInitializer.createProject();
+        try {
+            ProjectInitializer.initializeProject(project, true);
+            return project;
+        } catch (RuntimeException e) {
+            deleteProject(project);
+            throw e;
+        }
+    }
+
+    private static boolean isHealthy(Project project) {
+        try {
+            io.fabric8.openshift.api.model.Project openShiftProject = project.getOpenShift().getProject(project.getName());
+            return openShiftProject != null &&
+                   openShiftProject.getStatus() != null &&
+                   PROJECT_PHASE_ACTIVE.equals(openShiftProject.getStatus().getPhase()) &&
+                   project.getOpenShift().getSecret(OpenShiftConstants.getKieApplicationSecretName()) != null &&
+                   project.getOpenShift().getSecret(DeploymentConstants.getAppCredentialsSecretName()) != null &&
+                   !project.getOpenShiftAdmin().getImageStreams().isEmpty();
+        } catch (Exception e) {
+            logger.warn("Error while checking health of project " + project.getName(), e);
+            return false;
+        }
+    }
+
+    private void deleteInBackground(Project project) {
+        try {
+            executor.execute(() -> deleteProject(project));
+        } catch (RejectedExecutionException e) {
+            // Pool was closed concurrently
+            deleteProject(project);
+        }
+    }
+
+    private static void deleteProject(Project project) {
+        try {
+            project.delete();
+            project.close();
+        } catch (Exception e) {
+            logger.warn("Error while deleting project " + project.getName(), e);
+        }
+    }
+
+    private static class NamespacePoolThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "namespace-pool-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
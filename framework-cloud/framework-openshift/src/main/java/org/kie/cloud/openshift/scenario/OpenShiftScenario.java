@@ -15,37 +15,31 @@
 
 package org.kie.cloud.openshift.scenario;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.ServiceLoader;
-import java.util.UUID;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import io.fabric8.kubernetes.api.model.Pod;
-import io.fabric8.kubernetes.api.model.Secret;
-import io.fabric8.kubernetes.api.model.SecretBuilder;
-import org.apache.commons.codec.binary.Base64;
+import org.kie.cloud.api.deployment.AmqDeployment;
 import org.kie.cloud.api.deployment.Deployment;
+import org.kie.cloud.api.deployment.KieServerDeployment;
 import org.kie.cloud.api.deployment.MavenRepositoryDeployment;
-import org.kie.cloud.api.deployment.constants.DeploymentConstants;
 import org.kie.cloud.api.scenario.DeploymentScenario;
 import org.kie.cloud.api.scenario.DeploymentScenarioListener;
 import org.kie.cloud.common.after.AfterLoadScenario;
-import org.kie.cloud.openshift.OpenShiftController;
+import org.kie.cloud.common.provider.KieServerClientProvider;
+import org.kie.cloud.common.provider.KieServerClientRegistry;
 import org.kie.cloud.openshift.constants.OpenShiftConstants;
-import org.kie.cloud.openshift.constants.images.imagestream.ImageStreamProvider;
 import org.kie.cloud.openshift.deployment.external.ExternalDeployment;
 import org.kie.cloud.openshift.deployment.external.ExternalDeployment.ExternalDeploymentID;
 import org.kie.cloud.openshift.log.EventsRecorder;
 import org.kie.cloud.openshift.log.InstancesLogCollectorRunnable;
+import org.kie.cloud.openshift.log.ProjectEventRecorder;
 import org.kie.cloud.openshift.resource.Project;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,9 +53,11 @@ public abstract class OpenShiftScenario<T extends DeploymentScenario<T>> impleme
     protected Project project;
     private String logFolderName;
     private boolean createImageStreams;
+    private NamespacePool namespacePool;
 
     private ScheduledExecutorService logCollectorExecutorService;
     private InstancesLogCollectorRunnable instancesLogCollectorRunnable;
+    private ProjectEventRecorder eventRecorder;
 
     private List<DeploymentScenarioListener<T>> deploymentScenarioListeners = new ArrayList<>();
     protected List<ExternalDeployment<?, ?>> externalDeployments = new ArrayList<>();
@@ -90,33 +86,45 @@ public abstract class OpenShiftScenario<T extends DeploymentScenario<T>> impleme
         return logFolderName;
     }
 
+    /**
+     * Configure log folder of the scenario. If the scenario is already deployed, for example when it is reused by another test,
+     * logs collected so far are flushed to the previous folder and log collectors continue in the new one.
+     *
+     * @param logFolderName Folder name for storing instance logs and project events.
+     */
     @Override
     public void setLogFolderName(String logFolderName) {
+        String previousLogFolderName = getLogFolderName();
         this.logFolderName = logFolderName;
+        if (instancesLogCollectorRunnable != null && !Objects.equals(previousLogFolderName, getLogFolderName())) {
+            logger.info("Moving log collectors of project {} from folder {} to {}", projectName, previousLogFolderName, getLogFolderName());
+            InstancesLogCollectorRunnable previousLogCollector = instancesLogCollectorRunnable;
+            ProjectEventRecorder previousEventRecorder = eventRecorder;
+            stopLogCollectors();
+            flushLogCollector(previousLogCollector);
+            try {
+                recordProjectEvents(project, previousEventRecorder, previousLogFolderName);
+            } catch (Exception e) {
+                logger.error("Error storing project events into folder " + previousLogFolderName, e);
+            }
+            initLogCollectors();
+        }
     }
 
     @Override
     public final void deploy() {
 
-        // OpenShift restriction: Hostname must be shorter than 63 characters
-        projectName = UUID.randomUUID().toString().substring(0, 4);
-        OpenShiftConstants.getNamespacePrefix().ifPresent(p -> projectName = p + "-" + projectName);
-
-        logger.info("Generated project name is " + projectName);
-
-        logger.info("Creating project " + projectName);
-        project = OpenShiftController.createProject(projectName);
+        // Pooled projects are always prepared with image streams
+        namespacePool = createImageStreams ? NamespacePool.getInstance().orElse(null) : null;
+        project = namespacePool != null ? namespacePool.acquire() : ProjectInitializer.createProject();
+        projectName = project.getName();
 
         // Init the log collector
         logger.info("Launch instances log collector on project {}", projectName);
         initLogCollectors();
 
-        deploySecretConfig();
-        deploySecretAppUser();
-
-        if (createImageStreams) {
-            logger.info("Creating image streams.");
-            ImageStreamProvider.createImageStreamsInProject(project);
+        if (namespacePool == null) {
+            ProjectInitializer.initializeProject(project, createImageStreams);
         }
 
         for (DeploymentScenarioListener<T> deploymentScenarioListener : deploymentScenarioListeners) {
@@ -133,6 +141,16 @@ public abstract class OpenShiftScenario<T extends DeploymentScenario<T>> impleme
      */
     protected abstract void deployKieDeployments();
 
+    /**
+     * Create a new wait stage for scenario deployments. Deployments registered into the stage are awaited
+     * concurrently unless they declare a dependency on each other.
+     *
+     * @return New deployment wait stage.
+     */
+    protected DeploymentWaitStage newDeploymentWaitStage() {
+        return new DeploymentWaitStage(OpenShiftConstants.getDeploymentWaitParallelism());
+    }
+
     protected void configureWithExternalDeployment(ExternalDeployment<?, ?> externalDeployment) {
         logger.warn("No configuration with external deployment done in {}", this.getClass().getName());
     }
@@ -147,15 +165,36 @@ public abstract class OpenShiftScenario<T extends DeploymentScenario<T>> impleme
             deploymentScenarioListener.afterScenarioFinished((T) this);
         }
 
-        try {
+        // Scenario may be deployed again while the teardown is running, so it works with its own copy of the state
+        Project finishedProject = project;
+        String finishedLogFolderName = getLogFolderName();
+        NamespacePool finishedNamespacePool = namespacePool;
+        InstancesLogCollectorRunnable finishedLogCollector = instancesLogCollectorRunnable;
+        ProjectEventRecorder finishedEventRecorder = eventRecorder;
+        stopLogCollectors();
+        releaseClients();
+
+        Runnable teardown = () -> {
             logger.info("Release log collector(s)");
-            releaseLogCollectors();
+            flushLogCollector(finishedLogCollector);
 
             logger.info("Store project events.");
-            EventsRecorder.recordProjectEvents(project, getLogFolderName());
+            recordProjectEvents(finishedProject, finishedEventRecorder, finishedLogFolderName);
 
-            project.delete();
-            project.close();
+            if (finishedNamespacePool != null) {
+                finishedNamespacePool.release(finishedProject);
+            } else {
+                deleteProject(finishedProject);
+            }
+        };
+
+        Optional<TeardownQueue> teardownQueue = TeardownQueue.getInstance();
+        if (teardownQueue.isPresent() && finishedProject != null) {
+            teardownQueue.get().submit(finishedProject.getName(), teardown);
+            return;
+        }
+        try {
+            teardown.run();
         } catch (Exception e) {
             logger.error("Error undeploy", e);
             throw new RuntimeException("Error while undeploying scenario.", e);
@@ -181,22 +220,71 @@ public abstract class OpenShiftScenario<T extends DeploymentScenario<T>> impleme
         logCollectorExecutorService = Executors.newScheduledThreadPool(1);
         instancesLogCollectorRunnable = new InstancesLogCollectorRunnable(project, getLogFolderName());
         logCollectorExecutorService.scheduleWithFixedDelay(instancesLogCollectorRunnable, 0, DEFAULT_SCHEDULED_FIX_RATE_LOG_COLLECTOR_IN_SECONDS, TimeUnit.SECONDS);
+        try {
+            eventRecorder = ProjectEventRecorder.start(project, getLogFolderName());
+        } catch (Exception e) {
+            logger.error("Error starting project event recorder, events will be listed once the scenario is undeployed", e);
+        }
     }
 
-    private void releaseLogCollectors() {
+    private void stopLogCollectors() {
         try {
             if (Objects.nonNull(logCollectorExecutorService)) {
                 logCollectorExecutorService.shutdownNow();
                 logCollectorExecutorService = null;
             }
-            if (Objects.nonNull(instancesLogCollectorRunnable)) {
-                instancesLogCollectorRunnable.closeAndFlushRemainingInstanceCollectors(5000);
-            }
+            instancesLogCollectorRunnable = null;
+            eventRecorder = null;
         } catch (Exception e) {
             logger.error("Error killing log collector thread", e);
         }
     }
 
+    /**
+     * Close cached Kie server clients and pooled JMS connections of the scenario deployments.
+     */
+    private void releaseClients() {
+        try {
+            for (Deployment deployment : getDeployments()) {
+                if (deployment instanceof KieServerDeployment) {
+                    KieServerClientRegistry.getInstance().evict((KieServerDeployment) deployment);
+                } else if (deployment instanceof AmqDeployment) {
+                    KieServerClientProvider.closePooledJmsConnectionFactory(((AmqDeployment) deployment).getTcpSslUrl());
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Error while releasing clients of the scenario", e);
+        }
+    }
+
+    private static void deleteProject(Project project) {
+        try {
+            project.delete();
+            project.close();
+        } catch (Exception e) {
+            throw new RuntimeException("Error while deleting project " + project.getName(), e);
+        }
+    }
+
+    private static void recordProjectEvents(Project project, ProjectEventRecorder eventRecorder, String logFolderName) {
+        if (eventRecorder != null) {
+            eventRecorder.close();
+            EventsRecorder.recordProjectEvents(eventRecorder, logFolderName);
+        } else {
+            EventsRecorder.recordProjectEvents(project, logFolderName);
+        }
+    }
+
+    private static void flushLogCollector(InstancesLogCollectorRunnable logCollector) {
+        try {
+            if (Objects.nonNull(logCollector)) {
+                logCollector.closeAndFlushRemainingInstanceCollectors(5000);
+            }
+        } catch (Exception e) {
+            logger.error("Error flushing log collector", e);
+        }
+    }
+
     @Override
     public void addDeploymentScenarioListener(DeploymentScenarioListener<T> deploymentScenarioListener) {
         deploymentScenarioListeners.add(deploymentScenarioListener);
@@ -267,36 +355,4 @@ public abstract class OpenShiftScenario<T extends DeploymentScenario<T>> impleme
                 .findAny()
                 .orElseThrow(() -> new RuntimeException("Maven repository deployment not found."));
     }
-
-    private void deploySecretConfig() {
-        if (OpenShiftConstants.getTrustedKeystoreFile() == null) {
-            throw new RuntimeException("Trusted keystore file is not set!");
-        }
-
-        logger.info("Creating generally used secret from " + OpenShiftConstants.getTrustedKeystoreFile());
-        try {
-            Secret secret = new SecretBuilder()
-                    .withNewMetadata()
-                        .withName(OpenShiftConstants.getKieApplicationSecretName())
-                        .withNamespace(project.getName())
-                        .endMetadata()
-                    .addToData("keystore.jks", Base64.encodeBase64String(Files.readAllBytes(Paths.get(OpenShiftConstants.getTrustedKeystoreFile()))))
-                    .build();
-
-            project.getOpenShift().secrets().createOrReplace(secret);
-        } catch (IOException e) {
-            throw new RuntimeException("Error loading the secret", e);
-        }
-    }
-
-    private void deploySecretAppUser() {
-        logger.info("Creating user secret '{}'", DeploymentConstants.getAppCredentialsSecretName());
-        Map<String, String> data = new HashMap<>();
-        data.put(OpenShiftConstants.KIE_ADMIN_USER, DeploymentConstants.getAppUser());
-        data.put("username", DeploymentConstants.getAppUser());
-        data.put(OpenShiftConstants.KIE_ADMIN_PWD, DeploymentConstants.getAppPassword());
-        data.put("password", DeploymentConstants.getAppPassword());
-
-        project.createSecret(DeploymentConstants.getAppCredentialsSecretName(), data);
-    }
 }
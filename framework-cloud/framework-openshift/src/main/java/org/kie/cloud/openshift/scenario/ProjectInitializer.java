@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.openshift.scenario;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import org.apache.commons.codec.binary.Base64;
+import org.kie.cloud.api.deployment.constants.DeploymentConstants;
+import org.kie.cloud.openshift.OpenShiftController;
+import org.kie.cloud.openshift.constants.OpenShiftConstants;
+import org.kie.cloud.openshift.constants.images.imagestream.ImageStreamProvider;
+import org.kie.cloud.openshift.resource.Project;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates projects and their resources shared by all scenarios, i.e. secrets and image streams.
+ */
+class ProjectInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectInitializer.class);
+
+    private ProjectInitializer() {
+    }
+
+    /**
+     * Create new project with generated name.
+     *
+     * @return Created project.
+     */
+    static Project createProject() {
+        // OpenShift restriction: Hostname must be shorter than 63 characters
+        String projectName = UUID.randomUUID().toString().substring(0, 4);
+        projectName = OpenShiftConstants.getNamespacePrefix().map(p -> p + "-").orElse("") + projectName;
+
+        logger.info("Generated project name is " + projectName);
+
+        logger.info("Creating project " + projectName);
+        return OpenShiftController.createProject(projectName);
+    }
+
+    /**
+     * Create secrets and optionally image streams used by scenario deployments.
+     *
+     * @param project Project to initialize.
+     * @param createImageStreams True if image streams should be created.
+     */
+    static void initializeProject(Project project, boolean createImageStreams) {
+        deploySecretConfig(project);
+        deploySecretAppUser(project);
+
+        if (createImageStreams) {
+            logger.info("Creating image streams.");
+            ImageStreamProvider.createImageStreamsInProject(project);
+        }
+    }
+
+    private static void deploySecretConfig(Project project) {
+        if (OpenShiftConstants.getTrustedKeystoreFile() == null) {
+            throw new RuntimeException("Trusted keystore file is not set!");
+        }
+
+        logger.info("Creating generally used secret from " + OpenShiftConstants.getTrustedKeystoreFile());
+        try {
+            Secret secret = new SecretBuilder()
+                    .withNewMetadata()
+                        .withName(OpenShiftConstants.getKieApplicationSecretName())
+                        .withNamespace(project.getName())
+                        .endMetadata()
+                    .addToData("keystore.jks", Base64.encodeBase64String(Files.readAllBytes(Paths.get(OpenShiftConstants.getTrustedKeystoreFile()))))
+                    .build();
+
+            project.getOpenShift().secrets().createOrReplace(secret);
+        } catch (IOException e) {
+            throw new RuntimeException("Error loading the secret", e);
+        }
+    }
+
+    private static void deploySecretAppUser(Project project) {
+        logger.info("Creating user secret '{}'", DeploymentConstants.getAppCredentialsSecretName());
+        Map<String, String> data = new HashMap<>();
+        data.put(OpenShiftConstants.KIE_ADMIN_USER, DeploymentConstants.getAppUser());
+        data.put("username", DeploymentConstants.getAppUser());
+        data.put(OpenShiftConstants.KIE_ADMIN_PWD, DeploymentConstants.getAppPassword());
+        data.put("password", DeploymentConstants.getAppPassword());
+
+        project.createSecret(DeploymentConstants.getAppCredentialsSecretName(), data);
+    }
+}
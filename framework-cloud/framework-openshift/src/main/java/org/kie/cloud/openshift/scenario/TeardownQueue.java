@@ -0,0 +1,176 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.openshift.scenario;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.kie.cloud.openshift.constants.OpenShiftConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes teardown of finished scenarios in background with bounded concurrency, so the next test can start deploying
+ * while the previous project is still being deleted. Teardown is identified by a name, usually the project name, failed
+ * teardowns are collected and reported once the queue is drained.
+ * <p>
+ * Queue is enabled by setting {@link OpenShiftConstants#TEARDOWN_PARALLELISM} to a positive number. It is drained on JVM
+ * shutdown.
+ */
+public class TeardownQueue implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeardownQueue.class);
+
+    private static final Duration DEFAULT_DRAIN_TIMEOUT = Duration.ofMinutes(10);
+
+    private static TeardownQueue instance;
+
+    private final ExecutorService executor;
+    private final Duration drainTimeout;
+    private final Set<String> pendingTeardowns = ConcurrentHashMap.newKeySet();
+    private final Map<String, Throwable> failedTeardowns = new LinkedHashMap<>();
+
+    private volatile boolean closed = false;
+
+    public TeardownQueue(int parallelism) {
+        this(parallelism, DEFAULT_DRAIN_TIMEOUT);
+    }
+
+    TeardownQueue(int parallelism, Duration drainTimeout) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Teardown parallelism must be at least 1, was " + parallelism);
+        }
+        this.executor = Executors.newFixedThreadPool(parallelism, new TeardownThreadFactory());
+        this.drainTimeout = drainTimeout;
+    }
+
+    /**
+     * @return Shared teardown queue if enabled by {@link OpenShiftConstants#TEARDOWN_PARALLELISM}. Queue is created on first
+     * call and drained on JVM shutdown.
+     */
+    public static synchronized Optional<TeardownQueue> getInstance() {
+        int parallelism = OpenShiftConstants.getTeardownParallelism();
+        if (instance == null && parallelism > 0) {
+            logger.info("Starting teardown queue with parallelism {}.", parallelism);
+            instance = new TeardownQueue(parallelism);
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "teardown-queue-shutdown"));
+        }
+        return Optional.ofNullable(instance);
+    }
+
+    /**
+     * Submit teardown for background execution. If the queue is already closed then the teardown is executed in the calling
+     * thread.
+     *
+     * @param name Name identifying the teardown in the failure report, for example project name. Names of pending teardowns must be unique.
+     * @param teardown Teardown to execute. Teardown is considered failed if it throws an exception.
+     */
+    public void submit(String name, Runnable teardown) {
+        pendingTeardowns.add(name);
+        if (closed) {
+            execute(name, teardown);
+            return;
+        }
+        logger.info("Scheduling teardown of {}.", name);
+        try {
+            executor.execute(() -> execute(name, teardown));
+        } catch (RejectedExecutionException e) {
+            // Queue was closed concurrently
+            execute(name, teardown);
+        }
+    }
+
+    /**
+     * @return Names of teardowns which failed so far together with their errors.
+     */
+    public synchronized Map<String, Throwable> getFailedTeardowns() {
+        return new LinkedHashMap<>(failedTeardowns);
+    }
+
+    /**
+     * Wait until all submitted teardowns are finished and report teardowns which failed or didn't finish in time.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Teardowns didn't finish in {}.", drainTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        report();
+    }
+
+    private void execute(String name, Runnable teardown) {
+        try {
+            teardown.run();
+            logger.info("Teardown of {} finished.", name);
+        } catch (Exception e) {
+            logger.error("Teardown of " + name + " failed.", e);
+            synchronized (this) {
+                failedTeardowns.put(name, e);
+            }
+        } finally {
+            pendingTeardowns.remove(name);
+        }
+    }
+
+    private void report() {
+        List<String> failed = new ArrayList<>(getFailedTeardowns().keySet());
+        List<String> unfinished = new ArrayList<>(pendingTeardowns);
+        if (failed.isEmpty() && unfinished.isEmpty()) {
+            logger.info("All teardowns finished successfully.");
+            return;
+        }
+        if (!failed.isEmpty()) {
+            logger.error("Teardown failed, these may need manual cleanup: {}", failed);
+        }
+        if (!unfinished.isEmpty()) {
+            logger.error("Teardown didn't finish, these may need manual cleanup: {}", unfinished);
+        }
+    }
+
+    private static class TeardownThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "teardown-queue-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -16,38 +16,143 @@
 
 package org.kie.cloud.openshift.util;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
-import com.fasterxml.jackson.databind.JsonMappingException;
-import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Client;
+import org.kie.cloud.openshift.constants.OpenShiftConstants;
+import org.kie.cloud.openshift.util.retry.CircuitBreaker;
+import org.kie.cloud.openshift.util.retry.RetriableErrors;
+import org.kie.cloud.openshift.util.retry.RetryPolicy;
 
+/**
+ * Calls OpenShift API and retries calls failing with transient errors. Calls to the same API server share a circuit breaker, so
+ * an unavailable cluster pauses only calls made to it.
+ */
 public class OpenShiftCaller {
 
+    private static final String DEFAULT_OPERATION_NAME = "OpenShift API call";
+    private static final Duration INITIAL_RETRY_DELAY = Duration.ofMillis(100);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(5);
+    private static final Duration CIRCUIT_BREAKER_OPEN_DURATION = Duration.ofSeconds(10);
+
+    // Keyed by API server URL
+    private static final Map<String, CircuitBreaker> CIRCUIT_BREAKERS = new ConcurrentHashMap<>();
+
     private OpenShiftCaller() {
         // Util class
     }
 
     /**
-     * Make repeatable calls to OpenShift.
-     * Sometimes the call can fail due to marshalling error, this happens when object is deleted while marshalling is in progress. In this case retry the call.
+     * Make repeatable calls to OpenShift configured by {@link OpenShiftConstants#OPENSHIFT_URL}.
+     * Sometimes the call can fail due to transient error, for example marshalling error when object is deleted while marshalling is in progress,
+     * throttling or connection reset. In this case retry the call. The call has to be idempotent.
      *
      * @param supplier Supplier of OpenShift calls
      * @return Object returned by supplier.
      */
     public static <T> T repeatableCall(Supplier<T> supplier) {
-        // Allow 10 calls at maximum, if the call still fails then return error
-        for (int i = 0; i < 10; i++) {
-            try {
-                return supplier.get();
-            } catch (KubernetesClientException e) {
-                if (e.getCause() instanceof JsonMappingException) {
-                    // OpenShift instability, possibly the resource was deleted while unmarshalling the result, continue with another call
-                } else {
-                    // Unexpected exception, throw it
-                    throw e;
-                }
-            }
-        }
-        throw new RuntimeException("Repeated calls hit the JsonMappingException.");
+        return repeatableCall(DEFAULT_OPERATION_NAME, supplier);
+    }
+
+    /**
+     * Make repeatable calls to OpenShift configured by {@link OpenShiftConstants#OPENSHIFT_URL}, retry the call if it fails due
+     * to transient error. The call has to be idempotent.
+     *
+     * @param operationName Name of the operation used in retry statistics.
+     * @param supplier Supplier of OpenShift calls
+     * @return Object returned by supplier.
+     */
+    public static <T> T repeatableCall(String operationName, Supplier<T> supplier) {
+        return createRetryPolicy().call(operationName, supplier);
+    }
+
+    /**
+     * Make repeatable calls to OpenShift configured by {@link OpenShiftConstants#OPENSHIFT_URL}, retry the call if it fails with
+     * one of the given errors.
+     *
+     * @param operationName Name of the operation used in retry statistics.
+     * @param retriableErrors Errors to retry.
+     * @param supplier Supplier of OpenShift calls
+     * @return Object returned by supplier.
+     */
+    public static <T> T repeatableCall(String operationName, Predicate<Throwable> retriableErrors, Supplier<T> supplier) {
+        return createRetryPolicy().retryOn(retriableErrors).call(operationName, supplier);
+    }
+
+    /**
+     * Make repeatable calls through the client, retry the call if it fails due to transient error. The call has to be idempotent.
+     *
+     * @param client Client making the calls, determines circuit breaker of its API server.
+     * @param operationName Name of the operation used in retry statistics.
+     * @param supplier Supplier of OpenShift calls
+     * @return Object returned by supplier.
+     */
+    public static <T> T repeatableCall(Client client, String operationName, Supplier<T> supplier) {
+        return createRetryPolicy(client).call(operationName, supplier);
+    }
+
+    /**
+     * Make repeatable calls through the client, retry the call if it fails with one of the given errors.
+     *
+     * @param client Client making the calls, determines circuit breaker of its API server.
+     * @param operationName Name of the operation used in retry statistics.
+     * @param retriableErrors Errors to retry.
+     * @param supplier Supplier of OpenShift calls
+     * @return Object returned by supplier.
+     */
+    public static <T> T repeatableCall(Client client, String operationName, Predicate<Throwable> retriableErrors, Supplier<T> supplier) {
+        return createRetryPolicy(client).retryOn(retriableErrors).call(operationName, supplier);
+    }
+
+    /**
+     * Create a resource through the client, retry the creation only if the API server certainly didn't process the request. See
+     * {@link RetriableErrors#transientCreateErrors()}.
+     *
+     * @param client Client creating the resource, determines circuit breaker of its API server.
+     * @param operationName Name of the operation used in retry statistics.
+     * @param supplier Supplier of the create call.
+     * @return Object returned by supplier.
+     */
+    public static <T> T repeatableCreate(Client client, String operationName, Supplier<T> supplier) {
+        return repeatableCall(client, operationName, RetriableErrors.transientCreateErrors(), supplier);
+    }
+
+    /**
+     * @return Retry policy configured by OpenShift constants and sharing circuit breaker with other calls to OpenShift
+     * configured by {@link OpenShiftConstants#OPENSHIFT_URL}.
+     */
+    public static RetryPolicy createRetryPolicy() {
+        return createRetryPolicy(String.valueOf(OpenShiftConstants.getOpenShiftUrl()));
+    }
+
+    /**
+     * @param client Client making the calls.
+     * @return Retry policy configured by OpenShift constants and sharing circuit breaker with other calls to API server of the
+     * client.
+     */
+    public static RetryPolicy createRetryPolicy(Client client) {
+        return createRetryPolicy(String.valueOf(client.getMasterUrl()));
+    }
+
+    private static RetryPolicy createRetryPolicy(String apiServerUrl) {
+        return new RetryPolicy().withMaxAttempts(OpenShiftConstants.getOpenShiftRetryMaxAttempts())
+                                .withDelay(INITIAL_RETRY_DELAY, MAX_RETRY_DELAY)
+                                .withRetryBudget(OpenShiftConstants.getOpenShiftRetryBudget())
+                                .retryOn(RetriableErrors.transientApiErrors())
+                                .withCircuitBreaker(getCircuitBreaker(apiServerUrl));
+    }
+
+    static CircuitBreaker getCircuitBreaker(String apiServerUrl) {
+        return CIRCUIT_BREAKERS.computeIfAbsent(normalizeUrl(apiServerUrl),
+                                                url -> new CircuitBreaker("OpenShift API " + url, OpenShiftConstants.getOpenShiftCircuitBreakerThreshold(),
+                                                                          CIRCUIT_BREAKER_OPEN_DURATION));
+    }
+
+    private static String normalizeUrl(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
     }
 }
@@ -16,21 +16,33 @@
 
 package org.kie.cloud.openshift.util;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.fabric8.kubernetes.api.model.KubernetesList;
 import io.fabric8.openshift.api.model.Parameter;
 import io.fabric8.openshift.api.model.Template;
 import io.fabric8.openshift.client.DefaultOpenShiftClient;
 import io.fabric8.openshift.client.OpenShiftClient;
 import io.fabric8.openshift.client.OpenShiftConfig;
 import io.fabric8.openshift.client.OpenShiftConfigBuilder;
+import org.apache.commons.io.IOUtils;
 import org.kie.cloud.openshift.template.OpenShiftTemplate;
 
 /**
  * Utility class used for various operations against OpenShift template.
+ * Templates are processed locally, content of every template is downloaded just once and cached.
  */
 public class OpenShiftTemplateProcessor {
 
     private static OpenShiftClient openShiftClient;
 
+    private static final Map<String, byte[]> templateCache = new ConcurrentHashMap<>();
+
     static {
         OpenShiftConfig openShiftConfig = new OpenShiftConfigBuilder()
                 .withDisableApiGroupCheck(true)
@@ -44,10 +56,34 @@ public class OpenShiftTemplateProcessor {
      * @return Value of parameter from OpenShift template.
      */
     public static String getParameterValue(OpenShiftTemplate openShiftTemplate, String parameterName) {
-        Template template = openShiftClient.templates().load(openShiftTemplate.getTemplateUrl()).get();
+        Template template = openShiftClient.templates().load(getTemplateContent(openShiftTemplate.getTemplateUrl())).get();
         Parameter parameter = template.getParameters().stream().filter(p -> p.getName().equals(parameterName))
                                                                .findAny()
                                                                .orElseThrow(() -> new RuntimeException("Parameter " + parameterName + " not found."));
         return parameter.getValue();
     }
+
+    /**
+     * Process template locally, the same way as "oc process --local --ignore-unknown-parameters=true" does.
+     * Parameters without provided value use their default value or a value generated from their expression.
+     *
+     * @param templateUrl URL of template to be processed.
+     * @param parameters Template parameter values, parameters not defined in the template are ignored.
+     * @return List of resources defined by the template with substituted parameters.
+     * @throws IllegalArgumentException In case a required parameter doesn't have any value.
+     */
+    public static KubernetesList processTemplate(URL templateUrl, Map<String, String> parameters) {
+        return openShiftClient.templates().load(getTemplateContent(templateUrl)).processLocally(parameters);
+    }
+
+    private static InputStream getTemplateContent(URL templateUrl) {
+        byte[] content = templateCache.computeIfAbsent(templateUrl.toExternalForm(), url -> {
+            try (InputStream templateStream = templateUrl.openStream()) {
+                return IOUtils.toByteArray(templateStream);
+            } catch (IOException e) {
+                throw new RuntimeException("Error while reading template " + url, e);
+            }
+        });
+        return new ByteArrayInputStream(content);
+    }
 }
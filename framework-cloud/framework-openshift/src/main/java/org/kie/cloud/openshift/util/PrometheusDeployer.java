@@ -40,7 +40,6 @@ import io.fabric8.kubernetes.api.model.rbac.ClusterRoleBinding;
 import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import org.kie.cloud.api.deployment.KieServerDeployment;
-import org.kie.cloud.api.deployment.PrometheusDeployment;
 import org.kie.cloud.openshift.constants.OpenShiftConstants;
 import org.kie.cloud.openshift.deployment.PrometheusDeploymentImpl;
 import org.kie.cloud.openshift.prometheus.servicemonitor.ServiceMonitor;
@@ -76,7 +75,7 @@ public class PrometheusDeployer {
 
     private static final String PROMETHEUS_OPERATOR_NAME = "prometheus";
 
-    public static PrometheusDeployment deploy(Project project, KieServerDeployment kieServerDeployment) {
+    public static PrometheusDeploymentImpl deploy(Project project, KieServerDeployment kieServerDeployment) {
         addClusterRoleToAdminUser(project);
 
         createServiceAccount(project, versioned(PROMETHEUS_OPERATOR_SERVICE_ACCOUNT));
@@ -95,8 +94,7 @@ public class PrometheusDeployer {
         createMetricsSecret(project, kieServerDeployment);
         createServiceMonitorCustomResource(project);
 
-        PrometheusDeployment prometheusDeployment = new PrometheusDeploymentImpl(project);
-        return prometheusDeployment;
+        return new PrometheusDeploymentImpl(project);
     }
 
     public static void undeployOperator(Project project) {
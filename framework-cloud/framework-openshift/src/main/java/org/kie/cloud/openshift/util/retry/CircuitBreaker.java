@@ -0,0 +1,144 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.openshift.util.retry;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Circuit breaker shared by calls to the same service. Once the number of consecutive failures reaches the threshold the
+ * breaker opens and callers pause for the open duration instead of hammering the service. The first call after the pause
+ * probes the service while other callers keep waiting, success of the probe closes the breaker while its failure opens it
+ * again. Probe which doesn't record its result within the open duration is replaced by the next caller.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private static final long MAX_PROBE_WAIT_NANOS = Duration.ofMillis(100).toNanos();
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final long probeWaitNanos;
+    private final LongSupplier nanoTime;
+
+    private int consecutiveFailures = 0;
+    private long openUntilNanos;
+    private long probeStartNanos;
+    private State state = State.CLOSED;
+
+    /**
+     * @param name Name of the breaker used in logs.
+     * @param failureThreshold Number of consecutive failures opening the breaker.
+     * @param openDuration Time the breaker stays open.
+     */
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this(name, failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, LongSupplier nanoTime) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be at least 1, was " + failureThreshold);
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.probeWaitNanos = Math.min(openDurationNanos, MAX_PROBE_WAIT_NANOS);
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Ask for permission to call the service. Once the open duration elapses the first caller gets the permission to probe
+     * the service, other callers have to wait until the probe result is recorded.
+     *
+     * @return Time in nanoseconds to wait before asking again, 0 if the call is allowed.
+     */
+    public synchronized long acquirePermission() {
+        long now = nanoTime.getAsLong();
+        switch (state) {
+            case OPEN:
+                long remainingOpenNanos = openUntilNanos - now;
+                if (remainingOpenNanos > 0) {
+                    return remainingOpenNanos;
+                }
+                return startProbe(now);
+            case HALF_OPEN:
+                if (now - probeStartNanos >= openDurationNanos) {
+                    logger.warn("Probe of circuit breaker {} didn't finish in {} ms, probing again.", name, Duration.ofNanos(openDurationNanos).toMillis());
+                    return startProbe(now);
+                }
+                return probeWaitNanos;
+            default:
+                return 0;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("Circuit breaker {} closed.", name);
+        }
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            logger.warn("Probe of circuit breaker {} failed, pausing calls for {} ms.", name, Duration.ofNanos(openDurationNanos).toMillis());
+            open();
+        } else if (consecutiveFailures >= failureThreshold && getRemainingOpenNanos() == 0) {
+            logger.warn("Circuit breaker {} opened after {} consecutive failures, pausing calls for {} ms.", name, consecutiveFailures,
+                        Duration.ofNanos(openDurationNanos).toMillis());
+            open();
+        }
+    }
+
+    /**
+     * @return Time in nanoseconds until the open duration elapses, 0 if the breaker isn't open.
+     */
+    public synchronized long getRemainingOpenNanos() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, openUntilNanos - nanoTime.getAsLong());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void open() {
+        openUntilNanos = nanoTime.getAsLong() + openDurationNanos;
+        state = State.OPEN;
+    }
+
+    private long startProbe(long now) {
+        probeStartNanos = now;
+        state = State.HALF_OPEN;
+        return 0;
+    }
+
+    private enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.openshift.util.retry;
+
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.function.Predicate;
+
+import javax.net.ssl.SSLException;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+
+/**
+ * Classification of errors which are worth retrying. Errors are matched against the whole chain of causes.
+ */
+public class RetriableErrors {
+
+    private static final int TOO_MANY_REQUESTS_CODE = 429;
+    private static final int GONE_CODE = 410;
+    private static final int SERVER_ERROR_CODE = 500;
+
+    private RetriableErrors() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @return Errors which are expected to disappear when idempotent OpenShift API call is repeated - unmarshalling of deleted
+     * resource, throttling, server errors, connection failures and stale watches. Not suitable for creation of resources, see
+     * {@link #transientCreateErrors()}.
+     */
+    public static Predicate<Throwable> transientApiErrors() {
+        return unmarshallingErrors().or(throttling())
+                                    .or(serverErrors())
+                                    .or(connectionErrors())
+                                    .or(staleResourceVersion());
+    }
+
+    /**
+     * Creation isn't idempotent, request failing on a connection reset or server error may have created the resource anyway and
+     * repeating it would fail or create a duplicate.
+     *
+     * @return Errors which guarantee that the API server didn't process the request - throttling and refused connections.
+     */
+    public static Predicate<Throwable> transientCreateErrors() {
+        return throttling().or(causedBy(ConnectException.class));
+    }
+
+    /**
+     * @return Unmarshalling failures, happen when the resource is deleted while the response is being unmarshalled.
+     */
+    public static Predicate<Throwable> unmarshallingErrors() {
+        return causedBy(JsonMappingException.class);
+    }
+
+    /**
+     * @return API server rejected the request because of too many requests.
+     */
+    public static Predicate<Throwable> throttling() {
+        return error -> getStatusCode(error) == TOO_MANY_REQUESTS_CODE;
+    }
+
+    public static Predicate<Throwable> serverErrors() {
+        return error -> getStatusCode(error) >= SERVER_ERROR_CODE;
+    }
+
+    /**
+     * @return Connection resets, refused connections, timeouts and SSL handshake failures.
+     */
+    public static Predicate<Throwable> connectionErrors() {
+        return causedBy(SocketException.class).or(causedBy(SocketTimeoutException.class))
+                                               .or(causedBy(SSLException.class));
+    }
+
+    /**
+     * @return Requested resource version is too old, typically when watch or list is resumed after a while.
+     */
+    public static Predicate<Throwable> staleResourceVersion() {
+        return error -> getStatusCode(error) == GONE_CODE;
+    }
+
+    /**
+     * @param errorClass Error type.
+     * @return Errors which are of the given type or caused by it.
+     */
+    public static Predicate<Throwable> causedBy(Class<? extends Throwable> errorClass) {
+        return error -> {
+            for (Throwable cause = error; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+                if (errorClass.isInstance(cause)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private static int getStatusCode(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof KubernetesClientException) {
+                return ((KubernetesClientException) cause).getCode();
+            }
+        }
+        return -1;
+    }
+}
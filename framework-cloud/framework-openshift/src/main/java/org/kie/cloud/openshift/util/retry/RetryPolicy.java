@@ -0,0 +1,195 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.openshift.util.retry;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes calls and retries them if they fail with a retriable error. Delay between attempts grows exponentially with random
+ * jitter up to a cap. Retrying stops once the maximal number of attempts is reached or when waiting for the next attempt would
+ * exceed the retry budget, that is maximal time a single call may spend waiting between attempts. Duration of attempts isn't
+ * part of the budget. Long running waits should retry their individual calls instead of being retried as a whole.
+ * <p>
+ * Policy can share a {@link CircuitBreaker} with other policies calling the same service. Calls pause while the breaker is open
+ * or while another call probes the service. Only retriable errors count as failures of the service, non-retriable ones mean
+ * the service responded. Every retry is recorded in {@link RetryStatistics}.
+ */
+public class RetryPolicy {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryPolicy.class);
+
+    private int maxAttempts = 10;
+    private Duration initialDelay = Duration.ofMillis(100);
+    private Duration maxDelay = Duration.ofSeconds(5);
+    private Duration retryBudget = Duration.ofMinutes(1);
+    private Predicate<Throwable> retriableErrors = error -> false;
+    private CircuitBreaker circuitBreaker;
+    private RetryStatistics statistics = RetryStatistics.getInstance();
+
+    /**
+     * @param maxAttempts Maximal number of attempts including the first one.
+     * @return This policy.
+     */
+    public RetryPolicy withMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Maximal number of attempts must be at least 1, was " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * @param initialDelay Delay after the first failed attempt, doubled after every next failed attempt.
+     * @param maxDelay Maximal delay between attempts.
+     * @return This policy.
+     */
+    public RetryPolicy withDelay(Duration initialDelay, Duration maxDelay) {
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        return this;
+    }
+
+    /**
+     * @param retryBudget Maximal time spent by a single call waiting between attempts, including pauses of open circuit breaker.
+     * @return This policy.
+     */
+    public RetryPolicy withRetryBudget(Duration retryBudget) {
+        this.retryBudget = retryBudget;
+        return this;
+    }
+
+    /**
+     * @param retriableErrors Errors to retry, other errors are rethrown immediately. See {@link RetriableErrors}.
+     * @return This policy.
+     */
+    public RetryPolicy retryOn(Predicate<Throwable> retriableErrors) {
+        this.retriableErrors = Objects.requireNonNull(retriableErrors);
+        return this;
+    }
+
+    public RetryPolicy withCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+        return this;
+    }
+
+    public RetryPolicy withStatistics(RetryStatistics statistics) {
+        this.statistics = Objects.requireNonNull(statistics);
+        return this;
+    }
+
+    /**
+     * @param operationName Name of the operation used in logs and statistics.
+     * @param call Call to execute.
+     * @return Result of the call.
+     * @throws RuntimeException Error of the call if it isn't retriable, otherwise the last error once retries are exhausted. Errors
+     * are rethrown as they are, so callers can handle them by their type.
+     */
+    public <T> T call(String operationName, Supplier<T> call) {
+        long budgetNanos = retryBudget.toNanos();
+        long waitedNanos = 0;
+        long delayMillis = initialDelay.toMillis();
+        for (int attempt = 1;; attempt++) {
+            waitedNanos += awaitCircuitBreaker(operationName, budgetNanos - waitedNanos);
+
+            long attemptStartNanos = System.nanoTime();
+            try {
+                T result = call.get();
+                if (circuitBreaker != null) {
+                    circuitBreaker.recordSuccess();
+                }
+                return result;
+            } catch (RuntimeException e) {
+                if (!retriableErrors.test(e)) {
+                    if (circuitBreaker != null) {
+                        circuitBreaker.recordSuccess();
+                    }
+                    throw e;
+                }
+                if (circuitBreaker != null) {
+                    circuitBreaker.recordFailure();
+                }
+
+                long sleepNanos = TimeUnit.MILLISECONDS.toNanos(withJitter(delayMillis));
+                if (attempt >= maxAttempts || waitedNanos + sleepNanos > budgetNanos) {
+                    statistics.recordFailure(operationName, System.nanoTime() - attemptStartNanos);
+                    logger.warn("Operation {} failed after {} attempts.", operationName, attempt);
+                    throw e;
+                }
+
+                logger.debug("Attempt {} of operation {} failed with {}, retrying in {} ms.", attempt, operationName, e.toString(),
+                             TimeUnit.NANOSECONDS.toMillis(sleepNanos));
+                sleep(sleepNanos);
+                waitedNanos += sleepNanos;
+                statistics.recordRetry(operationName, System.nanoTime() - attemptStartNanos);
+                delayMillis = Math.min(delayMillis * 2, maxDelay.toMillis());
+            }
+        }
+    }
+
+    public void run(String operationName, Runnable call) {
+        call(operationName, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return Time spent waiting for the breaker to allow the call.
+     */
+    private long awaitCircuitBreaker(String operationName, long remainingBudgetNanos) {
+        if (circuitBreaker == null) {
+            return 0;
+        }
+        long waitedNanos = 0;
+        for (long waitNanos = circuitBreaker.acquirePermission(); waitNanos > 0; waitNanos = circuitBreaker.acquirePermission()) {
+            if (waitedNanos + waitNanos > remainingBudgetNanos) {
+                statistics.recordFailure(operationName, 0);
+                throw new IllegalStateException("Circuit breaker " + circuitBreaker.getName() + " is open, operation " + operationName +
+                                                " can't be executed within its retry budget.");
+            }
+            sleep(waitNanos);
+            statistics.recordPause(operationName, waitNanos);
+            waitedNanos += waitNanos;
+        }
+        return waitedNanos;
+    }
+
+    /**
+     * @return Delay between half and full of the given delay, so calls failed at the same time are not retried at once.
+     */
+    private static long withJitter(long delayMillis) {
+        long half = delayMillis / 2;
+        return half + ThreadLocalRandom.current().nextLong(delayMillis - half + 1);
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for next attempt.", e);
+        }
+    }
+}
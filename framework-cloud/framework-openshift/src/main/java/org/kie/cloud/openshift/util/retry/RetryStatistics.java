@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.openshift.util.retry;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of retried calls per operation, useful to find out how much time a test run lost by waiting for unstable services.
+ */
+public class RetryStatistics {
+
+    private static final RetryStatistics INSTANCE = new RetryStatistics();
+
+    private final Map<String, OperationRetries> operations = new ConcurrentHashMap<>();
+
+    /**
+     * @return Statistics shared by all retry policies which don't define their own.
+     */
+    public static RetryStatistics getInstance() {
+        return INSTANCE;
+    }
+
+    void recordRetry(String operationName, long lostNanos) {
+        OperationRetries retries = getOperationRetries(operationName);
+        retries.retries.increment();
+        retries.lostNanos.add(lostNanos);
+    }
+
+    void recordPause(String operationName, long lostNanos) {
+        getOperationRetries(operationName).lostNanos.add(lostNanos);
+    }
+
+    void recordFailure(String operationName, long lostNanos) {
+        OperationRetries retries = getOperationRetries(operationName);
+        retries.failures.increment();
+        retries.lostNanos.add(lostNanos);
+    }
+
+    /**
+     * @return Number of retries of all operations.
+     */
+    public long getRetries() {
+        return operations.values().stream().mapToLong(retries -> retries.retries.sum()).sum();
+    }
+
+    public long getRetries(String operationName) {
+        OperationRetries retries = operations.get(operationName);
+        return retries == null ? 0 : retries.retries.sum();
+    }
+
+    /**
+     * @return Number of calls which failed even after all retries.
+     */
+    public long getFailures(String operationName) {
+        OperationRetries retries = operations.get(operationName);
+        return retries == null ? 0 : retries.failures.sum();
+    }
+
+    /**
+     * @return Time spent by failed attempts and waiting between attempts of all operations.
+     */
+    public Duration getTimeLost() {
+        return Duration.ofNanos(operations.values().stream().mapToLong(retries -> retries.lostNanos.sum()).sum());
+    }
+
+    public Duration getTimeLost(String operationName) {
+        OperationRetries retries = operations.get(operationName);
+        return retries == null ? Duration.ZERO : Duration.ofNanos(retries.lostNanos.sum());
+    }
+
+    /**
+     * @return Names of all operations which were retried at least once.
+     */
+    public Set<String> getOperationNames() {
+        return Collections.unmodifiableSet(new TreeSet<>(operations.keySet()));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("Retries: ").append(getRetries()).append(", time lost: ").append(getTimeLost().toMillis()).append("ms");
+        new TreeMap<>(operations).forEach((operationName, retries) -> result.append("\n  ").append(operationName)
+                                                                           .append(": retries=").append(retries.retries.sum())
+                                                                           .append(", failures=").append(retries.failures.sum())
+                                                                           .append(", time lost=").append(Duration.ofNanos(retries.lostNanos.sum()).toMillis()).append("ms"));
+        return result.toString();
+    }
+
+    private OperationRetries getOperationRetries(String operationName) {
+        return operations.computeIfAbsent(operationName, name -> new OperationRetries());
+    }
+
+    private static class OperationRetries {
+
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder lostNanos = new LongAdder();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.constants.images.imagestream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import cz.xtf.core.openshift.OpenShift;
+import io.fabric8.kubernetes.api.model.WatchEvent;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import io.fabric8.mockwebserver.dsl.EventDoneable;
+import io.fabric8.mockwebserver.dsl.TimesOnceableOrHttpHeaderable;
+import io.fabric8.openshift.api.model.ImageStream;
+import io.fabric8.openshift.api.model.ImageStreamBuilder;
+import io.fabric8.openshift.api.model.ImageStreamListBuilder;
+import io.fabric8.openshift.client.OpenShiftConfig;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ImageStreamProviderTest {
+
+    private static final String NAMESPACE = "test";
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Rule
+    public KubernetesServer server = new KubernetesServer(false, false);
+
+    private OpenShift openShiftAdmin;
+
+    @Before
+    public void createClient() {
+        openShiftAdmin = new OpenShift(new OpenShiftConfig(server.getClient().getConfiguration()));
+    }
+
+    @Test
+    public void imageStreamsAreCreatedPatchedAndAwaitedInBatch() throws Exception {
+        expectListing(2, imageStream("up-to-date", "registry/up-to-date:1"), imageStream("outdated", "registry/outdated:1"));
+        server.expect().post().withPath(imageStreamsPath(""))
+              .andReturn(201, imageStream("missing", "registry/missing:1"))
+              .once();
+        server.expect().get().withPath(imageStreamsPath("/outdated"))
+              .andReturn(200, imageStream("outdated", "registry/outdated:1"))
+              .once();
+        server.expect().patch().withPath(imageStreamsPath("/outdated"))
+              .andReturn(200, imageStream("outdated", "registry/outdated:2"))
+              .once();
+        // Tag of outdated image stream is changed only after the watch is started
+        expectWatch(new WatchEvent(imageStream("up-to-date", "registry/up-to-date:1"), "MODIFIED"),
+                    new WatchEvent(imageStream("outdated", "registry/outdated:2"), "MODIFIED"));
+
+        ImageStreamProvider.provisionImageStreams(openShiftAdmin, Arrays.asList(imageStream("up-to-date", "registry/up-to-date:1"),
+                                                                                imageStream("outdated", "registry/outdated:2"),
+                                                                                imageStream("missing", "registry/missing:1")));
+
+        assertThat(takeRequests()).containsExactlyInAnyOrder("GET " + imageStreamsPath(""),
+                                                             "POST " + imageStreamsPath(""),
+                                                             "GET " + imageStreamsPath("/outdated"),
+                                                             "PATCH " + imageStreamsPath("/outdated"),
+                                                             "GET " + imageStreamsPath("?allowWatchBookmarks=true&watch=true"),
+                                                             "GET " + imageStreamsPath(""));
+    }
+
+    @Test
+    public void imageStreamsPointingToTagAreNotChanged() throws Exception {
+        expectListing(1, imageStream("up-to-date", "registry/up-to-date:1"));
+
+        ImageStreamProvider.provisionImageStreams(openShiftAdmin, Arrays.asList(imageStream("up-to-date", "registry/up-to-date:1")));
+
+        assertThat(takeRequests()).containsExactly("GET " + imageStreamsPath(""));
+    }
+
+    @Test
+    public void tagChangedBeforeWatchStartIsNotAwaited() throws Exception {
+        expectListing(1, imageStream("outdated", "registry/outdated:1"));
+        server.expect().get().withPath(imageStreamsPath("/outdated"))
+              .andReturn(200, imageStream("outdated", "registry/outdated:1"))
+              .once();
+        server.expect().patch().withPath(imageStreamsPath("/outdated"))
+              .andReturn(200, imageStream("outdated", "registry/outdated:2"))
+              .once();
+        expectWatch();
+        expectListing(1, imageStream("outdated", "registry/outdated:2"));
+
+        ImageStreamProvider.provisionImageStreams(openShiftAdmin, Arrays.asList(imageStream("outdated", "registry/outdated:2")));
+
+        assertThat(takeRequests()).contains("PATCH " + imageStreamsPath("/outdated"));
+    }
+
+    @Test
+    public void failedCreationIsReported() {
+        expectListing(1);
+        server.expect().post().withPath(imageStreamsPath(""))
+              .andReturn(500, null)
+              .once();
+
+        assertThatThrownBy(() -> ImageStreamProvider.provisionImageStreams(openShiftAdmin, Arrays.asList(imageStream("missing", "registry/missing:1"))))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Error while provisioning image streams.");
+    }
+
+    private void expectListing(int times, ImageStream... imageStreams) {
+        server.expect().get().withPath(imageStreamsPath(""))
+              .andReturn(200, new ImageStreamListBuilder().addToItems(imageStreams).build())
+              .times(times);
+    }
+
+    private void expectWatch(WatchEvent... events) {
+        EventDoneable<TimesOnceableOrHttpHeaderable<Void>> session = server.expect().get()
+                                                                           .withPath(imageStreamsPath("?allowWatchBookmarks=true&watch=true"))
+                                                                           .andUpgradeToWebSocket()
+                                                                           .open();
+        for (WatchEvent event : events) {
+            session = session.waitFor(50).andEmit(event);
+        }
+        session.done().once();
+    }
+
+    private List<String> takeRequests() throws InterruptedException {
+        List<String> requests = new ArrayList<>();
+        RecordedRequest request;
+        while ((request = server.getKubernetesMockServer().takeRequest(100, TimeUnit.MILLISECONDS)) != null) {
+            requests.add(request.getMethod() + " " + request.getPath());
+        }
+        return requests;
+    }
+
+    private static String imageStreamsPath(String suffix) {
+        return "/apis/image.openshift.io/v1/namespaces/" + NAMESPACE + "/imagestreams" + suffix;
+    }
+
+    private static ImageStream imageStream(String name, String imageTag) {
+        return new ImageStreamBuilder().withNewMetadata()
+                                           .withName(name)
+                                           .withNamespace(NAMESPACE)
+                                       .endMetadata()
+                                       .withNewSpec()
+                                           .addNewTag()
+                                               .withName("latest")
+                                               .withNewFrom()
+                                                   .withKind("DockerImage")
+                                                   .withName(imageTag)
+                                               .endFrom()
+                                           .endTag()
+                                       .endSpec()
+                                       .build();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.deployment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RouteProberTest {
+
+    private HttpServer server;
+    private AtomicInteger firstRouteRequests = new AtomicInteger();
+    private AtomicInteger secondRouteRequests = new AtomicInteger();
+    private AtomicInteger unavailableRouteRequests = new AtomicInteger();
+    private Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/first", exchange -> respond(exchange, firstRouteRequests.incrementAndGet() <= 2 ? 503 : 200));
+        server.createContext("/second", exchange -> respond(exchange, secondRouteRequests.incrementAndGet() <= 4 ? 503 : 200));
+        server.createContext("/unavailable", exchange -> {
+            unavailableRouteRequests.incrementAndGet();
+            respond(exchange, 503);
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void routeIsProbedUntilExposed() throws Exception {
+        RouteProber routeProber = new RouteProber(Duration.ofSeconds(10), Duration.ofMillis(10), Duration.ofMillis(50));
+
+        Optional<Duration> timeToExposure = routeProber.waitForRoute(getUrl("/first"));
+
+        assertThat(timeToExposure).isPresent();
+        assertThat(firstRouteRequests).hasValue(3);
+        assertThat(routeProber.getTimesToExposure()).containsEntry(getUrl("/first").toString(), timeToExposure.get());
+    }
+
+    @Test
+    public void connectionIsReusedByConsecutiveProbes() throws Exception {
+        RouteProber routeProber = new RouteProber(Duration.ofSeconds(10), Duration.ofMillis(10), Duration.ofMillis(50));
+
+        routeProber.waitForRoute(getUrl("/second"));
+        routeProber.waitForRoute(getUrl("/first"));
+
+        assertThat(secondRouteRequests.get() + firstRouteRequests.get()).isEqualTo(8);
+        assertThat(clientPorts).hasSize(1);
+    }
+
+    @Test
+    public void routesAreProbedConcurrently() throws Exception {
+        RouteProber routeProber = new RouteProber(Duration.ofSeconds(10), Duration.ofMillis(10), Duration.ofMillis(50));
+
+        routeProber.waitForRoutes(Arrays.asList(getUrl("/first"), getUrl("/second")));
+
+        assertThat(firstRouteRequests).hasValue(3);
+        assertThat(secondRouteRequests).hasValue(5);
+        assertThat(routeProber.getTimesToExposure()).containsOnlyKeys(getUrl("/first").toString(), getUrl("/second").toString());
+        // Each route is probed by its own thread, which keeps its connection between probes
+        assertThat(clientPorts).hasSizeBetween(1, 2);
+    }
+
+    @Test
+    public void delayBetweenProbesIsCapped() throws Exception {
+        // Sleeping only advances the clock, so the delays don't depend on wall clock time
+        AtomicLong clockNanos = new AtomicLong();
+        List<Long> delays = new ArrayList<>();
+        RouteProber routeProber = new RouteProber(Duration.ofMillis(500), Duration.ofMillis(10), Duration.ofMillis(40), clockNanos::get, delayMillis -> {
+            delays.add(delayMillis);
+            clockNanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(delayMillis));
+        }, registry);
+
+        Optional<Duration> timeToExposure = routeProber.waitForRoute(getUrl("/unavailable"));
+
+        assertThat(timeToExposure).isEmpty();
+        assertThat(routeProber.getTimesToExposure()).isEmpty();
+        assertThat(unavailableRouteRequests).hasValue(delays.size());
+        // Delay doubles from the initial delay up to the cap, jitter takes up to half of it
+        long[] expectedDelays = {10, 20, 40, 40};
+        for (int i = 0; i < delays.size(); i++) {
+            long expectedDelay = expectedDelays[Math.min(i, expectedDelays.length - 1)];
+            assertThat(delays.get(i)).isBetween(expectedDelay / 2, expectedDelay);
+        }
+        assertThat(delays.stream().mapToLong(Long::longValue).sum()).isBetween(500L, 540L);
+        assertThat(registry.get(RouteProber.TIME_TO_EXPOSURE).tag("outcome", "TIMEOUT").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void timeToExposureIsMeasuredByClock() throws Exception {
+        AtomicLong clockNanos = new AtomicLong();
+        RouteProber routeProber = new RouteProber(Duration.ofSeconds(10), Duration.ofMillis(100), Duration.ofMillis(100), clockNanos::get,
+                                                  delayMillis -> clockNanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(100)), registry);
+
+        Optional<Duration> timeToExposure = routeProber.waitForRoute(getUrl("/first"));
+
+        assertThat(timeToExposure).hasValue(Duration.ofMillis(200));
+        Timer timer = registry.get(RouteProber.TIME_TO_EXPOSURE).tags("target", "localhost", "outcome", "EXPOSED").timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(200);
+    }
+
+    @Test
+    public void unreachableRouteIsRetriedUntilTimeout() throws Exception {
+        RouteProber routeProber = new RouteProber(Duration.ofMillis(300), Duration.ofMillis(10), Duration.ofMillis(50));
+        URL url = getUrl("/first");
+        server.stop(0);
+
+        assertThat(routeProber.waitForRoute(url)).isEmpty();
+    }
+
+    private void respond(HttpExchange exchange, int code) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        // Server keeps the connection open for next probes only once the request is fully read
+        try (InputStream requestBody = exchange.getRequestBody()) {
+            while (requestBody.read() != -1) {
+                // Drain the request
+            }
+        }
+        exchange.sendResponseHeaders(code, -1);
+        exchange.close();
+    }
+
+    private URL getUrl(String path) throws Exception {
+        return new URL("http://localhost:" + server.getAddress().getPort() + path);
+    }
+}
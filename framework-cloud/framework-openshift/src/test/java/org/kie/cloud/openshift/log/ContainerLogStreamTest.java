@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ContainerLogStreamTest {
+
+    private static final String LOG_OUTPUT_DIRECTORY = "instances";
+    private static final String LOG_FOLDER_NAME = "LOG_FOLDER_NAME";
+    private static final String INSTANCE_NAME = "pod";
+    private static final String CONTAINER_NAME = "container";
+
+    private static final String FIRST_SECOND = "2021-03-04T10:15:30Z";
+    private static final String NEXT_SECOND = "2021-03-04T10:15:31Z";
+
+    @Before
+    @After
+    public void deleteLogs() throws IOException {
+        FileUtils.deleteDirectory(new File(LOG_OUTPUT_DIRECTORY));
+    }
+
+    @Test
+    public void distinctLinesSharingTimestampAreKept() throws IOException {
+        ContainerLogStream logStream = new ContainerLogStream(INSTANCE_NAME, CONTAINER_NAME, LOG_FOLDER_NAME, 100);
+
+        logStream.offer(FIRST_SECOND + " first");
+        logStream.offer(FIRST_SECOND + " second");
+        logStream.offer(FIRST_SECOND + " second");
+        logStream.close();
+
+        assertThat(readLog()).containsExactly("first", "second", "second");
+        assertThat(logStream.getLastTimestamp()).hasValue(FIRST_SECOND);
+    }
+
+    @Test
+    public void replayedLinesAreNotDuplicated() throws IOException {
+        ContainerLogStream logStream = new ContainerLogStream(INSTANCE_NAME, CONTAINER_NAME, LOG_FOLDER_NAME, 100);
+        logStream.offer(FIRST_SECOND + " first");
+        logStream.offer(NEXT_SECOND + " second");
+        logStream.offer(NEXT_SECOND + " third");
+        logStream.offer(NEXT_SECOND + " third");
+
+        logStream.startReplay();
+        logStream.offer(FIRST_SECOND + " first");
+        logStream.offer(NEXT_SECOND + " second");
+        logStream.offer(NEXT_SECOND + " third");
+        logStream.offer(NEXT_SECOND + " third");
+        // Lines logged in the same second after the log was received for the first time
+        logStream.offer(NEXT_SECOND + " third");
+        logStream.offer(NEXT_SECOND + " fourth");
+        logStream.close();
+
+        assertThat(readLog()).containsExactly("first", "second", "third", "third", "third", "fourth");
+    }
+
+    @Test
+    public void linesWithoutTimestampAreAlwaysKept() throws IOException {
+        ContainerLogStream logStream = new ContainerLogStream(INSTANCE_NAME, CONTAINER_NAME, LOG_FOLDER_NAME, 100);
+
+        logStream.offer("plain line");
+        logStream.offer("plain line");
+        logStream.close();
+
+        assertThat(readLog()).containsExactly("plain line", "plain line");
+        assertThat(logStream.getLastTimestamp()).isEmpty();
+    }
+
+    @Test
+    public void linesNotFittingIntoQueueAreDroppedAndCounted() throws IOException {
+        ContainerLogStream logStream = new ContainerLogStream(INSTANCE_NAME, CONTAINER_NAME, LOG_FOLDER_NAME, 2);
+
+        logStream.offer(FIRST_SECOND + " first");
+        logStream.offer(FIRST_SECOND + " second");
+        logStream.offer(FIRST_SECOND + " third");
+        assertThat(logStream.getDroppedLines()).isEqualTo(1);
+
+        logStream.writeQueuedLines();
+        logStream.offer(NEXT_SECOND + " fourth");
+        logStream.close();
+
+        assertThat(readLog()).containsExactly("first", "second", "fourth");
+        assertThat(logStream.getDroppedLines()).isEqualTo(1);
+    }
+
+    @Test
+    public void timestampsOfWrittenLinesAreIndexed() throws IOException {
+        System.setProperty("instance.logs.format", "gzip");
+        try {
+            ContainerLogStream logStream = new ContainerLogStream(INSTANCE_NAME, CONTAINER_NAME, LOG_FOLDER_NAME, 100);
+            logStream.offer(FIRST_SECOND + " first");
+            logStream.offer("plain line");
+            logStream.offer(NEXT_SECOND + " second");
+            logStream.close();
+        } finally {
+            System.clearProperty("instance.logs.format");
+        }
+
+        List<String> index = FileUtils.readLines(new File(new File(LOG_OUTPUT_DIRECTORY, LOG_FOLDER_NAME), INSTANCE_NAME + "-" + CONTAINER_NAME + ".index"),
+                                                 StandardCharsets.UTF_8);
+        assertThat(index).hasSize(2);
+        assertThat(index.get(1).split("\t")).startsWith(INSTANCE_NAME, CONTAINER_NAME, INSTANCE_NAME + "-" + CONTAINER_NAME + "-0.log.gz", FIRST_SECOND, NEXT_SECOND);
+    }
+
+    private static List<String> readLog() throws IOException {
+        return FileUtils.readLines(new File(new File(LOG_OUTPUT_DIRECTORY, LOG_FOLDER_NAME), INSTANCE_NAME + "-" + CONTAINER_NAME + ".log"), StandardCharsets.UTF_8);
+    }
+}
@@ -2,13 +2,15 @@ package org.kie.cloud.openshift.log;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
@@ -24,8 +26,13 @@ import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 import rx.Observable;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class InstancesLogCollectorRunnableTest {
@@ -38,11 +45,16 @@ public class InstancesLogCollectorRunnableTest {
 
     private static final Integer DEFAULT_WAIT_FOR_COMPLETION_IN_MS = 5000;
 
+    private static final String FIRST_SECOND = "2021-03-04T10:15:30Z";
+    private static final String NEXT_SECOND = "2021-03-04T10:15:31Z";
+
     @Mock
     Project projectMock;
 
     InstancesLogCollectorRunnable cut;
 
+    private CountDownLatch streamsClosed = new CountDownLatch(1);
+
     @Before
     public void setUp() throws IOException {
         FileUtils.deleteDirectory(new File(LOG_OUTPUT_DIRECTORY));
@@ -54,6 +66,7 @@ public class InstancesLogCollectorRunnableTest {
 
     @After
     public void tearDown() throws IOException {
+        streamsClosed.countDown();
         FileUtils.deleteDirectory(new File(LOG_OUTPUT_DIRECTORY));
     }
 
@@ -159,6 +172,46 @@ public class InstancesLogCollectorRunnableTest {
         checkLog("BONJOUR", true);
     }
 
+    @Test
+    public void everyContainerIsFlushedOnItsOwn() throws IOException {
+        OpenShiftInstance instance = setMultiContainerInstanceMock("BONJOUR");
+        Mockito.when(instance.observeContainerLogs("kieserver")).thenReturn(openStream(FIRST_SECOND + " started"));
+        // Sidecar didn't log anything while streamed
+        Mockito.when(instance.observeContainerLogs("sidecar")).thenReturn(openStream());
+        Mockito.when(instance.getLogsSince("kieserver", FIRST_SECOND)).thenReturn(FIRST_SECOND + " started\n" + NEXT_SECOND + " stopped\n");
+        Mockito.when(instance.getLogsWithTimestamps("sidecar")).thenReturn(NEXT_SECOND + " sidecar stopped\n");
+
+        cut.run();
+        verify(instance, timeout(DEFAULT_WAIT_FOR_COMPLETION_IN_MS)).observeContainerLogs("sidecar");
+        cut.closeAndFlushRemainingInstanceCollectors(100);
+
+        assertThat(readLogLines("BONJOUR", "kieserver")).containsExactly("started", "stopped");
+        assertThat(readLogLines("BONJOUR", "sidecar")).containsExactly("sidecar stopped");
+        verify(instance, never()).getLogsWithTimestamps("kieserver");
+        verify(instance, never()).getAllContainerLogs();
+    }
+
+    @Test
+    public void instanceObservedAgainResumesFromLastReceivedLine() throws IOException {
+        OpenShiftInstance instance = setMultiContainerInstanceMock("BONJOUR");
+        // Log streams end as if the instance wasn't reachable for a while
+        Mockito.when(instance.observeContainerLogs("kieserver")).thenReturn(Observable.just(FIRST_SECOND + " started"));
+        Mockito.when(instance.observeContainerLogs("sidecar")).thenReturn(Observable.empty());
+        cut.run();
+        verify(instance, timeout(DEFAULT_WAIT_FOR_COMPLETION_IN_MS)).observeContainerLogs("sidecar");
+        waitUntilNotObserved();
+
+        Mockito.when(instance.observeContainerLogsSince("kieserver", FIRST_SECOND)).thenReturn(openStream(FIRST_SECOND + " started", NEXT_SECOND + " resumed"));
+        Mockito.when(instance.observeContainerLogs("sidecar")).thenReturn(openStream());
+        Mockito.when(instance.getLogsSince(anyString(), anyString())).thenReturn("");
+        Mockito.when(instance.getLogsWithTimestamps(anyString())).thenReturn("");
+        cut.run();
+        verify(instance, timeout(DEFAULT_WAIT_FOR_COMPLETION_IN_MS)).observeContainerLogsSince("kieserver", FIRST_SECOND);
+        cut.closeAndFlushRemainingInstanceCollectors(100);
+
+        assertThat(readLogLines("BONJOUR", "kieserver")).containsExactly("started", "resumed");
+    }
+
     private List<OpenShiftInstance> setInstanceMocks(String... messages) {
         List<OpenShiftInstance> instances = Arrays.asList(messages)
                                                   .stream()
@@ -176,29 +229,52 @@ public class InstancesLogCollectorRunnableTest {
     private OpenShiftInstance createInstanceMock(String message) {
         OpenShiftInstance instanceMock = Mockito.mock(OpenShiftInstance.class);
         Mockito.when(instanceMock.getName()).thenReturn(message);
+        Mockito.when(instanceMock.getContainerNames()).thenReturn(Collections.singletonList(CONTAINER_NAME));
         return instanceMock;
     }
 
+    private OpenShiftInstance setMultiContainerInstanceMock(String name) {
+        OpenShiftInstance instance = setInstanceMocks(name).get(0);
+        Mockito.when(instance.exists()).thenReturn(true);
+        Mockito.when(instance.getContainerNames()).thenReturn(Arrays.asList("kieserver", "sidecar"));
+        return instance;
+    }
+
     private void setObserveLogCallable(List<OpenShiftInstance> instances, Integer waitForMessage) {
         instances.forEach(instance -> {
-            Mockito.when(instance.observeAllContainersLogs()).then((invocation) -> {
-                Map<String, Observable<String>> observes = new HashMap<>();
-                observes.put(CONTAINER_NAME, Observable.fromCallable(() -> {
-                    if (Objects.nonNull(waitForMessage)) {
-                        Thread.sleep(waitForMessage);
-                    }
-                    return instance.getName();
-                }));
-                return observes;
-            });
-            Mockito.when(instance.getAllContainerLogs()).then((invocation) -> {
-                Map<String, String> observes = new HashMap<>();
-                observes.put(CONTAINER_NAME, instance.getName());
-                return observes;
-            });
+            Mockito.when(instance.observeContainerLogs(CONTAINER_NAME)).then((invocation) -> Observable.fromCallable(() -> {
+                if (Objects.nonNull(waitForMessage)) {
+                    Thread.sleep(waitForMessage);
+                }
+                return instance.getName();
+            }));
+            Mockito.when(instance.getLogsWithTimestamps(CONTAINER_NAME)).then((invocation) -> instance.getName());
         });
     }
 
+    /**
+     * @return Log stream emitting the lines and staying open until the test ends, as a log of running container.
+     */
+    private Observable<String> openStream(String... lines) {
+        return Observable.from(lines).concatWith(Observable.<String>empty().doOnCompleted(this::awaitEndOfTest));
+    }
+
+    private void awaitEndOfTest() {
+        try {
+            streamsClosed.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void waitUntilNotObserved() {
+        long deadline = System.currentTimeMillis() + DEFAULT_WAIT_FOR_COMPLETION_IN_MS;
+        while (!cut.observedInstances.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        assertThat(cut.observedInstances).isEmpty();
+    }
+
     private ExecutorService retrieveExecutorService() {
         return cut.executorService;
     }
@@ -229,9 +305,17 @@ public class InstancesLogCollectorRunnableTest {
         }
     }
 
+    private static List<String> readLogLines(String instanceName, String containerName) throws IOException {
+        return FileUtils.readLines(getOutputFile(instanceName, containerName), StandardCharsets.UTF_8);
+    }
+
     private static File getOutputFile(String instanceName) {
+        return getOutputFile(instanceName, CONTAINER_NAME);
+    }
+
+    private static File getOutputFile(String instanceName, String containerName) {
         File outputDirectory = new File(LOG_OUTPUT_DIRECTORY, LOG_FOLDER_NAME);
         outputDirectory.mkdirs();
-        return new File(outputDirectory, instanceName + "-" + CONTAINER_NAME + LOG_SUFFIX);
+        return new File(outputDirectory, instanceName + "-" + containerName + LOG_SUFFIX);
     }
 }
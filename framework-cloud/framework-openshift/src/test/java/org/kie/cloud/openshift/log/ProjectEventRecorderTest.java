@@ -0,0 +1,158 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.log;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.fabric8.kubernetes.api.model.Event;
+import io.fabric8.kubernetes.api.model.EventBuilder;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.WatcherException;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProjectEventRecorderTest {
+
+    private List<Event> events = new ArrayList<>();
+    private AtomicInteger listCalls = new AtomicInteger();
+    private AtomicReference<Watcher<Event>> currentWatcher = new AtomicReference<>();
+    private StringWriter stream = new StringWriter();
+
+    @Test
+    public void eventsAreAppendedToStreamWhenReceived() {
+        events.add(event("uid-1", "kieserver-1-abcde", "Scheduled", 1));
+        ProjectEventRecorder recorder = createRecorder(true);
+        assertThat(streamLines()).hasSize(1);
+
+        currentWatcher.get().eventReceived(Action.ADDED, event("uid-2", "kieserver-1-abcde", "Pulling", 1));
+
+        assertThat(streamLines()).hasSize(2);
+        assertThat(streamLines()[1]).contains("\"reason\":\"Pulling\"", "\"name\":\"kieserver-1-abcde\"", "\"count\":1");
+        assertThat(recorder.getEvents()).extracting(Event::getReason).containsExactly("Scheduled", "Pulling");
+    }
+
+    @Test
+    public void repeatedEventsAreDeduplicated() {
+        events.add(event("uid-1", "kieserver-1-abcde", "BackOff", 1));
+        ProjectEventRecorder recorder = createRecorder(true);
+
+        // Same occurrence delivered by the watch again, then a new occurrence with increased count
+        currentWatcher.get().eventReceived(Action.ADDED, event("uid-1", "kieserver-1-abcde", "BackOff", 1));
+        currentWatcher.get().eventReceived(Action.MODIFIED, event("uid-1", "kieserver-1-abcde", "BackOff", 2));
+        currentWatcher.get().eventReceived(Action.MODIFIED, event("uid-1", "kieserver-1-abcde", "BackOff", 2));
+
+        assertThat(streamLines()).hasSize(2);
+        assertThat(recorder.getEvents()).hasSize(1);
+        assertThat(recorder.getEvents().get(0).getCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void eventsAreIndexedByInvolvedObject() {
+        ProjectEventRecorder recorder = createRecorder(true);
+
+        currentWatcher.get().eventReceived(Action.ADDED, event("uid-1", "kieserver-1-abcde", "Started", 1));
+        currentWatcher.get().eventReceived(Action.ADDED, event("uid-2", "kieserver-1-fghij", "Started", 1));
+        currentWatcher.get().eventReceived(Action.ADDED, event("uid-3", "kieserver-1-abcde", "Killing", 1));
+
+        assertThat(recorder.getEvents("Pod", "kieserver-1-abcde")).extracting(Event::getReason).containsExactly("Started", "Killing");
+        assertThat(recorder.getEvents("Pod", "kieserver-1-fghij")).hasSize(1);
+        assertThat(recorder.getEvents("Pod", "unknown")).isEmpty();
+        assertThat(recorder.findEvents(event -> "Killing".equals(event.getReason()))).hasSize(1);
+    }
+
+    @Test
+    public void expiredEventsAreKept() {
+        events.add(event("uid-1", "kieserver-1-abcde", "Scheduled", 1));
+        ProjectEventRecorder recorder = createRecorder(true);
+
+        events.clear();
+        recorder.close();
+
+        assertThat(recorder.getEvents()).extracting(Event::getReason).containsExactly("Scheduled");
+    }
+
+    @Test
+    public void closedWatchIsStartedAgain() {
+        ProjectEventRecorder recorder = createRecorder(true);
+        Watcher<Event> firstWatcher = currentWatcher.get();
+
+        events.add(event("uid-1", "kieserver-1-abcde", "Scheduled", 1));
+        firstWatcher.onClose(new WatcherException("Too old resource version"));
+
+        assertThat(currentWatcher.get()).isNotNull().isNotSameAs(firstWatcher);
+        assertThat(listCalls.get()).isEqualTo(2);
+        assertThat(recorder.getEvents()).hasSize(1);
+
+        // Events of the replaced watch are ignored
+        firstWatcher.eventReceived(Action.ADDED, event("uid-2", "kieserver-1-abcde", "Pulling", 1));
+        assertThat(recorder.getEvents()).hasSize(1);
+    }
+
+    @Test
+    public void eventsAreListedOnCloseIfWatchIsNotAvailable() {
+        ProjectEventRecorder recorder = createRecorder(false);
+        events.add(event("uid-1", "kieserver-1-abcde", "Scheduled", 1));
+
+        recorder.close();
+
+        assertThat(recorder.getEvents()).hasSize(1);
+        assertThat(streamLines()).hasSize(1);
+        assertThat(ProjectEventRecorder.getRecorder("test-namespace")).isEmpty();
+    }
+
+    private ProjectEventRecorder createRecorder(boolean watchAvailable) {
+        ProjectEventRecorder recorder = new ProjectEventRecorder("test-namespace",
+                                                                 () -> {
+                                                                     listCalls.incrementAndGet();
+                                                                     return new ArrayList<>(events);
+                                                                 },
+                                                                 watcher -> {
+                                                                     if (!watchAvailable) {
+                                                                         throw new KubernetesClientException("Forbidden");
+                                                                     }
+                                                                     currentWatcher.set(watcher);
+                                                                     return () -> currentWatcher.compareAndSet(watcher, null);
+                                                                 },
+                                                                 stream);
+        recorder.startWatching();
+        return recorder;
+    }
+
+    private String[] streamLines() {
+        String content = stream.toString();
+        return content.isEmpty() ? new String[0] : content.split("\n");
+    }
+
+    private static Event event(String uid, String podName, String reason, int count) {
+        return new EventBuilder().withNewMetadata().withUid(uid).withName(podName + "." + uid).endMetadata()
+                                 .withLastTimestamp("2021-03-04T10:15:3" + count + "Z")
+                                 .withFirstTimestamp("2021-03-04T10:15:30Z")
+                                 .withCount(count)
+                                 .withType("Normal")
+                                 .withReason(reason)
+                                 .withNewInvolvedObject().withKind("Pod").withName(podName).endInvolvedObject()
+                                 .withNewSource().withComponent("kubelet").endSource()
+                                 .withMessage(reason + " " + podName)
+                                 .build();
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.prometheus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.cloud.api.deployment.prometheus.MetricSample;
+import org.kie.cloud.api.deployment.prometheus.MetricSeries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PrometheusQueryClientTest {
+
+    private static final String VECTOR_RESPONSE = "{\"status\":\"success\",\"data\":{\"resultType\":\"vector\",\"result\":["
+            + "{\"metric\":{\"__name__\":\"kie_server_start_time\",\"location\":\"http://kieserver-1\",\"version\":\"7.74.0.Final\"},\"value\":[1622541600.5,\"1622540000\"]},"
+            + "{\"metric\":{\"__name__\":\"kie_server_start_time\",\"location\":\"http://kieserver-2\",\"version\":\"7.74.0.Final\"},\"value\":[1622541600.5,\"NaN\"]}]}}";
+    private static final String SCALAR_RESPONSE = "{\"status\":\"success\",\"data\":{\"resultType\":\"scalar\",\"result\":[1622541600,\"+Inf\"]}}";
+    private static final String ERROR_RESPONSE = "{\"status\":\"error\",\"errorType\":\"bad_data\",\"error\":\"parse error at char 5\"}";
+
+    private HttpServer server;
+    private AtomicReference<String> response = new AtomicReference<>();
+    private AtomicReference<String> lastQuery = new AtomicReference<>();
+    private int responseCode = 200;
+
+    private PrometheusQueryClient client;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/", this::respond);
+        server.start();
+        client = new PrometheusQueryClient(new URL("http://localhost:" + server.getAddress().getPort()));
+    }
+
+    @After
+    public void stopServer() {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void instantQueryIsDecoded() {
+        response.set(VECTOR_RESPONSE);
+
+        List<MetricSample> samples = client.query("kie_server_start_time", Instant.ofEpochMilli(1622541600500L));
+
+        assertThat(lastQuery.get()).isEqualTo("/api/v1/query?query=kie_server_start_time&time=1622541600.500");
+        assertThat(samples).hasSize(2);
+        assertThat(samples.get(0).getLabel("location")).isEqualTo("http://kieserver-1");
+        assertThat(samples.get(0).getTimestamp()).isEqualTo(Instant.ofEpochMilli(1622541600500L));
+        assertThat(samples.get(0).getValue()).isEqualTo(1622540000d);
+        assertThat(samples.get(1).getValue()).isNaN();
+    }
+
+    @Test
+    public void scalarResultIsDecodedAsSampleWithoutLabels() {
+        response.set(SCALAR_RESPONSE);
+
+        List<MetricSample> samples = client.query("scalar(vector(1) / 0)", Instant.now());
+
+        assertThat(samples).hasSize(1);
+        assertThat(samples.get(0).getLabels()).isEmpty();
+        assertThat(samples.get(0).getValue()).isEqualTo(Double.POSITIVE_INFINITY);
+    }
+
+    @Test
+    public void largeRangeResultIsDecoded() {
+        int seriesCount = 3;
+        int samplesCount = 10_000;
+        response.set(matrixResponse(seriesCount, samplesCount));
+
+        Instant start = Instant.ofEpochSecond(1622541600);
+        List<MetricSeries> series = client.queryRange("rate(kie_server_process_instance_started_total[1m])", start,
+                                                      start.plusSeconds(samplesCount), Duration.ofSeconds(1));
+
+        assertThat(lastQuery.get()).startsWith("/api/v1/query_range?query=rate(kie_server_process_instance_started_total[1m])&start=1622541600.000")
+                                   .endsWith("&step=1.000");
+        assertThat(series).hasSize(seriesCount);
+        for (int i = 0; i < seriesCount; i++) {
+            MetricSeries current = series.get(i);
+            assertThat(current.getLabel("pod")).isEqualTo("kieserver-" + i);
+            assertThat(current.size()).isEqualTo(samplesCount);
+            assertThat(current.getTimestamp(samplesCount - 1)).isEqualTo(start.plusSeconds(samplesCount - 1));
+            assertThat(current.getValue(samplesCount - 1)).isEqualTo(i * 0.5 + samplesCount - 1);
+            assertThat(current.getMax()).isEqualTo(i * 0.5 + samplesCount - 1);
+        }
+    }
+
+    @Test
+    public void emptyResultIsDecoded() {
+        response.set("{\"status\":\"success\",\"data\":{\"resultType\":\"matrix\",\"result\":[]}}");
+
+        assertThat(client.queryRange("missing_metric", Instant.now().minusSeconds(60), Instant.now(), Duration.ofSeconds(15))).isEmpty();
+    }
+
+    @Test
+    public void errorResponseIsReported() {
+        response.set(ERROR_RESPONSE);
+        responseCode = 400;
+
+        assertThatThrownBy(() -> client.query("rate(", Instant.now())).isInstanceOf(PrometheusQueryException.class)
+                                                                        .hasMessageContaining("bad_data")
+                                                                        .hasMessageContaining("parse error at char 5")
+                                                                        .hasMessageContaining("rate(");
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        lastQuery.set(exchange.getRequestURI().getPath() + "?" + exchange.getRequestURI().getQuery());
+        byte[] body = response.get().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(responseCode, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String matrixResponse(int seriesCount, int samplesCount) {
+        StringBuilder json = new StringBuilder("{\"status\":\"success\",\"data\":{\"resultType\":\"matrix\",\"result\":[");
+        for (int i = 0; i < seriesCount; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"metric\":{\"pod\":\"kieserver-").append(i).append("\"},\"values\":[");
+            for (int j = 0; j < samplesCount; j++) {
+                json.append(j == 0 ? "" : ",").append('[').append(1622541600 + j).append(",\"").append(i * 0.5 + j).append("\"]");
+            }
+            json.append("]}");
+        }
+        return json.append("]}}").toString();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.resource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.DefaultKubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ListMetaBuilder;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachedResourcesTest {
+
+    private List<ConfigMap> configMaps = new ArrayList<>();
+    private AtomicInteger listCalls = new AtomicInteger();
+    private AtomicInteger getCalls = new AtomicInteger();
+    private AtomicReference<Watcher<ConfigMap>> currentWatcher = new AtomicReference<>();
+    private List<String> apiCalls = new ArrayList<>();
+
+    @Test
+    public void readsAreServedFromCache() {
+        configMaps.add(configMap("first"));
+        CachedResources<ConfigMap> cache = createCache(true);
+
+        assertThat(cache.list()).extracting(cm -> cm.getMetadata().getName()).containsOnly("first");
+        assertThat(cache.list()).hasSize(1);
+        assertThat(cache.get("first")).isNotNull();
+
+        assertThat(listCalls.get()).isEqualTo(1);
+        assertThat(getCalls.get()).isZero();
+        assertThat(cache.getApiCallsSaved()).isEqualTo(2);
+    }
+
+    @Test
+    public void cacheIsUpdatedByWatchEvents() {
+        configMaps.add(configMap("first"));
+        CachedResources<ConfigMap> cache = createCache(true);
+        cache.list();
+
+        currentWatcher.get().eventReceived(Action.ADDED, configMap("second"));
+        currentWatcher.get().eventReceived(Action.DELETED, configMap("first"));
+
+        assertThat(cache.list()).extracting(cm -> cm.getMetadata().getName()).containsOnly("second");
+        assertThat(listCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void missingResourceIsRetrievedDirectly() {
+        CachedResources<ConfigMap> cache = createCache(true);
+        cache.list();
+        configMaps.add(configMap("created"));
+
+        assertThat(cache.get("created")).isNotNull();
+        assertThat(getCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void invalidatedCacheIsListedAgain() {
+        CachedResources<ConfigMap> cache = createCache(true);
+        cache.list();
+        configMaps.add(configMap("created"));
+
+        cache.invalidate();
+
+        assertThat(cache.list()).extracting(cm -> cm.getMetadata().getName()).containsOnly("created");
+        assertThat(listCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void watchStartsFromResourceVersionOfListing() {
+        CachedResources<ConfigMap> cache = createCache(true);
+
+        cache.list();
+        cache.invalidate();
+        cache.list();
+
+        assertThat(apiCalls).containsExactly("list", "watch from 1", "list", "watch from 2");
+    }
+
+    @Test
+    public void resourceDeletedAfterListingIsRemoved() {
+        configMaps.add(configMap("first"));
+        CachedResources<ConfigMap> cache = createCache(true);
+        cache.list();
+
+        // Deletion which happened after the listing is delivered by the watch started from the listed resource version
+        currentWatcher.get().eventReceived(Action.DELETED, configMap("first"));
+
+        assertThat(cache.list()).isEmpty();
+        assertThat(listCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void closedWatchIsReplacedByNewListing() {
+        configMaps.add(configMap("first"));
+        configMaps.add(configMap("second"));
+        CachedResources<ConfigMap> cache = createCache(true);
+        cache.list();
+        Watcher<ConfigMap> closedWatcher = currentWatcher.get();
+        configMaps.remove(0);
+        configMaps.set(0, new ConfigMapBuilder(configMap("second")).addToData("key", "value").build());
+
+        closedWatcher.onClose(null);
+
+        List<ConfigMap> listed = cache.list();
+        assertThat(listed).extracting(cm -> cm.getMetadata().getName()).containsOnly("second");
+        assertThat(listed.get(0).getData()).containsEntry("key", "value");
+        // Late event of the closed watch doesn't bring the deleted resource back
+        closedWatcher.eventReceived(Action.ADDED, configMap("first"));
+        assertThat(cache.list()).hasSize(1);
+    }
+
+    @Test
+    public void resourcesAreListedDirectlyIfWatchIsNotAvailable() {
+        configMaps.add(configMap("first"));
+        CachedResources<ConfigMap> cache = createCache(false);
+
+        cache.list();
+        cache.list();
+
+        // Populating listing precedes the watch which turns out to be unavailable, next reads go directly to API server
+        assertThat(apiCalls).containsExactly("list", "watch from 1", "list", "list");
+        assertThat(cache.getApiCallsSaved()).isZero();
+    }
+
+    private CachedResources<ConfigMap> createCache(boolean watchAvailable) {
+        return new CachedResources<>("config maps", "test-namespace",
+                                     () -> {
+                                         apiCalls.add("list");
+                                         DefaultKubernetesResourceList<ConfigMap> list = new DefaultKubernetesResourceList<>();
+                                         list.setMetadata(new ListMetaBuilder().withResourceVersion(String.valueOf(listCalls.incrementAndGet())).build());
+                                         list.setItems(new ArrayList<>(configMaps));
+                                         return list;
+                                     },
+                                     name -> {
+                                         getCalls.incrementAndGet();
+                                         return configMaps.stream().filter(cm -> cm.getMetadata().getName().equals(name)).findAny().orElse(null);
+                                     },
+                                     (resourceVersion, watcher) -> {
+                                         apiCalls.add("watch from " + resourceVersion);
+                                         if (!watchAvailable) {
+                                             throw new KubernetesClientException("Forbidden");
+                                         }
+                                         currentWatcher.set(watcher);
+                                         return () -> currentWatcher.set(null);
+                                     });
+    }
+
+    private static ConfigMap configMap(String name) {
+        return new ConfigMapBuilder().withNewMetadata().withName(name).endMetadata().build();
+    }
+}
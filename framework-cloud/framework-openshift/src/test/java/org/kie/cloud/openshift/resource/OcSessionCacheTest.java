@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.resource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import cz.xtf.core.openshift.OpenShiftBinary;
+import org.junit.Test;
+import org.kie.cloud.openshift.resource.OcSessionCache.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OcSessionCacheTest {
+
+    private List<String> logins = new CopyOnWriteArrayList<>();
+    private AtomicLong nanoTime = new AtomicLong();
+
+    private OcSessionCache cache = new OcSessionCache(this::login, Duration.ofMinutes(10), nanoTime::get);
+
+    @Test
+    public void sessionIsReused() {
+        OpenShiftBinary first = cache.getBinary(User.MASTER, "project");
+        OpenShiftBinary second = cache.getBinary(User.MASTER, "project");
+
+        assertThat(second).isSameAs(first);
+        assertThat(logins).containsExactly("MASTER@project");
+    }
+
+    @Test
+    public void sessionsAreSeparatedPerUserAndNamespace() {
+        cache.getBinary(User.MASTER, "project");
+        cache.getBinary(User.ADMIN, "project");
+        cache.getBinary(User.MASTER, "other-project");
+
+        assertThat(logins).containsExactly("MASTER@project", "ADMIN@project", "MASTER@other-project");
+    }
+
+    @Test
+    public void expiredSessionIsLoggedInAgain() {
+        OpenShiftBinary first = cache.getBinary(User.MASTER, "project");
+        nanoTime.addAndGet(Duration.ofMinutes(10).toNanos());
+
+        assertThat(cache.getBinary(User.MASTER, "project")).isNotSameAs(first);
+        assertThat(logins).hasSize(2);
+    }
+
+    @Test
+    public void invalidatedNamespaceIsLoggedInAgain() {
+        cache.getBinary(User.MASTER, "project");
+        cache.getBinary(User.ADMIN, "other-project");
+        cache.invalidate("project");
+        cache.getBinary(User.MASTER, "project");
+        cache.getBinary(User.ADMIN, "other-project");
+
+        assertThat(logins).containsExactly("MASTER@project", "ADMIN@other-project", "MASTER@project");
+    }
+
+    private OpenShiftBinary login(User user, String namespace) {
+        logins.add(user + "@" + namespace);
+        return new OpenShiftBinary("oc");
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.resource;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.api.model.StatusBuilder;
+import io.fabric8.kubernetes.api.model.WatchEvent;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import io.fabric8.mockwebserver.dsl.EventDoneable;
+import io.fabric8.mockwebserver.dsl.TimesOnceableOrHttpHeaderable;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PodReadinessTrackerTest {
+
+    private static final String NAMESPACE = "test";
+    private static final String DEPLOYMENT_CONFIG = "kie-server";
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Rule
+    public KubernetesServer server = new KubernetesServer(false, false);
+
+    private PodReadinessTracker tracker;
+
+    @After
+    public void closeTracker() {
+        if (tracker != null) {
+            tracker.close();
+        }
+    }
+
+    @Test
+    public void waitIsCompletedOnScaleUp() throws Exception {
+        expectListing("5", pod("kie-server-1", false));
+        expectWatch("5", new WatchEvent(pod("kie-server-2", true), "ADDED"),
+                    new WatchEvent(pod("kie-server-1", true), "MODIFIED"));
+        tracker = new PodReadinessTracker(server.getClient(), NAMESPACE);
+
+        CompletableFuture<Void> podsWait = tracker.awaitPods(DEPLOYMENT_CONFIG, PodReadinessTracker.exactlyNPodsReady(2));
+
+        podsWait.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(tracker.getPods(DEPLOYMENT_CONFIG)).extracting(pod -> pod.getMetadata().getName())
+                                                      .containsOnly("kie-server-1", "kie-server-2");
+    }
+
+    @Test
+    public void waitIsCompletedOnScaleDown() throws Exception {
+        expectListing("5", pod("kie-server-1", true), pod("kie-server-2", true));
+        expectWatch("5", new WatchEvent(pod("kie-server-2", true), "DELETED"));
+        tracker = new PodReadinessTracker(server.getClient(), NAMESPACE);
+
+        CompletableFuture<Void> podsWait = tracker.awaitPods(DEPLOYMENT_CONFIG, PodReadinessTracker.exactlyNPodsReady(1));
+
+        podsWait.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(tracker.getPods(DEPLOYMENT_CONFIG)).extracting(pod -> pod.getMetadata().getName())
+                                                      .containsOnly("kie-server-1");
+    }
+
+    @Test
+    public void deletedPodIsNotBroughtBack() throws Exception {
+        expectListing("5", pod("kie-server-1", true), pod("kie-server-2", true));
+        expectWatch("5", new WatchEvent(pod("kie-server-2", true), "DELETED"),
+                    new WatchEvent(pod("kie-server-3", true), "ADDED"));
+        tracker = new PodReadinessTracker(server.getClient(), NAMESPACE);
+
+        CompletableFuture<Void> podsWait = tracker.awaitPods(DEPLOYMENT_CONFIG,
+                                                             pods -> pods.stream().anyMatch(pod -> pod.getMetadata().getName().equals("kie-server-3")));
+
+        podsWait.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(tracker.getPods(DEPLOYMENT_CONFIG)).extracting(pod -> pod.getMetadata().getName())
+                                                      .containsOnly("kie-server-1", "kie-server-3");
+    }
+
+    @Test
+    public void waitIsCompletedImmediatelyIfConditionIsAlreadySatisfied() {
+        expectListing("5", pod("kie-server-1", true));
+        expectWatch("5");
+        tracker = new PodReadinessTracker(server.getClient(), NAMESPACE);
+
+        assertThat(tracker.awaitPods(DEPLOYMENT_CONFIG, PodReadinessTracker.exactlyNPodsReady(1))).isDone();
+    }
+
+    @Test
+    public void podsAreServedFromTrackedPods() throws Exception {
+        Pod buildPod = new PodBuilder().withNewMetadata().withName("build-pod").withNamespace(NAMESPACE).endMetadata().build();
+        expectListing("5", pod("kie-server-1", true), buildPod);
+        expectWatch("5", new WatchEvent(pod("kie-server-2", true), "ADDED"));
+        tracker = new PodReadinessTracker(server.getClient(), NAMESPACE);
+        CompletableFuture<Void> podsWait = tracker.awaitPods(DEPLOYMENT_CONFIG, PodReadinessTracker.exactlyNPodsReady(2));
+
+        podsWait.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // Pods seen by the wait are immediately visible to lookups
+        assertThat(tracker.getPods(DEPLOYMENT_CONFIG)).extracting(pod -> pod.getMetadata().getName())
+                                                      .containsOnly("kie-server-1", "kie-server-2");
+        assertThat(tracker.getPods()).extracting(pod -> pod.getMetadata().getName())
+                                     .containsOnly("kie-server-1", "kie-server-2", "build-pod");
+    }
+
+    @Test
+    public void waitIsCancelledOnClose() {
+        expectListing("5");
+        expectWatch("5");
+        tracker = new PodReadinessTracker(server.getClient(), NAMESPACE);
+        CompletableFuture<Void> podsWait = tracker.awaitPods(DEPLOYMENT_CONFIG, PodReadinessTracker.exactlyNPodsReady(1));
+
+        tracker.close();
+
+        assertThat(podsWait).isCancelled();
+    }
+
+    @Test
+    public void podsAreListedBeforeWatchStartsFromListedResourceVersion() throws Exception {
+        expectListing("5", pod("kie-server-1", true));
+        expectWatch("5");
+        tracker = new PodReadinessTracker(server.getClient(), NAMESPACE);
+
+        tracker.awaitPods(DEPLOYMENT_CONFIG, PodReadinessTracker.exactlyNPodsReady(1)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        RecordedRequest list = server.getKubernetesMockServer().takeRequest(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        RecordedRequest watch = server.getKubernetesMockServer().takeRequest(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(list.getPath()).doesNotContain("watch=true");
+        assertThat(watch.getPath()).contains("watch=true", "resourceVersion=5");
+    }
+
+    @Test
+    public void watchIsRestartedWithNewListingOnceItIsClosed() throws Exception {
+        expectListing("5", pod("kie-server-1", true));
+        // Resource version expired, watch is closed by the client with HTTP_GONE
+        expectWatch("5", new WatchEvent(new StatusBuilder().withCode(410).withMessage("too old resource version").build(), "ERROR"));
+        expectListing("8", pod("kie-server-2", true));
+        expectWatch("8");
+        tracker = new PodReadinessTracker(server.getClient(), NAMESPACE);
+
+        CompletableFuture<Void> podsWait = tracker.awaitPods(DEPLOYMENT_CONFIG,
+                                                             pods -> pods.size() == 1 && pods.get(0).getMetadata().getName().equals("kie-server-2"));
+
+        podsWait.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(tracker.getPods(DEPLOYMENT_CONFIG)).extracting(pod -> pod.getMetadata().getName()).containsOnly("kie-server-2");
+    }
+
+    @Test
+    public void podLookupsServedFromTrackedPodsAreCounted() {
+        tracker = new PodReadinessTracker(NAMESPACE,
+                                          () -> new PodListBuilder().withNewMetadata().withResourceVersion("5").endMetadata()
+                                                                    .addToItems(pod("kie-server-1", true)).build(),
+                                          (resourceVersion, watcher) -> () -> {});
+
+        tracker.getPods(DEPLOYMENT_CONFIG);
+        tracker.getPods(DEPLOYMENT_CONFIG);
+        tracker.getPods();
+
+        // First lookup lists the pods
+        assertThat(tracker.getApiCallsSaved()).isEqualTo(2);
+    }
+
+    private void expectListing(String resourceVersion, Pod... pods) {
+        server.expect().get().withPath(podsPath(""))
+              .andReturn(200, new PodListBuilder().withNewMetadata().withResourceVersion(resourceVersion).endMetadata()
+                                                  .addToItems(pods).build())
+              .once();
+    }
+
+    private void expectWatch(String resourceVersion, WatchEvent... events) {
+        EventDoneable<TimesOnceableOrHttpHeaderable<Void>> session = server.expect().get()
+                                                                           .withPath(podsPath("?resourceVersion=" + resourceVersion + "&allowWatchBookmarks=true&watch=true"))
+                                                                           .andUpgradeToWebSocket()
+                                                                           .open();
+        for (WatchEvent event : events) {
+            session = session.waitFor(50).andEmit(event);
+        }
+        session.done().once();
+    }
+
+    private static String podsPath(String query) {
+        return "/api/v1/namespaces/" + NAMESPACE + "/pods" + query;
+    }
+
+    private static Pod pod(String name, boolean ready) {
+        return new PodBuilder().withNewMetadata()
+                                   .withName(name)
+                                   .withNamespace(NAMESPACE)
+                                   .addToLabels(OpenShiftResourceConstants.DEPLOYMENT_CONFIG_LABEL, DEPLOYMENT_CONFIG)
+                               .endMetadata()
+                               .withNewStatus()
+                                   .withPhase("Running")
+                                   .addNewCondition()
+                                       .withType("Ready")
+                                       .withStatus(Boolean.toString(ready))
+                                   .endCondition()
+                               .endStatus()
+                               .build();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.resource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.metrics.v1beta1.ContainerMetricsBuilder;
+import io.fabric8.kubernetes.api.model.metrics.v1beta1.PodMetrics;
+import io.fabric8.kubernetes.api.model.metrics.v1beta1.PodMetricsBuilder;
+import io.fabric8.kubernetes.api.model.metrics.v1beta1.PodMetricsList;
+import io.fabric8.kubernetes.api.model.metrics.v1beta1.PodMetricsListBuilder;
+import org.junit.Test;
+import org.kie.cloud.api.deployment.Deployment;
+import org.kie.cloud.api.deployment.Instance;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class PodResourceSamplerTest {
+
+    private static final Instant START = Instant.parse("2021-06-01T10:00:00Z");
+
+    private List<PodMetrics> currentMetrics = new ArrayList<>();
+
+    @Test
+    public void samplesAreRecordedPerDeployment() {
+        Deployment kieServer = deployment("kie-server-1", "kie-server-2");
+        Deployment database = deployment("database-1");
+        PodResourceSampler sampler = createSampler(0, kieServer, database);
+
+        setMetrics(podMetrics("kie-server-1", 0, "500m", "1Gi"), podMetrics("kie-server-2", 0, "1500m", "1Gi"),
+                   podMetrics("database-1", 0, "250m", "512Mi"), podMetrics("unrelated-1", 0, "4", "8Gi"));
+        sampler.sample();
+
+        ResourceUsage kieServerUsage = sampler.getUsage(kieServer);
+        assertThat(kieServerUsage.getPods()).isEqualTo(2);
+        assertThat(kieServerUsage.getMeanCpuCores()).isCloseTo(2.0, within(0.001));
+        assertThat(kieServerUsage.getMaxPodCpuCores()).isCloseTo(1.5, within(0.001));
+        assertThat(kieServerUsage.getMaxPodMemoryBytes()).isEqualTo(1024L * 1024 * 1024);
+
+        ResourceUsage databaseUsage = sampler.getUsage(database);
+        assertThat(databaseUsage.getPods()).isEqualTo(1);
+        assertThat(databaseUsage.getMeanCpuCores()).isCloseTo(0.25, within(0.001));
+        assertThat(sampler.getSampleCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void unchangedMetricsAreNotSampledTwice() {
+        Deployment kieServer = deployment("kie-server-1");
+        PodResourceSampler sampler = createSampler(0, kieServer);
+
+        setMetrics(podMetrics("kie-server-1", 0, "1", "1Gi"));
+        sampler.sample();
+        sampler.sample();
+        setMetrics(podMetrics("kie-server-1", 15, "3", "1Gi"));
+        sampler.sample();
+
+        assertThat(sampler.getSampleCount()).isEqualTo(2);
+        assertThat(sampler.getUsage(kieServer).getMeanCpuCores()).isCloseTo(2.0, within(0.001));
+    }
+
+    @Test
+    public void usageIsComputedForTimeRange() {
+        Deployment kieServer = deployment("kie-server-1");
+        PodResourceSampler sampler = createSampler(0, kieServer);
+
+        for (int i = 0; i < 6; i++) {
+            setMetrics(podMetrics("kie-server-1", i * 10, (i + 1) + "", "1Gi"));
+            sampler.sample();
+        }
+
+        // Samples at 20s and 30s, sample at 40s is excluded
+        ResourceUsage usage = sampler.getUsage(kieServer, START.plusSeconds(20), START.plusSeconds(40));
+        assertThat(usage.getSamples()).isEqualTo(2);
+        assertThat(usage.getMeanCpuCores()).isCloseTo(3.5, within(0.001));
+        assertThat(usage.getMaxPodCpuCores()).isCloseTo(4.0, within(0.001));
+
+        assertThat(sampler.getUsage(kieServer, START.plusSeconds(100), START.plusSeconds(200)).getSamples()).isZero();
+    }
+
+    @Test
+    public void cpuSaturationIsComputedFromCpuLimit() {
+        Deployment kieServer = deployment("kie-server-1");
+        PodResourceSampler sampler = createSampler(2000, kieServer);
+
+        setMetrics(podMetrics("kie-server-1", 0, "1", "1Gi"));
+        sampler.sample();
+        setMetrics(podMetrics("kie-server-1", 10, "1900m", "1Gi"));
+        sampler.sample();
+        setMetrics(podMetrics("kie-server-1", 20, "2", "1Gi"));
+        sampler.sample();
+        setMetrics(podMetrics("kie-server-1", 30, "500m", "1Gi"));
+        sampler.sample();
+
+        assertThat(sampler.getUsage(kieServer).getCpuSaturatedRatio()).isCloseTo(0.5, within(0.001));
+    }
+
+    @Test
+    public void cpuSaturationIsNotComputedWithoutCpuLimit() {
+        Deployment kieServer = deployment("kie-server-1");
+        PodResourceSampler sampler = createSampler(0, kieServer);
+
+        setMetrics(podMetrics("kie-server-1", 0, "8", "1Gi"));
+        sampler.sample();
+
+        assertThat(sampler.getUsage(kieServer).getCpuSaturatedRatio()).isZero();
+    }
+
+    private PodResourceSampler createSampler(long cpuLimitMillicores, Deployment... deployments) {
+        return new PodResourceSampler(this::getMetrics, podName -> cpuLimitMillicores, Arrays.asList(deployments), Duration.ofSeconds(1));
+    }
+
+    private PodMetricsList getMetrics() {
+        return new PodMetricsListBuilder().withItems(currentMetrics).build();
+    }
+
+    private void setMetrics(PodMetrics... metrics) {
+        currentMetrics = Arrays.asList(metrics);
+    }
+
+    private static Deployment deployment(String... podNames) {
+        List<Instance> instances = new ArrayList<>();
+        for (String podName : podNames) {
+            Instance instance = Mockito.mock(Instance.class);
+            Mockito.when(instance.getName()).thenReturn(podName);
+            instances.add(instance);
+        }
+        Deployment deployment = Mockito.mock(Deployment.class);
+        Mockito.when(deployment.getInstances()).thenReturn(instances);
+        return deployment;
+    }
+
+    private static PodMetrics podMetrics(String podName, int secondsFromStart, String cpu, String memory) {
+        return new PodMetricsBuilder().withNewMetadata()
+                                          .withName(podName)
+                                      .endMetadata()
+                                      .withTimestamp(START.plusSeconds(secondsFromStart).toString())
+                                      .withContainers(new ContainerMetricsBuilder().withName("main")
+                                                                                   .addToUsage("cpu", new Quantity(cpu))
+                                                                                   .addToUsage("memory", new Quantity(memory))
+                                                                                   .build())
+                                      .build();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.resource.impl;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import cz.xtf.core.openshift.OpenShift;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.api.model.DeploymentConfigBuilder;
+import io.fabric8.openshift.client.OpenShiftConfig;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProjectImplTest {
+
+    private static final String NAMESPACE = "test";
+    private static final String APPLICATION_NAME = "myapp";
+    private static final URL TEMPLATE_URL = ProjectImplTest.class.getResource("/templates/test-template.yaml");
+    private static final long TIMEOUT_SECONDS = 10;
+
+    // CRUD mode stores created resources and notifies watches about their changes
+    @Rule
+    public KubernetesServer server = new KubernetesServer(false, true);
+
+    private OpenShift openShift;
+    private ProjectImpl project;
+
+    @Before
+    public void createProject() {
+        openShift = new OpenShift(new OpenShiftConfig(server.getClient().getConfiguration()));
+        project = new ProjectImpl(NAMESPACE, openShift, openShift);
+    }
+
+    @Test
+    public void templateResourcesAreCreatedInBulk() throws Exception {
+        CompletableFuture<Void> creation = processTemplateAsync();
+        DeploymentConfig deploymentConfig = awaitDeploymentConfigCreated();
+        observeGeneration(deploymentConfig, deploymentConfig.getMetadata().getGeneration());
+        creation.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertThat(openShift.services().inNamespace(NAMESPACE).withName(APPLICATION_NAME).get()).isNotNull();
+        assertThat(takeRequests()).filteredOn(request -> request.startsWith("POST"))
+                                  .containsExactly("POST /api/v1/namespaces/" + NAMESPACE + "/services",
+                                                   "POST /apis/apps.openshift.io/v1/namespaces/" + NAMESPACE + "/deploymentconfigs");
+    }
+
+    @Test
+    public void creationWaitsUntilControllerObservesDeploymentConfigGeneration() throws Exception {
+        CompletableFuture<Void> creation = processTemplateAsync();
+        DeploymentConfig deploymentConfig = awaitDeploymentConfigCreated();
+        long generation = deploymentConfig.getMetadata().getGeneration();
+
+        deploymentConfig = observeGeneration(deploymentConfig, generation - 1);
+        assertThat(creation).as("Creation finished before the current generation was observed").isNotDone();
+
+        observeGeneration(deploymentConfig, generation);
+        creation.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private CompletableFuture<Void> processTemplateAsync() {
+        return CompletableFuture.runAsync(() -> project.processTemplateAndCreateResources(TEMPLATE_URL, Collections.singletonMap("APPLICATION_NAME", APPLICATION_NAME)));
+    }
+
+    private DeploymentConfig awaitDeploymentConfigCreated() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+        DeploymentConfig deploymentConfig;
+        while ((deploymentConfig = getDeploymentConfig()) == null && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        assertThat(deploymentConfig).as("Deployment config wasn't created").isNotNull();
+        return deploymentConfig;
+    }
+
+    /**
+     * Simulate deployment config controller updating the status.
+     */
+    private DeploymentConfig observeGeneration(DeploymentConfig deploymentConfig, long observedGeneration) {
+        DeploymentConfig observed = new DeploymentConfigBuilder(deploymentConfig).withNewStatus()
+                                                                                     .withObservedGeneration(observedGeneration)
+                                                                                 .endStatus()
+                                                                                 .build();
+        return openShift.deploymentConfigs().inNamespace(NAMESPACE).withName(APPLICATION_NAME).replaceStatus(observed);
+    }
+
+    private DeploymentConfig getDeploymentConfig() {
+        return openShift.deploymentConfigs().inNamespace(NAMESPACE).withName(APPLICATION_NAME).get();
+    }
+
+    private List<String> takeRequests() throws InterruptedException {
+        List<String> requests = new ArrayList<>();
+        RecordedRequest request;
+        while ((request = server.getKubernetesMockServer().takeRequest(100, TimeUnit.MILLISECONDS)) != null) {
+            requests.add(request.getMethod() + " " + request.getPath());
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.scenario;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.kie.cloud.api.deployment.Deployment;
+import org.kie.cloud.api.deployment.DeploymentTimeoutException;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class DeploymentWaitStageTest {
+
+    private static final long TIMEOUT_IN_SECONDS = 10;
+
+    private List<String> readyDeployments = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void independentDeploymentsAreAwaitedConcurrently() {
+        // Every deployment becomes ready only once all of them are awaited at the same time
+        CountDownLatch allAwaited = new CountDownLatch(3);
+        Deployment database = createDeploymentMock("database", () -> awaitLatch(allAwaited));
+        Deployment workbench = createDeploymentMock("workbench", () -> awaitLatch(allAwaited));
+        Deployment smartRouter = createDeploymentMock("smartRouter", () -> awaitLatch(allAwaited));
+
+        new DeploymentWaitStage(4).waitFor("Database", database)
+                                  .waitFor("Workbench", workbench)
+                                  .waitFor("Smart router", smartRouter)
+                                  .await();
+
+        assertThat(readyDeployments).containsOnly("database", "workbench", "smartRouter");
+    }
+
+    @Test
+    public void numberOfConcurrentWaitsIsLimitedByParallelism() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Runnable trackInFlight = () -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.yield();
+            inFlight.decrementAndGet();
+        };
+        DeploymentWaitStage waitStage = new DeploymentWaitStage(2);
+        for (int i = 0; i < 6; i++) {
+            waitStage.waitFor("Deployment " + i, createDeploymentMock("deployment" + i, trackInFlight));
+        }
+
+        waitStage.await();
+
+        assertThat(readyDeployments).hasSize(6);
+        assertThat(maxInFlight.get()).isBetween(1, 2);
+    }
+
+    @Test
+    public void dependentDeploymentIsAwaitedAfterItsDependencies() {
+        Deployment database = createDeploymentMock("database", () -> {});
+        Deployment kieServer = createDeploymentMock("kieServer", () -> assertThat(readyDeployments).containsExactly("database"));
+
+        new DeploymentWaitStage(4).waitFor("Database", database)
+                                  .waitFor("Kie server", kieServer, database)
+                                  .await();
+
+        assertThat(readyDeployments).containsExactly("database", "kieServer");
+    }
+
+    @Test
+    public void failuresAreReportedTogether() {
+        Deployment databaseOne = createFailingDeploymentMock("database one timeout");
+        Deployment databaseTwo = createFailingDeploymentMock("database two timeout");
+        Deployment kieServerOne = createDeploymentMock("kieServerOne", () -> {});
+        Deployment workbench = createDeploymentMock("workbench", () -> {});
+
+        try {
+            new DeploymentWaitStage(2).waitFor("Database one", databaseOne)
+                                      .waitFor("Database two", databaseTwo)
+                                      .waitFor("Kie server one", kieServerOne, databaseOne)
+                                      .waitFor("Workbench", workbench)
+                                      .await();
+            fail("Wait stage should fail as databases didn't start.");
+        } catch (DeploymentTimeoutException e) {
+            assertThat(e.getMessage()).contains("Database one: database one timeout")
+                                      .contains("Database two: database two timeout")
+                                      .contains("Kie server one: skipped as a dependency failed");
+            assertThat(e.getSuppressed()).hasSize(1);
+        }
+
+        assertThat(readyDeployments).containsExactly("workbench");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void dependencyHasToBeRegisteredFirst() {
+        Deployment database = createDeploymentMock("database", () -> {});
+        Deployment kieServer = createDeploymentMock("kieServer", () -> {});
+
+        new DeploymentWaitStage(4).waitFor("Kie server", kieServer, database);
+    }
+
+    private Deployment createDeploymentMock(String name, Runnable readiness) {
+        Deployment deployment = Mockito.mock(Deployment.class);
+        Mockito.doAnswer(invocation -> {
+            readiness.run();
+            readyDeployments.add(name);
+            return null;
+        }).when(deployment).waitForScale();
+        return deployment;
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            if (!latch.await(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)) {
+                throw new DeploymentTimeoutException("Deployments weren't awaited concurrently.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Deployment createFailingDeploymentMock(String message) {
+        Deployment deployment = Mockito.mock(Deployment.class);
+        Mockito.doThrow(new DeploymentTimeoutException(message)).when(deployment).waitForScale();
+        return deployment;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.scenario;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Test;
+import org.kie.cloud.openshift.resource.Project;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NamespacePoolTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final List<Project> createdProjects = new CopyOnWriteArrayList<>();
+    private final List<Project> unhealthyProjects = new CopyOnWriteArrayList<>();
+
+    private NamespacePool pool;
+
+    @After
+    public void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void preparedProjectIsHandedOutAndReplaced() throws InterruptedException {
+        pool = createPool(2, this::createProject);
+        pool.acquire();
+        awaitCreatedProjects(3);
+
+        Project project = pool.acquire();
+
+        assertThat(project).isIn(createdProjects);
+        awaitCreatedProjects(4);
+        verify(project, never()).delete();
+    }
+
+    @Test
+    public void poolDoesNotPrepareMoreProjectsThanItsSize() throws InterruptedException {
+        pool = createPool(3, this::createProject);
+        Thread[] acquiringThreads = new Thread[8];
+        for (int i = 0; i < acquiringThreads.length; i++) {
+            acquiringThreads[i] = new Thread(pool::acquire);
+            acquiringThreads[i].start();
+        }
+        for (Thread acquiringThread : acquiringThreads) {
+            acquiringThread.join(TIMEOUT_MS);
+        }
+        awaitCreatedProjects(acquiringThreads.length + 3);
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        // Every acquired project is replaced by exactly one prepared project
+        assertThat(createdProjects).hasSize(acquiringThreads.length + 3);
+    }
+
+    @Test
+    public void projectIsCreatedInCallingThreadIfNoneIsPrepared() {
+        CountDownLatch preparationAllowed = new CountDownLatch(1);
+        pool = createPool(1, () -> {
+            if (Thread.currentThread().getName().startsWith("namespace-pool-")) {
+                await(preparationAllowed);
+            }
+            return createProject();
+        });
+
+        Project project = pool.acquire();
+
+        assertThat(createdProjects).containsExactly(project);
+        preparationAllowed.countDown();
+    }
+
+    @Test
+    public void unhealthyProjectIsDeleted() throws Exception {
+        pool = createPool(1, this::createProject);
+        Project unhealthyProject = pool.acquire();
+        awaitCreatedProjects(2);
+        unhealthyProjects.add(createdProjects.get(1));
+
+        Project project = pool.acquire();
+
+        assertThat(project).isNotSameAs(unhealthyProject).isNotIn(unhealthyProjects);
+        verify(createdProjects.get(1), timeout(TIMEOUT_MS)).delete();
+        verify(createdProjects.get(1), timeout(TIMEOUT_MS)).close();
+    }
+
+    @Test
+    public void releasedProjectIsDeleted() throws Exception {
+        pool = createPool(1, this::createProject);
+        Project project = pool.acquire();
+
+        pool.release(project);
+
+        verify(project, timeout(TIMEOUT_MS)).delete();
+        verify(project, timeout(TIMEOUT_MS)).close();
+    }
+
+    @Test
+    public void failedPreparationIsRetriedOnNextAcquire() throws InterruptedException {
+        AtomicInteger failedPreparations = new AtomicInteger();
+        List<Project> preparedProjects = new CopyOnWriteArrayList<>();
+        pool = createPool(1, () -> {
+            boolean poolThread = Thread.currentThread().getName().startsWith("namespace-pool-");
+            if (poolThread && failedPreparations.compareAndSet(0, 1)) {
+                throw new IllegalStateException("Project preparation failed");
+            }
+            Project project = createProject();
+            if (poolThread) {
+                preparedProjects.add(project);
+            }
+            return project;
+        });
+
+        // Every acquire replenishes the pool once the failed preparation is finished
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (preparedProjects.isEmpty() && System.currentTimeMillis() < deadline) {
+            pool.acquire();
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+
+        assertThat(failedPreparations.get()).isEqualTo(1);
+        assertThat(preparedProjects).isNotEmpty();
+    }
+
+    @Test
+    public void closeDeletesPreparedProjects() throws InterruptedException {
+        pool = createPool(2, this::createProject);
+        Project acquiredProject = pool.acquire();
+        awaitCreatedProjects(3);
+
+        pool.close();
+
+        for (Project project : createdProjects) {
+            if (project != acquiredProject) {
+                verify(project).delete();
+            }
+        }
+        verify(acquiredProject, never()).delete();
+        assertThatThrownBy(pool::acquire).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void projectReleasedAfterCloseIsDeletedImmediately() {
+        pool = createPool(1, this::createProject);
+        Project project = pool.acquire();
+        pool.close();
+
+        pool.release(project);
+
+        verify(project).delete();
+    }
+
+    @Test
+    public void invalidSizeIsRejected() {
+        assertThatThrownBy(() -> createPool(0, this::createProject)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private NamespacePool createPool(int size, Supplier<Project> projectFactory) {
+        return new NamespacePool(size, projectFactory, project -> !unhealthyProjects.contains(project), CLOSE_TIMEOUT);
+    }
+
+    private Project createProject() {
+        Project project = mock(Project.class);
+        when(project.getName()).thenReturn("project-" + createdProjects.size());
+        createdProjects.add(project);
+        return project;
+    }
+
+    private void awaitCreatedProjects(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (createdProjects.size() < count && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertThat(createdProjects).hasSize(count);
+    }
+
+    private static void awaitAttempts(AtomicInteger attempts, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (attempts.get() < count && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertThat(attempts.get()).isEqualTo(count);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.scenario;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TeardownQueueTest {
+
+    private List<String> finishedTeardowns = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void submitDoesNotWaitForTeardown() throws InterruptedException {
+        CountDownLatch teardownAllowed = new CountDownLatch(1);
+        TeardownQueue teardownQueue = new TeardownQueue(1);
+
+        teardownQueue.submit("project-one", () -> {
+            await(teardownAllowed);
+            finishedTeardowns.add("project-one");
+        });
+
+        assertThat(finishedTeardowns).isEmpty();
+        teardownAllowed.countDown();
+        teardownQueue.close();
+        assertThat(finishedTeardowns).containsExactly("project-one");
+    }
+
+    @Test
+    public void closeDrainsAllTeardowns() {
+        TeardownQueue teardownQueue = new TeardownQueue(2);
+        for (int i = 0; i < 5; i++) {
+            String name = "project-" + i;
+            teardownQueue.submit(name, () -> {
+                sleep(100);
+                finishedTeardowns.add(name);
+            });
+        }
+
+        teardownQueue.close();
+
+        assertThat(finishedTeardowns).containsOnly("project-0", "project-1", "project-2", "project-3", "project-4");
+        assertThat(teardownQueue.getFailedTeardowns()).isEmpty();
+    }
+
+    @Test
+    public void failedTeardownsAreReported() {
+        TeardownQueue teardownQueue = new TeardownQueue(2);
+        teardownQueue.submit("project-one", () -> finishedTeardowns.add("project-one"));
+        teardownQueue.submit("project-two", () -> {
+            throw new RuntimeException("Project deletion failed");
+        });
+
+        teardownQueue.close();
+
+        assertThat(finishedTeardowns).containsExactly("project-one");
+        assertThat(teardownQueue.getFailedTeardowns()).containsOnlyKeys("project-two");
+        assertThat(teardownQueue.getFailedTeardowns().get("project-two")).hasMessage("Project deletion failed");
+    }
+
+    @Test
+    public void closeDoesNotWaitLongerThanDrainTimeout() {
+        CountDownLatch teardownAllowed = new CountDownLatch(1);
+        TeardownQueue teardownQueue = new TeardownQueue(1, Duration.ofMillis(200));
+        teardownQueue.submit("project-one", () -> await(teardownAllowed));
+
+        long start = System.nanoTime();
+        teardownQueue.close();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5000);
+        teardownAllowed.countDown();
+    }
+
+    @Test
+    public void teardownSubmittedAfterCloseIsExecutedImmediately() {
+        TeardownQueue teardownQueue = new TeardownQueue(1);
+        teardownQueue.close();
+
+        teardownQueue.submit("project-one", () -> finishedTeardowns.add("project-one"));
+
+        assertThat(finishedTeardowns).containsExactly("project-one");
+    }
+
+    @Test
+    public void teardownsSubmittedConcurrentlyWithCloseAreExecuted() throws Exception {
+        TeardownQueue teardownQueue = new TeardownQueue(2);
+        ExecutorService submitters = Executors.newFixedThreadPool(4);
+        CountDownLatch submitStarted = new CountDownLatch(1);
+        List<Future<?>> submits = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String name = "project-" + i;
+            submits.add(submitters.submit(() -> {
+                submitStarted.countDown();
+                teardownQueue.submit(name, () -> finishedTeardowns.add(name));
+            }));
+        }
+
+        submitStarted.await();
+        teardownQueue.close();
+        for (Future<?> submit : submits) {
+            // Submit racing with close doesn't fail
+            submit.get(10, TimeUnit.SECONDS);
+        }
+        submitters.shutdown();
+
+        assertThat(finishedTeardowns).hasSize(200);
+        assertThat(teardownQueue.getFailedTeardowns()).isEmpty();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
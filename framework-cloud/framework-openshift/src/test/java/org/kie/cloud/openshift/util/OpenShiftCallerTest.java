@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.util;
+
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.fabric8.kubernetes.client.Client;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OpenShiftCallerTest {
+
+    private AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    public void circuitBreakerIsSharedPerApiServer() {
+        assertThat(OpenShiftCaller.getCircuitBreaker("https://first.example.com:6443"))
+                .isSameAs(OpenShiftCaller.getCircuitBreaker("https://first.example.com:6443/"))
+                .isNotSameAs(OpenShiftCaller.getCircuitBreaker("https://second.example.com:6443"));
+    }
+
+    @Test
+    public void createIsNotRetriedOnConnectionReset() throws Exception {
+        KubernetesClientException connectionReset = new KubernetesClientException("Connection reset", new SocketException("Connection reset"));
+
+        assertThatThrownBy(() -> OpenShiftCaller.repeatableCreate(mockClient(), "create", () -> {
+            attempts.incrementAndGet();
+            throw connectionReset;
+        })).isSameAs(connectionReset);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    public void createIsRetriedWhenRequestWasNotProcessed() throws Exception {
+        String result = OpenShiftCaller.repeatableCreate(mockClient(), "create", () -> {
+            switch (attempts.incrementAndGet()) {
+                case 1:
+                    throw new KubernetesClientException("Too many requests", 429, null);
+                case 2:
+                    throw new KubernetesClientException("Connection refused", new ConnectException("Connection refused"));
+                default:
+                    return "created";
+            }
+        });
+
+        assertThat(result).isEqualTo("created");
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    public void exhaustedCallRethrowsLastError() throws Exception {
+        KubernetesClientException serviceUnavailable = new KubernetesClientException("Service unavailable", 503, null);
+        Client client = mockClient();
+
+        assertThatThrownBy(() -> OpenShiftCaller.createRetryPolicy(client).withMaxAttempts(2).call("get", () -> {
+            attempts.incrementAndGet();
+            throw serviceUnavailable;
+        })).isSameAs(serviceUnavailable);
+        assertThat(attempts).hasValue(2);
+    }
+
+    private static Client mockClient() throws Exception {
+        Client client = mock(Client.class);
+        when(client.getMasterUrl()).thenReturn(new URL("https://caller-test.example.com:6443"));
+        return client;
+    }
+}
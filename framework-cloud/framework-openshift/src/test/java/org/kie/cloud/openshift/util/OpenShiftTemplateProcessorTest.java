@@ -0,0 +1,76 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.util;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.KubernetesList;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OpenShiftTemplateProcessorTest {
+
+    private static final URL TEMPLATE_URL = OpenShiftTemplateProcessorTest.class.getResource("/templates/test-template.yaml");
+
+    @Test
+    public void parametersAreSubstituted() {
+        Map<String, String> parameters = new HashMap<>();
+        parameters.put("APPLICATION_NAME", "myapp");
+        parameters.put("REPLICAS", "3");
+        parameters.put("UNKNOWN_PARAMETER", "ignored");
+
+        KubernetesList resources = OpenShiftTemplateProcessor.processTemplate(TEMPLATE_URL, parameters);
+
+        assertThat(resources.getItems()).hasSize(2);
+        assertThat(resources.getItems()).extracting(resource -> resource.getMetadata().getName()).containsOnly("myapp");
+        assertThat(resources.getItems()).filteredOn(Service.class::isInstance).hasSize(1);
+
+        DeploymentConfig deploymentConfig = getDeploymentConfig(resources);
+        assertThat(deploymentConfig.getSpec().getReplicas()).isEqualTo(3);
+        assertThat(deploymentConfig.getSpec().getTemplate().getSpec().getContainers().get(0).getImage()).isEqualTo("test-image:latest");
+    }
+
+    @Test
+    public void generatedParameterMatchesExpression() {
+        KubernetesList resources = OpenShiftTemplateProcessor.processTemplate(TEMPLATE_URL, Collections.singletonMap("APPLICATION_NAME", "myapp"));
+
+        EnvVar password = getDeploymentConfig(resources).getSpec().getTemplate().getSpec().getContainers().get(0).getEnv().get(0);
+        assertThat(password.getValue()).matches("[a-zA-Z]{8}");
+    }
+
+    @Test
+    public void missingRequiredParameterIsRejected() {
+        assertThatThrownBy(() -> OpenShiftTemplateProcessor.processTemplate(TEMPLATE_URL, Collections.emptyMap()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("APPLICATION_NAME");
+    }
+
+    private static DeploymentConfig getDeploymentConfig(KubernetesList resources) {
+        return resources.getItems().stream()
+                                   .filter(DeploymentConfig.class::isInstance)
+                                   .map(DeploymentConfig.class::cast)
+                                   .findAny()
+                                   .orElseThrow(() -> new AssertionError("Deployment config not found."));
+    }
+}
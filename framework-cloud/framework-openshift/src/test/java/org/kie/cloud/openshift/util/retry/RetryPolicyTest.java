@@ -0,0 +1,270 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.openshift.util.retry;
+
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RetryPolicyTest {
+
+    private RetryStatistics statistics = new RetryStatistics();
+    private AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    public void transientErrorsAreRetried() {
+        RetryPolicy retryPolicy = createRetryPolicy();
+
+        String result = retryPolicy.call("operation", () -> {
+            switch (attempts.incrementAndGet()) {
+                case 1:
+                    throw new KubernetesClientException("Too many requests", 429, null);
+                case 2:
+                    throw new KubernetesClientException("Service unavailable", 503, null);
+                case 3:
+                    throw new KubernetesClientException("Connection reset", new SocketException("Connection reset"));
+                case 4:
+                    throw new KubernetesClientException("Resource deleted", new JsonMappingException(null, "Deleted"));
+                case 5:
+                    throw new KubernetesClientException("Too old resource version", 410, null);
+                default:
+                    return "done";
+            }
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(attempts).hasValue(6);
+        assertThat(statistics.getRetries("operation")).isEqualTo(5);
+        assertThat(statistics.getFailures("operation")).isZero();
+        assertThat(statistics.getTimeLost("operation")).isPositive();
+    }
+
+    @Test
+    public void otherErrorsAreRethrownImmediately() {
+        RetryPolicy retryPolicy = createRetryPolicy();
+        KubernetesClientException notFound = new KubernetesClientException("Not found", 404, null);
+
+        assertThatThrownBy(() -> retryPolicy.call("operation", () -> {
+            attempts.incrementAndGet();
+            throw notFound;
+        })).isSameAs(notFound);
+        assertThat(attempts).hasValue(1);
+        assertThat(statistics.getRetries("operation")).isZero();
+    }
+
+    @Test
+    public void retriesStopAfterMaxAttempts() {
+        RetryPolicy retryPolicy = createRetryPolicy().withMaxAttempts(3);
+        List<KubernetesClientException> errors = new ArrayList<>();
+
+        assertThatThrownBy(() -> retryPolicy.call("operation", () -> {
+            attempts.incrementAndGet();
+            KubernetesClientException error = new KubernetesClientException("Service unavailable", 503, null);
+            errors.add(error);
+            throw error;
+        })).isSameAs(errors.get(2));
+        assertThat(attempts).hasValue(3);
+        assertThat(statistics.getRetries("operation")).isEqualTo(2);
+        assertThat(statistics.getFailures("operation")).isEqualTo(1);
+    }
+
+    @Test
+    public void retriesStopWhenBudgetIsExhausted() {
+        RetryPolicy retryPolicy = createRetryPolicy().withMaxAttempts(100)
+                                                     .withDelay(Duration.ofMillis(20), Duration.ofMillis(20))
+                                                     .withRetryBudget(Duration.ofMillis(100));
+
+        assertThatThrownBy(() -> retryPolicy.call("operation", () -> {
+            attempts.incrementAndGet();
+            throw new KubernetesClientException("Service unavailable", 503, null);
+        })).isInstanceOf(KubernetesClientException.class)
+           .hasMessage("Service unavailable");
+        // Delays are between 10 and 20 ms, so at most 10 retries fit into the budget
+        assertThat(attempts.get()).isBetween(5, 11);
+    }
+
+    @Test
+    public void delayGrowsExponentiallyUpToCap() {
+        RetryPolicy retryPolicy = createRetryPolicy().withMaxAttempts(6)
+                                                     .withDelay(Duration.ofMillis(10), Duration.ofMillis(40));
+        AtomicLong lastAttemptNanos = new AtomicLong();
+        long[] delaysMillis = new long[6];
+
+        retryPolicy.call("operation", () -> {
+            long now = System.nanoTime();
+            int attempt = attempts.incrementAndGet();
+            if (attempt > 1) {
+                delaysMillis[attempt - 1] = Duration.ofNanos(now - lastAttemptNanos.get()).toMillis();
+            }
+            lastAttemptNanos.set(now);
+            if (attempt < 6) {
+                throw new KubernetesClientException("Service unavailable", 503, null);
+            }
+            return null;
+        });
+
+        // Delay with jitter is between half and full of 10, 20, 40, 40 and 40 ms
+        assertThat(delaysMillis[1]).isGreaterThanOrEqualTo(5);
+        assertThat(delaysMillis[2]).isGreaterThanOrEqualTo(10);
+        assertThat(delaysMillis[3]).isGreaterThanOrEqualTo(20);
+        assertThat(delaysMillis[5]).isGreaterThanOrEqualTo(20).isLessThan(200);
+    }
+
+    @Test
+    public void openCircuitBreakerPausesCalls() {
+        // Clock moves while the call pauses
+        AtomicLong clockOffset = new AtomicLong();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 2, Duration.ofMillis(200), () -> System.nanoTime() + clockOffset.get());
+        RetryPolicy retryPolicy = createRetryPolicy().withCircuitBreaker(circuitBreaker);
+
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.getRemainingOpenNanos()).isZero();
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.getRemainingOpenNanos()).isBetween(Duration.ofMillis(100).toNanos(), Duration.ofMillis(200).toNanos());
+
+        clockOffset.addAndGet(Duration.ofMillis(150).toNanos());
+        long start = System.nanoTime();
+        retryPolicy.call("operation", () -> attempts.incrementAndGet());
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start).toMillis()).isGreaterThanOrEqualTo(50);
+        assertThat(attempts).hasValue(1);
+        assertThat(circuitBreaker.getRemainingOpenNanos()).isZero();
+    }
+
+    @Test
+    public void openCircuitBreakerFailsCallsExceedingBudget() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 1, Duration.ofMinutes(1));
+        RetryPolicy retryPolicy = createRetryPolicy().withCircuitBreaker(circuitBreaker)
+                                                     .withRetryBudget(Duration.ofSeconds(1));
+        circuitBreaker.recordFailure();
+
+        assertThatThrownBy(() -> retryPolicy.call("operation", () -> attempts.incrementAndGet())).isInstanceOf(IllegalStateException.class)
+                                                                                                 .hasMessageContaining("Circuit breaker test is open");
+        assertThat(attempts).hasValue(0);
+    }
+
+    @Test
+    public void failureAfterPauseOpensCircuitBreakerAgain() {
+        AtomicLong nanoTime = new AtomicLong();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 2, Duration.ofSeconds(10), nanoTime::get);
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+
+        nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(circuitBreaker.getRemainingOpenNanos()).isZero();
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.getRemainingOpenNanos()).isEqualTo(Duration.ofSeconds(10).toNanos());
+
+        circuitBreaker.recordSuccess();
+        assertThat(circuitBreaker.getRemainingOpenNanos()).isZero();
+    }
+
+    @Test
+    public void onlyOneProbeIsAllowedAfterPause() {
+        AtomicLong nanoTime = new AtomicLong();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 1, Duration.ofSeconds(10), nanoTime::get);
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.acquirePermission()).isEqualTo(Duration.ofSeconds(10).toNanos());
+
+        nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(circuitBreaker.acquirePermission()).isZero();
+        // Other callers wait for the probe
+        assertThat(circuitBreaker.acquirePermission()).isEqualTo(Duration.ofMillis(100).toNanos());
+
+        circuitBreaker.recordSuccess();
+        assertThat(circuitBreaker.acquirePermission()).isZero();
+        assertThat(circuitBreaker.acquirePermission()).isZero();
+    }
+
+    @Test
+    public void failedProbeOpensCircuitBreakerAgain() {
+        AtomicLong nanoTime = new AtomicLong();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 3, Duration.ofSeconds(10), nanoTime::get);
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.recordFailure();
+        }
+        nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(circuitBreaker.acquirePermission()).isZero();
+
+        // Single failed probe is enough, threshold applies to closed breaker only
+        circuitBreaker.recordFailure();
+
+        assertThat(circuitBreaker.acquirePermission()).isEqualTo(Duration.ofSeconds(10).toNanos());
+    }
+
+    @Test
+    public void probeNotFinishedWithinOpenDurationIsReplaced() {
+        AtomicLong nanoTime = new AtomicLong();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 1, Duration.ofSeconds(10), nanoTime::get);
+        circuitBreaker.recordFailure();
+        nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(circuitBreaker.acquirePermission()).isZero();
+
+        nanoTime.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertThat(circuitBreaker.acquirePermission()).isPositive();
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(circuitBreaker.acquirePermission()).isZero();
+    }
+
+    @Test
+    public void callsWaitForProbeOfCircuitBreaker() {
+        AtomicLong nanoTime = new AtomicLong(System.nanoTime());
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 1, Duration.ofMillis(200), nanoTime::get);
+        RetryPolicy retryPolicy = createRetryPolicy().withCircuitBreaker(circuitBreaker)
+                                                     .withRetryBudget(Duration.ofMillis(300));
+        circuitBreaker.recordFailure();
+        nanoTime.addAndGet(Duration.ofMillis(200).toNanos());
+        assertThat(circuitBreaker.acquirePermission()).isZero();
+
+        // Probe never finishes and the clock doesn't move, so the call waits for it until its budget is exhausted
+        assertThatThrownBy(() -> retryPolicy.call("operation", () -> attempts.incrementAndGet())).isInstanceOf(IllegalStateException.class)
+                                                                                                 .hasMessageContaining("Circuit breaker test is open");
+        assertThat(attempts).hasValue(0);
+        assertThat(statistics.getFailures("operation")).isEqualTo(1);
+    }
+
+    @Test
+    public void nonRetriableErrorOfProbeClosesCircuitBreaker() {
+        AtomicLong nanoTime = new AtomicLong();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 1, Duration.ofSeconds(10), nanoTime::get);
+        RetryPolicy retryPolicy = createRetryPolicy().withCircuitBreaker(circuitBreaker);
+        circuitBreaker.recordFailure();
+        nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThatThrownBy(() -> retryPolicy.call("operation", () -> {
+            throw new KubernetesClientException("Not found", 404, null);
+        })).isInstanceOf(KubernetesClientException.class);
+
+        assertThat(circuitBreaker.acquirePermission()).isZero();
+        assertThat(circuitBreaker.acquirePermission()).isZero();
+    }
+
+    private RetryPolicy createRetryPolicy() {
+        return new RetryPolicy().withDelay(Duration.ofMillis(1), Duration.ofMillis(5))
+                                .retryOn(RetriableErrors.transientApiErrors())
+                                .withStatistics(statistics);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.benchmark;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.fabric8.kubernetes.api.model.DefaultKubernetesResourceList;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.api.model.DeploymentConfigBuilder;
+import io.fabric8.openshift.api.model.Route;
+import io.fabric8.openshift.api.model.RouteBuilder;
+import org.kie.cloud.api.deployment.Instance;
+import org.kie.cloud.openshift.deployment.OpenShiftDeployment;
+import org.kie.cloud.openshift.resource.CachedResources;
+import org.kie.cloud.openshift.resource.OpenShiftResourceConstants;
+import org.kie.cloud.openshift.resource.PodReadinessTracker;
+import org.kie.cloud.openshift.resource.Project;
+import org.kie.cloud.openshift.resource.ProjectResourceCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Route resolution and pod filtering of {@link OpenShiftDeployment} over large lists of pods and routes served from the resource cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeploymentLookupBenchmark {
+
+    private static final String NAMESPACE = "benchmark";
+    private static final int DEPLOYMENT_COUNT = 20;
+
+    @Param({"100", "1000", "10000"})
+    private int podCount;
+
+    private ProjectResourceCache resourceCache;
+    private BenchmarkDeployment deployment;
+
+    @Setup
+    public void setUp() {
+        List<Pod> pods = new ArrayList<>();
+        List<Route> routes = new ArrayList<>();
+        List<Service> services = new ArrayList<>();
+        List<DeploymentConfig> deploymentConfigs = new ArrayList<>();
+        for (int i = 0; i < DEPLOYMENT_COUNT; i++) {
+            String name = "deployment-" + i;
+            services.add(new ServiceBuilder().withNewMetadata().withName(name).endMetadata().build());
+            deploymentConfigs.add(new DeploymentConfigBuilder().withNewMetadata().withName(name).endMetadata()
+                                                               .withNewSpec().withReplicas(podCount / DEPLOYMENT_COUNT).endSpec()
+                                                               .build());
+            routes.add(createRoute(name, false));
+            routes.add(createRoute(name, true));
+        }
+        for (int i = 0; i < podCount; i++) {
+            pods.add(new PodBuilder().withNewMetadata()
+                                     .withName("pod-" + i)
+                                     .addToLabels(OpenShiftResourceConstants.DEPLOYMENT_CONFIG_LABEL, "deployment-" + (i % DEPLOYMENT_COUNT))
+                                     .endMetadata()
+                                     .build());
+        }
+
+        PodReadinessTracker podTracker = new PodReadinessTracker(NAMESPACE,
+                                                                 () -> new PodListBuilder().withNewMetadata().withResourceVersion("1").endMetadata()
+                                                                                         .withItems(pods).build(),
+                                                                 (resourceVersion, watcher) -> () -> {});
+        resourceCache = new ProjectResourceCache(podTracker,
+                                                 staticResources(() -> routes),
+                                                 staticResources(() -> services),
+                                                 staticResources(() -> deploymentConfigs),
+                                                 staticResources(Collections::emptyList));
+        // Stub only mock doesn't record invocations, so it doesn't grow during measurement
+        Project project = mock(Project.class, withSettings().stubOnly());
+        when(project.getName()).thenReturn(NAMESPACE);
+        when(project.getResourceCache()).thenReturn(resourceCache);
+        when(project.getPodReadinessTracker()).thenReturn(podTracker);
+        // Last deployment, so all routes and services are traversed
+        deployment = new BenchmarkDeployment(project, "deployment-" + (DEPLOYMENT_COUNT - 1));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        resourceCache.pods().close();
+        resourceCache.close();
+    }
+
+    @Benchmark
+    public List<Instance> getInstances() {
+        return deployment.getInstances();
+    }
+
+    @Benchmark
+    public Optional<URL> resolveHttpRoute() {
+        return deployment.resolveHttpRoute();
+    }
+
+    @Benchmark
+    public Optional<URL> resolveHttpsRoute() {
+        return deployment.resolveHttpsRoute();
+    }
+
+    private static Route createRoute(String serviceName, boolean secured) {
+        RouteBuilder routeBuilder = new RouteBuilder();
+        routeBuilder.withNewMetadata().withName(serviceName + (secured ? "-secured" : "")).endMetadata()
+                    .withNewSpec().withHost(serviceName + "-" + NAMESPACE + ".example.com").withNewTo().withName(serviceName).endTo().endSpec();
+        if (secured) {
+            routeBuilder.editSpec().withNewTls().withTermination("passthrough").endTls().endSpec();
+        }
+        return routeBuilder.build();
+    }
+
+    private static <T extends HasMetadata> CachedResources<T> staticResources(Supplier<List<T>> resources) {
+        return new CachedResources<>("benchmark resources", NAMESPACE,
+                                     () -> {
+                                         DefaultKubernetesResourceList<T> resourceList = new DefaultKubernetesResourceList<>();
+                                         resourceList.setItems(resources.get());
+                                         return resourceList;
+                                     },
+                                     name -> null,
+                                     (resourceVersion, watcher) -> () -> {});
+    }
+
+    private static class BenchmarkDeployment extends OpenShiftDeployment {
+
+        private final String serviceName;
+
+        private BenchmarkDeployment(Project project, String serviceName) {
+            super(project);
+            this.serviceName = serviceName;
+        }
+
+        @Override
+        public String getServiceName() {
+            return serviceName;
+        }
+
+        private Optional<URL> resolveHttpRoute() {
+            return getHttpRouteUrl(serviceName);
+        }
+
+        private Optional<URL> resolveHttpsRoute() {
+            return getHttpsRouteUrl(serviceName);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.kubernetes.api.model.Event;
+import io.fabric8.kubernetes.api.model.EventBuilder;
+import org.apache.commons.io.output.NullWriter;
+import org.kie.cloud.openshift.log.EventsRecorder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Formatting of project events table by {@link EventsRecorder}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventsRecorderBenchmark {
+
+    @Param({"100", "10000"})
+    private int eventCount;
+
+    private List<Event> events;
+    private final Writer writer = new NullWriter();
+
+    @Setup
+    public void setUp() {
+        events = new ArrayList<>();
+        for (int i = 0; i < eventCount; i++) {
+            events.add(new EventBuilder().withNewMetadata().withName("kieserver-1-abcde." + i).endMetadata()
+                                         .withLastTimestamp("2021-03-04T10:15:30Z")
+                                         .withFirstTimestamp("2021-03-04T10:10:30Z")
+                                         .withCount(i)
+                                         .withKind("Event")
+                                         .withNewInvolvedObject().withFieldPath("spec.containers{kieserver}").endInvolvedObject()
+                                         .withType("Normal")
+                                         .withReason("Pulled")
+                                         .withNewSource().withComponent("kubelet").endSource()
+                                         .withMessage("Successfully pulled image \"quay.io/kiegroup/kie-server:latest\"")
+                                         .build());
+        }
+    }
+
+    @Benchmark
+    public void writeEvents() throws IOException {
+        EventsRecorder.writeEvents(events, writer);
+    }
+}
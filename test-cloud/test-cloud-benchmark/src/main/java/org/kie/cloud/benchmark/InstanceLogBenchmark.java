@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.kie.cloud.common.logs.InstanceLogUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of streaming instance logs into a writer opened by {@link InstanceLogUtil} and kept open, as done by the instance log collector.
+ * Score is number of written batches of {@link #LINES_PER_BATCH} log lines.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstanceLogBenchmark {
+
+    private static final String LOG_FOLDER_NAME = "benchmark";
+    private static final int LINES_PER_BATCH = 100;
+
+    @Param({"plain", "gzip"})
+    private String logFormat;
+
+    private File logDirectory;
+    private List<String> logLines;
+    private Writer logWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logDirectory = Files.createTempDirectory("instance-log-benchmark").toFile();
+        System.setProperty("instance.logs", logDirectory.getAbsolutePath());
+        System.setProperty("instance.logs.format", logFormat);
+
+        logLines = new ArrayList<>();
+        for (int i = 0; i < LINES_PER_BATCH; i++) {
+            logLines.add("2021-03-04 10:15:30,123 INFO  [org.kie.server.services.impl.KieServerImpl] (ServerService Thread Pool -- " + i + ") KieServer benchmark-kieserver is ready to receive requests");
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void openWriter() throws IOException {
+        logWriter = InstanceLogUtil.createInstanceLogWriter("streamed", LOG_FOLDER_NAME);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeWriter() throws IOException {
+        logWriter.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.clearProperty("instance.logs");
+        System.clearProperty("instance.logs.format");
+        FileUtils.deleteDirectory(logDirectory);
+    }
+
+    @Benchmark
+    public void streamInstanceLogLines() throws IOException {
+        for (String logLine : logLines) {
+            logWriter.write(logLine);
+            logWriter.write(System.lineSeparator());
+        }
+        logWriter.flush();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.kie.cloud.openshift.operator.model.KieApp;
+import org.kie.cloud.openshift.operator.model.components.Console;
+import org.kie.cloud.openshift.operator.model.components.Env;
+import org.kie.cloud.openshift.operator.model.components.Server;
+import org.kie.cloud.openshift.operator.model.components.SmartRouter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serialization and deserialization of {@link KieApp} custom resource using the YAML mapper of Fabric8 client.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KieAppSerializationBenchmark {
+
+    private static final int KIE_SERVER_COUNT = 5;
+    private static final int ENV_VARIABLE_COUNT = 10;
+
+    private KieApp kieApp;
+    private String kieAppYaml;
+
+    @Setup
+    public void setUp() throws IOException {
+        kieApp = new KieApp();
+        kieApp.getMetadata().setName("benchmark");
+        kieApp.getSpec().setEnvironment("rhpam-authoring-ha");
+        kieApp.getSpec().setUseImageTags(true);
+
+        Console console = new Console();
+        console.setReplicas(2);
+        addEnvVariables(console::addEnv, "CONSOLE");
+        kieApp.getSpec().getObjects().setConsole(console);
+
+        SmartRouter smartRouter = new SmartRouter();
+        smartRouter.setReplicas(1);
+        addEnvVariables(smartRouter::addEnv, "ROUTER");
+        kieApp.getSpec().getObjects().setSmartRouter(smartRouter);
+
+        for (int i = 0; i < KIE_SERVER_COUNT; i++) {
+            Server server = new Server();
+            server.setName("kieserver-" + i);
+            server.setReplicas(2);
+            addEnvVariables(server::addEnv, "SERVER_" + i);
+            kieApp.getSpec().getObjects().addServer(server);
+        }
+
+        kieAppYaml = Serialization.yamlMapper().writeValueAsString(kieApp);
+    }
+
+    @Benchmark
+    public String serialize() throws IOException {
+        return Serialization.yamlMapper().writeValueAsString(kieApp);
+    }
+
+    @Benchmark
+    public KieApp deserialize() throws IOException {
+        return Serialization.yamlMapper().readValue(kieAppYaml, KieApp.class);
+    }
+
+    private static void addEnvVariables(Consumer<Env> envConsumer, String prefix) {
+        for (int i = 0; i < ENV_VARIABLE_COUNT; i++) {
+            envConsumer.accept(new Env(prefix + "_VARIABLE_" + i, "value-" + i));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.cloud.tests.common.client.util.RunnableWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Per iteration overhead of {@link RunnableWrapper} load loop compared to a plain loop running the same code.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RunnableWrapperBenchmark {
+
+    private static final int ITERATIONS = 10_000;
+    private static final long CONSUMED_CPU_TOKENS = 10;
+
+    private RunnableWrapper runnableWrapper;
+
+    @Setup
+    public void setUp() {
+        runnableWrapper = new RunnableWrapper(Duration.ofHours(1), ITERATIONS, () -> Blackhole.consumeCPU(CONSUMED_CPU_TOKENS));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public void runnableWrapperLoop() {
+        runnableWrapper.run();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public void plainLoop() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            Blackhole.consumeCPU(CONSUMED_CPU_TOKENS);
+        }
+    }
+}
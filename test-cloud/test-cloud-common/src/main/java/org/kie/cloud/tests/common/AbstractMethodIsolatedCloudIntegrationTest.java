@@ -21,26 +21,75 @@ import org.junit.Rule;
 import org.junit.rules.TestName;
 import org.kie.cloud.api.DeploymentScenarioBuilderFactory;
 import org.kie.cloud.api.scenario.DeploymentScenario;
+import org.kie.cloud.api.scenario.KieDeploymentScenario;
+import org.kie.cloud.tests.common.pool.ScenarioFingerprint;
+import org.kie.cloud.tests.common.pool.ScenarioLease;
+import org.kie.cloud.tests.common.pool.ScenarioPool;
+import org.kie.cloud.tests.common.pool.ScenarioResetHooks;
 
 public abstract class AbstractMethodIsolatedCloudIntegrationTest<T extends DeploymentScenario<?>> extends AbstractCloudIntegrationTest {
 
     protected T deploymentScenario;
+    private ScenarioLease<T> scenarioLease;
 
     @Rule
     public TestName testName = new TestName();
 
     @Before
     public void initializeDeployment() {
-        deploymentScenario = createDeploymentScenario(AbstractCloudIntegrationTest.deploymentScenarioFactory);
-        deploymentScenario.setLogFolderName(this.getClass().getSimpleName() + "-" + testName.getMethodName());
-
-        ScenarioDeployer.deployScenario(deploymentScenario);
+        ScenarioFingerprint fingerprint = getScenarioFingerprint();
+        if (fingerprint == null) {
+            deploymentScenario = createNamedDeploymentScenario();
+            ScenarioDeployer.deployScenario(deploymentScenario);
+        } else {
+            scenarioLease = ScenarioPool.getInstance().lease(fingerprint, this::createNamedDeploymentScenario, this::resetDeploymentScenario);
+            deploymentScenario = scenarioLease.getScenario();
+            // Scenario reused from the pool still collects logs into folder of the previous test
+            deploymentScenario.setLogFolderName(getLogFolderName());
+        }
     }
 
     @After
     public void cleanEnvironment() {
-        ScenarioDeployer.undeployScenario(deploymentScenario);
+        if (scenarioLease != null) {
+            scenarioLease.close();
+            scenarioLease = null;
+        } else {
+            ScenarioDeployer.undeployScenario(deploymentScenario);
+        }
     }
 
     protected abstract T createDeploymentScenario(DeploymentScenarioBuilderFactory deploymentScenarioFactory);
+
+    /**
+     * Tests returning a fingerprint share deployed scenarios with other tests using the same fingerprint through {@link ScenarioPool}.
+     *
+     * @return Fingerprint of scenario created by {@link #createDeploymentScenario(DeploymentScenarioBuilderFactory)}, null if the
+     * scenario shouldn't be shared.
+     */
+    protected ScenarioFingerprint getScenarioFingerprint() {
+        return null;
+    }
+
+    /**
+     * Restore clean state of shared scenario once the test is finished. By default all Kie server containers and their specs
+     * in controllers are removed.
+     *
+     * @param deploymentScenario Scenario to be reset.
+     */
+    protected void resetDeploymentScenario(T deploymentScenario) {
+        if (deploymentScenario instanceof KieDeploymentScenario) {
+            ScenarioResetHooks.clearKieDeployments().reset((KieDeploymentScenario<?>) deploymentScenario);
+        }
+    }
+
+    private T createNamedDeploymentScenario() {
+        T scenario = createDeploymentScenario(AbstractCloudIntegrationTest.deploymentScenarioFactory);
+        scenario.setLogFolderName(getLogFolderName());
+        return scenario;
+    }
+
+    private String getLogFolderName() {
+        return this.getClass().getSimpleName() + "-" + testName.getMethodName();
+    }
 }
@@ -68,7 +68,7 @@ public class KieServerUtils {
      * @param containerId
      */
     public static void waitForContainerRespinAfterDisposeContainer(KieServerDeployment kieServer, String containerId) {
-        KieServicesClient kieServerClient = KieServerClientProvider.getKieServerClient(kieServer);
+        KieServicesClient kieServerClient = KieServerClientProvider.getCachedKieServerClient(kieServer);
         waitForContainerRespinAfter(kieServer, () -> kieServerClient.disposeContainer(containerId));
     }
 
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.tests.common.load;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records latency distribution of operations, for example calls of KIE clients, using HdrHistogram.
+ * Latencies are recorded per operation and optionally per pod which served the operation. Latencies of failed operations are
+ * recorded separately under operation name with {@value #FAILED_OPERATION_SUFFIX} suffix. Recorded values are split into time
+ * windows of defined length, every window is summarized separately and optionally written as interval histogram into HDR log file,
+ * which can be processed by standard HdrHistogram tools.
+ * <p>
+ * Latencies are recorded in nanoseconds. Recording is lock free and can be done concurrently from any number of threads.
+ */
+public class LatencyRecorder implements OperationListener, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyRecorder.class);
+
+    public static final String FAILED_OPERATION_SUFFIX = "-failed";
+
+    private static final int NUMBER_OF_SIGNIFICANT_VALUE_DIGITS = 3;
+
+    private final Map<LatencyKey, KeyRecording> recordings = new ConcurrentHashMap<>();
+    private final List<LatencySummary> windowSummaries = new ArrayList<>();
+    private final HistogramLogWriter logWriter;
+    private final ScheduledExecutorService windowScheduler;
+
+    private boolean closed = false;
+
+    /**
+     * @param window Length of time window.
+     */
+    public LatencyRecorder(Duration window) {
+        this(window, null);
+    }
+
+    /**
+     * @param window Length of time window.
+     * @param hdrLogFile File to write interval histograms of every time window to, null if HDR log shouldn't be written.
+     */
+    public LatencyRecorder(Duration window, File hdrLogFile) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Time window must be positive, was " + window);
+        }
+
+        if (hdrLogFile != null) {
+            try {
+                logWriter = new HistogramLogWriter(hdrLogFile);
+            } catch (FileNotFoundException e) {
+                throw new RuntimeException("Cannot create HDR log file " + hdrLogFile.getAbsolutePath(), e);
+            }
+            long startTime = System.currentTimeMillis();
+            logWriter.outputLogFormatVersion();
+            logWriter.outputStartTime(startTime);
+            logWriter.setBaseTime(startTime);
+            logWriter.outputLegend();
+        } else {
+            logWriter = null;
+        }
+
+        windowScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "latency-recorder-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        windowScheduler.scheduleAtFixedRate(this::closeWindow, window.toMillis(), window.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Execute the call and record its latency. Latency of failed call is recorded as latency of failed operation.
+     *
+     * @param operationName Name of the operation, for example "startProcess".
+     * @param podName Name of the pod serving the call, null if not known.
+     * @param call Call to execute.
+     * @return Result of the call.
+     */
+    public <T> T record(String operationName, String podName, Supplier<T> call) {
+        long startNanos = System.nanoTime();
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException | Error e) {
+            recordLatency(getFailedOperationName(operationName), podName, System.nanoTime() - startNanos);
+            throw e;
+        }
+        recordLatency(operationName, podName, System.nanoTime() - startNanos);
+        return result;
+    }
+
+    public <T> T record(String operationName, Supplier<T> call) {
+        return record(operationName, null, call);
+    }
+
+    public void record(String operationName, Runnable call) {
+        record(operationName, null, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * @param operationName Name of the operation.
+     * @param call Call to execute.
+     * @return Runnable executing the call and recording its latency.
+     */
+    public Runnable wrap(String operationName, Runnable call) {
+        return () -> record(operationName, call);
+    }
+
+    /**
+     * @param operationName Name of the operation.
+     * @param podName Name of the pod serving the operation, null if not known.
+     * @param latencyNanos Latency of the operation in nanoseconds.
+     */
+    public void recordLatency(String operationName, String podName, long latencyNanos) {
+        LatencyKey key = new LatencyKey(operationName, podName);
+        KeyRecording recording = recordings.get(key);
+        if (recording == null) {
+            recording = recordings.computeIfAbsent(key, KeyRecording::new);
+        }
+        recording.recorder.recordValue(latencyNanos);
+    }
+
+    @Override
+    public void operationCompleted(String operationName, String podName, long latencyNanos, Throwable error) {
+        recordLatency(error == null ? operationName : getFailedOperationName(operationName), podName, latencyNanos);
+    }
+
+    /**
+     * @param operationName Name of the operation.
+     * @return Name under which latencies of failed operation are recorded.
+     */
+    public static String getFailedOperationName(String operationName) {
+        return operationName + FAILED_OPERATION_SUFFIX;
+    }
+
+    /**
+     * Return latency summary of the operation served by any pod since the recorder was created. Current time window is closed
+     * to include latest recorded values.
+     *
+     * @param operationName Name of the operation.
+     * @return Latency summary of the operation.
+     * @throws IllegalArgumentException In case no latency was recorded for the operation.
+     */
+    public LatencySummary getSummary(String operationName) {
+        return summarize(operationName, null, key -> key.operationName.equals(operationName));
+    }
+
+    /**
+     * Return latency summary of the operation served by the pod since the recorder was created. Current time window is closed
+     * to include latest recorded values.
+     *
+     * @param operationName Name of the operation.
+     * @param podName Name of the pod.
+     * @return Latency summary of the operation served by the pod.
+     * @throws IllegalArgumentException In case no latency was recorded for the operation and pod.
+     */
+    public LatencySummary getSummary(String operationName, String podName) {
+        return summarize(operationName, podName, key -> key.operationName.equals(operationName) && Objects.equals(key.podName, podName));
+    }
+
+    /**
+     * @return Latency summaries of all operations followed by summaries of operations per pod, if pod was recorded.
+     */
+    public List<LatencySummary> getSummaries() {
+        List<LatencyKey> keys = recordings.keySet().stream()
+                                                   .sorted(Comparator.comparing((LatencyKey key) -> key.operationName)
+                                                                     .thenComparing(key -> Objects.toString(key.podName, "")))
+                                                   .collect(Collectors.toList());
+
+        List<LatencySummary> summaries = new ArrayList<>();
+        keys.stream().map(key -> key.operationName).distinct().forEach(operationName -> summaries.add(getSummary(operationName)));
+        keys.stream().filter(key -> key.podName != null).forEach(key -> summaries.add(getSummary(key.operationName, key.podName)));
+        return summaries;
+    }
+
+    /**
+     * @return Latency summaries of every closed time window, per operation and pod. Windows without recorded values are omitted.
+     */
+    public synchronized List<LatencySummary> getWindowSummaries() {
+        return new ArrayList<>(windowSummaries);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        windowScheduler.shutdownNow();
+        closeWindow();
+        if (logWriter != null) {
+            logWriter.close();
+        }
+        closed = true;
+    }
+
+    private synchronized LatencySummary summarize(String operationName, String podName, Predicate<LatencyKey> keyFilter) {
+        closeWindow();
+
+        Histogram merged = new Histogram(NUMBER_OF_SIGNIFICANT_VALUE_DIGITS);
+        recordings.values().stream()
+                           .filter(recording -> keyFilter.test(recording.key))
+                           .map(recording -> recording.total)
+                           .filter(total -> total.getTotalCount() > 0)
+                           .forEach(total -> addHistogram(merged, total));
+
+        if (merged.getTotalCount() == 0) {
+            throw new IllegalArgumentException("No latency was recorded for operation " + operationName + (podName == null ? "" : " on pod " + podName));
+        }
+        return new LatencySummary(operationName, podName, merged);
+    }
+
+    private synchronized void closeWindow() {
+        if (closed) {
+            return;
+        }
+        try {
+            for (KeyRecording recording : recordings.values()) {
+                Histogram interval = recording.recorder.getIntervalHistogram(recording.intervalHistogram);
+                recording.intervalHistogram = interval;
+                if (interval.getTotalCount() == 0) {
+                    continue;
+                }
+
+                addHistogram(recording.total, interval);
+                windowSummaries.add(new LatencySummary(recording.key.operationName, recording.key.podName, interval));
+                if (logWriter != null) {
+                    interval.setTag(recording.key.getTag());
+                    logWriter.outputIntervalHistogram(interval);
+                }
+            }
+        } catch (Exception e) {
+            // Exception would cancel scheduled window closing
+            logger.warn("Error while closing latency time window.", e);
+        }
+    }
+
+    private static void addHistogram(Histogram target, Histogram source) {
+        target.add(source);
+        target.setStartTimeStamp(Math.min(target.getStartTimeStamp(), source.getStartTimeStamp()));
+        target.setEndTimeStamp(Math.max(target.getEndTimeStamp(), source.getEndTimeStamp()));
+    }
+
+    private static class KeyRecording {
+
+        private final LatencyKey key;
+        private final Recorder recorder = new Recorder(NUMBER_OF_SIGNIFICANT_VALUE_DIGITS);
+        private final Histogram total = new Histogram(NUMBER_OF_SIGNIFICANT_VALUE_DIGITS);
+        private Histogram intervalHistogram;
+
+        private KeyRecording(LatencyKey key) {
+            this.key = key;
+        }
+    }
+
+    private static class LatencyKey {
+
+        private final String operationName;
+        private final String podName;
+
+        private LatencyKey(String operationName, String podName) {
+            this.operationName = Objects.requireNonNull(operationName, "Operation name has to be defined.");
+            this.podName = podName;
+        }
+
+        /**
+         * @return Tag of interval histograms in HDR log, tags must not contain commas or whitespaces.
+         */
+        private String getTag() {
+            String tag = podName == null ? operationName : operationName + "@" + podName;
+            return tag.replaceAll("[,\\s]", "_");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            LatencyKey that = (LatencyKey) o;
+            return operationName.equals(that.operationName) && Objects.equals(podName, that.podName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(operationName, podName);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.tests.common.load;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency percentiles of an operation computed from recorded latency distribution.
+ */
+public class LatencySummary {
+
+    private final String operationName;
+    private final String podName;
+    private final Instant start;
+    private final Instant end;
+    private final long count;
+    private final Duration mean;
+    private final Duration p50;
+    private final Duration p90;
+    private final Duration p99;
+    private final Duration p999;
+    private final Duration max;
+
+    LatencySummary(String operationName, String podName, Histogram histogram) {
+        this.operationName = operationName;
+        this.podName = podName;
+        this.start = Instant.ofEpochMilli(histogram.getStartTimeStamp());
+        this.end = Instant.ofEpochMilli(histogram.getEndTimeStamp());
+        this.count = histogram.getTotalCount();
+        this.mean = Duration.ofNanos((long) histogram.getMean());
+        this.p50 = Duration.ofNanos(histogram.getValueAtPercentile(50));
+        this.p90 = Duration.ofNanos(histogram.getValueAtPercentile(90));
+        this.p99 = Duration.ofNanos(histogram.getValueAtPercentile(99));
+        this.p999 = Duration.ofNanos(histogram.getValueAtPercentile(99.9));
+        this.max = Duration.ofNanos(histogram.getMaxValue());
+    }
+
+    public String getOperationName() {
+        return operationName;
+    }
+
+    /**
+     * @return Name of the pod which served the operations, null if the summary covers all pods.
+     */
+    public String getPodName() {
+        return podName;
+    }
+
+    /**
+     * @return Start of the time window covered by this summary.
+     */
+    public Instant getStart() {
+        return start;
+    }
+
+    /**
+     * @return End of the time window covered by this summary.
+     */
+    public Instant getEnd() {
+        return end;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Duration getMean() {
+        return mean;
+    }
+
+    public Duration getP50() {
+        return p50;
+    }
+
+    public Duration getP90() {
+        return p90;
+    }
+
+    public Duration getP99() {
+        return p99;
+    }
+
+    public Duration getP999() {
+        return p999;
+    }
+
+    public Duration getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return operationName + (podName == null ? "" : "@" + podName) + ": count=" + count + ", mean=" + toMillis(mean) + "ms, p50=" + toMillis(p50)
+                + "ms, p90=" + toMillis(p90) + "ms, p99=" + toMillis(p99) + "ms, p99.9=" + toMillis(p999) + "ms, max=" + toMillis(max) + "ms";
+    }
+
+    private static String toMillis(Duration duration) {
+        return String.format("%.3f", duration.toNanos() / 1_000_000d);
+    }
+}
@@ -0,0 +1,430 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.tests.common.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates load by repeatedly executing registered operations. One iteration executes all registered operations in order
+ * of their registration.
+ * <p>
+ * Two load models are supported:
+ * <ul>
+ * <li>Closed model - fixed number of concurrent users, every user starts next iteration once previous one is finished.
+ * Throughput is driven by latency of the tested system.</li>
+ * <li>Open model - iterations are started with constant arrival rate regardless of latency of the tested system. Latency of the
+ * first operation of an iteration is measured from its scheduled start, so the time spent waiting for a free worker is included
+ * and slow responses are not hidden by delayed arrivals. Number of arrivals waiting for a free worker is bounded, arrivals
+ * exceeding the bound are dropped. Both dropped arrivals and arrivals started late are reported in the result.</li>
+ * </ul>
+ * Both models support ramp-up (users are started gradually, respectively arrival rate grows linearly) and think time between
+ * operations. Load stops once the duration elapses or the maximal number of iterations is started, whatever comes first.
+ * Optionally the load stops after the first failed operation.
+ */
+public class LoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final Supplier<String> UNKNOWN_POD = () -> null;
+
+    private static final int DEFAULT_MAX_CONCURRENCY = 200;
+    private static final int DEFAULT_MAX_QUEUED_ARRIVALS = 10_000;
+    // Iteration started by a worker later than this after its scheduled start is counted as late arrival
+    private static final long LATE_ARRIVAL_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final int users;
+    private final double arrivalRate;
+
+    private Duration rampUp = Duration.ZERO;
+    private Duration thinkTime = Duration.ZERO;
+    private Duration duration;
+    private long maxIterations = Long.MAX_VALUE;
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    private int maxQueuedArrivals = DEFAULT_MAX_QUEUED_ARRIVALS;
+    private boolean stopOnFailure;
+
+    private final Map<String, ServedOperation> operations = new LinkedHashMap<>();
+    private final List<OperationListener> listeners = new ArrayList<>();
+
+    private LoadGenerator(int users, double arrivalRate) {
+        this.users = users;
+        this.arrivalRate = arrivalRate;
+    }
+
+    /**
+     * @param users Number of concurrent users, every user executes iterations sequentially.
+     * @return Load generator using closed load model.
+     */
+    public static LoadGenerator closedModel(int users) {
+        if (users < 1) {
+            throw new IllegalArgumentException("Number of users must be at least 1, was " + users);
+        }
+        return new LoadGenerator(users, 0);
+    }
+
+    /**
+     * @param iterationsPerSecond Number of iterations started every second once ramp-up is finished.
+     * @return Load generator using open load model.
+     */
+    public static LoadGenerator openModel(double iterationsPerSecond) {
+        if (iterationsPerSecond <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive, was " + iterationsPerSecond);
+        }
+        return new LoadGenerator(0, iterationsPerSecond);
+    }
+
+    /**
+     * @param rampUp Time to start all users in closed model, respectively to reach the full arrival rate in open model.
+     * @return This load generator.
+     */
+    public LoadGenerator withRampUp(Duration rampUp) {
+        this.rampUp = rampUp;
+        return this;
+    }
+
+    /**
+     * @param thinkTime Pause between consecutive operations of one user in closed model, respectively between operations of one
+     * iteration in open model.
+     * @return This load generator.
+     */
+    public LoadGenerator withThinkTime(Duration thinkTime) {
+        this.thinkTime = thinkTime;
+        return this;
+    }
+
+    /**
+     * @param duration Maximal time for starting new iterations.
+     * @return This load generator.
+     */
+    public LoadGenerator withDuration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * @param maxIterations Maximal number of iterations started by all users together.
+     * @return This load generator.
+     */
+    public LoadGenerator withMaxIterations(long maxIterations) {
+        this.maxIterations = maxIterations;
+        return this;
+    }
+
+    /**
+     * @param maxConcurrency Maximal number of concurrently running iterations in open model. Iterations arriving while all workers
+     * are busy wait for a free worker.
+     * @return This load generator.
+     */
+    public LoadGenerator withMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Maximal concurrency must be at least 1, was " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * @param maxQueuedArrivals Maximal number of iterations waiting for a free worker in open model. Iterations arriving while
+     * the queue is full are dropped and counted in the result.
+     * @return This load generator.
+     */
+    public LoadGenerator withMaxQueuedArrivals(int maxQueuedArrivals) {
+        if (maxQueuedArrivals < 1) {
+            throw new IllegalArgumentException("Maximal number of queued arrivals must be at least 1, was " + maxQueuedArrivals);
+        }
+        this.maxQueuedArrivals = maxQueuedArrivals;
+        return this;
+    }
+
+    /**
+     * Stop the load after the first failed operation. No new iteration is started, iterations waiting for a free worker are dropped
+     * and remaining operations of the failed iteration are skipped. Iterations already running on other workers are finished.
+     *
+     * @return This load generator.
+     */
+    public LoadGenerator withStopOnFailure() {
+        this.stopOnFailure = true;
+        return this;
+    }
+
+    /**
+     * @param operationName Name of the operation used in statistics.
+     * @param operation Operation to execute. Operation is considered failed if it throws an exception.
+     * @return This load generator.
+     */
+    public LoadGenerator addOperation(String operationName, Runnable operation) {
+        return addServedOperation(operationName, () -> {
+            operation.run();
+            return UNKNOWN_POD;
+        });
+    }
+
+    /**
+     * @param operationName Name of the operation used in statistics.
+     * @param operation Operation to execute, returning lookup of the pod which served it. The pod is passed to listeners.
+     * @return This load generator.
+     */
+    public LoadGenerator addServedOperation(String operationName, ServedOperation operation) {
+        if (operations.containsKey(operationName)) {
+            throw new IllegalArgumentException("Operation " + operationName + " is already registered.");
+        }
+        operations.put(operationName, operation);
+        return this;
+    }
+
+    /**
+     * @param listener Listener notified about every executed operation, for example to record latency distribution.
+     * @return This load generator.
+     */
+    public LoadGenerator addListener(OperationListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Generate the load and wait until all started iterations are finished.
+     *
+     * @return Statistics of executed operations.
+     */
+    public LoadResult run() {
+        if (operations.isEmpty()) {
+            throw new IllegalStateException("No operation to execute is registered.");
+        }
+        if (duration == null && maxIterations == Long.MAX_VALUE) {
+            throw new IllegalStateException("Either duration or maximal number of iterations has to be defined.");
+        }
+
+        LoadRun loadRun = new LoadRun();
+        if (isClosedModel()) {
+            logger.info("Starting closed model load with {} users, ramp-up {}, think time {}.", users, rampUp, thinkTime);
+            runClosedModel(loadRun);
+        } else {
+            logger.info("Starting open model load with {} iterations per second, ramp-up {}, think time {}.", arrivalRate, rampUp, thinkTime);
+            runOpenModel(loadRun);
+        }
+
+        LoadResult result = new LoadResult(Duration.ofNanos(System.nanoTime() - loadRun.startNanos), loadRun.statistics,
+                                           loadRun.droppedArrivals.get(), loadRun.lateArrivals.get());
+        logger.info("Load finished: {}", result);
+        return result;
+    }
+
+    private boolean isClosedModel() {
+        return users > 0;
+    }
+
+    private void runClosedModel(LoadRun loadRun) {
+        ExecutorService workers = Executors.newFixedThreadPool(users, new LoadThreadFactory());
+        try {
+            List<Future<?>> userFutures = new ArrayList<>();
+            for (int user = 0; user < users; user++) {
+                long userStartNanos = loadRun.startNanos + toNanos(rampUp) / users * user;
+                userFutures.add(workers.submit(() -> {
+                    sleepUntil(userStartNanos);
+                    while (loadRun.claimIteration(System.nanoTime())) {
+                        loadRun.executeIteration(System.nanoTime(), true);
+                    }
+                }));
+            }
+            for (Future<?> userFuture : userFutures) {
+                userFuture.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Waiting for load to finish was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error while generating load", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void runOpenModel(LoadRun loadRun) {
+        // Arrivals not fitting into the queue are rejected by the default abort policy, so the generator is never blocked
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0, TimeUnit.MILLISECONDS,
+                                                            new ArrayBlockingQueue<>(maxQueuedArrivals), new LoadThreadFactory());
+        try {
+            for (long arrival = 0;; arrival++) {
+                long scheduledStartNanos = loadRun.startNanos + getArrivalOffsetNanos(arrival);
+                if (!loadRun.claimIteration(scheduledStartNanos)) {
+                    break;
+                }
+                sleepUntil(scheduledStartNanos);
+                if (loadRun.failed) {
+                    break;
+                }
+                try {
+                    workers.execute(() -> {
+                        if (System.nanoTime() - scheduledStartNanos > LATE_ARRIVAL_THRESHOLD_NANOS) {
+                            loadRun.lateArrivals.incrementAndGet();
+                        }
+                        loadRun.executeIteration(scheduledStartNanos, false);
+                    });
+                } catch (RejectedExecutionException e) {
+                    if (loadRun.droppedArrivals.getAndIncrement() == 0) {
+                        logger.warn("Iteration arrived while {} iterations were waiting for a free worker and was dropped, further drops are only counted.",
+                                    maxQueuedArrivals);
+                    }
+                }
+            }
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Waiting for load to finish was interrupted", e);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Arrival rate grows linearly during ramp-up, so the number of arrivals until time t is rate * t^2 / (2 * rampUp) during ramp-up
+     * and rate * (t - rampUp / 2) afterwards. This method returns inverse of that function.
+     */
+    private long getArrivalOffsetNanos(long arrival) {
+        double rampUpSeconds = toNanos(rampUp) / 1_000_000_000d;
+        double rampUpArrivals = arrivalRate * rampUpSeconds / 2;
+        double offsetSeconds;
+        if (arrival < rampUpArrivals) {
+            offsetSeconds = Math.sqrt(2 * rampUpSeconds * arrival / arrivalRate);
+        } else {
+            offsetSeconds = rampUpSeconds + (arrival - rampUpArrivals) / arrivalRate;
+        }
+        return (long) (offsetSeconds * 1_000_000_000d);
+    }
+
+    private static void sleepUntil(long nanoTime) {
+        long remainingNanos = nanoTime - System.nanoTime();
+        if (remainingNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remainingNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Load generation was interrupted", e);
+            }
+        }
+    }
+
+    private static long toNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            // Duration too long to be represented in nanoseconds, practically infinite
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private class LoadRun {
+
+        private final long startNanos = System.nanoTime();
+        private final long durationNanos = duration == null ? Long.MAX_VALUE : toNanos(duration);
+        private final AtomicLong startedIterations = new AtomicLong();
+        private final AtomicLong droppedArrivals = new AtomicLong();
+        private final AtomicLong lateArrivals = new AtomicLong();
+        private final Map<String, OperationStatistics> statistics = new LinkedHashMap<>();
+        private final Map<String, AtomicBoolean> failureLogged = new LinkedHashMap<>();
+        private volatile boolean failed;
+
+        private LoadRun() {
+            operations.keySet().forEach(operationName -> {
+                statistics.put(operationName, new OperationStatistics(operationName));
+                failureLogged.put(operationName, new AtomicBoolean());
+            });
+        }
+
+        private boolean claimIteration(long nanoTime) {
+            return !failed && nanoTime - startNanos < durationNanos && startedIterations.getAndIncrement() < maxIterations;
+        }
+
+        private void executeIteration(long iterationStartNanos, boolean thinkAfterLastOperation) {
+            if (failed) {
+                // Iteration queued in open model before the load was stopped
+                return;
+            }
+            long operationStartNanos = iterationStartNanos;
+            int remainingOperations = operations.size();
+            for (Entry<String, ServedOperation> operation : operations.entrySet()) {
+                Throwable error = null;
+                Supplier<String> podLookup = UNKNOWN_POD;
+                try {
+                    podLookup = operation.getValue().execute();
+                } catch (Exception | AssertionError e) {
+                    error = e;
+                    if (failureLogged.get(operation.getKey()).compareAndSet(false, true)) {
+                        logger.warn("Operation " + operation.getKey() + " failed, further failures are only counted.", e);
+                    }
+                }
+                long latencyNanos = System.nanoTime() - operationStartNanos;
+                String podName = lookupPod(operation.getKey(), podLookup);
+                statistics.get(operation.getKey()).operationCompleted(operation.getKey(), podName, latencyNanos, error);
+                for (OperationListener listener : listeners) {
+                    listener.operationCompleted(operation.getKey(), podName, latencyNanos, error);
+                }
+                if (error != null && stopOnFailure) {
+                    failed = true;
+                    return;
+                }
+
+                if (--remainingOperations > 0 || thinkAfterLastOperation) {
+                    sleepUntil(System.nanoTime() + toNanos(thinkTime));
+                }
+                operationStartNanos = System.nanoTime();
+            }
+        }
+    }
+
+    private static String lookupPod(String operationName, Supplier<String> podLookup) {
+        try {
+            return podLookup.get();
+        } catch (Exception e) {
+            logger.debug("Pod which served operation " + operationName + " cannot be found.", e);
+            return null;
+        }
+    }
+
+    private static class LoadThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "load-generator-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.tests.common.load;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Result of a {@link LoadGenerator} run.
+ */
+public class LoadResult {
+
+    private final Duration duration;
+    private final Map<String, OperationStatistics> operationStatistics;
+    private final long droppedArrivals;
+    private final long lateArrivals;
+
+    LoadResult(Duration duration, Map<String, OperationStatistics> operationStatistics, long droppedArrivals, long lateArrivals) {
+        this.duration = duration;
+        this.operationStatistics = Collections.unmodifiableMap(operationStatistics);
+        this.droppedArrivals = droppedArrivals;
+        this.lateArrivals = lateArrivals;
+    }
+
+    /**
+     * @return Time between start of the first operation and completion of the last one.
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * @param operationName Operation name.
+     * @return Statistics of the operation.
+     * @throws IllegalArgumentException In case no operation with such name was registered.
+     */
+    public OperationStatistics getOperationStatistics(String operationName) {
+        OperationStatistics statistics = operationStatistics.get(operationName);
+        if (statistics == null) {
+            throw new IllegalArgumentException("Operation " + operationName + " wasn't part of the load.");
+        }
+        return statistics;
+    }
+
+    public Collection<OperationStatistics> getOperationStatistics() {
+        return operationStatistics.values();
+    }
+
+    /**
+     * @return Number of executed operations of all types including failed ones.
+     */
+    public long getTotalOperations() {
+        return operationStatistics.values().stream().mapToLong(OperationStatistics::getCount).sum();
+    }
+
+    public long getErrors() {
+        return operationStatistics.values().stream().mapToLong(OperationStatistics::getErrors).sum();
+    }
+
+    /**
+     * @return Number of iterations which arrived in open model while the queue of iterations waiting for a free worker was full,
+     * such iterations weren't executed at all.
+     */
+    public long getDroppedArrivals() {
+        return droppedArrivals;
+    }
+
+    /**
+     * @return Number of iterations started in open model noticeably later than scheduled, usually as no worker was free.
+     */
+    public long getLateArrivals() {
+        return lateArrivals;
+    }
+
+    /**
+     * @return Average number of executed operations per second.
+     */
+    public double getThroughput() {
+        long durationInNanos = duration.toNanos();
+        return durationInNanos == 0 ? 0 : getTotalOperations() * 1_000_000_000d / durationInNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append(String.format("%d operations in %s (%.2f ops/s), %d errors", getTotalOperations(), duration, getThroughput(), getErrors()));
+        if (droppedArrivals > 0 || lateArrivals > 0) {
+            result.append(String.format(", %d dropped and %d late arrivals", droppedArrivals, lateArrivals));
+        }
+        operationStatistics.values().forEach(statistics -> result.append("\n  ").append(statistics));
+        return result.toString();
+    }
+}
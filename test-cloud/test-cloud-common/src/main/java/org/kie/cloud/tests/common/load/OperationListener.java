@@ -0,0 +1,32 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.tests.common.load;
+
+/**
+ * Listener notified about every operation executed by {@link LoadGenerator}.
+ * Listeners are invoked concurrently from load generator worker threads.
+ */
+@FunctionalInterface
+public interface OperationListener {
+
+    /**
+     * @param operationName Name of the executed operation.
+     * @param podName Name of the pod which served the operation, null if not known.
+     * @param latencyNanos Operation latency in nanoseconds.
+     * @param error Exception thrown by the operation, null if the operation succeeded.
+     */
+    void operationCompleted(String operationName, String podName, long latencyNanos, Throwable error);
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.tests.common.load;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency statistics of a single load generator operation.
+ */
+public class OperationStatistics implements OperationListener {
+
+    private final String operationName;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator minLatencyNanos = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0L);
+
+    public OperationStatistics(String operationName) {
+        this.operationName = operationName;
+    }
+
+    @Override
+    public void operationCompleted(String operationName, String podName, long latencyNanos, Throwable error) {
+        count.increment();
+        if (error != null) {
+            errors.increment();
+        }
+        totalLatencyNanos.add(latencyNanos);
+        minLatencyNanos.accumulate(latencyNanos);
+        maxLatencyNanos.accumulate(latencyNanos);
+    }
+
+    public String getOperationName() {
+        return operationName;
+    }
+
+    /**
+     * @return Number of executed operations including failed ones.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public Duration getMinLatency() {
+        return getCount() == 0 ? Duration.ZERO : Duration.ofNanos(minLatencyNanos.get());
+    }
+
+    public Duration getMaxLatency() {
+        return Duration.ofNanos(maxLatencyNanos.get());
+    }
+
+    public Duration getMeanLatency() {
+        long currentCount = getCount();
+        return currentCount == 0 ? Duration.ZERO : Duration.ofNanos(totalLatencyNanos.sum() / currentCount);
+    }
+
+    @Override
+    public String toString() {
+        return operationName + ": count=" + getCount() + ", errors=" + getErrors() + ", min=" + getMinLatency().toMillis() + "ms, mean="
+                + getMeanLatency().toMillis() + "ms, max=" + getMaxLatency().toMillis() + "ms";
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.tests.common.load;
+
+import java.util.function.Supplier;
+
+/**
+ * Operation executed by {@link LoadGenerator} which knows the pod serving it.
+ */
+@FunctionalInterface
+public interface ServedOperation {
+
+    /**
+     * Execute the operation. Operation is considered failed if it throws an exception.
+     *
+     * @return Lookup of the name of the pod which served the operation. Lookup is invoked once the operation latency is measured,
+     * so it may call the tested system as well, for example to read a process variable containing the host name.
+     */
+    Supplier<String> execute();
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.tests.common.pool;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Identifies scenarios which can be shared by tests. Two scenarios with equal fingerprint are created by the same builder type
+ * with the same environment variables and external deployments, so a test can use any of them.
+ * <p>
+ * Fingerprint is immutable, every customization returns a new fingerprint, so it can be safely kept in constants and used
+ * as key of idle scenarios.
+ */
+public final class ScenarioFingerprint {
+
+    private final String builderType;
+    private final SortedMap<String, String> envVariables;
+    private final SortedSet<String> externalDeployments;
+
+    private ScenarioFingerprint(String builderType, SortedMap<String, String> envVariables, SortedSet<String> externalDeployments) {
+        this.builderType = Objects.requireNonNull(builderType, "Builder type has to be defined.");
+        this.envVariables = Collections.unmodifiableSortedMap(envVariables);
+        this.externalDeployments = Collections.unmodifiableSortedSet(externalDeployments);
+    }
+
+    /**
+     * @param builderType Type of builder used to create the scenario, for example KieServerScenarioBuilder.class.
+     * @return Fingerprint of scenario created by the builder without any customization.
+     */
+    public static ScenarioFingerprint forBuilder(Class<?> builderType) {
+        return new ScenarioFingerprint(builderType.getName(), new TreeMap<>(), new TreeSet<>());
+    }
+
+    /**
+     * @param name Name of environment variable set by the builder.
+     * @param value Value of the environment variable.
+     * @return New fingerprint with the environment variable.
+     */
+    public ScenarioFingerprint withEnvVariable(String name, String value) {
+        return withEnvVariables(Collections.singletonMap(name, value));
+    }
+
+    /**
+     * @param envVariables Environment variables set by the builder.
+     * @return New fingerprint with the environment variables.
+     */
+    public ScenarioFingerprint withEnvVariables(Map<String, String> envVariables) {
+        SortedMap<String, String> newEnvVariables = new TreeMap<>(this.envVariables);
+        newEnvVariables.putAll(envVariables);
+        return new ScenarioFingerprint(builderType, newEnvVariables, new TreeSet<>(externalDeployments));
+    }
+
+    /**
+     * @param externalDeployment Identifier of external deployment added to the scenario, for example MAVEN_REPOSITORY.
+     * @return New fingerprint with the external deployment.
+     */
+    public ScenarioFingerprint withExternalDeployment(String externalDeployment) {
+        SortedSet<String> newExternalDeployments = new TreeSet<>(externalDeployments);
+        newExternalDeployments.add(externalDeployment);
+        return new ScenarioFingerprint(builderType, new TreeMap<>(envVariables), newExternalDeployments);
+    }
+
+    public String getBuilderType() {
+        return builderType;
+    }
+
+    public Map<String, String> getEnvVariables() {
+        return envVariables;
+    }
+
+    public SortedSet<String> getExternalDeployments() {
+        return externalDeployments;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ScenarioFingerprint that = (ScenarioFingerprint) o;
+        return builderType.equals(that.builderType) && envVariables.equals(that.envVariables) && externalDeployments.equals(that.externalDeployments);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(builderType, envVariables, externalDeployments);
+    }
+
+    @Override
+    public String toString() {
+        return builderType + envVariables + externalDeployments;
+    }
+}
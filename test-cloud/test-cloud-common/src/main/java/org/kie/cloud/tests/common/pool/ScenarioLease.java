@@ -0,0 +1,79 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.tests.common.pool;
+
+import org.kie.cloud.api.scenario.DeploymentScenario;
+
+/**
+ * Scenario leased from {@link ScenarioPool}. Closing the lease resets the scenario and returns it to the pool.
+ *
+ * @param <T> Type of the scenario.
+ */
+public class ScenarioLease<T extends DeploymentScenario<?>> implements AutoCloseable {
+
+    private final ScenarioPool pool;
+    private final ScenarioFingerprint fingerprint;
+    private final T scenario;
+    private final ScenarioResetHook<? super T> resetHook;
+    private final boolean reused;
+
+    private boolean closed = false;
+
+    ScenarioLease(ScenarioPool pool, ScenarioFingerprint fingerprint, T scenario, ScenarioResetHook<? super T> resetHook, boolean reused) {
+        this.pool = pool;
+        this.fingerprint = fingerprint;
+        this.scenario = scenario;
+        this.resetHook = resetHook;
+        this.reused = reused;
+    }
+
+    public T getScenario() {
+        return scenario;
+    }
+
+    public ScenarioFingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return True if the scenario was already used by another test, false if it was deployed for this lease.
+     */
+    public boolean isReused() {
+        return reused;
+    }
+
+    /**
+     * Undeploy the scenario instead of returning it to the pool, for example when the test left it in unknown state.
+     */
+    public synchronized void discard() {
+        if (!closed) {
+            closed = true;
+            pool.discard(scenario);
+        }
+    }
+
+    /**
+     * Reset the scenario and return it to the pool.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            pool.release(fingerprint, scenario, resetHook);
+        }
+    }
+}
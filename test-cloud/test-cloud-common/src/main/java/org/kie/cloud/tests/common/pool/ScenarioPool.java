@@ -0,0 +1,186 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.tests.common.pool;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.kie.cloud.api.deployment.constants.DeploymentConstants;
+import org.kie.cloud.api.scenario.DeploymentScenario;
+import org.kie.cloud.tests.common.ScenarioDeployer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of deployed scenarios shared by tests. Tests lease a scenario by its fingerprint, an idle scenario with the same
+ * fingerprint is reused if available, otherwise a new one is deployed. Once the lease is closed the scenario is reset and kept
+ * deployed for the next lease. Scenarios which fail to reset are undeployed.
+ * <p>
+ * At most the configured number of idle scenarios is kept deployed, the least recently used idle scenario is undeployed once
+ * the limit is exceeded. Pool with zero size doesn't keep any scenario, every lease deploys a new scenario and undeploys it
+ * once closed.
+ */
+public class ScenarioPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioPool.class);
+
+    private static ScenarioPool instance;
+
+    private final int maxIdleScenarios;
+    private final Consumer<DeploymentScenario<?>> deployer;
+    private final Consumer<DeploymentScenario<?>> undeployer;
+
+    // Ordered from the least recently used
+    private final LinkedList<IdleScenario> idleScenarios = new LinkedList<>();
+    private boolean closed = false;
+
+    public ScenarioPool(int maxIdleScenarios) {
+        this(maxIdleScenarios, ScenarioDeployer::deployScenario, ScenarioDeployer::undeployScenario);
+    }
+
+    ScenarioPool(int maxIdleScenarios, Consumer<DeploymentScenario<?>> deployer, Consumer<DeploymentScenario<?>> undeployer) {
+        if (maxIdleScenarios < 0) {
+            throw new IllegalArgumentException("Maximal number of idle scenarios can't be negative, was " + maxIdleScenarios);
+        }
+        this.maxIdleScenarios = maxIdleScenarios;
+        this.deployer = deployer;
+        this.undeployer = undeployer;
+    }
+
+    /**
+     * @return Pool shared by all tests of the JVM, sized by {@link DeploymentConstants#SCENARIO_POOL_SIZE}. Idle scenarios are
+     * undeployed on JVM shutdown.
+     */
+    public static synchronized ScenarioPool getInstance() {
+        if (instance == null) {
+            instance = new ScenarioPool(DeploymentConstants.getScenarioPoolSize());
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "scenario-pool-shutdown"));
+        }
+        return instance;
+    }
+
+    /**
+     * Lease deployed scenario with the fingerprint.
+     *
+     * @param fingerprint Fingerprint of the scenario created by the factory.
+     * @param scenarioFactory Creates new (not deployed) scenario in case there is no idle scenario with the fingerprint.
+     * @param resetHook Restores clean state of the scenario once the lease is closed.
+     * @return Lease of deployed scenario.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends DeploymentScenario<?>> ScenarioLease<T> lease(ScenarioFingerprint fingerprint, Supplier<T> scenarioFactory, ScenarioResetHook<? super T> resetHook) {
+        T idleScenario = (T) takeIdleScenario(fingerprint);
+        if (idleScenario != null) {
+            logger.info("Reusing deployed scenario {} with fingerprint {}.", idleScenario.getNamespace(), fingerprint);
+            return new ScenarioLease<>(this, fingerprint, idleScenario, resetHook, true);
+        }
+
+        T scenario = scenarioFactory.get();
+        deployer.accept(scenario);
+        return new ScenarioLease<>(this, fingerprint, scenario, resetHook, false);
+    }
+
+    /**
+     * @return Number of idle scenarios kept deployed.
+     */
+    public synchronized int getIdleScenarioCount() {
+        return idleScenarios.size();
+    }
+
+    /**
+     * Undeploy all idle scenarios. Scenarios released after closing are undeployed immediately.
+     */
+    @Override
+    public void close() {
+        List<DeploymentScenario<?>> toUndeploy = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            idleScenarios.forEach(idle -> toUndeploy.add(idle.scenario));
+            idleScenarios.clear();
+        }
+        toUndeploy.forEach(this::undeploy);
+    }
+
+    <T extends DeploymentScenario<?>> void release(ScenarioFingerprint fingerprint, T scenario, ScenarioResetHook<? super T> resetHook) {
+        if (maxIdleScenarios == 0) {
+            undeployer.accept(scenario);
+            return;
+        }
+
+        try {
+            resetHook.reset(scenario);
+        } catch (Exception e) {
+            logger.warn("Reset of scenario with fingerprint " + fingerprint + " failed, undeploying it.", e);
+            undeploy(scenario);
+            return;
+        }
+
+        DeploymentScenario<?> evicted = null;
+        synchronized (this) {
+            if (closed) {
+                evicted = scenario;
+            } else {
+                idleScenarios.addLast(new IdleScenario(fingerprint, scenario));
+                if (idleScenarios.size() > maxIdleScenarios) {
+                    evicted = idleScenarios.removeFirst().scenario;
+                }
+            }
+        }
+        if (evicted != null) {
+            undeploy(evicted);
+        }
+    }
+
+    void discard(DeploymentScenario<?> scenario) {
+        undeployer.accept(scenario);
+    }
+
+    private synchronized DeploymentScenario<?> takeIdleScenario(ScenarioFingerprint fingerprint) {
+        Iterator<IdleScenario> iterator = idleScenarios.descendingIterator();
+        while (iterator.hasNext()) {
+            IdleScenario idle = iterator.next();
+            if (idle.fingerprint.equals(fingerprint)) {
+                iterator.remove();
+                return idle.scenario;
+            }
+        }
+        return null;
+    }
+
+    private void undeploy(DeploymentScenario<?> scenario) {
+        try {
+            undeployer.accept(scenario);
+        } catch (Exception e) {
+            logger.error("Error while undeploying scenario " + scenario.getNamespace(), e);
+        }
+    }
+
+    private static class IdleScenario {
+
+        private final ScenarioFingerprint fingerprint;
+        private final DeploymentScenario<?> scenario;
+
+        private IdleScenario(ScenarioFingerprint fingerprint, DeploymentScenario<?> scenario) {
+            this.fingerprint = fingerprint;
+            this.scenario = scenario;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.tests.common.pool;
+
+/**
+ * Restores clean state of a deployed scenario, so it can be leased by another test.
+ *
+ * @param <T> Type of the scenario.
+ */
+@FunctionalInterface
+public interface ScenarioResetHook<T> {
+
+    /**
+     * @param scenario Scenario to be reset. Scenario is undeployed if the reset fails.
+     */
+    void reset(T scenario);
+
+    /**
+     * @param next Reset hook executed after this one.
+     * @return Reset hook executing this hook followed by the next one.
+     */
+    default ScenarioResetHook<T> andThen(ScenarioResetHook<? super T> next) {
+        return scenario -> {
+            reset(scenario);
+            next.reset(scenario);
+        };
+    }
+
+    /**
+     * @return Reset hook doing nothing.
+     */
+    static <T> ScenarioResetHook<T> none() {
+        return scenario -> {};
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.tests.common.pool;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.kie.cloud.api.deployment.KieServerDeployment;
+import org.kie.cloud.api.scenario.KieDeploymentScenario;
+import org.kie.cloud.common.provider.KieServerClientProvider;
+import org.kie.cloud.common.provider.KieServerControllerClientProvider;
+import org.kie.server.api.model.KieContainerResource;
+import org.kie.server.api.model.KieServiceResponse.ResponseType;
+import org.kie.server.api.model.ServiceResponse;
+import org.kie.server.client.KieServicesClient;
+import org.kie.server.controller.api.model.spec.ContainerSpec;
+import org.kie.server.controller.api.model.spec.ServerTemplate;
+import org.kie.server.controller.client.KieServerControllerClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reset hooks restoring clean state of Kie deployment scenarios. Test specific state, for example data in database schema,
+ * has to be purged by a custom hook combined with these using {@link ScenarioResetHook#andThen(ScenarioResetHook)}.
+ */
+public class ScenarioResetHooks {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioResetHooks.class);
+
+    private ScenarioResetHooks() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @return Reset hook removing container specs from controllers and disposing all Kie server containers.
+     */
+    public static ScenarioResetHook<KieDeploymentScenario<?>> clearKieDeployments() {
+        return ScenarioResetHooks.clearControllerContainerSpecs().andThen(disposeKieServerContainers());
+    }
+
+    /**
+     * Container specs are removed first, otherwise managed Kie servers would get disposed containers back from their controller.
+     *
+     * @return Reset hook removing container specs from all server templates of Workbench and controller deployments.
+     */
+    public static ScenarioResetHook<KieDeploymentScenario<?>> clearControllerContainerSpecs() {
+        return scenario -> {
+            scenario.getWorkbenchDeployments().forEach(workbench -> clearContainerSpecs(KieServerControllerClientProvider.getKieServerControllerClient(workbench)));
+            scenario.getControllerDeployments().forEach(controller -> clearContainerSpecs(KieServerControllerClientProvider.getKieServerControllerClient(controller)));
+        };
+    }
+
+    /**
+     * @return Reset hook disposing all containers of Kie server deployments.
+     */
+    public static ScenarioResetHook<KieDeploymentScenario<?>> disposeKieServerContainers() {
+        return scenario -> scenario.getKieServerDeployments().forEach(ScenarioResetHooks::disposeContainers);
+    }
+
+    private static void clearContainerSpecs(KieServerControllerClient controllerClient) {
+        try (KieServerControllerClient client = controllerClient) {
+            ServerTemplate[] serverTemplates = client.listServerTemplates().getServerTemplates();
+            if (serverTemplates == null) {
+                return;
+            }
+            for (ServerTemplate serverTemplate : serverTemplates) {
+                for (ContainerSpec containerSpec : serverTemplate.getContainersSpec()) {
+                    logger.debug("Deleting container spec {} from server template {}.", containerSpec.getId(), serverTemplate.getId());
+                    client.deleteContainerSpec(serverTemplate.getId(), containerSpec.getId());
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error while closing controller client", e);
+        }
+    }
+
+    private static void disposeContainers(KieServerDeployment kieServerDeployment) {
+        KieServicesClient kieServerClient = KieServerClientProvider.getCachedKieServerClient(kieServerDeployment);
+        List<KieContainerResource> containers = kieServerClient.listContainers().getResult().getContainers();
+        for (KieContainerResource container : containers) {
+            logger.debug("Disposing container {}.", container.getContainerId());
+            ServiceResponse<Void> response = kieServerClient.disposeContainer(container.getContainerId());
+            if (response.getType() != ResponseType.SUCCESS) {
+                throw new RuntimeException("Container " + container.getContainerId() + " wasn't disposed: " + response.getMsg());
+            }
+        }
+    }
+}
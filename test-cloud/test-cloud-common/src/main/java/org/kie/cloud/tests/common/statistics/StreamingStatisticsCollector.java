@@ -0,0 +1,178 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.tests.common.statistics;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Gathers statistics from paginated queries, for example number of process instances started on every Kie server pod.
+ * Pages are counted as soon as they are fetched and are not retained, so the memory footprint doesn't depend on number of
+ * queried items. Independent queries, like queries for different pods, are executed in parallel.
+ * <p>
+ * Clients, like Kie server clients, aren't generally safe for concurrent use, so every worker thread fetches pages using its own
+ * client created by the client factory.
+ *
+ * @param <C> Type of client used to fetch pages.
+ */
+public class StreamingStatisticsCollector<C> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingStatisticsCollector.class);
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final int pageSize;
+    private final ExecutorService executorService;
+    private final ThreadLocal<C> workerClient;
+
+    /**
+     * @param pageSize Number of items fetched by one query.
+     * @param parallelism Maximal number of queries executed in parallel.
+     * @param clientFactory Creates client for a worker thread, invoked at most once per worker.
+     */
+    public StreamingStatisticsCollector(int pageSize, int parallelism, Supplier<C> clientFactory) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1, was " + pageSize);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, was " + parallelism);
+        }
+        this.pageSize = pageSize;
+        this.workerClient = ThreadLocal.withInitial(clientFactory);
+        this.executorService = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "statistics-collector-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Count all items returned by the query. Pages are fetched until a page with less items than page size is returned.
+     *
+     * @param query Paginated query.
+     * @return Future completed with number of items.
+     */
+    public CompletableFuture<Long> countAsync(PageQuery<C> query) {
+        return countPagesAsync(query, new LongAdder());
+    }
+
+    /**
+     * @param query Paginated query.
+     * @return Number of items returned by the query.
+     */
+    public long count(PageQuery<C> query) {
+        return join(countAsync(query));
+    }
+
+    /**
+     * Count items returned by the query for every key, queries for different keys are executed in parallel.
+     *
+     * @param keys Keys, for example pod names.
+     * @param queryProvider Provides paginated query for a key.
+     * @return Future completed with number of items per key, in order of the keys.
+     */
+    public <K> CompletableFuture<Map<K, Long>> countPerKeyAsync(Collection<K> keys, Function<K, PageQuery<C>> queryProvider) {
+        Map<K, LongAdder> counters = new LinkedHashMap<>();
+        keys.forEach(key -> counters.put(key, new LongAdder()));
+
+        CompletableFuture<?>[] futures = counters.entrySet().stream()
+                                                 .map(counter -> countPagesAsync(queryProvider.apply(counter.getKey()), counter.getValue()))
+                                                 .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures).thenApply(done -> {
+            Map<K, Long> counts = new LinkedHashMap<>();
+            counters.forEach((key, counter) -> counts.put(key, counter.sum()));
+            return counts;
+        });
+    }
+
+    /**
+     * @param keys Keys, for example pod names.
+     * @param queryProvider Provides paginated query for a key.
+     * @return Number of items per key, in order of the keys.
+     */
+    public <K> Map<K, Long> countPerKey(Collection<K> keys, Function<K, PageQuery<C>> queryProvider) {
+        return join(countPerKeyAsync(keys, queryProvider));
+    }
+
+    /**
+     * Wait for the future and rethrow its failure cause.
+     *
+     * @param future Future returned by this collector.
+     * @return Result of the future.
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdownNow();
+    }
+
+    private CompletableFuture<Long> countPagesAsync(PageQuery<C> query, LongAdder counter) {
+        return CompletableFuture.supplyAsync(() -> countPages(query, counter), executorService);
+    }
+
+    private long countPages(PageQuery<C> query, LongAdder counter) {
+        int page = 0;
+        int pageItems;
+        do {
+            pageItems = query.fetch(workerClient.get(), page, pageSize).size();
+            counter.add(pageItems);
+            page++;
+        } while (pageItems >= pageSize);
+        logger.debug("Counted {} items in {} pages.", counter.sum(), page);
+        return counter.sum();
+    }
+
+    /**
+     * Query returning one page of items.
+     *
+     * @param <C> Type of client used to fetch pages.
+     */
+    @FunctionalInterface
+    public interface PageQuery<C> {
+
+        /**
+         * @param client Client of the worker thread executing the query.
+         * @param page Page number starting with 0.
+         * @param pageSize Maximal number of returned items.
+         * @return Items of the page.
+         */
+        List<?> fetch(C client, int page, int pageSize);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.tests.common.load;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class LatencyRecorderTest {
+
+    // Window which is never closed by the scheduler during test, windows are closed by summaries
+    private static final Duration LONG_WINDOW = Duration.ofHours(1);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void summaryIncludesAllRecordedValues() {
+        try (LatencyRecorder recorder = new LatencyRecorder(LONG_WINDOW)) {
+            recorder.recordLatency("startProcess", "pod-1", millis(10));
+            recorder.recordLatency("startProcess", "pod-2", millis(20));
+            recorder.recordLatency("startProcess", "pod-2", millis(30));
+
+            LatencySummary summary = recorder.getSummary("startProcess");
+            assertThat(summary.getCount()).isEqualTo(3);
+            assertThat(summary.getMax().toMillis()).isEqualTo(30);
+
+            LatencySummary podSummary = recorder.getSummary("startProcess", "pod-2");
+            assertThat(podSummary.getPodName()).isEqualTo("pod-2");
+            assertThat(podSummary.getCount()).isEqualTo(2);
+            assertThat(podSummary.getP50().toMillis()).isEqualTo(20);
+        }
+    }
+
+    @Test
+    public void summariesListOperationsBeforePods() {
+        try (LatencyRecorder recorder = new LatencyRecorder(LONG_WINDOW)) {
+            recorder.recordLatency("startProcess", "pod-1", millis(10));
+            recorder.recordLatency("abortProcess", null, millis(10));
+
+            assertThat(recorder.getSummaries()).extracting(summary -> summary.getOperationName() + "@" + summary.getPodName())
+                                               .containsExactly("abortProcess@null", "startProcess@null", "startProcess@pod-1");
+        }
+    }
+
+    @Test
+    public void everyWindowIsSummarizedSeparately() {
+        try (LatencyRecorder recorder = new LatencyRecorder(LONG_WINDOW)) {
+            recorder.recordLatency("startProcess", null, millis(10));
+            recorder.recordLatency("startProcess", null, millis(10));
+            recorder.getSummary("startProcess");
+
+            // Window without recorded values is omitted
+            recorder.getSummary("startProcess");
+
+            recorder.recordLatency("startProcess", null, millis(50));
+            LatencySummary total = recorder.getSummary("startProcess");
+
+            assertThat(recorder.getWindowSummaries()).extracting(LatencySummary::getCount).containsExactly(2L, 1L);
+            assertThat(recorder.getWindowSummaries().get(1).getMax().toMillis()).isEqualTo(50);
+            assertThat(total.getCount()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void windowIsClosedPeriodically() throws InterruptedException {
+        try (LatencyRecorder recorder = new LatencyRecorder(Duration.ofMillis(20))) {
+            recorder.recordLatency("startProcess", null, millis(10));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (recorder.getWindowSummaries().isEmpty() && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+
+            assertThat(recorder.getWindowSummaries()).extracting(LatencySummary::getCount).containsExactly(1L);
+        }
+    }
+
+    @Test
+    public void operationsCompletedByLoadGeneratorAreRecorded() {
+        try (LatencyRecorder recorder = new LatencyRecorder(LONG_WINDOW)) {
+            recorder.operationCompleted("startProcess", "pod-1", millis(10), null);
+            recorder.operationCompleted("startProcess", "pod-2", millis(20), null);
+            recorder.operationCompleted("startProcess", null, millis(30), new IllegalStateException());
+
+            assertThat(recorder.getSummary("startProcess").getCount()).isEqualTo(2);
+            assertThat(recorder.getSummary("startProcess", "pod-1").getCount()).isEqualTo(1);
+            assertThat(recorder.getSummary("startProcess", "pod-2").getCount()).isEqualTo(1);
+            assertThat(recorder.getSummary(LatencyRecorder.getFailedOperationName("startProcess")).getCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void latencyOfFailedCallIsRecordedSeparately() {
+        try (LatencyRecorder recorder = new LatencyRecorder(LONG_WINDOW)) {
+            Runnable failingCall = recorder.wrap("startProcess", () -> {
+                throw new IllegalStateException("Call failed");
+            });
+
+            assertThatThrownBy(failingCall::run).isInstanceOf(IllegalStateException.class);
+            assertThat(recorder.getSummary("startProcess-failed").getCount()).isEqualTo(1);
+            assertThatThrownBy(() -> recorder.getSummary("startProcess")).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    public void summaryOfUnknownOperationIsRejected() {
+        try (LatencyRecorder recorder = new LatencyRecorder(LONG_WINDOW)) {
+            assertThatThrownBy(() -> recorder.getSummary("startProcess")).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    public void intervalHistogramsAreWrittenToHdrLog() throws Exception {
+        File hdrLogFile = folder.newFile("latency.hlog");
+        try (LatencyRecorder recorder = new LatencyRecorder(LONG_WINDOW, hdrLogFile)) {
+            recorder.recordLatency("startProcess", "pod 1", millis(10));
+            recorder.recordLatency("startProcess", "pod 1", millis(20));
+            recorder.getSummary("startProcess");
+
+            recorder.recordLatency("abortProcess", null, millis(30));
+        }
+
+        List<EncodableHistogram> histograms = new ArrayList<>();
+        HistogramLogReader logReader = new HistogramLogReader(hdrLogFile);
+        while (logReader.hasNext()) {
+            histograms.add(logReader.nextIntervalHistogram());
+        }
+
+        // Tags must not contain whitespaces
+        assertThat(histograms).extracting(EncodableHistogram::getTag).containsExactly("startProcess@pod_1", "abortProcess");
+        assertThat(histograms.get(0).getMaxValueAsDouble()).isCloseTo(millis(20), within(millis(20) * 0.001));
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
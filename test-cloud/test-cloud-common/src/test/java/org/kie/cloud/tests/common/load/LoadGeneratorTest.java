@@ -0,0 +1,201 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.tests.common.load;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LoadGeneratorTest {
+
+    private static final Duration LONG_DURATION = Duration.ofMinutes(1);
+
+    private final List<String> executedOperations = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void closedModelExecutesOperationsInOrderUntilMaxIterations() {
+        LoadResult result = LoadGenerator.closedModel(1)
+                                         .withMaxIterations(3)
+                                         .addOperation("first", () -> executedOperations.add("first"))
+                                         .addOperation("second", () -> executedOperations.add("second"))
+                                         .run();
+
+        assertThat(executedOperations).containsExactly("first", "second", "first", "second", "first", "second");
+        assertThat(result.getOperationStatistics("first").getCount()).isEqualTo(3);
+        assertThat(result.getOperationStatistics("second").getCount()).isEqualTo(3);
+        assertThat(result.getTotalOperations()).isEqualTo(6);
+        assertThat(result.getErrors()).isZero();
+    }
+
+    @Test
+    public void closedModelSharesMaxIterationsAmongUsers() {
+        LoadResult result = LoadGenerator.closedModel(4)
+                                         .withDuration(LONG_DURATION)
+                                         .withMaxIterations(100)
+                                         .addOperation("operation", () -> executedOperations.add("operation"))
+                                         .run();
+
+        assertThat(executedOperations).hasSize(100);
+        assertThat(result.getOperationStatistics("operation").getCount()).isEqualTo(100);
+    }
+
+    @Test
+    public void failuresAreCountedAndLoadContinues() {
+        AtomicInteger calls = new AtomicInteger();
+        List<Throwable> reportedErrors = new CopyOnWriteArrayList<>();
+
+        LoadResult result = LoadGenerator.closedModel(1)
+                                         .withMaxIterations(10)
+                                         .addOperation("operation", () -> failEverySecondCall(calls))
+                                         .addListener((operationName, podName, latencyNanos, error) -> {
+                                             if (error != null) {
+                                                 reportedErrors.add(error);
+                                             }
+                                         })
+                                         .run();
+
+        assertThat(result.getOperationStatistics("operation").getCount()).isEqualTo(10);
+        assertThat(result.getErrors()).isEqualTo(5);
+        assertThat(reportedErrors).hasSize(5).allMatch(error -> error instanceof IllegalStateException);
+    }
+
+    @Test
+    public void podServingOperationIsPassedToListeners() {
+        List<String> servingPods = new CopyOnWriteArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        LoadGenerator.closedModel(1)
+                     .withMaxIterations(3)
+                     .addServedOperation("served", () -> {
+                         int call = calls.incrementAndGet();
+                         return () -> "pod-" + call;
+                     })
+                     .addServedOperation("unknown pod", () -> () -> {
+                         throw new IllegalStateException("Pod lookup failed");
+                     })
+                     .addOperation("not served", () -> {})
+                     .addListener((operationName, podName, latencyNanos, error) -> servingPods.add(operationName + "@" + podName))
+                     .run();
+
+        assertThat(servingPods).containsExactly("served@pod-1", "unknown pod@null", "not served@null",
+                                                "served@pod-2", "unknown pod@null", "not served@null",
+                                                "served@pod-3", "unknown pod@null", "not served@null");
+    }
+
+    @Test
+    public void closedModelStopsAfterFirstFailure() {
+        AtomicInteger calls = new AtomicInteger();
+
+        LoadResult result = LoadGenerator.closedModel(1)
+                                         .withMaxIterations(10)
+                                         .withStopOnFailure()
+                                         .addOperation("operation", () -> failEverySecondCall(calls))
+                                         .addOperation("skipped after failure", () -> executedOperations.add("next"))
+                                         .run();
+
+        assertThat(result.getOperationStatistics("operation").getCount()).isEqualTo(2);
+        assertThat(result.getErrors()).isEqualTo(1);
+        // Remaining operation of the failed iteration is skipped
+        assertThat(executedOperations).containsExactly("next");
+    }
+
+    @Test
+    public void openModelStopsAfterFirstFailure() {
+        AtomicInteger calls = new AtomicInteger();
+
+        LoadResult result = LoadGenerator.openModel(1000)
+                                         .withMaxConcurrency(1)
+                                         .withMaxIterations(1000)
+                                         .withStopOnFailure()
+                                         .addOperation("operation", () -> failEverySecondCall(calls))
+                                         .run();
+
+        // Iterations queued for the only worker are dropped once the operation fails
+        assertThat(result.getOperationStatistics("operation").getCount()).isEqualTo(2);
+        assertThat(result.getErrors()).isEqualTo(1);
+    }
+
+    @Test
+    public void openModelLatencyIncludesWaitingForWorker() {
+        List<Long> latencies = new CopyOnWriteArrayList<>();
+
+        LoadResult result = LoadGenerator.openModel(1000)
+                                         .withMaxConcurrency(1)
+                                         .withMaxIterations(5)
+                                         .addOperation("operation", () -> sleep(10))
+                                         .addListener((operationName, podName, latencyNanos, error) -> latencies.add(latencyNanos))
+                                         .run();
+
+        assertThat(result.getOperationStatistics("operation").getCount()).isEqualTo(5);
+        // Last iteration is scheduled 4 ms after start, but waits for 4 previous iterations taking 10 ms each
+        assertThat(latencies.get(4)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(40));
+        assertThat(result.getOperationStatistics("operation").getMaxLatency()).isGreaterThanOrEqualTo(Duration.ofMillis(40));
+        // Third and later iterations wait at least 18 ms for the worker
+        assertThat(result.getLateArrivals()).isGreaterThanOrEqualTo(3);
+        assertThat(result.getDroppedArrivals()).isZero();
+    }
+
+    @Test
+    public void openModelDropsArrivalsExceedingQueue() {
+        LoadResult result = LoadGenerator.openModel(1000)
+                                         .withMaxConcurrency(1)
+                                         .withMaxQueuedArrivals(1)
+                                         .withMaxIterations(10)
+                                         .addOperation("operation", () -> sleep(100))
+                                         .run();
+
+        // First iteration occupies the only worker and the second one waits in the queue until all iterations arrive
+        assertThat(result.getOperationStatistics("operation").getCount()).isEqualTo(2);
+        assertThat(result.getDroppedArrivals()).isEqualTo(8);
+        assertThat(result.getLateArrivals()).isEqualTo(1);
+    }
+
+    @Test
+    public void loadWithoutLimitIsRejected() {
+        LoadGenerator loadGenerator = LoadGenerator.closedModel(1).addOperation("operation", () -> {});
+
+        assertThatThrownBy(loadGenerator::run).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void loadWithoutOperationIsRejected() {
+        LoadGenerator loadGenerator = LoadGenerator.openModel(1).withMaxIterations(1);
+
+        assertThatThrownBy(loadGenerator::run).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static void failEverySecondCall(AtomicInteger calls) {
+        if (calls.incrementAndGet() % 2 == 0) {
+            throw new IllegalStateException("Operation failed");
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.tests.common.pool;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.kie.cloud.api.deployment.Deployment;
+import org.kie.cloud.api.deployment.MavenRepositoryDeployment;
+import org.kie.cloud.api.scenario.DeploymentScenario;
+import org.kie.cloud.api.scenario.DeploymentScenarioListener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScenarioPoolTest {
+
+    private static final ScenarioFingerprint FINGERPRINT = ScenarioFingerprint.forBuilder(String.class).withEnvVariable("KEY", "value");
+
+    private List<TestScenario> deployed = new ArrayList<>();
+    private List<TestScenario> undeployed = new ArrayList<>();
+    private List<TestScenario> reset = new ArrayList<>();
+
+    @Test
+    public void fingerprintIgnoresOrderOfCustomizations() {
+        ScenarioFingerprint first = ScenarioFingerprint.forBuilder(String.class)
+                                                       .withEnvVariable("A", "1")
+                                                       .withEnvVariable("B", "2")
+                                                       .withExternalDeployment("MAVEN_REPOSITORY")
+                                                       .withExternalDeployment("LDAP");
+        ScenarioFingerprint second = ScenarioFingerprint.forBuilder(String.class)
+                                                        .withExternalDeployment("LDAP")
+                                                        .withEnvVariable("B", "2")
+                                                        .withExternalDeployment("MAVEN_REPOSITORY")
+                                                        .withEnvVariable("A", "1");
+
+        assertThat(first).isEqualTo(second).hasSameHashCodeAs(second);
+        assertThat(first).isNotEqualTo(ScenarioFingerprint.forBuilder(Integer.class).withEnvVariable("A", "1").withEnvVariable("B", "2"));
+        assertThat(first).isNotEqualTo(ScenarioFingerprint.forBuilder(String.class).withEnvVariable("A", "1").withEnvVariable("B", "3"));
+    }
+
+    @Test
+    public void customizedFingerprintLeavesOriginalUnchanged() {
+        ScenarioFingerprint customized = FINGERPRINT.withEnvVariable("OTHER", "value").withExternalDeployment("LDAP");
+
+        assertThat(FINGERPRINT.getEnvVariables()).containsOnlyKeys("KEY");
+        assertThat(FINGERPRINT.getExternalDeployments()).isEmpty();
+        assertThat(customized.getEnvVariables()).containsOnlyKeys("KEY", "OTHER");
+        assertThat(customized.getExternalDeployments()).containsExactly("LDAP");
+        assertThat(customized).isNotEqualTo(FINGERPRINT);
+    }
+
+    @Test
+    public void releasedScenarioIsResetAndReused() {
+        ScenarioPool pool = createPool(1);
+
+        ScenarioLease<TestScenario> firstLease = pool.lease(FINGERPRINT, TestScenario::new, reset::add);
+        firstLease.close();
+        ScenarioLease<TestScenario> secondLease = pool.lease(FINGERPRINT, TestScenario::new, reset::add);
+
+        assertThat(firstLease.isReused()).isFalse();
+        assertThat(secondLease.isReused()).isTrue();
+        assertThat(secondLease.getScenario()).isSameAs(firstLease.getScenario());
+        assertThat(deployed).hasSize(1);
+        assertThat(reset).containsExactly(firstLease.getScenario());
+        assertThat(undeployed).isEmpty();
+    }
+
+    @Test
+    public void scenarioWithDifferentFingerprintIsNotReused() {
+        ScenarioPool pool = createPool(2);
+
+        pool.lease(FINGERPRINT, TestScenario::new, ScenarioResetHook.none()).close();
+        ScenarioLease<TestScenario> lease = pool.lease(ScenarioFingerprint.forBuilder(String.class), TestScenario::new, ScenarioResetHook.none());
+
+        assertThat(lease.isReused()).isFalse();
+        assertThat(deployed).hasSize(2);
+        assertThat(pool.getIdleScenarioCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void leastRecentlyUsedScenarioIsUndeployedWhenPoolIsFull() {
+        ScenarioPool pool = createPool(1);
+        ScenarioLease<TestScenario> firstLease = pool.lease(FINGERPRINT, TestScenario::new, ScenarioResetHook.none());
+        ScenarioLease<TestScenario> secondLease = pool.lease(FINGERPRINT, TestScenario::new, ScenarioResetHook.none());
+
+        firstLease.close();
+        secondLease.close();
+
+        assertThat(undeployed).containsExactly(firstLease.getScenario());
+        assertThat(pool.getIdleScenarioCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void scenarioFailingResetIsUndeployed() {
+        ScenarioPool pool = createPool(1);
+
+        ScenarioLease<TestScenario> lease = pool.lease(FINGERPRINT, TestScenario::new, scenario -> {
+            throw new IllegalStateException("Reset failed");
+        });
+        lease.close();
+
+        assertThat(undeployed).containsExactly(lease.getScenario());
+        assertThat(pool.getIdleScenarioCount()).isZero();
+    }
+
+    @Test
+    public void discardedScenarioIsUndeployed() {
+        ScenarioPool pool = createPool(1);
+
+        ScenarioLease<TestScenario> lease = pool.lease(FINGERPRINT, TestScenario::new, reset::add);
+        lease.discard();
+        lease.close();
+
+        assertThat(undeployed).containsExactly(lease.getScenario());
+        assertThat(reset).isEmpty();
+        assertThat(pool.getIdleScenarioCount()).isZero();
+    }
+
+    @Test
+    public void poolWithZeroSizeUndeploysEveryScenario() {
+        ScenarioPool pool = createPool(0);
+
+        ScenarioLease<TestScenario> lease = pool.lease(FINGERPRINT, TestScenario::new, reset::add);
+        lease.close();
+
+        assertThat(undeployed).containsExactly(lease.getScenario());
+        assertThat(reset).isEmpty();
+    }
+
+    @Test
+    public void closedPoolUndeploysIdleScenarios() {
+        ScenarioPool pool = createPool(2);
+        ScenarioLease<TestScenario> idleLease = pool.lease(FINGERPRINT, TestScenario::new, ScenarioResetHook.none());
+        ScenarioLease<TestScenario> activeLease = pool.lease(FINGERPRINT, TestScenario::new, ScenarioResetHook.none());
+        idleLease.close();
+
+        pool.close();
+        assertThat(undeployed).containsExactly(idleLease.getScenario());
+
+        activeLease.close();
+        assertThat(undeployed).containsExactly(idleLease.getScenario(), activeLease.getScenario());
+    }
+
+    private ScenarioPool createPool(int size) {
+        return new ScenarioPool(size, scenario -> deployed.add((TestScenario) scenario), scenario -> undeployed.add((TestScenario) scenario));
+    }
+
+    private static class TestScenario implements DeploymentScenario<TestScenario> {
+
+        @Override
+        public String getNamespace() {
+            return "test";
+        }
+
+        @Override
+        public String getLogFolderName() {
+            return "test";
+        }
+
+        @Override
+        public void setLogFolderName(String logFolderName) {
+        }
+
+        @Override
+        public void deploy() {
+        }
+
+        @Override
+        public void undeploy() {
+        }
+
+        @Override
+        public List<Deployment> getDeployments() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void addDeploymentScenarioListener(DeploymentScenarioListener<TestScenario> deploymentScenarioListener) {
+        }
+
+        @Override
+        public MavenRepositoryDeployment getMavenRepositoryDeployment() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.tests.common.statistics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+public class StreamingStatisticsCollectorTest {
+
+    private final List<StubQueryClient> clients = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void allPagesAreCounted() {
+        try (StreamingStatisticsCollector<StubQueryClient> collector = new StreamingStatisticsCollector<>(10, 1, this::createClient)) {
+            long count = collector.count((client, page, pageSize) -> client.fetch(25, page, pageSize));
+
+            assertThat(count).isEqualTo(25);
+            assertThat(clients).hasSize(1);
+            assertThat(clients.get(0).fetchedPages).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void emptyPageIsFetchedIfLastPageIsFull() {
+        try (StreamingStatisticsCollector<StubQueryClient> collector = new StreamingStatisticsCollector<>(10, 1, this::createClient)) {
+            long count = collector.count((client, page, pageSize) -> client.fetch(20, page, pageSize));
+
+            assertThat(count).isEqualTo(20);
+            assertThat(clients.get(0).fetchedPages).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void everyKeyIsCountedSeparately() {
+        try (StreamingStatisticsCollector<StubQueryClient> collector = new StreamingStatisticsCollector<>(10, 2, this::createClient)) {
+            Map<String, Integer> itemsPerPod = new LinkedHashMap<>();
+            itemsPerPod.put("pod-1", 5);
+            itemsPerPod.put("pod-2", 0);
+            itemsPerPod.put("pod-3", 42);
+
+            Map<String, Long> counts = collector.countPerKey(itemsPerPod.keySet(),
+                                                             pod -> (client, page, pageSize) -> client.fetch(itemsPerPod.get(pod), page, pageSize));
+
+            assertThat(counts).containsExactly(entry("pod-1", 5L), entry("pod-2", 0L), entry("pod-3", 42L));
+        }
+    }
+
+    @Test
+    public void clientIsNotSharedAmongParallelQueries() {
+        List<String> pods = Arrays.asList("pod-1", "pod-2", "pod-3", "pod-4", "pod-5", "pod-6", "pod-7", "pod-8");
+        try (StreamingStatisticsCollector<StubQueryClient> collector = new StreamingStatisticsCollector<>(10, 4, this::createClient)) {
+            Map<String, Long> counts = collector.countPerKey(pods, pod -> (client, page, pageSize) -> client.fetchSlowly(35, page, pageSize));
+
+            assertThat(counts.values()).containsOnly(35L);
+        }
+
+        assertThat(clients).hasSize(4);
+        assertThat(clients).allMatch(client -> !client.usedConcurrently.get());
+        assertThat(clients.stream().mapToInt(client -> client.fetchedPages).sum()).isEqualTo(pods.size() * 4);
+    }
+
+    @Test
+    public void queryFailureIsRethrown() {
+        try (StreamingStatisticsCollector<StubQueryClient> collector = new StreamingStatisticsCollector<>(10, 2, this::createClient)) {
+            assertThatThrownBy(() -> collector.countPerKey(Collections.singletonList("pod-1"), pod -> (client, page, pageSize) -> {
+                throw new IllegalStateException("Query failed");
+            })).isInstanceOf(IllegalStateException.class).hasMessage("Query failed");
+        }
+    }
+
+    @Test
+    public void invalidConfigurationIsRejected() {
+        assertThatThrownBy(() -> new StreamingStatisticsCollector<>(0, 1, this::createClient)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new StreamingStatisticsCollector<>(1, 0, this::createClient)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private StubQueryClient createClient() {
+        StubQueryClient client = new StubQueryClient();
+        clients.add(client);
+        return client;
+    }
+
+    /**
+     * Client returning pages of requested number of items, detects concurrent use.
+     */
+    private static class StubQueryClient {
+
+        private final AtomicInteger activeCalls = new AtomicInteger();
+        private final AtomicBoolean usedConcurrently = new AtomicBoolean();
+        private volatile int fetchedPages;
+
+        private List<Integer> fetch(int totalItems, int page, int pageSize) {
+            return fetch(totalItems, page, pageSize, 0);
+        }
+
+        private List<Integer> fetchSlowly(int totalItems, int page, int pageSize) {
+            return fetch(totalItems, page, pageSize, 5);
+        }
+
+        private List<Integer> fetch(int totalItems, int page, int pageSize, long delayMillis) {
+            if (activeCalls.incrementAndGet() > 1) {
+                usedConcurrently.set(true);
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(delayMillis);
+                fetchedPages++;
+                int pageItems = Math.max(0, Math.min(pageSize, totalItems - page * pageSize));
+                return Collections.nCopies(pageItems, page);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } finally {
+                activeCalls.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.integrationtests.results;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares performance result with a baseline result of the same scenario and parameters. Result is considered a regression
+ * if its throughput drops or p99 latency of any operation rises by more than the tolerance.
+ */
+public class BaselineComparator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BaselineComparator.class);
+
+    private final double tolerance;
+
+    /**
+     * @param tolerance Allowed relative difference from baseline, for example 0.1 for 10 %.
+     */
+    public BaselineComparator(double tolerance) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("Tolerance must not be negative, was " + tolerance);
+        }
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * @param baselineFile JSON lines file with baseline results, see {@link JsonLinesResultSink}.
+     * @param result Result to compare.
+     * @return Description of found regressions, empty if there is no regression or no matching baseline.
+     */
+    public List<String> compareWithBaseline(Path baselineFile, PerfResult result) throws IOException {
+        if (!Files.exists(baselineFile)) {
+            logger.warn("Baseline file {} doesn't exist, skipping baseline comparison.", baselineFile);
+            return new ArrayList<>();
+        }
+        Optional<PerfResult> baseline = findBaseline(JsonLinesResultSink.readResults(baselineFile), result);
+        if (!baseline.isPresent()) {
+            logger.warn("No baseline for scenario {} with parameters {} found in {}, skipping baseline comparison.", result.getScenario(),
+                        result.getParameters(), baselineFile);
+            return new ArrayList<>();
+        }
+        logger.info("Comparing result with baseline from {}.", baseline.get().getTimestamp());
+        return compare(baseline.get(), result);
+    }
+
+    /**
+     * @param baselineResults Candidate baseline results.
+     * @param result Result to find baseline for.
+     * @return Latest result of the same scenario with the same parameters.
+     */
+    public Optional<PerfResult> findBaseline(List<PerfResult> baselineResults, PerfResult result) {
+        return baselineResults.stream()
+                              .filter(baseline -> baseline.getScenario().equals(result.getScenario()))
+                              .filter(baseline -> baseline.getParameters().equals(result.getParameters()))
+                              .reduce((first, second) -> second);
+    }
+
+    /**
+     * @param baseline Baseline result.
+     * @param result Result to compare.
+     * @return Description of found regressions, empty if there is no regression.
+     */
+    public List<String> compare(PerfResult baseline, PerfResult result) {
+        List<String> regressions = new ArrayList<>();
+        if (result.getThroughput() < baseline.getThroughput() * (1 - tolerance)) {
+            regressions.add(String.format("Throughput dropped from %.2f to %.2f operations per second.", baseline.getThroughput(), result.getThroughput()));
+        }
+        for (Entry<String, LatencyPercentiles> baselineLatency : baseline.getLatencies().entrySet()) {
+            LatencyPercentiles latency = result.getLatencies().get(baselineLatency.getKey());
+            if (latency != null && latency.getP99() > baselineLatency.getValue().getP99() * (1 + tolerance)) {
+                regressions.add(String.format("p99 latency of %s rose from %.3f ms to %.3f ms.", baselineLatency.getKey(),
+                                              baselineLatency.getValue().getP99(), latency.getP99()));
+            }
+        }
+        return regressions;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.integrationtests.results;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BaselineComparatorTest {
+
+    private static final String SCENARIO = "EJBTimers";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final BaselineComparator comparator = new BaselineComparator(0.1);
+
+    @Test
+    public void resultWithinToleranceIsNoRegression() {
+        PerfResult baseline = result(100, 200);
+        PerfResult result = result(91, 219);
+
+        assertThat(comparator.compare(baseline, result)).isEmpty();
+    }
+
+    @Test
+    public void throughputDropIsRegression() {
+        PerfResult baseline = result(100, 200);
+        PerfResult result = result(89, 200);
+
+        assertThat(comparator.compare(baseline, result)).containsExactly("Throughput dropped from 100.00 to 89.00 operations per second.");
+    }
+
+    @Test
+    public void p99LatencyRiseIsRegression() {
+        PerfResult baseline = result(100, 200);
+        PerfResult result = result(100, 221);
+
+        assertThat(comparator.compare(baseline, result)).containsExactly("p99 latency of startProcess rose from 200.000 ms to 221.000 ms.");
+    }
+
+    @Test
+    public void operationMissingInResultIsIgnored() {
+        PerfResult baseline = result(100, 200);
+        PerfResult result = new PerfResult(SCENARIO).withThroughput(100);
+
+        assertThat(comparator.compare(baseline, result)).isEmpty();
+    }
+
+    @Test
+    public void latestBaselineWithSameScenarioAndParametersIsUsed() {
+        PerfResult older = result(100, 200);
+        PerfResult otherParameters = result(50, 200).withParameter("users", 20);
+        PerfResult otherScenario = new PerfResult("other").withParameter("users", 10).withThroughput(50);
+        PerfResult latest = result(120, 200);
+
+        List<PerfResult> baselines = Arrays.asList(older, latest, otherParameters, otherScenario);
+
+        assertThat(comparator.findBaseline(baselines, result(100, 200))).containsSame(latest);
+        assertThat(comparator.findBaseline(baselines, new PerfResult("unknown"))).isEmpty();
+    }
+
+    @Test
+    public void resultIsComparedWithBaselineFromFile() throws Exception {
+        Path baselineFile = folder.getRoot().toPath().resolve("baseline.jsonl");
+        new JsonLinesResultSink(baselineFile).write(result(100, 200));
+
+        assertThat(comparator.compareWithBaseline(baselineFile, result(100, 200))).isEmpty();
+        assertThat(comparator.compareWithBaseline(baselineFile, result(50, 200))).hasSize(1);
+    }
+
+    @Test
+    public void missingBaselineFileIsNoRegression() throws Exception {
+        Path baselineFile = folder.getRoot().toPath().resolve("missing.jsonl");
+
+        assertThat(comparator.compareWithBaseline(baselineFile, result(50, 200))).isEmpty();
+    }
+
+    private static PerfResult result(double throughput, double p99) {
+        return new PerfResult(SCENARIO, Instant.now()).withParameter("users", 10)
+                                                      .withThroughput(throughput)
+                                                      .withLatency("startProcess", new LatencyPercentiles(1000, p99 / 2, p99 / 1.5, p99, p99 * 1.5, p99 * 2));
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.integrationtests.results;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+/**
+ * Appends results as rows of CSV file. Header is written when the file is created, so all results written to one file
+ * are expected to have the same structure.
+ */
+public class CsvResultSink implements ResultSink {
+
+    private final Path file;
+
+    public CsvResultSink(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void write(PerfResult result) throws IOException {
+        Map<String, Object> values = result.toFlatMap();
+        boolean newFile = !Files.exists(file) || Files.size(file) == 0;
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+             CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT)) {
+            if (newFile) {
+                csvPrinter.printRecord(values.keySet());
+            }
+            csvPrinter.printRecord(values.values());
+        }
+    }
+}
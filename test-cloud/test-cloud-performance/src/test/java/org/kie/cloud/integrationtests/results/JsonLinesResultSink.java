@@ -0,0 +1,69 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.integrationtests.results;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+/**
+ * Appends results to a file as JSON lines, one result per line. The file can be used as baseline for {@link BaselineComparator}.
+ */
+public class JsonLinesResultSink implements ResultSink {
+
+    private static final Gson GSON = new Gson();
+
+    private final Path file;
+
+    public JsonLinesResultSink(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void write(PerfResult result) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(GSON.toJson(result.toJson()));
+            writer.write(System.lineSeparator());
+        }
+    }
+
+    /**
+     * @param file JSON lines file.
+     * @return All results stored in the file in order of their writing.
+     */
+    public static List<PerfResult> readResults(Path file) throws IOException {
+        List<PerfResult> results = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    results.add(PerfResult.fromJson(GSON.fromJson(line, JsonObject.class)));
+                }
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.integrationtests.results;
+
+import java.time.Duration;
+
+import com.google.gson.JsonObject;
+import org.kie.cloud.tests.common.load.LatencySummary;
+
+/**
+ * Latency percentiles of one operation, values are in milliseconds.
+ */
+public class LatencyPercentiles {
+
+    private final long count;
+    private final double p50;
+    private final double p90;
+    private final double p99;
+    private final double p999;
+    private final double max;
+
+    public LatencyPercentiles(long count, double p50, double p90, double p99, double p999, double max) {
+        this.count = count;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    public static LatencyPercentiles of(LatencySummary summary) {
+        return new LatencyPercentiles(summary.getCount(), toMillis(summary.getP50()), toMillis(summary.getP90()), toMillis(summary.getP99()),
+                                      toMillis(summary.getP999()), toMillis(summary.getMax()));
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public double getP90() {
+        return p90;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public double getP999() {
+        return p999;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("count", count);
+        json.addProperty("p50", p50);
+        json.addProperty("p90", p90);
+        json.addProperty("p99", p99);
+        json.addProperty("p99.9", p999);
+        json.addProperty("max", max);
+        return json;
+    }
+
+    static LatencyPercentiles fromJson(JsonObject json) {
+        return new LatencyPercentiles(json.get("count").getAsLong(), json.get("p50").getAsDouble(), json.get("p90").getAsDouble(),
+                                      json.get("p99").getAsDouble(), json.get("p99.9").getAsDouble(), json.get("max").getAsDouble());
+    }
+
+    private static double toMillis(Duration duration) {
+        return duration.toNanos() / 1_000_000d;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.integrationtests.results;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.kie.cloud.tests.common.load.LatencySummary;
+
+/**
+ * Result of a single performance test run.
+ */
+public class PerfResult {
+
+    private final String scenario;
+    private final Instant timestamp;
+    private final Map<String, String> parameters = new LinkedHashMap<>();
+    private double throughput;
+    private final Map<String, LatencyPercentiles> latencies = new LinkedHashMap<>();
+    private final Map<String, Double> metrics = new LinkedHashMap<>();
+    private final Map<String, Double> resourceUsage = new LinkedHashMap<>();
+
+    public PerfResult(String scenario) {
+        this(scenario, Instant.now());
+    }
+
+    public PerfResult(String scenario, Instant timestamp) {
+        this.scenario = scenario;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @param name Parameter name.
+     * @param value Parameter value. Only results with equal parameters are compared with each other.
+     * @return This result.
+     */
+    public PerfResult withParameter(String name, Object value) {
+        parameters.put(name, String.valueOf(value));
+        return this;
+    }
+
+    /**
+     * @param throughput Number of operations per second.
+     * @return This result.
+     */
+    public PerfResult withThroughput(double throughput) {
+        this.throughput = throughput;
+        return this;
+    }
+
+    public PerfResult withLatency(String operationName, LatencyPercentiles percentiles) {
+        latencies.put(operationName, percentiles);
+        return this;
+    }
+
+    public PerfResult withLatency(LatencySummary summary) {
+        return withLatency(summary.getOperationName(), LatencyPercentiles.of(summary));
+    }
+
+    /**
+     * @param name Metric name, for example duration of a test phase.
+     * @param value Metric value.
+     * @return This result.
+     */
+    public PerfResult withMetric(String name, double value) {
+        metrics.put(name, value);
+        return this;
+    }
+
+    /**
+     * @param name Resource name, for example maximal CPU usage of Kie server pods.
+     * @param value Resource usage.
+     * @return This result.
+     */
+    public PerfResult withResourceUsage(String name, double value) {
+        resourceUsage.put(name, value);
+        return this;
+    }
+
+    public String getScenario() {
+        return scenario;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public Map<String, String> getParameters() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public Map<String, LatencyPercentiles> getLatencies() {
+        return Collections.unmodifiableMap(latencies);
+    }
+
+    public Map<String, Double> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    public Map<String, Double> getResourceUsage() {
+        return Collections.unmodifiableMap(resourceUsage);
+    }
+
+    /**
+     * @return All values of the result with flat names, for example "latency.startProcess.p99", in stable order.
+     */
+    public Map<String, Object> toFlatMap() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("timestamp", timestamp.toString());
+        values.put("scenario", scenario);
+        parameters.forEach((name, value) -> values.put("parameter." + name, value));
+        values.put("throughput", throughput);
+        for (Entry<String, LatencyPercentiles> latency : latencies.entrySet()) {
+            String prefix = "latency." + latency.getKey() + ".";
+            values.put(prefix + "count", latency.getValue().getCount());
+            values.put(prefix + "p50", latency.getValue().getP50());
+            values.put(prefix + "p90", latency.getValue().getP90());
+            values.put(prefix + "p99", latency.getValue().getP99());
+            values.put(prefix + "p99.9", latency.getValue().getP999());
+            values.put(prefix + "max", latency.getValue().getMax());
+        }
+        metrics.forEach((name, value) -> values.put("metric." + name, value));
+        resourceUsage.forEach((name, value) -> values.put("resource." + name, value));
+        return values;
+    }
+
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("timestamp", timestamp.toString());
+        json.addProperty("scenario", scenario);
+        JsonObject parametersJson = new JsonObject();
+        parameters.forEach(parametersJson::addProperty);
+        json.add("parameters", parametersJson);
+        json.addProperty("throughput", throughput);
+        JsonObject latenciesJson = new JsonObject();
+        latencies.forEach((operationName, percentiles) -> latenciesJson.add(operationName, percentiles.toJson()));
+        json.add("latencies", latenciesJson);
+        JsonObject metricsJson = new JsonObject();
+        metrics.forEach(metricsJson::addProperty);
+        json.add("metrics", metricsJson);
+        JsonObject resourceUsageJson = new JsonObject();
+        resourceUsage.forEach(resourceUsageJson::addProperty);
+        json.add("resourceUsage", resourceUsageJson);
+        return json;
+    }
+
+    public static PerfResult fromJson(JsonObject json) {
+        PerfResult result = new PerfResult(json.get("scenario").getAsString(), Instant.parse(json.get("timestamp").getAsString()));
+        for (Entry<String, JsonElement> parameter : json.getAsJsonObject("parameters").entrySet()) {
+            result.withParameter(parameter.getKey(), parameter.getValue().getAsString());
+        }
+        result.withThroughput(json.get("throughput").getAsDouble());
+        for (Entry<String, JsonElement> latency : json.getAsJsonObject("latencies").entrySet()) {
+            result.withLatency(latency.getKey(), LatencyPercentiles.fromJson(latency.getValue().getAsJsonObject()));
+        }
+        for (Entry<String, JsonElement> metric : json.getAsJsonObject("metrics").entrySet()) {
+            result.withMetric(metric.getKey(), metric.getValue().getAsDouble());
+        }
+        for (Entry<String, JsonElement> resource : json.getAsJsonObject("resourceUsage").entrySet()) {
+            result.withResourceUsage(resource.getKey(), resource.getValue().getAsDouble());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.integrationtests.results;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import com.google.gson.JsonObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class PerfResultTest {
+
+    private static final Instant TIMESTAMP = Instant.parse("2021-03-04T10:15:30Z");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void resultSurvivesJsonRoundTrip() {
+        PerfResult result = PerfResult.fromJson(createResult().toJson());
+
+        assertResult(result);
+    }
+
+    @Test
+    public void resultsAreAppendedAsJsonLines() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("results.jsonl");
+        JsonLinesResultSink sink = new JsonLinesResultSink(file);
+
+        sink.write(createResult());
+        sink.write(new PerfResult("other", TIMESTAMP).withThroughput(1.5));
+
+        List<PerfResult> results = JsonLinesResultSink.readResults(file);
+        assertThat(results).extracting(PerfResult::getScenario).containsExactly("EJBTimers", "other");
+        assertResult(results.get(0));
+        assertThat(results.get(1).getLatencies()).isEmpty();
+        assertThat(results.get(1).getThroughput()).isEqualTo(1.5);
+    }
+
+    @Test
+    public void jsonUsesStableNames() {
+        JsonObject json = createResult().toJson();
+
+        assertThat(json.get("timestamp").getAsString()).isEqualTo("2021-03-04T10:15:30Z");
+        assertThat(json.getAsJsonObject("latencies").getAsJsonObject("startProcess").get("p99.9").getAsDouble()).isEqualTo(40);
+    }
+
+    @Test
+    public void flatMapContainsAllValuesInStableOrder() {
+        assertThat(createResult().toFlatMap()).containsExactly(entry("timestamp", "2021-03-04T10:15:30Z"),
+                                                               entry("scenario", "EJBTimers"),
+                                                               entry("parameter.users", "10"),
+                                                               entry("parameter.router", "roundrobin"),
+                                                               entry("throughput", 123.5),
+                                                               entry("latency.startProcess.count", 1000L),
+                                                               entry("latency.startProcess.p50", 10d),
+                                                               entry("latency.startProcess.p90", 20d),
+                                                               entry("latency.startProcess.p99", 30d),
+                                                               entry("latency.startProcess.p99.9", 40d),
+                                                               entry("latency.startProcess.max", 50d),
+                                                               entry("metric.timersDuration", 60d),
+                                                               entry("resource.kieServerCpu", 1.5));
+    }
+
+    private static PerfResult createResult() {
+        return new PerfResult("EJBTimers", TIMESTAMP).withParameter("users", 10)
+                                                     .withParameter("router", "roundrobin")
+                                                     .withThroughput(123.5)
+                                                     .withLatency("startProcess", new LatencyPercentiles(1000, 10, 20, 30, 40, 50))
+                                                     .withMetric("timersDuration", 60)
+                                                     .withResourceUsage("kieServerCpu", 1.5);
+    }
+
+    private static void assertResult(PerfResult result) {
+        assertThat(result.getScenario()).isEqualTo("EJBTimers");
+        assertThat(result.getTimestamp()).isEqualTo(TIMESTAMP);
+        assertThat(result.getParameters()).containsExactly(entry("users", "10"), entry("router", "roundrobin"));
+        assertThat(result.getThroughput()).isEqualTo(123.5);
+        LatencyPercentiles latency = result.getLatencies().get("startProcess");
+        assertThat(latency.getCount()).isEqualTo(1000);
+        assertThat(latency.getP50()).isEqualTo(10);
+        assertThat(latency.getP90()).isEqualTo(20);
+        assertThat(latency.getP99()).isEqualTo(30);
+        assertThat(latency.getP999()).isEqualTo(40);
+        assertThat(latency.getMax()).isEqualTo(50);
+        assertThat(result.getMetrics()).containsExactly(entry("timersDuration", 60d));
+        assertThat(result.getResourceUsage()).containsExactly(entry("kieServerCpu", 1.5));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.integrationtests.results;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Pushes results to Prometheus Pushgateway using text exposition format, so results of performance runs can be graphed
+ * in Prometheus and Grafana. Every push replaces metrics of previous run of the same job and scenario.
+ */
+public class PushgatewayResultSink implements ResultSink {
+
+    private static final String METRIC_PREFIX = "kie_perf_";
+    private static final int TIMEOUT_IN_MS = 10_000;
+
+    private final String pushgatewayUrl;
+    private final String job;
+
+    /**
+     * @param pushgatewayUrl Base URL of Pushgateway, for example http://pushgateway:9091.
+     * @param job Job name used as grouping key.
+     */
+    public PushgatewayResultSink(String pushgatewayUrl, String job) {
+        this.pushgatewayUrl = pushgatewayUrl.endsWith("/") ? pushgatewayUrl.substring(0, pushgatewayUrl.length() - 1) : pushgatewayUrl;
+        this.job = job;
+    }
+
+    @Override
+    public void write(PerfResult result) throws IOException {
+        URL url = new URL(pushgatewayUrl + "/metrics/job/" + encode(job) + "/scenario/" + encode(result.getScenario()));
+        byte[] body = toExpositionFormat(result).getBytes(StandardCharsets.UTF_8);
+
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setRequestMethod("PUT");
+            connection.setConnectTimeout(TIMEOUT_IN_MS);
+            connection.setReadTimeout(TIMEOUT_IN_MS);
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "text/plain; version=0.0.4");
+            try (OutputStream outputStream = connection.getOutputStream()) {
+                outputStream.write(body);
+            }
+            int responseCode = connection.getResponseCode();
+            if (responseCode / 100 != 2) {
+                throw new IOException("Pushgateway " + url + " responded with " + responseCode + " " + connection.getResponseMessage());
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    static String toExpositionFormat(PerfResult result) {
+        String parameterLabels = toLabels(result.getParameters());
+        StringBuilder body = new StringBuilder();
+
+        body.append("# TYPE ").append(METRIC_PREFIX).append("throughput gauge\n");
+        body.append(METRIC_PREFIX).append("throughput{").append(parameterLabels).append("} ").append(result.getThroughput()).append('\n');
+
+        if (!result.getLatencies().isEmpty()) {
+            body.append("# TYPE ").append(METRIC_PREFIX).append("latency_milliseconds gauge\n");
+        }
+        for (Entry<String, LatencyPercentiles> latency : result.getLatencies().entrySet()) {
+            String labels = parameterLabels + (parameterLabels.isEmpty() ? "" : ",") + "operation=\"" + escape(latency.getKey()) + "\"";
+            appendQuantile(body, labels, "0.5", latency.getValue().getP50());
+            appendQuantile(body, labels, "0.9", latency.getValue().getP90());
+            appendQuantile(body, labels, "0.99", latency.getValue().getP99());
+            appendQuantile(body, labels, "0.999", latency.getValue().getP999());
+            appendQuantile(body, labels, "1", latency.getValue().getMax());
+        }
+
+        appendNamedValues(body, "metric", parameterLabels, result.getMetrics());
+        appendNamedValues(body, "resource_usage", parameterLabels, result.getResourceUsage());
+        return body.toString();
+    }
+
+    private static void appendQuantile(StringBuilder body, String labels, String quantile, double value) {
+        body.append(METRIC_PREFIX).append("latency_milliseconds{").append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+            .append(value).append('\n');
+    }
+
+    private static void appendNamedValues(StringBuilder body, String metricName, String parameterLabels, Map<String, Double> values) {
+        // Metric family without samples is not accepted by every exposition format parser
+        if (values.isEmpty()) {
+            return;
+        }
+        body.append("# TYPE ").append(METRIC_PREFIX).append(metricName).append(" gauge\n");
+        values.forEach((name, value) -> body.append(METRIC_PREFIX).append(metricName).append('{').append(parameterLabels)
+                                            .append(parameterLabels.isEmpty() ? "" : ",").append("name=\"").append(escape(name)).append("\"} ")
+                                            .append(value).append('\n'));
+    }
+
+    private static String toLabels(Map<String, String> parameters) {
+        StringBuilder labels = new StringBuilder();
+        for (Entry<String, String> parameter : parameters.entrySet()) {
+            if (labels.length() > 0) {
+                labels.append(',');
+            }
+            labels.append(parameter.getKey().replaceAll("[^a-zA-Z0-9_]", "_")).append("=\"").append(escape(parameter.getValue())).append('"');
+        }
+        return labels.toString();
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String encode(String pathSegment) throws IOException {
+        return URLEncoder.encode(pathSegment, StandardCharsets.UTF_8.name()).replace("+", "%20");
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.integrationtests.results;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PushgatewayResultSinkTest {
+
+    private static final Instant TIMESTAMP = Instant.parse("2021-03-04T10:15:30Z");
+
+    @Test
+    public void resultIsConvertedToExpositionFormat() {
+        PerfResult result = new PerfResult("EJBTimers", TIMESTAMP).withParameter("users", 10)
+                                                                  .withParameter("router.balance", "round\"robin")
+                                                                  .withThroughput(123.5)
+                                                                  .withLatency("startProcess", new LatencyPercentiles(1000, 10, 20, 30, 40, 50))
+                                                                  .withMetric("timersDuration", 60)
+                                                                  .withResourceUsage("kieServerCpu", 1.5);
+
+        assertThat(PushgatewayResultSink.toExpositionFormat(result)).isEqualTo(
+                "# TYPE kie_perf_throughput gauge\n" +
+                "kie_perf_throughput{users=\"10\",router_balance=\"round\\\"robin\"} 123.5\n" +
+                "# TYPE kie_perf_latency_milliseconds gauge\n" +
+                "kie_perf_latency_milliseconds{users=\"10\",router_balance=\"round\\\"robin\",operation=\"startProcess\",quantile=\"0.5\"} 10.0\n" +
+                "kie_perf_latency_milliseconds{users=\"10\",router_balance=\"round\\\"robin\",operation=\"startProcess\",quantile=\"0.9\"} 20.0\n" +
+                "kie_perf_latency_milliseconds{users=\"10\",router_balance=\"round\\\"robin\",operation=\"startProcess\",quantile=\"0.99\"} 30.0\n" +
+                "kie_perf_latency_milliseconds{users=\"10\",router_balance=\"round\\\"robin\",operation=\"startProcess\",quantile=\"0.999\"} 40.0\n" +
+                "kie_perf_latency_milliseconds{users=\"10\",router_balance=\"round\\\"robin\",operation=\"startProcess\",quantile=\"1\"} 50.0\n" +
+                "# TYPE kie_perf_metric gauge\n" +
+                "kie_perf_metric{users=\"10\",router_balance=\"round\\\"robin\",name=\"timersDuration\"} 60.0\n" +
+                "# TYPE kie_perf_resource_usage gauge\n" +
+                "kie_perf_resource_usage{users=\"10\",router_balance=\"round\\\"robin\",name=\"kieServerCpu\"} 1.5\n");
+    }
+
+    @Test
+    public void emptyMetricGroupsAreOmitted() {
+        PerfResult result = new PerfResult("EJBTimers", TIMESTAMP).withThroughput(123.5);
+
+        assertThat(PushgatewayResultSink.toExpositionFormat(result)).isEqualTo("# TYPE kie_perf_throughput gauge\n" +
+                                                                               "kie_perf_throughput{} 123.5\n");
+    }
+
+    @Test
+    public void resultIsPushedToGroupOfJobAndScenario() throws Exception {
+        AtomicReference<String> requestLine = new AtomicReference<>();
+        AtomicReference<String> requestBody = new AtomicReference<>();
+        HttpServer pushgateway = startPushgateway(202, requestLine, requestBody);
+        try {
+            PerfResult result = new PerfResult("EJB Timers", TIMESTAMP).withThroughput(123.5);
+
+            new PushgatewayResultSink("http://localhost:" + pushgateway.getAddress().getPort() + "/", "kie-perf").write(result);
+
+            assertThat(requestLine.get()).isEqualTo("PUT /metrics/job/kie-perf/scenario/EJB%20Timers");
+            assertThat(requestBody.get()).isEqualTo(PushgatewayResultSink.toExpositionFormat(result));
+        } finally {
+            pushgateway.stop(0);
+        }
+    }
+
+    @Test
+    public void errorResponseIsReported() throws Exception {
+        HttpServer pushgateway = startPushgateway(400, new AtomicReference<>(), new AtomicReference<>());
+        try {
+            PushgatewayResultSink sink = new PushgatewayResultSink("http://localhost:" + pushgateway.getAddress().getPort(), "kie-perf");
+
+            assertThatThrownBy(() -> sink.write(new PerfResult("EJBTimers", TIMESTAMP))).isInstanceOf(IOException.class)
+                                                                                      .hasMessageContaining("400");
+        } finally {
+            pushgateway.stop(0);
+        }
+    }
+
+    private static HttpServer startPushgateway(int responseCode, AtomicReference<String> requestLine, AtomicReference<String> requestBody) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requestLine.set(exchange.getRequestMethod() + " " + exchange.getRequestURI().getRawPath());
+            try (InputStream body = exchange.getRequestBody()) {
+                requestBody.set(IOUtils.toString(body, StandardCharsets.UTF_8));
+            }
+            exchange.sendResponseHeaders(responseCode, -1);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+}
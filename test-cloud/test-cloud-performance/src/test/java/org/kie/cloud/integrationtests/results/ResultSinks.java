@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.kie.cloud.integrationtests.results;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates result sinks configured by system properties.
+ */
+public class ResultSinks {
+
+    /**
+     * Comma separated list of sinks results are written to. Supported values are csv, jsonl and pushgateway.
+     */
+    public static final String RESULT_SINKS = "resultSinks";
+
+    /**
+     * Directory where csv and jsonl results are stored.
+     */
+    public static final String RESULTS_DIR = "resultsDir";
+
+    /**
+     * URL of Prometheus Pushgateway, required by pushgateway sink.
+     */
+    public static final String PUSHGATEWAY_URL = "pushgatewayUrl";
+
+    private static final String DEFAULT_RESULT_SINKS = "csv,jsonl";
+    private static final String PUSHGATEWAY_JOB = "kie-cloud-performance";
+
+    private ResultSinks() {
+        // Util class
+    }
+
+    /**
+     * @param resultName Name of result files without extension.
+     * @return Sinks configured by system properties.
+     */
+    public static List<ResultSink> fromSystemProperties(String resultName) {
+        Path resultsDir = Paths.get(System.getProperty(RESULTS_DIR, "."));
+        List<ResultSink> sinks = new ArrayList<>();
+        for (String sink : System.getProperty(RESULT_SINKS, DEFAULT_RESULT_SINKS).split(",")) {
+            switch (sink.trim()) {
+                case "":
+                    break;
+                case "csv":
+                    sinks.add(new CsvResultSink(resultsDir.resolve(resultName + ".csv")));
+                    break;
+                case "jsonl":
+                    sinks.add(new JsonLinesResultSink(getJsonLinesFile(resultName)));
+                    break;
+                case "pushgateway":
+                    String pushgatewayUrl = System.getProperty(PUSHGATEWAY_URL);
+                    if (pushgatewayUrl == null) {
+                        throw new IllegalArgumentException("System property " + PUSHGATEWAY_URL + " has to be defined for pushgateway result sink.");
+                    }
+                    sinks.add(new PushgatewayResultSink(pushgatewayUrl, PUSHGATEWAY_JOB));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown result sink " + sink + ", supported sinks are csv, jsonl and pushgateway.");
+            }
+        }
+        return sinks;
+    }
+
+    /**
+     * @param resultName Name of result files without extension.
+     * @return Path to JSON lines file of results with the name.
+     */
+    public static Path getJsonLinesFile(String resultName) {
+        return Paths.get(System.getProperty(RESULTS_DIR, ".")).resolve(resultName + ".jsonl");
+    }
+
+    public static void writeToAll(List<ResultSink> sinks, PerfResult result) throws IOException {
+        for (ResultSink sink : sinks) {
+            sink.write(result);
+        }
+    }
+}
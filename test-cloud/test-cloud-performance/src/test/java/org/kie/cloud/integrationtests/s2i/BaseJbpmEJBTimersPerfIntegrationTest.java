@@ -16,7 +16,9 @@
 package org.kie.cloud.integrationtests.s2i;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -24,8 +26,14 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
+import io.fabric8.kubernetes.api.model.ContainerStateTerminated;
+import io.fabric8.kubernetes.api.model.ContainerStatus;
+import io.fabric8.kubernetes.api.model.Event;
+import io.fabric8.kubernetes.api.model.Pod;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -41,10 +49,22 @@ import org.kie.cloud.api.deployment.Instance;
 import org.kie.cloud.api.scenario.WorkbenchRuntimeSmartRouterImmutableKieServerWithDatabaseScenario;
 import org.kie.cloud.common.provider.KieServerClientProvider;
 import org.kie.cloud.integrationtests.category.Performance;
+import org.kie.cloud.integrationtests.results.BaselineComparator;
+import org.kie.cloud.integrationtests.results.PerfResult;
+import org.kie.cloud.integrationtests.results.ResultSinks;
+import org.kie.cloud.openshift.constants.OpenShiftConstants;
+import org.kie.cloud.openshift.deployment.OpenShiftInstance;
+import org.kie.cloud.openshift.log.ProjectEventRecorder;
+import org.kie.cloud.openshift.resource.PodResourceSampler;
+import org.kie.cloud.openshift.resource.ResourceUsage;
 import org.kie.cloud.provider.git.Git;
 import org.kie.cloud.tests.common.AbstractMethodIsolatedCloudIntegrationTest;
 import org.kie.cloud.tests.common.client.util.Kjar;
-import org.kie.cloud.tests.common.client.util.RunnableWrapper;
+import org.kie.cloud.tests.common.load.LatencyRecorder;
+import org.kie.cloud.tests.common.load.LatencySummary;
+import org.kie.cloud.tests.common.load.LoadGenerator;
+import org.kie.cloud.tests.common.load.ServedOperation;
+import org.kie.cloud.tests.common.statistics.StreamingStatisticsCollector;
 import org.kie.cloud.tests.common.time.TimeUtils;
 import org.kie.server.api.exception.KieServicesHttpException;
 import org.kie.server.api.model.KieContainerResource;
@@ -83,8 +103,19 @@ public abstract class BaseJbpmEJBTimersPerfIntegrationTest extends AbstractMetho
     protected static final int REFRESH_INTERVAL = Integer.parseInt(System.getProperty("refreshInterval", "30"));
     protected static final int ROUTER_TIMEOUT = Integer.parseInt(System.getProperty("routerTimeout", "60"));
     protected static final String ROUTER_BALANCE = System.getProperty("routerBalance", "roundrobin");
+    protected static final int LATENCY_WINDOW = Integer.parseInt(System.getProperty("latencyWindow", "10"));
+    protected static final String PERF_BASELINE = System.getProperty("perfBaseline");
+    protected static final double PERF_TOLERANCE = Double.parseDouble(System.getProperty("perfTolerance", "0.1"));
+    protected static final int STATISTICS_PAGE_SIZE = Integer.parseInt(System.getProperty("statisticsPageSize", "5000"));
+    protected static final int STATISTICS_PARALLELISM = Integer.parseInt(System.getProperty("statisticsParallelism", "8"));
 
     protected static final String ONE_TIMER_DURATION_PROCESS_ID = "timers-testing.OneTimerDate";
+    protected static final String HOST_NAME_VARIABLE = "hostName";
+    protected static final String START_PROCESS_OPERATION = "startProcess";
+    protected static final String FIND_ACTIVE_PROCESSES_OPERATION = "findActiveProcesses";
+    protected static final String FIND_COMPLETED_PROCESSES_OPERATION = "findCompletedProcesses";
+    protected static final String FIND_PROCESSES_BY_HOST_OPERATION = "findProcessesByHostName";
+    protected static final String FIND_PROCESSES_BY_OLD_HOST_OPERATION = "findProcessesByOldHostName";
 
     protected static final String KIE_CONTAINER_DEPLOYMENT = CONTAINER_ID + "=" + Kjar.DEFINITION.toString();
 
@@ -132,6 +163,10 @@ public abstract class BaseJbpmEJBTimersPerfIntegrationTest extends AbstractMetho
 
     protected Map<String, Integer> completedHostNameDistribution;
 
+    protected LatencyRecorder latencyRecorder;
+
+    protected PodResourceSampler resourceSampler;
+
     @Override
     protected WorkbenchRuntimeSmartRouterImmutableKieServerWithDatabaseScenario createDeploymentScenario(DeploymentScenarioBuilderFactory deploymentScenarioFactory) {
         return deploymentScenario;
@@ -168,6 +203,10 @@ public abstract class BaseJbpmEJBTimersPerfIntegrationTest extends AbstractMetho
 
         processServicesClient = KieServerClientProvider.getProcessClient(deploymentScenario.getKieServerDeployment());
         queryServicesClient = KieServerClientProvider.getQueryClient(deploymentScenario.getKieServerDeployment());
+
+        String latencyLogFile = "./" + getClass().getSimpleName() + "__" + PROCESSES_COUNT + "_processes__" + SCALE_COUNT + "_pods__" + System.currentTimeMillis() + ".hlog";
+        latencyRecorder = new LatencyRecorder(Duration.ofSeconds(LATENCY_WINDOW), Paths.get(latencyLogFile).toAbsolutePath().toFile());
+        resourceSampler = PodResourceSampler.forDeployments(Collections.singletonList(deploymentScenario.getKieServerDeployment())).start();
     }
 
     @After
@@ -175,6 +214,22 @@ public abstract class BaseJbpmEJBTimersPerfIntegrationTest extends AbstractMetho
         deploymentScenario.getKieServerDeployment().resetRouterTimeout();
     }
 
+    @After
+    public void closeLatencyRecorder() {
+        if (latencyRecorder != null) {
+            latencyRecorder.close();
+            latencyRecorder.getSummaries().forEach(summary -> logger.info("Latency of {}", summary));
+        }
+    }
+
+    @After
+    public void closeResourceSampler() {
+        if (resourceSampler != null) {
+            resourceSampler.close();
+            logger.info("Resource usage of Kie server: {}", resourceSampler.getUsage(deploymentScenario.getKieServerDeployment()));
+        }
+    }
+
     @AfterClass
     public static void deleteRepo() {
         Git.getProvider().deleteGitRepository(gitRepositoryName);
@@ -197,42 +252,159 @@ public abstract class BaseJbpmEJBTimersPerfIntegrationTest extends AbstractMetho
         assertThat(containerReleaseId.getVersion()).isNotNull().isEqualTo(DEFINITION_PROJECT_VERSION);
 
         logger.info("============================= STARTING SCENARIO =============================");
+        Instant scenarioStart = Instant.now();
         runSingleScenario();
+        Duration scenarioDuration = Duration.between(scenarioStart, Instant.now());
         logger.info("============================= SCENARIO COMPLETE =============================");
 
         logger.info("============================= GATHERING STATISTICS =============================");
         gatherAndAssertStatistics();
         writeCSV();
+        writeAndCompareResult(createPerfResult(scenarioDuration));
         logger.info("============================= STATISTICS GATHERED =============================");
     }
 
-    protected abstract void writeCSV() throws IOException;
+    /**
+     * Add metrics specific for the test to the result.
+     *
+     * @param result Result of the test run.
+     */
+    protected void addResultMetrics(PerfResult result) {
+    }
 
-    protected abstract void runSingleScenario();
+    private PerfResult createPerfResult(Duration scenarioDuration) {
+        PerfResult result = new PerfResult(getClass().getSimpleName() + " " + testScenarioName);
+        result.withParameter("processesCount", PROCESSES_COUNT)
+              .withParameter("scale", SCALE_COUNT)
+              .withParameter("heap", HEAP)
+              .withParameter("refreshInterval", REFRESH_INTERVAL)
+              .withParameter("routerBalance", ROUTER_BALANCE)
+              .withThroughput(PROCESSES_COUNT * 1000d / scenarioDuration.toMillis())
+              .withMetric("scenarioSeconds", scenarioDuration.toMillis() / 1000d);
+        latencyRecorder.getSummaries().stream()
+                                      .filter(summary -> summary.getPodName() == null)
+                                      .forEach(result::withLatency);
+        for (int i = 0; i < pods.size(); i++) {
+            result.withMetric("completedProcesses.pod" + i, completedHostNameDistribution.get(pods.get(i)));
+        }
+        addResourceUsage(result);
+        addPodEvents(result);
+        addResultMetrics(result);
+        return result;
+    }
 
-    protected void startAndWaitForStartingThreads(int numberOfThreads, Duration duration, Integer iterations, Runnable runnable) {
-       List<Thread> threads = new ArrayList<>();
-        for (int i = 0; i < numberOfThreads; i++) {
-            Thread t = new Thread(new RunnableWrapper(duration, iterations, runnable));
-            t.start();
-            threads.add(t);
+    private void addResourceUsage(PerfResult result) {
+        ResourceUsage usage = resourceSampler.getUsage(deploymentScenario.getKieServerDeployment());
+        if (usage.getSamples() == 0) {
+            logger.warn("No resource usage of Kie server was sampled, metrics API may not be available.");
+            return;
         }
+        result.withResourceUsage("kieServer.cpu.mean", usage.getMeanCpuCores())
+              .withResourceUsage("kieServer.cpu.max", usage.getMaxPodCpuCores())
+              .withResourceUsage("kieServer.memory.mean", usage.getMeanMemoryBytes())
+              .withResourceUsage("kieServer.memory.max", usage.getMaxPodMemoryBytes())
+              .withResourceUsage("kieServer.memoryPerProcess", (double) usage.getMaxPodMemoryBytes() * pods.size() / PROCESSES_COUNT)
+              .withResourceUsage("kieServer.cpuSaturatedRatio", usage.getCpuSaturatedRatio());
+        logger.info("Kie server was CPU saturated in {}% of samples.", String.format("%.1f", usage.getCpuSaturatedRatio() * 100));
+
+        // Throughput per core is computed from latency windows of process starts, so it isn't distorted by idle time after the load
+        long startedProcesses = 0;
+        double coreSeconds = 0;
+        for (LatencySummary window : latencyRecorder.getWindowSummaries()) {
+            if (!START_PROCESS_OPERATION.equals(window.getOperationName()) || window.getPodName() != null) {
+                continue;
+            }
+            ResourceUsage windowUsage = resourceSampler.getUsage(deploymentScenario.getKieServerDeployment(), window.getStart(), window.getEnd());
+            if (windowUsage.getSamples() > 0) {
+                startedProcesses += window.getCount();
+                coreSeconds += windowUsage.getMeanCpuCores() * Duration.between(window.getStart(), window.getEnd()).toMillis() / 1000d;
+            }
+        }
+        if (coreSeconds > 0) {
+            result.withMetric("throughputPerCore", startedProcesses / coreSeconds);
+        }
+    }
 
-        threads.forEach(thread -> {
-            try {
-                thread.join();
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
+    private void addPodEvents(PerfResult result) {
+        ProjectEventRecorder.getRecorder(deploymentScenario.getNamespace()).ifPresent(recorder -> {
+            long warnings = 0;
+            for (String pod : pods) {
+                for (Event event : recorder.getEvents("Pod", pod)) {
+                    if ("Warning".equals(event.getType())) {
+                        logger.warn("Kie server pod {} reported {}: {} ({}x)", pod, event.getReason(), event.getMessage(), event.getCount());
+                        warnings += event.getCount() == null ? 1 : event.getCount();
+                    }
+                }
             }
+            result.withMetric("kieServer.warningEvents", warnings);
         });
+        addContainerRestarts(result);
+    }
 
+    /**
+     * OOM kills aren't reported as events, they are visible only in the last terminated state of the restarted container.
+     */
+    private void addContainerRestarts(PerfResult result) {
+        long restarts = 0;
+        long oomKilledContainers = 0;
+        for (Instance instance : deploymentScenario.getKieServerDeployment().getInstances()) {
+            if (!(instance instanceof OpenShiftInstance)) {
+                continue;
+            }
+            Pod pod = ((OpenShiftInstance) instance).getOpenShift().getPod(instance.getName());
+            if (pod == null || pod.getStatus() == null) {
+                continue;
+            }
+            for (ContainerStatus containerStatus : pod.getStatus().getContainerStatuses()) {
+                if (containerStatus.getRestartCount() != null) {
+                    restarts += containerStatus.getRestartCount();
+                }
+                ContainerStateTerminated lastTermination = containerStatus.getLastState() == null ? null : containerStatus.getLastState().getTerminated();
+                if (lastTermination != null && "OOMKilled".equals(lastTermination.getReason())) {
+                    logger.warn("Container {} of Kie server pod {} was OOM killed at {}", containerStatus.getName(), instance.getName(), lastTermination.getFinishedAt());
+                    oomKilledContainers++;
+                }
+            }
+        }
+        result.withMetric("kieServer.containerRestarts", restarts)
+              .withMetric("kieServer.oomKilledContainers", oomKilledContainers);
     }
 
-    protected Runnable getStartingRunnable(String containerId, String processId, Map<String, Object> parameters) {
+    private void writeAndCompareResult(PerfResult result) throws IOException {
+        String resultName = getClass().getSimpleName() + "__" + PROCESSES_COUNT + "_processes__" + SCALE_COUNT + "_pods";
+        // Compare before writing the result, baseline may be the same file the results are written to
+        List<String> regressions = new ArrayList<>();
+        if (PERF_BASELINE != null) {
+            regressions = new BaselineComparator(PERF_TOLERANCE).compareWithBaseline(Paths.get(PERF_BASELINE), result);
+        }
+        ResultSinks.writeToAll(ResultSinks.fromSystemProperties(resultName), result);
+        assertThat(regressions).as("Performance regressions compared to baseline with tolerance " + PERF_TOLERANCE).isEmpty();
+    }
+
+    protected abstract void writeCSV() throws IOException;
+
+    protected abstract void runSingleScenario();
+
+    protected void startAndWaitForStartingThreads(int numberOfThreads, Duration duration, Integer iterations, ServedOperation startingOperation) {
+        // Failed process starts are counted in the logged load result, missing processes are reported by the statistics check
+        LoadGenerator.closedModel(numberOfThreads)
+                     .withDuration(duration)
+                     .withMaxIterations((long) numberOfThreads * iterations)
+                     .addServedOperation(START_PROCESS_OPERATION, startingOperation)
+                     .addListener(latencyRecorder)
+                     .run();
+    }
+
+    /**
+     * Started process stores host name of the Kie server pod starting it into "hostName" variable, the variable is read once
+     * the start latency is measured to record latency per pod.
+     */
+    protected ServedOperation getStartingOperation(String containerId, String processId, Map<String, Object> parameters) {
         return () -> {
             try {
                 long pid = processServicesClient.startProcess(containerId, processId, parameters);
                 assertThat(pid).isNotNull();
+                return () -> (String) processServicesClient.getProcessInstanceVariable(containerId, pid, HOST_NAME_VARIABLE);
             } catch (KieServicesHttpException e) {
                 logger.error("There has been an error while starting processes", e);
                 throw e;
@@ -241,49 +413,37 @@ public abstract class BaseJbpmEJBTimersPerfIntegrationTest extends AbstractMetho
     }
 
     protected void waitForAllProcessesToComplete(Duration waitForCompletionDuration) {
-        BooleanSupplier completionCondition = () -> queryServicesClient.findProcessInstancesByStatus(ACTIVE_STATUS, 0, 1).isEmpty();
+        BooleanSupplier completionCondition = () -> latencyRecorder.record(FIND_ACTIVE_PROCESSES_OPERATION, () -> queryServicesClient.findProcessInstancesByStatus(ACTIVE_STATUS, 0, 1)).isEmpty();
         TimeUtils.wait(waitForCompletionDuration, Duration.of(1, ChronoUnit.SECONDS), completionCondition);
     }
 
     private void gatherAndAssertStatistics() {
-        int numberOfPages = 1 + (PROCESSES_COUNT / 5000);// including one additional page to check there are no more processes
-
-        List<ProcessInstance> completedProcesses = new ArrayList<>(PROCESSES_COUNT);
-
-        for (int i = 0; i < numberOfPages; i++) {
-            List<ProcessInstance> response = queryServicesClient.findProcessInstancesByStatus(Collections.singletonList(org.jbpm.process.instance.ProcessInstance.STATE_COMPLETED), i, 5000);
-            completedProcesses.addAll(response);
-        }
+        // Every worker queries statistics using its own client
+        Supplier<QueryServicesClient> queryClientFactory = () -> KieServerClientProvider.getKieServerClient(deploymentScenario.getKieServerDeployment())
+                                                                                        .getServicesClient(QueryServicesClient.class);
+        try (StreamingStatisticsCollector<QueryServicesClient> collector = new StreamingStatisticsCollector<>(STATISTICS_PAGE_SIZE, STATISTICS_PARALLELISM, queryClientFactory)) {
+            CompletableFuture<Long> completedProcesses = collector.countAsync((client, page, pageSize) -> latencyRecorder.record(FIND_COMPLETED_PROCESSES_OPERATION,
+                    () -> client.findProcessInstancesByStatus(COMPLETED_STATUS, page, pageSize)));
+            CompletableFuture<Map<String, Long>> completedPerPod = collector.countPerKeyAsync(pods, pod -> (client, page, pageSize) -> latencyRecorder.record(FIND_PROCESSES_BY_HOST_OPERATION,
+                    () -> client.findProcessInstancesByVariableAndValue(HOST_NAME_VARIABLE, pod, COMPLETED_STATUS, page, pageSize)));
+            CompletableFuture<Map<String, Long>> startedPerPod = collector.countPerKeyAsync(pods, pod -> (client, page, pageSize) -> queryOldValue(client, page, pageSize, pod));
 
-        logger.info("Completed processes count: {}", completedProcesses.size());
+            logger.info("Completed processes count: {}", StreamingStatisticsCollector.join(completedProcesses));
 
-        List<ProcessInstance> activeProcesses = queryServicesClient.findProcessInstancesByStatus(Collections.singletonList(org.jbpm.process.instance.ProcessInstance.STATE_ACTIVE), 0, 100);
-        logger.info("Active processes count: {}", activeProcesses.size());
+            List<ProcessInstance> activeProcesses = queryServicesClient.findProcessInstancesByStatus(ACTIVE_STATUS, 0, 100);
+            logger.info("Active processes count: {}", activeProcesses.size());
 
-        assertThat(activeProcesses).isEmpty();
+            assertThat(activeProcesses).isEmpty();
 
-        assertThat(completedProcesses).hasSize(PROCESSES_COUNT);
+            assertThat(StreamingStatisticsCollector.join(completedProcesses)).isEqualTo(PROCESSES_COUNT);
 
-        Map<String, Integer> startedHostNameDistribution = new HashMap<>();
-        completedHostNameDistribution = new HashMap<>();
+            completedHostNameDistribution = new HashMap<>();
+            StreamingStatisticsCollector.join(completedPerPod).forEach((pod, count) -> completedHostNameDistribution.put(pod, count.intValue()));
+            Map<String, Long> startedHostNameDistribution = StreamingStatisticsCollector.join(startedPerPod);
 
-        for (String pod : pods) {
-            completedHostNameDistribution.put(pod, 0);
-            startedHostNameDistribution.put(pod, 0);
+            logger.info("Processes were completed with this distribution: {}", completedHostNameDistribution);
+            logger.info("Processes were started with this distribution: {}", startedHostNameDistribution);
         }
-
-        for (int i = 0; i < numberOfPages; i++) {
-          for (String pod : pods) {
-           int sizeCompleted = queryServicesClient.findProcessInstancesByVariableAndValue("hostName", pod, COMPLETED_STATUS, i, 5000).size();
-           completedHostNameDistribution.put(pod, completedHostNameDistribution.get(pod) + sizeCompleted);
-
-           int sizeStarted = queryOldValue(i, pod);
-           startedHostNameDistribution.put(pod, startedHostNameDistribution.get(pod) + sizeStarted);
-          }
-        }
-
-        logger.info("Processes were completed with this distribution: {}", completedHostNameDistribution);
-        logger.info("Processes were started with this distribution: {}", startedHostNameDistribution);
     }
 
     private void scaleKieServerTo(int count) {
@@ -295,13 +455,13 @@ public abstract class BaseJbpmEJBTimersPerfIntegrationTest extends AbstractMetho
         }
     }
 
-    private int queryOldValue(int page, String oldValue) {
+    private List<ProcessInstance> queryOldValue(QueryServicesClient client, int page, int pageSize, String oldValue) {
         QueryFilterSpec spec = new QueryFilterSpecBuilder()
-                .equalsTo("variableId", "hostName")
+                .equalsTo("variableId", HOST_NAME_VARIABLE)
                 .equalsTo("oldValue", oldValue)
                 .get();
 
-        return queryServicesClient.query("jbpmOldValueVarSearch", QueryServicesClient.QUERY_MAP_PI_WITH_VARS, spec, page, 5000, ProcessInstance.class).size();
+        return latencyRecorder.record(FIND_PROCESSES_BY_OLD_HOST_OPERATION, () -> client.query("jbpmOldValueVarSearch", QueryServicesClient.QUERY_MAP_PI_WITH_VARS, spec, page, pageSize, ProcessInstance.class));
     }
 
 }
@@ -29,6 +29,7 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.kie.cloud.integrationtests.results.PerfResult;
 import org.kie.cloud.tests.common.time.TimeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,6 +77,14 @@ public class JbpmEJBInterleavedTimersPerfIntegrationTest extends BaseJbpmEJBTime
         
     }
 
+    @Override
+    protected void addResultMetrics(PerfResult result) {
+        for (int i = 0; i < BATCH_COUNT; i++) {
+            result.withMetric("batch" + i + ".startingSeconds", Duration.parse(startingTime[i]).toMillis() / 1000d);
+            result.withMetric("batch" + i + ".processingSeconds", Duration.parse(processTime[i]).toMillis() / 1000d);
+        }
+    }
+
     @Override
     protected void runSingleScenario() {
         logger.info("Starting {} batches", BATCH_COUNT);
@@ -90,7 +99,7 @@ public class JbpmEJBInterleavedTimersPerfIntegrationTest extends BaseJbpmEJBTime
             Duration maxDuration = Duration.between(startTime.plus(1, ChronoUnit.HOURS), Instant.MAX);
             Map<String, Object> params = Collections.singletonMap("timerDelay", TIMER_DELAY);
 
-            startAndWaitForStartingThreads(STARTING_THREADS_COUNT, maxDuration, PROCESSES_PER_THREAD, getStartingRunnable(CONTAINER_ID, ONE_TIMER_DURATION_PROCESS_ID, params));
+            startAndWaitForStartingThreads(STARTING_THREADS_COUNT, maxDuration, PROCESSES_PER_THREAD, getStartingOperation(CONTAINER_ID, ONE_TIMER_DURATION_PROCESS_ID, params));
             
             startingTime[i] = Duration.between(startTime, Instant.now()).toString();
             logger.info("Starting processes took: {}", startingTime[i]);
@@ -30,6 +30,7 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.kie.cloud.integrationtests.results.PerfResult;
 import org.kie.cloud.tests.common.time.TimeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,6 +70,12 @@ public class JbpmEJBSinglePointTimersPerfIntegrationTest extends BaseJbpmEJBTime
         
     }
 
+    @Override
+    protected void addResultMetrics(PerfResult result) {
+        result.withMetric("startingSeconds", Duration.parse(startingTime).toMillis() / 1000d);
+        result.withMetric("processingSeconds", Duration.parse(processTime).toMillis() / 1000d);
+    }
+
     @Override
     protected void runSingleScenario() {
         OffsetDateTime fireAtTime = calculateFireAtTime();
@@ -80,7 +87,7 @@ public class JbpmEJBSinglePointTimersPerfIntegrationTest extends BaseJbpmEJBTime
         
         logger.info("Starting timers-testing.OneTimerDate");
         
-        startAndWaitForStartingThreads(STARTING_THREADS_COUNT, maxDuration, PROCESSES_PER_THREAD, getStartingRunnable(CONTAINER_ID, "timers-testing.OneTimerDate", params));
+        startAndWaitForStartingThreads(STARTING_THREADS_COUNT, maxDuration, PROCESSES_PER_THREAD, getStartingOperation(CONTAINER_ID, "timers-testing.OneTimerDate", params));
         startingTime = Duration.between(startTime, Instant.now()).toString();
         logger.info("Starting processes took: {}", startingTime);
 
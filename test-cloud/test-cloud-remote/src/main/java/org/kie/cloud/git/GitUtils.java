@@ -14,7 +14,10 @@
  */
 package org.kie.cloud.git;
 
+import java.util.Optional;
+
 import org.kie.cloud.api.scenario.KieDeploymentScenario;
+import org.kie.cloud.openshift.scenario.TeardownQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,11 +34,17 @@ public final class GitUtils {
 
     /**
      * Delete the specified repository name using the git provider in the deploymentScenario.
+     * Repository is deleted in background if teardown queue is enabled.
      *
      * @param repositoryName repository to delete
      * @param deploymentScenario git provider to use
      */
     public static final void deleteGitRepository(String repositoryName, KieDeploymentScenario<?> deploymentScenario) {
+        Optional<TeardownQueue> teardownQueue = TeardownQueue.getInstance();
+        if (teardownQueue.isPresent()) {
+            teardownQueue.get().submit("GIT repository " + repositoryName, () -> deploymentScenario.getGitProvider().deleteGitRepository(repositoryName));
+            return;
+        }
         try {
             deploymentScenario.getGitProvider().deleteGitRepository(repositoryName);
         } catch (Exception ex) {
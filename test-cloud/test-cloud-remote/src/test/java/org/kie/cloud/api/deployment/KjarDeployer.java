@@ -15,12 +15,25 @@
  */
 package org.kie.cloud.api.deployment;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.kie.cloud.maven.MavenDeployer;
 import org.kie.cloud.tests.common.client.util.Kjar;
 
 public class KjarDeployer {
 
     private static final String KJAR_SOURCES_FOLDER = "/kjars-sources/";
+    private static final int MAX_PARALLEL_BUILDS = 4;
 
     private Kjar kjar;
 
@@ -38,4 +51,53 @@ public class KjarDeployer {
             MavenDeployer.buildAndDeployMavenProject(KjarDeployer.class.getResource(KJAR_SOURCES_FOLDER + kjar.getProjectName()).getFile(), repositoryDeployment);
         }
     }
+
+    /**
+     * Deploy kjars in parallel. Versions of the same artifact are deployed sequentially, as they share artifact metadata in the
+     * repository.
+     *
+     * @param kjars Kjars to deploy.
+     * @param repositoryDeployment Repository to deploy the kjars to.
+     */
+    public static void deployAll(Collection<Kjar> kjars, MavenRepositoryDeployment repositoryDeployment) {
+        Map<String, List<Kjar>> kjarsByArtifact = new LinkedHashMap<>();
+        kjars.forEach(kjar -> kjarsByArtifact.computeIfAbsent(kjar.getGroupId() + ":" + kjar.getArtifactName(), key -> new ArrayList<>()).add(kjar));
+        if (kjarsByArtifact.size() <= 1) {
+            kjars.forEach(kjar -> create(kjar).deploy(repositoryDeployment));
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(kjarsByArtifact.size(), MAX_PARALLEL_BUILDS), new KjarDeployerThreadFactory());
+        try {
+            List<Future<?>> deployments = new ArrayList<>();
+            for (List<Kjar> artifactKjars : kjarsByArtifact.values()) {
+                deployments.add(executor.submit(() -> artifactKjars.forEach(kjar -> create(kjar).deploy(repositoryDeployment))));
+            }
+            for (Future<?> deployment : deployments) {
+                deployment.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while deploying kjars", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Error while deploying kjars", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class KjarDeployerThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "kjar-deployer-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
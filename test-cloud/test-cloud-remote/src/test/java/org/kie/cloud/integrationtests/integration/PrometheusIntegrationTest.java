@@ -15,6 +15,7 @@
 
 package org.kie.cloud.integrationtests.integration;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -23,12 +24,16 @@ import cz.xtf.core.waiting.SupplierWaiter;
 import org.junit.Test;
 import org.kie.cloud.api.DeploymentScenarioBuilderFactory;
 import org.kie.cloud.api.deployment.PrometheusDeployment;
+import org.kie.cloud.api.deployment.prometheus.MetricSample;
 import org.kie.cloud.api.scenario.WorkbenchKieServerScenario;
 import org.kie.cloud.tests.common.AbstractMethodIsolatedCloudIntegrationTest;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class PrometheusIntegrationTest extends AbstractMethodIsolatedCloudIntegrationTest<WorkbenchKieServerScenario> {
 
-    private static final String PROMETHEUS_KIE_SERVER_STARTUP_TIME_SUFFIX = "/api/v1/query?query=kie_server_start_time";
+    private static final String KIE_SERVER_START_TIME_METRIC = "kie_server_start_time";
+    private static final String PROMETHEUS_KIE_SERVER_STARTUP_TIME_SUFFIX = "/api/v1/query?query=" + KIE_SERVER_START_TIME_METRIC;
 
     @Override
     protected WorkbenchKieServerScenario createDeploymentScenario(DeploymentScenarioBuilderFactory deploymentScenarioFactory) {
@@ -48,5 +53,13 @@ public class PrometheusIntegrationTest extends AbstractMethodIsolatedCloudIntegr
             return response.contains("kieserver") && response.contains("version") && response.contains("location") && response.contains("value") && response.contains("kie_server_start_time");
         };
         new SupplierWaiter<String>(() -> Https.getContent(prometheusKieServerStartupTimeUrl), doesResponseContainsStrings).reason("Waiting for Prometheus REST response to contain Kie server start time.").timeout(TimeUnit.MINUTES, 5L).waitFor();
+
+        List<MetricSample> startTimes = prometheusDeployment.query(KIE_SERVER_START_TIME_METRIC);
+        assertThat(startTimes).isNotEmpty();
+        assertThat(startTimes).allSatisfy(sample -> {
+            assertThat(sample.getLabel("location")).isNotEmpty();
+            assertThat(sample.getLabel("version")).isNotEmpty();
+            assertThat(sample.getValue()).isPositive();
+        });
     }
 }
@@ -15,7 +15,11 @@
  */
 package org.kie.cloud.integrationtests.s2i.jms;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.AfterClass;
 import org.junit.Assume;
@@ -25,6 +29,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.kie.cloud.api.scenario.WorkbenchRuntimeSmartRouterImmutableKieServerAmqWithDatabaseScenario;
 import org.kie.cloud.api.settings.GitSettings;
+import org.kie.cloud.common.jms.KieServerJmsPipeline;
 import org.kie.cloud.common.provider.KieServerClientProvider;
 import org.kie.cloud.git.GitUtils;
 import org.kie.cloud.integrationtests.category.JBPMOnly;
@@ -36,8 +41,12 @@ import org.kie.cloud.tests.common.AbstractCloudIntegrationTest;
 import org.kie.cloud.tests.common.ScenarioDeployer;
 import org.kie.cloud.tests.common.client.util.Kjar;
 import org.kie.cloud.tests.common.time.Constants;
+import org.kie.server.api.commands.CommandScript;
+import org.kie.server.api.commands.ListContainersCommand;
 import org.kie.server.api.model.KieContainerResource;
+import org.kie.server.api.model.KieServiceResponse.ResponseType;
 import org.kie.server.api.model.ReleaseId;
+import org.kie.server.api.model.ServiceResponsesList;
 import org.kie.server.api.model.instance.ProcessInstance;
 import org.kie.server.api.model.instance.TaskSummary;
 import org.kie.server.client.KieServicesClient;
@@ -65,6 +74,8 @@ public class KieServerS2iAmqJbpmIntegrationTest extends AbstractCloudIntegration
     private static final String REPO_BRANCH = "master";
     private static final String PROJECT_SOURCE_FOLDER = "/kjars-sources";
 
+    private static final int PIPELINED_REQUESTS = 200;
+
     @BeforeClass
     public static void initializeDeployment() {
         try {
@@ -128,6 +139,21 @@ public class KieServerS2iAmqJbpmIntegrationTest extends AbstractCloudIntegration
         assertThat(userTaskPi.getState()).isEqualTo(org.kie.api.runtime.process.ProcessInstance.STATE_COMPLETED);
     }
 
+    @Test
+    public void testPipelinedRequests() {
+        try (KieServerJmsPipeline pipeline = KieServerClientProvider.getKieServerJmsPipeline(deploymentScenario.getAmqDeployment().getTcpSslUrl(),
+                                                                                             Collections.emptySet())) {
+            List<CompletableFuture<ServiceResponsesList>> responses = IntStream.range(0, PIPELINED_REQUESTS)
+                    .mapToObj(i -> pipeline.send(new CommandScript(Collections.singletonList(new ListContainersCommand())), null, null))
+                    .collect(Collectors.toList());
+
+            assertThat(responses).extracting(CompletableFuture::join)
+                                 .flatExtracting(ServiceResponsesList::getResponses)
+                                 .hasSize(PIPELINED_REQUESTS)
+                                 .allSatisfy(response -> assertThat(response.getType()).isEqualTo(ResponseType.SUCCESS));
+        }
+    }
+
     @Test
     public void testKieServerHttps() {
         httpsKieServerTestProvider.testKieServerInfo(deploymentScenario.getKieServerDeployment(), false);
@@ -26,9 +26,11 @@ import org.kie.cloud.api.deployment.CommandExecutionResult;
 import org.kie.cloud.api.deployment.Deployment;
 import org.kie.cloud.api.deployment.constants.DeploymentConstants;
 import org.kie.cloud.api.scenario.WorkbenchKieServerScenario;
+import org.kie.cloud.api.scenario.builder.WorkbenchKieServerScenarioBuilder;
 import org.kie.cloud.common.provider.KieServerClientProvider;
 import org.kie.cloud.integrationtests.category.Smoke;
 import org.kie.cloud.tests.common.AbstractMethodIsolatedCloudIntegrationTest;
+import org.kie.cloud.tests.common.pool.ScenarioFingerprint;
 import org.kie.cloud.tests.common.time.TimeUtils;
 import org.kie.server.client.KieServicesClient;
 import org.slf4j.Logger;
@@ -52,6 +54,12 @@ public class ImageVersionIntegrationTest extends AbstractMethodIsolatedCloudInte
         return deploymentScenarioFactory.getWorkbenchKieServerScenarioBuilder().build();
     }
 
+    @Override
+    protected ScenarioFingerprint getScenarioFingerprint() {
+        // Test only reads image versions, so the default scenario can be shared
+        return ScenarioFingerprint.forBuilder(WorkbenchKieServerScenarioBuilder.class);
+    }
+
     @Test
     public void testImageVersions() {
         assertSoftly(softly -> {
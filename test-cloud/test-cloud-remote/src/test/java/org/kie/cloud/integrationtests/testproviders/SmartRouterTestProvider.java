@@ -15,6 +15,7 @@
  */
 package org.kie.cloud.integrationtests.testproviders;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -78,8 +79,7 @@ public class SmartRouterTestProvider {
     }
 
     private void init(DeploymentScenario<?> deploymentScenario) {
-        KjarDeployer.create(Kjar.DEFINITION_SNAPSHOT).deploy(deploymentScenario.getMavenRepositoryDeployment());
-        KjarDeployer.create(Kjar.DEFINITION_101_SNAPSHOT).deploy(deploymentScenario.getMavenRepositoryDeployment());
+        KjarDeployer.deployAll(Arrays.asList(Kjar.DEFINITION_SNAPSHOT, Kjar.DEFINITION_101_SNAPSHOT), deploymentScenario.getMavenRepositoryDeployment());
     }
 
     public void testRouterLoadBalancing(WorkbenchDeployment workbenchDeployment,